@@ -0,0 +1,3 @@
+#!/bin/bash
+# Lets the replica container stream WAL from the primary with the application user.
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
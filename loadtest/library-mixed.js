@@ -0,0 +1,45 @@
+// Mixed read/borrow load against a running instance.
+// Usage: k6 run -e BASE_URL=http://localhost:8080 -e VUS=400 loadtest/library-mixed.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MEMBERS = Number(__ENV.MEMBERS || 5);
+const BOOKS = Number(__ENV.BOOKS || 5);
+
+export const options = {
+    scenarios: {
+        mixed: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.VUS || 400),
+            duration: __ENV.DURATION || '2m',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        'http_req_duration{kind:read}': ['p(99)<500'],
+    },
+};
+
+function randomId(max) {
+    return 1 + Math.floor(Math.random() * max);
+}
+
+export default function () {
+    const roll = Math.random();
+    if (roll < 0.7) {
+        const res = http.get(`${BASE_URL}/api/books/v1/${randomId(BOOKS)}`, { tags: { kind: 'read' } });
+        check(res, { 'read ok': (r) => r.status === 200 || r.status === 404 });
+    } else if (roll < 0.9) {
+        const res = http.get(`${BASE_URL}/api/books/v1/page?size=50`, { tags: { kind: 'read' } });
+        check(res, { 'page ok': (r) => r.status === 200 });
+    } else {
+        const body = JSON.stringify({ memberId: randomId(MEMBERS), bookId: randomId(BOOKS) });
+        const params = { headers: { 'Content-Type': 'application/json' }, tags: { kind: 'write' } };
+        const borrow = http.post(`${BASE_URL}/api/books/v1/borrow`, body, params);
+        if (borrow.status === 200) {
+            http.post(`${BASE_URL}/api/books/v1/return`, body, params);
+        }
+        check(borrow, { 'borrow handled': (r) => r.status < 500 || r.status === 503 });
+    }
+}
@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# Starts the application, reports its time to readiness and to the first successful request, then runs the
+# mixed load test and reports when the request rate first reaches 90% of its rate over the last 30 seconds.
+# Usage: loadtest/startup.sh [java options] -jar target/java-backend.jar [application arguments]
+# Environment: BASE_URL (http://localhost:8080), VUS (400), DURATION (2m)
+set -euo pipefail
+
+BASE_URL=${BASE_URL:-http://localhost:8080}
+RESULTS=$(mktemp)
+trap 'kill "${APP:-}" 2>/dev/null; rm -f "$RESULTS"' EXIT
+
+millis() { date +%s%3N; }
+wait_for() {
+    until curl -fs -o /dev/null "$1"; do
+        kill -0 "$APP" 2>/dev/null || { echo "application exited" >&2; exit 1; }
+        sleep 0.05
+    done
+    echo $(( $(millis) - START ))
+}
+
+START=$(millis)
+java "$@" > startup-app.log 2>&1 &
+APP=$!
+
+FIRST_REQUEST=$(wait_for "$BASE_URL/api/books/v1/summary?size=1")
+READY=$(wait_for "$BASE_URL/actuator/health/readiness")
+echo "time to first request: $FIRST_REQUEST ms"
+echo "time to readiness:     $READY ms"
+
+k6 run -q -e BASE_URL="$BASE_URL" --out csv="$RESULTS" "$(dirname "$0")/library-mixed.js" > /dev/null || true
+
+awk -F, -v start="$START" '
+    $1 == "http_reqs" { second = int($2); count[second]++; if (!first || second < first) first = second;
+                        if (second > last) last = second }
+    END {
+        for (s = last - 29; s <= last; s++) steady += count[s]
+        steady /= 30
+        for (s = first + 4; s <= last; s++) {
+            window = (count[s] + count[s - 1] + count[s - 2] + count[s - 3] + count[s - 4]) / 5
+            if (window >= 0.9 * steady) {
+                printf "steady throughput:     %.0f req/s, reached %d s into the load (%d s after start)\n",
+                       steady, s - first, s - int(start / 1000)
+                exit
+            }
+        }
+        printf "steady throughput:     %.0f req/s, not reached\n", steady
+    }' "$RESULTS"
@@ -0,0 +1,104 @@
+package org.example.nerdysoft.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.example.nerdysoft.NerdysoftApplication;
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.entity.Book;
+import org.example.nerdysoft.model.entity.Member;
+import org.example.nerdysoft.output.persistent.BookRepository;
+import org.example.nerdysoft.output.persistent.MemberRepository;
+import org.example.nerdysoft.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Measures a borrow followed by a return through the transactional {@link BookService}
+ * against an in-memory H2 database in PostgreSQL mode.
+ *
+ * <p>The numbers include Spring transaction and repository overhead but not PostgreSQL itself,
+ * so they are only comparable with other runs of this benchmark.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BorrowReturnBenchmark {
+
+    private static final int MEMBERS = 100;
+    private static final int BOOKS = 100;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private List<BorrowRequestDto> requests;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(NerdysoftApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.liquibase.enabled=false",
+                        "--logging.level.root=WARN");
+        bookService = context.getBean(BookService.class);
+
+        List<Member> members = new ArrayList<>(MEMBERS);
+        for (int i = 0; i < MEMBERS; i++) {
+            members.add(new Member("Member " + i, LocalDate.of(2024, 1, 15), new HashSet<>()));
+        }
+        members = context.getBean(MemberRepository.class).saveAll(members);
+        List<Book> books = new ArrayList<>(BOOKS);
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = new Book();
+            book.setTitle(CatalogFixtures.title(i));
+            book.setAuthor("Jane Austen");
+            book.setAmount(MEMBERS);
+            books.add(book);
+        }
+        books = context.getBean(BookRepository.class).saveAll(books);
+
+        requests = new ArrayList<>(MEMBERS * BOOKS);
+        for (Member member : members) {
+            for (Book book : books) {
+                requests.add(new BorrowRequestDto(member.getId(), book.getId()));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void borrowAndReturn() {
+        BorrowRequestDto request = requests.get(next);
+        next = (next + 1) % requests.size();
+        bookService.borrowBook(request);
+        bookService.returnBook(request);
+    }
+}
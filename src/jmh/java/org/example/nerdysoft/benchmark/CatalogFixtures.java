@@ -0,0 +1,92 @@
+package org.example.nerdysoft.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.example.nerdysoft.model.entity.Book;
+import org.example.nerdysoft.model.entity.Member;
+
+/**
+ * Builds detached book and member graphs in which every book is borrowed by a fixed number of members.
+ */
+final class CatalogFixtures {
+
+    private static final LocalDate MEMBERSHIP_DATE = LocalDate.of(2024, 1, 15);
+    private static final int LETTERS = 26;
+
+    private CatalogFixtures() {
+    }
+
+    /**
+     * Creates members and books and links each book to {@code borrowersPerBook} members, round-robin.
+     *
+     * @param bookCount the number of books to create.
+     * @param memberCount the number of members to create.
+     * @param borrowersPerBook the number of members borrowing each book.
+     * @return the created books, each referencing its borrowers.
+     */
+    static List<Book> books(int bookCount, int memberCount, int borrowersPerBook) {
+        List<Member> members = members(memberCount);
+        List<Book> books = new ArrayList<>(bookCount);
+        for (int i = 0; i < bookCount; i++) {
+            Book book = new Book();
+            book.setId((long) i + 1);
+            book.setTitle("Benchmark Book " + i);
+            book.setAuthor("Jane Austen");
+            book.setAmount(borrowersPerBook + 1);
+            book.setBorrowers(new HashSet<>());
+            for (int j = 0; j < borrowersPerBook; j++) {
+                book.getBorrowers().add(members.get((i + j) % memberCount));
+            }
+            books.add(book);
+        }
+        for (Book book : books) {
+            for (Member member : book.getBorrowers()) {
+                member.getBorrowedBooks().add(book);
+            }
+        }
+        return books;
+    }
+
+    /**
+     * Names a benchmark book after its index with a letters-only suffix ({@code A}, {@code B}, ..., {@code Z},
+     * {@code BA}, ...), so the titles are unique and still pass the entity's title pattern.
+     *
+     * @param index the zero-based index of the book.
+     * @return the title of the book.
+     */
+    static String title(int index) {
+        StringBuilder suffix = new StringBuilder();
+        int rest = index;
+        do {
+            suffix.append((char) ('A' + rest % LETTERS));
+            rest /= LETTERS;
+        } while (rest > 0);
+        return "Benchmark Book " + suffix.reverse();
+    }
+
+    /**
+     * Collects the distinct borrowers of the given books.
+     *
+     * @param books the books built by {@link #books(int, int, int)}.
+     * @return the members borrowing at least one of the books.
+     */
+    static List<Member> borrowers(List<Book> books) {
+        return books.stream()
+                .flatMap(book -> book.getBorrowers().stream())
+                .distinct()
+                .toList();
+    }
+
+    private static List<Member> members(int memberCount) {
+        List<Member> members = new ArrayList<>(memberCount);
+        for (int i = 0; i < memberCount; i++) {
+            Member member = new Member("Member " + i, MEMBERSHIP_DATE, new HashSet<>());
+            member.setId((long) i + 1);
+            members.add(member);
+        }
+        return members;
+    }
+}
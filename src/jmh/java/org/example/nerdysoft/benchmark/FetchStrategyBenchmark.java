@@ -0,0 +1,228 @@
+package org.example.nerdysoft.benchmark;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.example.nerdysoft.NerdysoftApplication;
+import org.example.nerdysoft.model.dto.BookDetailedDto;
+import org.example.nerdysoft.model.dto.MemberDetailedDto;
+import org.example.nerdysoft.model.entity.Book;
+import org.example.nerdysoft.model.entity.Member;
+import org.example.nerdysoft.service.BookService;
+import org.example.nerdysoft.service.MemberService;
+import org.example.nerdysoft.service.mapper.BookMapper;
+import org.example.nerdysoft.service.mapper.MemberMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Compares loading the whole catalog with a single {@code LEFT JOIN FETCH} over all books, as
+ * {@code findAllWithBorrowers} used to, against the keyset pages with batch-fetched children that
+ * {@link BookService#getAllBooks()} and {@link MemberService#getAllMembers()} use now.
+ *
+ * <p>The default dataset is 100k books, 10k members and 1M loans, so every book has ten borrowers
+ * and every member a hundred borrowed books.</p>
+ *
+ * <p>The benchmark runs on an in-memory H2 database unless the {@code benchmark.jdbc-url} system property
+ * (with {@code benchmark.jdbc-username} and {@code benchmark.jdbc-password}) points it at a PostgreSQL
+ * server. There it creates a scratch schema named {@code fetch_benchmark_<timestamp>}, builds it with
+ * Liquibase, replaces the sample rows of the changesets with the dataset, analyzes it and drops the schema
+ * at the end of the trial, so the tables already in the database are never touched. The standard
+ * {@code SPRING_DATASOURCE_*} settings are ignored.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class FetchStrategyBenchmark {
+
+    private static final int INSERT_BATCH = 10_000;
+    private static final int ID_ALLOCATION_SIZE = 50;
+    private static final String JDBC_URL = System.getProperty("benchmark.jdbc-url", "");
+    private static final String JDBC_USERNAME = System.getProperty("benchmark.jdbc-username", "");
+    private static final String JDBC_PASSWORD = System.getProperty("benchmark.jdbc-password", "");
+    private static final boolean ON_H2 = JDBC_URL.isBlank();
+
+    @Param("100000")
+    private int books;
+
+    @Param("10000")
+    private int members;
+
+    @Param("10")
+    private int borrowersPerBook;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private MemberService memberService;
+    private BookMapper bookMapper;
+    private MemberMapper memberMapper;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+    private JdbcTemplate jdbcTemplate;
+    private String schema;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--logging.level.root=WARN"));
+        if (ON_H2) {
+            args.addAll(List.of(
+                    "--spring.datasource.url=jdbc:h2:mem:fetch;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                    "--spring.jpa.hibernate.ddl-auto=create-drop",
+                    "--spring.liquibase.enabled=false"));
+        } else {
+            if (!JDBC_URL.startsWith("jdbc:postgresql:")) {
+                throw new IllegalStateException("benchmark.jdbc-url must point at PostgreSQL: " + JDBC_URL);
+            }
+            schema = "fetch_benchmark_" + System.currentTimeMillis();
+            execute("CREATE SCHEMA " + schema);
+            args.addAll(List.of(
+                    "--spring.datasource.url=" + JDBC_URL + (JDBC_URL.contains("?") ? "&" : "?")
+                            + "currentSchema=" + schema,
+                    "--spring.datasource.username=" + JDBC_USERNAME,
+                    "--spring.datasource.password=" + JDBC_PASSWORD,
+                    "--spring.liquibase.enabled=true",
+                    "--spring.liquibase.default-schema=" + schema));
+        }
+        context = new SpringApplicationBuilder(NerdysoftApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+        bookService = context.getBean(BookService.class);
+        memberService = context.getBean(MemberService.class);
+        bookMapper = context.getBean(BookMapper.class);
+        memberMapper = context.getBean(MemberMapper.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        if (!ON_H2) {
+            jdbcTemplate.execute("TRUNCATE member_books, holds, loan_event_outbox, loan_events, books, members");
+        }
+        seed(jdbcTemplate);
+        if (!ON_H2) {
+            jdbcTemplate.execute("ANALYZE books, members, member_books");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        context.close();
+        if (!ON_H2) {
+            execute("DROP SCHEMA " + schema + " CASCADE");
+        }
+    }
+
+    @Benchmark
+    public List<BookDetailedDto> booksFetchJoin() {
+        return readOnlyTransaction.execute(status -> entityManager
+                .createQuery("SELECT DISTINCT b FROM Book b LEFT JOIN FETCH b.borrowers", Book.class)
+                .getResultStream()
+                .map(bookMapper::toDto)
+                .toList());
+    }
+
+    @Benchmark
+    public List<BookDetailedDto> booksBatchFetch() {
+        return bookService.getAllBooks();
+    }
+
+    @Benchmark
+    public List<MemberDetailedDto> membersFetchJoin() {
+        return readOnlyTransaction.execute(status -> entityManager
+                .createQuery("SELECT DISTINCT m FROM Member m LEFT JOIN FETCH m.borrowedBooks", Member.class)
+                .getResultStream()
+                .map(memberMapper::toDto)
+                .toList());
+    }
+
+    @Benchmark
+    public List<MemberDetailedDto> membersBatchFetch() {
+        return memberService.getAllMembers();
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        Date membershipDate = Date.valueOf(LocalDate.of(2024, 1, 15));
+        List<Object[]> rows = new ArrayList<>(INSERT_BATCH);
+        for (long id = 1; id <= members; id++) {
+            rows.add(new Object[]{id, "Member " + id, membershipDate});
+            rows = flush(jdbcTemplate, "INSERT INTO members (id, name, membership_date) VALUES (?, ?, ?)", rows);
+        }
+        flushAll(jdbcTemplate, "INSERT INTO members (id, name, membership_date) VALUES (?, ?, ?)", rows);
+
+        rows = new ArrayList<>(INSERT_BATCH);
+        for (long id = 1; id <= books; id++) {
+            rows.add(new Object[]{id, "Benchmark Book " + id, "Jane Austen", borrowersPerBook + 1});
+            rows = flush(jdbcTemplate, "INSERT INTO books (id, title, author, amount) VALUES (?, ?, ?, ?)", rows);
+        }
+        flushAll(jdbcTemplate, "INSERT INTO books (id, title, author, amount) VALUES (?, ?, ?, ?)", rows);
+
+        rows = new ArrayList<>(INSERT_BATCH);
+        for (long bookId = 1; bookId <= books; bookId++) {
+            for (int j = 0; j < borrowersPerBook; j++) {
+                rows.add(new Object[]{(bookId + j) % members + 1, bookId});
+                rows = flush(jdbcTemplate, "INSERT INTO member_books (member_id, book_id) VALUES (?, ?)", rows);
+            }
+        }
+        flushAll(jdbcTemplate, "INSERT INTO member_books (member_id, book_id) VALUES (?, ?)", rows);
+
+        // Hibernate's pooled optimizer hands out the block of ids ending at each value it reads, so the next
+        // value has to be a whole block past the seeded ids.
+        jdbcTemplate.execute("ALTER SEQUENCE members_seq RESTART WITH " + (members + ID_ALLOCATION_SIZE));
+        jdbcTemplate.execute("ALTER SEQUENCE books_seq RESTART WITH " + (books + ID_ALLOCATION_SIZE));
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(JDBC_URL, JDBC_USERNAME, JDBC_PASSWORD);
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static List<Object[]> flush(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows) {
+        if (rows.size() < INSERT_BATCH) {
+            return rows;
+        }
+        jdbcTemplate.batchUpdate(sql, rows);
+        return new ArrayList<>(INSERT_BATCH);
+    }
+
+    private static void flushAll(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.nerdysoft.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.example.nerdysoft.model.dto.BookDetailedDto;
+import org.example.nerdysoft.service.mapper.BookMapper;
+import org.example.nerdysoft.service.mapper.BookMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Measures Jackson serialization of {@link BookDetailedDto} lists as returned by the catalog endpoints,
+ * using the same object mapper defaults as the web layer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"50", "500"})
+    private int bookCount;
+
+    @Param({"0", "10"})
+    private int borrowersPerBook;
+
+    private ObjectWriter writer;
+    private List<BookDetailedDto> books;
+
+    @Setup
+    public void setUp() {
+        BookMapper bookMapper = new BookMapperImpl();
+        writer = Jackson2ObjectMapperBuilder.json().build().writerFor(List.class);
+        books = CatalogFixtures.books(bookCount, bookCount, borrowersPerBook).stream()
+                .map(bookMapper::toDto)
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serializeBookList() throws JsonProcessingException {
+        return writer.writeValueAsBytes(books);
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.nerdysoft.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.example.nerdysoft.NerdysoftApplication;
+import org.example.nerdysoft.model.dto.BookDetailedDto;
+import org.example.nerdysoft.model.dto.BookMainInfoDto;
+import org.example.nerdysoft.model.dto.CursorPageDto;
+import org.example.nerdysoft.model.entity.Book;
+import org.example.nerdysoft.output.persistent.BookRepository;
+import org.example.nerdysoft.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Compares a page of fully hydrated and mapped books with a page of projected book summaries.
+ * Run with the {@code gc} profiler to compare {@code gc.alloc.rate.norm}, the bytes allocated per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListProjectionBenchmark {
+
+    private static final int BOOKS = 500;
+    private static final int PAGE_SIZE = 500;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(NerdysoftApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:projection;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.liquibase.enabled=false",
+                        "--logging.level.root=WARN");
+        bookService = context.getBean(BookService.class);
+
+        List<Book> books = new ArrayList<>(BOOKS);
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = new Book();
+            book.setTitle(CatalogFixtures.title(i));
+            book.setAuthor("Jane Austen");
+            book.setAmount(3);
+            books.add(book);
+        }
+        context.getBean(BookRepository.class).saveAll(books);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CursorPageDto<BookDetailedDto> detailedPage() {
+        return bookService.getBooksPage(null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPageDto<BookMainInfoDto> summaryPage() {
+        return bookService.getBookSummariesPage(null, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.nerdysoft.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.example.nerdysoft.model.dto.BookDetailedDto;
+import org.example.nerdysoft.service.mapper.BookMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+
+/**
+ * Measures the throughput of request threads logging a write, through a synchronous file appender versus the
+ * bounded asynchronous appender of {@code logback-spring.xml}, and with the former whole-DTO message versus the
+ * id-only key-value message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class LoggingBenchmark {
+
+    @Param({"sync", "async"})
+    private String appender;
+
+    @Param({"dto", "ids"})
+    private String message;
+
+    private LoggerContext context;
+    private Logger logger;
+    private Path logFile;
+    private BookDetailedDto book;
+    private boolean logDto;
+
+    @Setup
+    public void setUp() throws IOException {
+        book = new BookMapperImpl().toDto(CatalogFixtures.books(1, 10, 10).get(0));
+        logDto = "dto".equals(message);
+        logFile = Files.createTempFile("logging-benchmark", ".log");
+        context = new LoggerContext();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{ISO8601} %5level [%thread] %logger{40} : %msg%n");
+        encoder.start();
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setFile(logFile.toString());
+        file.setEncoder(encoder);
+        file.start();
+
+        logger = context.getLogger(LoggingBenchmark.class);
+        logger.setAdditive(false);
+        if ("async".equals(appender)) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1024);
+            async.addAppender(file);
+            async.start();
+            logger.addAppender(async);
+        } else {
+            logger.addAppender(file);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public void logSave() {
+        if (logDto) {
+            logger.info("Saving book: {}", book);
+        } else {
+            logger.atInfo().addKeyValue("bookId", book.getId()).log("Saving book with id: {}", book.getId());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.nerdysoft.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.example.nerdysoft.model.dto.BookDetailedDto;
+import org.example.nerdysoft.model.dto.MemberDetailedDto;
+import org.example.nerdysoft.model.entity.Book;
+import org.example.nerdysoft.model.entity.Member;
+import org.example.nerdysoft.service.mapper.BookMapper;
+import org.example.nerdysoft.service.mapper.BookMapperImpl;
+import org.example.nerdysoft.service.mapper.MemberMapper;
+import org.example.nerdysoft.service.mapper.MemberMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures MapStruct entity-to-DTO mapping of whole catalog pages with their borrower graphs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"100", "1000"})
+    private int bookCount;
+
+    @Param({"0", "10"})
+    private int borrowersPerBook;
+
+    private final BookMapper bookMapper = new BookMapperImpl();
+    private final MemberMapper memberMapper = new MemberMapperImpl();
+
+    private List<Book> books;
+    private List<Member> members;
+
+    @Setup
+    public void setUp() {
+        books = CatalogFixtures.books(bookCount, bookCount, borrowersPerBook);
+        members = CatalogFixtures.borrowers(books);
+    }
+
+    @Benchmark
+    public List<BookDetailedDto> bookToDto() {
+        List<BookDetailedDto> dtos = new ArrayList<>(books.size());
+        for (Book book : books) {
+            dtos.add(bookMapper.toDto(book));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<MemberDetailedDto> memberToDto() {
+        List<MemberDetailedDto> dtos = new ArrayList<>(members.size());
+        for (Member member : members) {
+            dtos.add(memberMapper.toDto(member));
+        }
+        return dtos;
+    }
+}
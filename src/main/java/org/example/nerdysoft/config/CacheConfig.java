@@ -0,0 +1,42 @@
+package org.example.nerdysoft.config;
+
+import java.util.List;
+
+import org.example.nerdysoft.constant.CacheConstants;
+import org.example.nerdysoft.service.cache.CatalogCache;
+import org.example.nerdysoft.service.cache.CatalogChanges;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Bounded Caffeine caches for catalog reads.
+ * Evictions are deferred until the surrounding transaction commits, so a reader running during the
+ * transaction cannot re-populate an entry before the change is visible. A reader that loaded the old
+ * data before the commit cannot put it back afterwards either: every entry is a {@link CatalogCache}, which
+ * stops serving it once {@link CatalogChanges} records a change to anything it shows.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(@Value("${library.cache.spec}") String cacheSpec, CatalogChanges changes) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name,
+                                               com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new CatalogCache(name, cache, changes);
+            }
+        };
+        caffeineCacheManager.setCacheSpecification(cacheSpec);
+        caffeineCacheManager.setCacheNames(List.of(CacheConstants.BOOKS_CACHE, CacheConstants.MEMBERS_CACHE,
+                CacheConstants.MEMBER_BORROWED_BOOKS_CACHE));
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
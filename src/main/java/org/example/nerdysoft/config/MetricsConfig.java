@@ -0,0 +1,24 @@
+package org.example.nerdysoft.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Metrics that are not covered by Spring Boot's auto-configuration.
+ *
+ * <p>HTTP endpoints ({@code http.server.requests}), Spring Data repository methods
+ * ({@code spring.data.repository.invocations}), the Hikari pool ({@code hikaricp.*}) and Hibernate
+ * statistics ({@code hibernate.*}) are instrumented automatically. This configuration adds support for
+ * {@link io.micrometer.core.annotation.Timed} on plain beans such as the JDBC repositories.</p>
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.nerdysoft.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalEventPublisher;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.spi.ConnectionFactory;
+
+/**
+ * Infrastructure of the reactive stack, which serves the book and member APIs when the application runs
+ * with the {@code reactive} profile.
+ *
+ * <p>Requests are served by Netty although Tomcat stays on the classpath for the servlet stack. The R2DBC
+ * transaction manager is only reachable through the {@link TransactionalOperator}; it is not a bean, so
+ * {@code @Transactional} methods of the background jobs keep resolving the single JPA transaction manager.
+ * Events published with the {@link TransactionalEventPublisher} reach the existing
+ * {@code @TransactionalEventListener}s once the reactive transaction commits.</p>
+ *
+ * <p>Spring Boot drops its JDBC data source as soon as an R2DBC connection factory exists, so the Hikari pool
+ * of JPA, Liquibase and the background jobs is declared here, configured by {@code spring.datasource.*} as
+ * before.</p>
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "library.datasource.replicas.enabled", havingValue = "false", matchIfMissing = true)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public NettyReactiveWebServerFactory reactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    @Bean
+    public TransactionalEventPublisher transactionalEventPublisher(ApplicationEventPublisher eventPublisher) {
+        return new TransactionalEventPublisher(eventPublisher);
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.nerdysoft.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.example.nerdysoft.output.persistent.routing.Replica;
+import org.example.nerdysoft.output.persistent.routing.ReplicaLagMonitor;
+import org.example.nerdysoft.output.persistent.routing.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseDataSource;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Splits reads and writes between the primary and its streaming replicas when
+ * {@code library.datasource.replicas.enabled} is set.
+ *
+ * <p>The primary pool is configured by {@code spring.datasource.*} as before and also runs the Liquibase
+ * migrations. Each URL in {@code library.datasource.replicas.urls} gets a read-only pool with the same
+ * credentials. JPA and {@code JdbcTemplate} see a single routing data source that sends read-only transactions
+ * to a replica whose lag is within {@code library.datasource.replicas.max-lag}.</p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "library.datasource.replicas.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @LiquibaseDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                      DataSourceProperties properties, MeterRegistry meterRegistry,
+                                                      @Value("${library.datasource.replicas.urls}") List<String> urls,
+                                                      @Value("${library.datasource.replicas.maximum-pool-size:10}")
+                                                      int maxPoolSize,
+                                                      @Value("${library.datasource.replicas.max-lag:PT1S}")
+                                                      Duration maxLag) {
+        List<Replica> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            replicas.add(new Replica("replica-" + i,
+                    replicaPool("replica-" + i, urls.get(i), properties, maxPoolSize, meterRegistry)));
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, maxLag, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+                                               ReplicaRoutingDataSource routingDataSource,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(primary, routingDataSource.getReplicas(), meterRegistry);
+    }
+
+    private static HikariDataSource replicaPool(String name, String url, DataSourceProperties properties,
+                                                int maxPoolSize, MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(properties.determineUsername());
+        dataSource.setPassword(properties.determinePassword());
+        dataSource.setMaximumPoolSize(maxPoolSize);
+        dataSource.setReadOnly(true);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.nerdysoft.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@link org.springframework.scheduling.annotation.Scheduled} background jobs such as
+ * the overdue loan sweeper, the loan event relay, the availability index check and the replica lag monitor.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,7 @@
+package org.example.nerdysoft.constant;
+
+public class CacheConstants {
+    public static final String BOOKS_CACHE = "books";
+    public static final String MEMBERS_CACHE = "members";
+    public static final String MEMBER_BORROWED_BOOKS_CACHE = "memberBorrowedBooks";
+}
@@ -9,4 +9,17 @@ public class MessageConstants {
     public static final String BOOK_NOT_RETURNED_MESSAGE = "Book is currently borrowed and cannot be deleted";
     public static final String BOOK_NOT_BORROWED_BY_MEMBER_MESSAGE = "Book not borrowed by member";
     public static final String MEMBER_HAS_BORROWED_BOOKS_MESSAGE = "Member has borrowed books and cannot be deleted";
+    public static final String BOOK_ALREADY_BORROWED_MESSAGE = "Book is already borrowed by member";
+    public static final String BATCH_SIZE_EXCEEDED_MESSAGE = "Batch size exceeds the maximum of ";
+    public static final String INVALID_CURSOR_MESSAGE = "Invalid page cursor: ";
+    public static final String HOLD_NOT_FOUND_MESSAGE = "Hold not found with id: ";
+    public static final String BOOK_AVAILABLE_MESSAGE = "Book has copies available, borrow it instead";
+    public static final String HOLD_ALREADY_PLACED_MESSAGE = "Member is already waiting for this book";
+    public static final String BOOK_ALREADY_EXISTS_MESSAGE = "Another book with this title and author already exists";
+    public static final String DATABASE_BUSY_MESSAGE = "Too many concurrent database requests, please retry";
+    public static final String SUBSCRIBER_LIMIT_EXCEEDED_MESSAGE = "Too many stream subscribers, please retry";
+    public static final String UNSUPPORTED_CATALOG_FORMAT_MESSAGE = "Unsupported catalog format: ";
+    public static final String INVALID_CATALOG_FILE_MESSAGE = "Cannot read catalog file: ";
+    public static final String INVALID_AMOUNT_MESSAGE = "Amount should be a whole number";
+    public static final String MALFORMED_ROW_MESSAGE = "Malformed row: ";
 }
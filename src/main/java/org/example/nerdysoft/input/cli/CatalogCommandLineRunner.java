@@ -0,0 +1,68 @@
+package org.example.nerdysoft.input.cli;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.example.nerdysoft.model.dto.CatalogImportResultDto;
+import org.example.nerdysoft.service.CatalogService;
+import org.example.nerdysoft.service.catalog.CatalogFormat;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Imports and exports the catalog from the command line and shuts the application down afterwards, e.g.
+ * {@code java -jar target/java-backend.jar --spring.main.web-application-type=none --catalog.import=books.csv}.
+ * The format follows the file extension: {@code .csv}, {@code .ndjson} or {@code .jsonl}.
+ * Imports run before exports; without either option the application starts as usual.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogCommandLineRunner implements ApplicationRunner {
+
+    static final String IMPORT_OPTION = "catalog.import";
+    static final String EXPORT_OPTION = "catalog.export";
+
+    private final CatalogService catalogService;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        List<String> imports = optionValues(args, IMPORT_OPTION);
+        List<String> exports = optionValues(args, EXPORT_OPTION);
+        if (imports.isEmpty() && exports.isEmpty()) {
+            return;
+        }
+        for (String file : imports) {
+            CatalogFormat format = CatalogFormat.fromFileName(file);
+            try (InputStream input = new BufferedInputStream(Files.newInputStream(Path.of(file)))) {
+                CatalogImportResultDto result = catalogService.importBooks(input, format);
+                log.info("Imported {}: {}", file, result);
+            }
+        }
+        for (String file : exports) {
+            CatalogFormat format = CatalogFormat.fromFileName(file);
+            try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(Path.of(file)))) {
+                catalogService.exportBooks(output, format);
+            }
+            log.info("Exported catalog to {}", file);
+        }
+        context.close();
+    }
+
+    private static List<String> optionValues(ApplicationArguments args, String name) {
+        List<String> values = args.getOptionValues(name);
+        return values == null ? List.of() : values;
+    }
+}
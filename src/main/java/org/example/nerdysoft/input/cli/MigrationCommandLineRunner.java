@@ -0,0 +1,30 @@
+package org.example.nerdysoft.input.cli;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Shuts the application down once Liquibase has migrated the database, so that a deployment can run the
+ * migrations as a one-off job, e.g. {@code java -jar target/java-backend.jar --spring.profiles.active=migrate},
+ * and start the serving instances without them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "library.migration-job.enabled", havingValue = "true")
+public class MigrationCommandLineRunner implements ApplicationRunner {
+
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Database migrated, shutting down");
+        context.close();
+    }
+}
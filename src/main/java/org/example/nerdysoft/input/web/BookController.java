@@ -1,13 +1,22 @@
 package org.example.nerdysoft.input.web;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.example.nerdysoft.model.dto.AvailabilityCheckResultDto;
+import org.example.nerdysoft.model.dto.BookAvailabilityDto;
 import org.example.nerdysoft.model.dto.BookDetailedDto;
 import org.example.nerdysoft.model.dto.BookMainInfoDto;
 import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.dto.BorrowResultDto;
+import org.example.nerdysoft.model.dto.CursorPageDto;
+import org.example.nerdysoft.service.BatchLoanService;
 import org.example.nerdysoft.service.BookService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,55 +25,106 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 
-@Slf4j
 @RestController
 @RequestMapping("/api/books/v1")
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class BookController {
 
+    private static final String BOOKS_PAGE = "/api/books/v1/page";
+
     private final BookService bookService;
+    private final BatchLoanService batchLoanService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${library.http.list-max-age:PT30S}")
+    private Duration listMaxAge;
+
+    @Value("${library.http.list-shared-max-age:PT30S}")
+    private Duration listSharedMaxAge;
 
+    @Value("${library.pagination.max-page-size:500}")
+    private int maxListSize;
+
+    /**
+     * Returns the first {@code library.pagination.max-page-size} books; {@code /page} serves the rest.
+     *
+     * @deprecated page through the books with {@code GET /api/books/v1/page} instead.
+     */
+    @Deprecated
     @GetMapping
-    public List<BookDetailedDto> getAllBooks() {
-        log.info("Fetching all books");
-        return bookService.getAllBooks();
+    public ResponseEntity<List<BookDetailedDto>> getAllBooks(HttpServletRequest request) {
+        CursorPageDto<BookDetailedDto> first = bookService.getBooksPage(null, maxListSize);
+        return DeprecatedLists.deprecated(CachingResponses.list(request, objectMapper, first.getContent(),
+                listMaxAge, listSharedMaxAge), BOOKS_PAGE, first.getNext());
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageDto<BookDetailedDto>> getBooksPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            HttpServletRequest request) {
+        return CachingResponses.list(request, objectMapper, bookService.getBooksPage(cursor, size), listMaxAge,
+                listSharedMaxAge);
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<CursorPageDto<BookMainInfoDto>> getBookSummariesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            HttpServletRequest request) {
+        return CachingResponses.list(request, objectMapper, bookService.getBookSummariesPage(cursor, size),
+                listMaxAge, listSharedMaxAge);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBooks() {
+        return NdjsonResponses.stream(objectMapper, bookService::streamAllBooks);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<BookMainInfoDto>> searchBooks(@RequestParam("q") String query,
+                                                             @RequestParam(defaultValue = "20") int size,
+                                                             HttpServletRequest request) {
+        return CachingResponses.list(request, objectMapper, bookService.searchBooks(query, size), listMaxAge,
+                listSharedMaxAge);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<BookDetailedDto> getBookById(@PathVariable Long id) {
-        log.info("Fetching book by id: {}", id);
-        return ResponseEntity.ok(bookService.getBookById(id));
+    public ResponseEntity<BookDetailedDto> getBookById(@PathVariable Long id, WebRequest request) {
+        return CachingResponses.conditional(request, () -> bookService.getBookVersion(id),
+                () -> bookService.getBookById(id), BookDetailedDto::getVersion);
     }
 
     @PostMapping
     public ResponseEntity<BookDetailedDto> createBook(@Valid @RequestBody BookDetailedDto book) {
-        log.info("Creating book: {}", book);
         return ResponseEntity.ok(bookService.saveBook(book));
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<BookDetailedDto> updateBook(@PathVariable Long id,
                                                       @Valid @RequestBody BookDetailedDto bookDetails) {
-        log.info("Updating book with id: {}", id);
         return ResponseEntity.ok(bookService.updateBook(id, bookDetails));
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteBook(@PathVariable Long id) {
-        log.info("Deleting book with id: {}", id);
         bookService.deleteBook(id);
         return ResponseEntity.noContent().build();
     }
 
     @PostMapping("/borrow")
     public ResponseEntity<Void> borrowBook(@RequestBody BorrowRequestDto borrowRequest) {
-        log.info("Processing borrow request: {}", borrowRequest);
         bookService.borrowBook(borrowRequest);
         return ResponseEntity.ok().build();
     }
@@ -72,26 +132,52 @@ public class BookController {
 
     @PostMapping("/return")
     public ResponseEntity<Void> returnBook(@RequestBody BorrowRequestDto borrowRequest) {
-        log.info("Processing return request: {}", borrowRequest);
         bookService.returnBook(borrowRequest);
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/borrow/batch")
+    public ResponseEntity<List<BorrowResultDto>> borrowBooks(@RequestBody List<BorrowRequestDto> borrowRequests) {
+        return ResponseEntity.ok(batchLoanService.borrowBooks(borrowRequests));
+    }
+
+    @PostMapping("/return/batch")
+    public ResponseEntity<List<BorrowResultDto>> returnBooks(@RequestBody List<BorrowRequestDto> borrowRequests) {
+        return ResponseEntity.ok(batchLoanService.returnBooks(borrowRequests));
+    }
+
     @GetMapping("/borrowed/{memberName}")
     public ResponseEntity<Set<BookMainInfoDto>> getBooksBorrowedByMember(@PathVariable String memberName) {
-        log.info("Fetching books borrowed by member: {}", memberName);
         return ResponseEntity.ok(bookService.getBooksBorrowedByMember(memberName));
     }
 
     @GetMapping("/borrowed/distinct")
     public ResponseEntity<Set<String>> getDistinctBorrowedBookNames() {
-        log.info("Fetching distinct borrowed book names");
         return ResponseEntity.ok(bookService.getDistinctBorrowedBookNames());
     }
 
     @GetMapping("/borrowed/distinct/amounts")
     public ResponseEntity<Map<String, Long>> getDistinctBorrowedBookNamesWithAmount() {
-        log.info("Fetching distinct borrowed book names with amount");
         return ResponseEntity.ok(bookService.getDistinctBorrowedBookNamesWithAmount());
     }
+
+    @PostMapping("/borrowed/distinct/amounts/rebuild")
+    public ResponseEntity<Map<String, Long>> rebuildBorrowStatistics() {
+        return ResponseEntity.ok(bookService.rebuildBorrowStatistics());
+    }
+
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<BookAvailabilityDto> getBookAvailability(@PathVariable Long id) {
+        return ResponseEntity.ok(bookService.getBookAvailability(id));
+    }
+
+    @GetMapping("/availability")
+    public ResponseEntity<List<BookAvailabilityDto>> getBooksAvailability(@RequestParam("ids") List<Long> ids) {
+        return ResponseEntity.ok(bookService.getBooksAvailability(ids));
+    }
+
+    @PostMapping("/availability/check")
+    public ResponseEntity<AvailabilityCheckResultDto> checkAvailabilityIndex() {
+        return ResponseEntity.ok(bookService.checkAvailabilityIndex());
+    }
 }
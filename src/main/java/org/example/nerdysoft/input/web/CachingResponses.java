@@ -0,0 +1,111 @@
+package org.example.nerdysoft.input.web;
+
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Builds responses with HTTP caching headers.
+ */
+final class CachingResponses {
+
+    private CachingResponses() {
+    }
+
+    /**
+     * Answers a conditional request for a single resource; caches must revalidate before every reuse.
+     * A request with {@code If-None-Match} is first compared with the current version, read without loading
+     * the body, and answered with 304 when it matches. Otherwise the body is loaded and its entity tag is the
+     * version read together with it, so a tag always describes the representation sent with it.
+     *
+     * @param request the current request.
+     * @param currentVersion the reader of the current version of the resource.
+     * @param body the loader of the body.
+     * @param versionOf the version of a loaded body, without quotes.
+     * @param <T> the type of the body.
+     * @return a 304 response without body, or a 200 response with the body.
+     */
+    static <T> ResponseEntity<T> conditional(WebRequest request, Supplier<String> currentVersion, Supplier<T> body,
+                                             Function<T, String> versionOf) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            String etag = currentVersion.get();
+            if (matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag)
+                        .cacheControl(CacheControl.noCache()).build();
+            }
+        }
+        T loaded = body.get();
+        return ResponseEntity.ok().eTag(versionOf.apply(loaded)).cacheControl(CacheControl.noCache()).body(loaded);
+    }
+
+    /**
+     * Answers a list, page or search result that shared caches, such as a CDN, may keep. The entity tag is a
+     * digest of the JSON of the body, so a cache revalidating with {@code If-None-Match} gets 304 for as long as
+     * the list is unchanged. The response is public for {@code maxAge}, and for {@code sharedMaxAge} in shared
+     * caches.
+     *
+     * <p>A client holding the read-your-writes cookie has just written, so its list is read from the primary and
+     * sent private and to be revalidated on every reuse. The list varies by {@code Cookie}, so shared caches key
+     * it by the cookie and never answer such a client with the list read before its write.</p>
+     *
+     * @param request the current request.
+     * @param objectMapper the mapper the body is written with.
+     * @param body the list.
+     * @param maxAge how long any cache may reuse the list.
+     * @param sharedMaxAge how long shared caches may reuse the list.
+     * @param <T> the type of the body.
+     * @return a 304 response without body, or a 200 response with the body.
+     */
+    static <T> ResponseEntity<T> list(HttpServletRequest request, ObjectMapper objectMapper, T body,
+                                      Duration maxAge, Duration sharedMaxAge) {
+        String etag = digest(objectMapper, body);
+        CacheControl cacheControl = ReadYourWritesFilter.readsFromPrimary(request)
+                ? CacheControl.noCache().cachePrivate()
+                : CacheControl.maxAge(maxAge).cachePublic().sMaxAge(sharedMaxAge);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        boolean notModified = ifNoneMatch != null && matches(ifNoneMatch, etag);
+        ResponseEntity.BodyBuilder response = ResponseEntity
+                .status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.COOKIE);
+        return notModified ? response.build() : response.body(body);
+    }
+
+    private static String digest(ObjectMapper objectMapper, Object body) {
+        try {
+            return DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot write the list to compute its entity tag", e);
+        }
+    }
+
+    /**
+     * Compares an {@code If-None-Match} header with an entity tag the weak way the header requires.
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        String quoted = "\"" + etag + "\"";
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if ("*".equals(tag) || quoted.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
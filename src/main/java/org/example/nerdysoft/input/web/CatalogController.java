@@ -0,0 +1,51 @@
+package org.example.nerdysoft.input.web;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.example.nerdysoft.model.dto.CatalogImportResultDto;
+import org.example.nerdysoft.service.CatalogService;
+import org.example.nerdysoft.service.catalog.CatalogFormat;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/books/v1")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CatalogController {
+
+    private final CatalogService catalogService;
+
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<CatalogImportResultDto> importBooks(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+        return ResponseEntity.ok(catalogService.importBooks(body, CatalogFormat.fromMediaType(contentType)));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBooks(
+            @RequestParam(defaultValue = "CSV") CatalogFormat format) {
+        StreamingResponseBody body = outputStream -> catalogService.exportBooks(outputStream, format);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("books" + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.nerdysoft.input.web;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Marks the responses of the deprecated whole-collection endpoints, which only return the first page of the
+ * collection, so that clients can find the paged endpoint that replaces them.
+ */
+public final class DeprecatedLists {
+
+    private static final String DEPRECATION = "Deprecation";
+
+    private DeprecatedLists() {
+    }
+
+    /**
+     * Adds {@code Deprecation: true} and a {@code Link} to the paged endpoint that replaces the deprecated one,
+     * with a {@code next} relation to the rest of the collection when the list was cut at the first page.
+     *
+     * @param response the response of the deprecated endpoint.
+     * @param pagePath the path of the paged endpoint.
+     * @param next the cursor of the page after the returned one, or {@code null} if the list is complete.
+     * @param <T> the type of the body.
+     * @return the response with the deprecation headers.
+     */
+    public static <T> ResponseEntity<T> deprecated(ResponseEntity<T> response, String pagePath, String next) {
+        List<String> links = new ArrayList<>(2);
+        links.add("<" + pagePath + ">; rel=\"successor-version\"");
+        if (next != null) {
+            String nextPage = UriComponentsBuilder.fromPath(pagePath).queryParam("cursor", next).encode()
+                    .toUriString();
+            links.add("<" + nextPage + ">; rel=\"next\"");
+        }
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(DEPRECATION, "true")
+                .header(HttpHeaders.LINK, String.join(", ", links))
+                .body(response.getBody());
+    }
+}
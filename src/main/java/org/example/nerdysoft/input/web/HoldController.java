@@ -0,0 +1,55 @@
+package org.example.nerdysoft.input.web;
+
+import java.time.Duration;
+
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.dto.HoldDto;
+import org.example.nerdysoft.service.HoldService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/holds/v1")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class HoldController {
+
+    private static final Duration MAX_AWAIT = Duration.ofMinutes(5);
+
+    private final HoldService holdService;
+
+    @PostMapping
+    public ResponseEntity<HoldDto> placeHold(@Valid @RequestBody BorrowRequestDto holdRequest) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(holdService.placeHold(holdRequest));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<HoldDto> getHold(@PathVariable Long id) {
+        return ResponseEntity.ok(holdService.getHold(id));
+    }
+
+    @GetMapping("/{id}/await")
+    public DeferredResult<HoldDto> awaitHold(@PathVariable Long id,
+                                             @RequestParam(defaultValue = "PT30S") Duration timeout) {
+        return holdService.awaitHold(id, timeout.compareTo(MAX_AWAIT) > 0 ? MAX_AWAIT : timeout);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancelHold(@PathVariable Long id) {
+        holdService.cancelHold(id);
+        return ResponseEntity.noContent().build();
+    }
+}
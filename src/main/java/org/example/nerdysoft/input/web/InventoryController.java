@@ -0,0 +1,28 @@
+package org.example.nerdysoft.input.web;
+
+import java.util.Set;
+
+import org.example.nerdysoft.service.inventory.InventoryStream;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/books/v1/inventory")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class InventoryController {
+
+    private final InventoryStream inventoryStream;
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamInventory(@RequestParam(required = false) Set<Long> bookIds) {
+        return inventoryStream.subscribe(bookIds == null ? Set.of() : bookIds);
+    }
+}
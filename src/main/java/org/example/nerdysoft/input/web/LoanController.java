@@ -0,0 +1,29 @@
+package org.example.nerdysoft.input.web;
+
+import org.example.nerdysoft.model.dto.CursorPageDto;
+import org.example.nerdysoft.model.dto.OverdueLoanDto;
+import org.example.nerdysoft.service.LoanService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/loans/v1")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class LoanController {
+
+    private final LoanService loanService;
+
+    @GetMapping("/overdue")
+    public ResponseEntity<CursorPageDto<OverdueLoanDto>> getOverdueLoansPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(loanService.getOverdueLoansPage(cursor, size));
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.nerdysoft.input.web;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.example.nerdysoft.model.dto.LoanEventDto;
+import org.example.nerdysoft.model.dto.LoanReplayDto;
+import org.example.nerdysoft.service.LoanHistoryService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/loan-events/v1")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class LoanEventController {
+
+    private final LoanHistoryService loanHistoryService;
+
+    @GetMapping("/books/{bookId}")
+    public ResponseEntity<List<LoanEventDto>> getBookHistory(
+            @PathVariable Long bookId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        return ResponseEntity.ok(loanHistoryService.getBookHistory(bookId, from, to));
+    }
+
+    @GetMapping("/members/{memberId}")
+    public ResponseEntity<List<LoanEventDto>> getMemberHistory(
+            @PathVariable Long memberId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        return ResponseEntity.ok(loanHistoryService.getMemberHistory(memberId, from, to));
+    }
+
+    @PostMapping("/replay")
+    public ResponseEntity<LoanReplayDto> replay(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at) {
+        return ResponseEntity.ok(loanHistoryService.replay(at));
+    }
+}
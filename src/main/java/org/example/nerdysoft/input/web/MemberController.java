@@ -1,9 +1,15 @@
 package org.example.nerdysoft.input.web;
 
+import java.time.Duration;
 import java.util.List;
 
+import org.example.nerdysoft.model.dto.CursorPageDto;
 import org.example.nerdysoft.model.dto.MemberDetailedDto;
+import org.example.nerdysoft.model.dto.MemberMainInfoDto;
 import org.example.nerdysoft.service.MemberService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,59 +18,97 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 
-@Slf4j
 @RestController
 @RequestMapping("/api/members/v1")
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class MemberController {
 
+    private static final String MEMBERS_PAGE = "/api/members/v1/page";
+
     private final MemberService memberService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${library.http.list-max-age:PT30S}")
+    private Duration listMaxAge;
+
+    @Value("${library.http.list-shared-max-age:PT30S}")
+    private Duration listSharedMaxAge;
+
+    @Value("${library.pagination.max-page-size:500}")
+    private int maxListSize;
 
+    /**
+     * Returns the first {@code library.pagination.max-page-size} members; {@code /page} serves the rest.
+     *
+     * @deprecated page through the members with {@code GET /api/members/v1/page} instead.
+     */
+    @Deprecated
     @GetMapping
-    public List<MemberDetailedDto> getAllMembers() {
-        log.info("GET /api/members - Fetching all members");
-        return memberService.getAllMembers();
+    public ResponseEntity<List<MemberDetailedDto>> getAllMembers(HttpServletRequest request) {
+        CursorPageDto<MemberDetailedDto> first = memberService.getMembersPage(null, maxListSize);
+        return DeprecatedLists.deprecated(CachingResponses.list(request, objectMapper, first.getContent(),
+                listMaxAge, listSharedMaxAge), MEMBERS_PAGE, first.getNext());
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageDto<MemberDetailedDto>> getMembersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            HttpServletRequest request) {
+        return CachingResponses.list(request, objectMapper, memberService.getMembersPage(cursor, size), listMaxAge,
+                listSharedMaxAge);
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<CursorPageDto<MemberMainInfoDto>> getMemberSummariesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            HttpServletRequest request) {
+        return CachingResponses.list(request, objectMapper, memberService.getMemberSummariesPage(cursor, size),
+                listMaxAge, listSharedMaxAge);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMembers() {
+        return NdjsonResponses.stream(objectMapper, memberService::streamAllMembers);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<MemberDetailedDto> getMemberById(@PathVariable Long id) {
-        log.info("GET /api/members/{} - Fetching member by id", id);
-        MemberDetailedDto member = memberService.getMemberById(id);
-        if (member == null) {
-            log.error("Member not found with id: {}", id);
-            return ResponseEntity.notFound().build();
-        }
-        return ResponseEntity.ok(member);
+    public ResponseEntity<MemberDetailedDto> getMemberById(@PathVariable Long id, WebRequest request) {
+        return CachingResponses.conditional(request, () -> memberService.getMemberVersion(id),
+                () -> memberService.getMemberById(id), MemberDetailedDto::getVersion);
     }
 
     @PostMapping
     public MemberDetailedDto createMember(@Valid @RequestBody MemberDetailedDto member) {
-        log.info("POST /api/members - Creating member: {}", member);
         return memberService.saveMember(member);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<MemberDetailedDto> updateMember(@PathVariable Long id,
                                                           @Valid @RequestBody MemberDetailedDto memberDetails) {
-        log.info("PUT /api/members/{} - Updating member: {}", id, memberDetails);
         MemberDetailedDto member = memberService.getMemberById(id);
         if (member == null) {
-            log.error("Member not found with id: {}", id);
             return ResponseEntity.notFound().build();
         }
-        member.setName(memberDetails.getName());
-        return ResponseEntity.ok(memberService.saveMember(member));
+        MemberDetailedDto updatedMember = new MemberDetailedDto(member.getId(), memberDetails.getName(),
+                member.getMembershipDate(), member.getBorrowedBooks());
+        return ResponseEntity.ok(memberService.saveMember(updatedMember));
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteMember(@PathVariable Long id) {
-        log.info("DELETE /api/members/{} - Deleting member", id);
         memberService.deleteMember(id);
         return ResponseEntity.noContent().build();
     }
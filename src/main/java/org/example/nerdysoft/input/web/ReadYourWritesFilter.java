@@ -0,0 +1,87 @@
+package org.example.nerdysoft.input.web;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+import org.example.nerdysoft.output.persistent.routing.PrimaryPin;
+import org.example.nerdysoft.output.persistent.routing.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Gives clients read-your-writes consistency while reads are served by replicas.
+ *
+ * <p>A request that may write, such as a borrow or a return, gets a cookie that keeps the client's reads on the
+ * primary for {@code library.datasource.replicas.stickiness}, and runs on the primary itself. That window should
+ * be longer than {@code library.datasource.replicas.max-lag} plus the lag check interval, so that a replica is
+ * only read again once it has caught up with the write.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "library.datasource.replicas.enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "library-primary-until";
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Duration stickiness;
+
+    public ReadYourWritesFilter(@Value("${library.datasource.replicas.stickiness:PT5S}") Duration stickiness) {
+        this.stickiness = stickiness;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        if (SAFE_METHODS.contains(request.getMethod())) {
+            if (primaryUntil(request) <= now) {
+                chain.doFilter(request, response);
+                return;
+            }
+        } else {
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(now + stickiness.toMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) stickiness.toSeconds() + 1);
+            response.addCookie(cookie);
+        }
+        try (PrimaryPin pin = ReplicaRoutingDataSource.pinToPrimary()) {
+            chain.doFilter(request, response);
+        }
+    }
+
+    /**
+     * Tells whether the request carries an unexpired read-your-writes cookie, so its reads go to the primary.
+     *
+     * @param request the current request.
+     * @return {@code true} if the client wrote within the stickiness window.
+     */
+    static boolean readsFromPrimary(HttpServletRequest request) {
+        return primaryUntil(request) > System.currentTimeMillis();
+    }
+
+    private static long primaryUntil(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return 0;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
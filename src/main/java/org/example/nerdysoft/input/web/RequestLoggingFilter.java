@@ -0,0 +1,91 @@
+package org.example.nerdysoft.input.web;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.event.Level;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Logs one line per request with its method, URI template, path variables, status and duration, also attached
+ * as key-value pairs so that the {@code json-logs} profile writes them as separate fields. Request and response
+ * bodies are never logged.
+ *
+ * <p>Successful requests are sampled per endpoint: the first request of each method and URI template and then
+ * one in {@code library.logging.requests.sample-every} are logged, so rarely called endpoints stay visible next
+ * to hot ones. Client errors are always logged at {@code WARN}, server errors and unhandled exceptions always
+ * at {@code ERROR}.</p>
+ */
+@Slf4j
+@Component
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final Map<String, AtomicLong> successCounts = new ConcurrentHashMap<>();
+    private final long sampleEvery;
+
+    public RequestLoggingFilter(@Value("${library.logging.requests.sample-every:100}") long sampleEvery) {
+        this.sampleEvery = Math.max(1, sampleEvery);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            logRequest(request, HttpStatus.INTERNAL_SERVER_ERROR.value(), start, e);
+            throw e;
+        }
+        logRequest(request, response.getStatus(), start, null);
+    }
+
+    private void logRequest(HttpServletRequest request, int status, long start, Exception failure) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? UNKNOWN_URI : pattern.toString();
+        Level level;
+        if (status >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+            level = Level.ERROR;
+        } else if (status >= HttpStatus.BAD_REQUEST.value()) {
+            level = Level.WARN;
+        } else if (log.isInfoEnabled() && isSampled(request.getMethod() + " " + uri)) {
+            level = Level.INFO;
+        } else {
+            return;
+        }
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        Map<?, ?> pathVariables = (Map<?, ?>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        LoggingEventBuilder event = log.atLevel(level)
+                .addKeyValue("method", request.getMethod())
+                .addKeyValue("uri", uri)
+                .addKeyValue("status", status)
+                .addKeyValue("durationMs", durationMillis);
+        if (pathVariables != null) {
+            pathVariables.forEach((name, value) -> event.addKeyValue(name.toString(), value));
+        }
+        if (failure != null) {
+            event.setCause(failure);
+        }
+        event.log("{} {} {} -> {} in {} ms", request.getMethod(), uri, pathVariables == null ? Map.of() : pathVariables,
+                status, durationMillis);
+    }
+
+    private boolean isSampled(String endpoint) {
+        return successCounts.computeIfAbsent(endpoint, key -> new AtomicLong()).getAndIncrement() % sampleEvery == 0;
+    }
+}
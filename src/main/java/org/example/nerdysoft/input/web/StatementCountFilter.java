@@ -0,0 +1,62 @@
+package org.example.nerdysoft.input.web;
+
+import java.io.IOException;
+
+import org.example.nerdysoft.service.metrics.StatementCounter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records how many SQL statements each request ran as {@code library.db.statements.per.request},
+ * tagged with the matched URI template, and logs a warning for requests above
+ * {@code library.db.statement-warn-threshold}. Statements of streaming responses run on
+ * an async thread after the filter returns and are not included.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final StatementCounter statementCounter;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${library.db.statement-warn-threshold:20}")
+    private int warnThreshold;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        statementCounter.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = statementCounter.count();
+            statementCounter.clear();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? UNKNOWN_URI : pattern.toString();
+            DistributionSummary.builder("library.db.statements.per.request")
+                    .description("SQL statements run by Hibernate while serving a request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(statements);
+            if (statements > warnThreshold) {
+                log.warn("{} {} ran {} SQL statements, above the threshold of {}", request.getMethod(), uri,
+                        statements, warnThreshold);
+            }
+        }
+    }
+}
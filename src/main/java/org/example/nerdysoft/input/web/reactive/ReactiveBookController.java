@@ -0,0 +1,180 @@
+package org.example.nerdysoft.input.web.reactive;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.example.nerdysoft.input.web.DeprecatedLists;
+import org.example.nerdysoft.model.dto.BookDetailedDto;
+import org.example.nerdysoft.model.dto.BookMainInfoDto;
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.dto.BorrowResultDto;
+import org.example.nerdysoft.model.dto.CursorPageDto;
+import org.example.nerdysoft.service.BatchLoanService;
+import org.example.nerdysoft.service.BookService;
+import org.example.nerdysoft.service.ReactiveBookService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Serves the {@code /api/books/v1} contract of {@code BookController} on the reactive stack.
+ *
+ * <p>The batch endpoints and the statistics rebuild still run the blocking JDBC services on the bounded elastic
+ * scheduler; the borrow statistics are read from memory.</p>
+ */
+@RestController
+@RequestMapping("/api/books/v1")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBookController {
+
+    private static final String BOOKS_PAGE = "/api/books/v1/page";
+
+    private final ReactiveBookService bookService;
+    private final BookService blockingBookService;
+    private final BatchLoanService batchLoanService;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${library.http.list-max-age:PT30S}")
+    private Duration listMaxAge;
+
+    @Value("${library.http.list-shared-max-age:PT30S}")
+    private Duration listSharedMaxAge;
+
+    @Value("${library.pagination.max-page-size:500}")
+    private int maxListSize;
+
+    /**
+     * Returns the first {@code library.pagination.max-page-size} books; {@code /page} serves the rest.
+     *
+     * @deprecated page through the books with {@code GET /api/books/v1/page} instead.
+     */
+    @Deprecated
+    @GetMapping
+    public Mono<ResponseEntity<List<BookDetailedDto>>> getAllBooks(ServerWebExchange exchange) {
+        return bookService.getBooksPage(null, maxListSize)
+                .flatMap(first -> list(exchange, Mono.just(first.getContent()))
+                        .map(response -> DeprecatedLists.deprecated(response, BOOKS_PAGE, first.getNext())));
+    }
+
+    @GetMapping("/page")
+    public Mono<ResponseEntity<CursorPageDto<BookDetailedDto>>> getBooksPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size, ServerWebExchange exchange) {
+        return list(exchange, bookService.getBooksPage(cursor, size));
+    }
+
+    @GetMapping("/summary")
+    public Mono<ResponseEntity<CursorPageDto<BookMainInfoDto>>> getBookSummariesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size, ServerWebExchange exchange) {
+        return list(exchange, bookService.getBookSummariesPage(cursor, size));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BookDetailedDto> streamBooks() {
+        return bookService.getAllBooks();
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<BookMainInfoDto>>> searchBooks(@RequestParam("q") String query,
+                                                                   @RequestParam(defaultValue = "20") int size,
+                                                                   ServerWebExchange exchange) {
+        return list(exchange, bookService.searchBooks(query, size).collectList());
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<BookDetailedDto>> getBookById(@PathVariable Long id, ServerWebExchange exchange) {
+        return ReactiveCachingResponses.conditional(exchange, bookService.getBookETag(id),
+                () -> bookService.getBookById(id));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<BookDetailedDto>> createBook(@Valid @RequestBody BookDetailedDto book) {
+        return bookService.saveBook(book).map(ResponseEntity::ok);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<BookDetailedDto>> updateBook(@PathVariable Long id,
+                                                            @Valid @RequestBody BookDetailedDto bookDetails) {
+        return bookService.updateBook(id, bookDetails).map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteBook(@PathVariable Long id) {
+        return bookService.deleteBook(id).thenReturn(ResponseEntity.noContent().build());
+    }
+
+    @PostMapping("/borrow")
+    public Mono<ResponseEntity<Void>> borrowBook(@RequestBody BorrowRequestDto borrowRequest) {
+        return bookService.borrowBook(borrowRequest).thenReturn(ResponseEntity.ok().build());
+    }
+
+    @PostMapping("/return")
+    public Mono<ResponseEntity<Void>> returnBook(@RequestBody BorrowRequestDto borrowRequest) {
+        return bookService.returnBook(borrowRequest).thenReturn(ResponseEntity.ok().build());
+    }
+
+    @PostMapping("/borrow/batch")
+    public Mono<ResponseEntity<List<BorrowResultDto>>> borrowBooks(
+            @RequestBody List<BorrowRequestDto> borrowRequests) {
+        return Mono.fromCallable(() -> batchLoanService.borrowBooks(borrowRequests))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/return/batch")
+    public Mono<ResponseEntity<List<BorrowResultDto>>> returnBooks(
+            @RequestBody List<BorrowRequestDto> borrowRequests) {
+        return Mono.fromCallable(() -> batchLoanService.returnBooks(borrowRequests))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/borrowed/{memberName}")
+    public Mono<ResponseEntity<Set<BookMainInfoDto>>> getBooksBorrowedByMember(@PathVariable String memberName) {
+        return bookService.getBooksBorrowedByMember(memberName).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/borrowed/distinct")
+    public ResponseEntity<Set<String>> getDistinctBorrowedBookNames() {
+        return ResponseEntity.ok(blockingBookService.getDistinctBorrowedBookNames());
+    }
+
+    @GetMapping("/borrowed/distinct/amounts")
+    public ResponseEntity<Map<String, Long>> getDistinctBorrowedBookNamesWithAmount() {
+        return ResponseEntity.ok(blockingBookService.getDistinctBorrowedBookNamesWithAmount());
+    }
+
+    @PostMapping("/borrowed/distinct/amounts/rebuild")
+    public Mono<ResponseEntity<Map<String, Long>>> rebuildBorrowStatistics() {
+        return Mono.fromCallable(blockingBookService::rebuildBorrowStatistics)
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    private <T> Mono<ResponseEntity<T>> list(ServerWebExchange exchange, Mono<T> body) {
+        return ReactiveCachingResponses.list(exchange, objectMapper, body, listMaxAge, listSharedMaxAge);
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.nerdysoft.input.web.reactive;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import reactor.core.publisher.Mono;
+
+/**
+ * Builds reactive responses with the HTTP caching headers of the servlet stack.
+ */
+final class ReactiveCachingResponses {
+
+    private ReactiveCachingResponses() {
+    }
+
+    /**
+     * Answers a conditional request for a single resource. The body is only loaded when the client's
+     * {@code If-None-Match} does not match the current entity tag; caches must revalidate before every reuse.
+     *
+     * @param exchange the current exchange.
+     * @param etag the current entity tag of the resource, without quotes.
+     * @param body the loader of the body.
+     * @param <T> the type of the body.
+     * @return a 304 response without body, or a 200 response with the body.
+     */
+    static <T> Mono<ResponseEntity<T>> conditional(ServerWebExchange exchange, Mono<String> etag,
+                                                   Supplier<Mono<T>> body) {
+        return etag.flatMap(tag -> {
+            if (exchange.checkNotModified(tag)) {
+                return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag)
+                        .cacheControl(CacheControl.noCache()).<T>build());
+            }
+            return body.get().map(value -> ResponseEntity.ok().eTag(tag).cacheControl(CacheControl.noCache())
+                    .body(value));
+        });
+    }
+
+    /**
+     * Answers a list, page or search result that shared caches, such as a CDN, may keep, with the headers of the
+     * servlet stack: the entity tag is a digest of the JSON of the body, and the response is public for
+     * {@code maxAge}, and for {@code sharedMaxAge} in shared caches. The reactive stack reads from the primary
+     * and sets no read-your-writes cookie, so the response does not vary by {@code Cookie}.
+     *
+     * @param exchange the current exchange.
+     * @param objectMapper the mapper the body is written with.
+     * @param body the list.
+     * @param maxAge how long any cache may reuse the list.
+     * @param sharedMaxAge how long shared caches may reuse the list.
+     * @param <T> the type of the body.
+     * @return a 304 response without body, or a 200 response with the body.
+     */
+    static <T> Mono<ResponseEntity<T>> list(ServerWebExchange exchange, ObjectMapper objectMapper, Mono<T> body,
+                                            Duration maxAge, Duration sharedMaxAge) {
+        CacheControl cacheControl = CacheControl.maxAge(maxAge).cachePublic().sMaxAge(sharedMaxAge);
+        return body.map(value -> {
+            String etag = digest(objectMapper, value);
+            if (exchange.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+            }
+            return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(value);
+        });
+    }
+
+    private static String digest(ObjectMapper objectMapper, Object body) {
+        try {
+            return DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot write the list to compute its entity tag", e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.nerdysoft.input.web.reactive;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.example.nerdysoft.input.web.DeprecatedLists;
+import org.example.nerdysoft.model.dto.CursorPageDto;
+import org.example.nerdysoft.model.dto.MemberDetailedDto;
+import org.example.nerdysoft.model.dto.MemberMainInfoDto;
+import org.example.nerdysoft.service.ReactiveMemberService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Serves the {@code /api/members/v1} contract of {@code MemberController} on the reactive stack.
+ */
+@RestController
+@RequestMapping("/api/members/v1")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveMemberController {
+
+    private static final String MEMBERS_PAGE = "/api/members/v1/page";
+
+    private final ReactiveMemberService memberService;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${library.http.list-max-age:PT30S}")
+    private Duration listMaxAge;
+
+    @Value("${library.http.list-shared-max-age:PT30S}")
+    private Duration listSharedMaxAge;
+
+    @Value("${library.pagination.max-page-size:500}")
+    private int maxListSize;
+
+    /**
+     * Returns the first {@code library.pagination.max-page-size} members; {@code /page} serves the rest.
+     *
+     * @deprecated page through the members with {@code GET /api/members/v1/page} instead.
+     */
+    @Deprecated
+    @GetMapping
+    public Mono<ResponseEntity<List<MemberDetailedDto>>> getAllMembers(ServerWebExchange exchange) {
+        return memberService.getMembersPage(null, maxListSize)
+                .flatMap(first -> list(exchange, Mono.just(first.getContent()))
+                        .map(response -> DeprecatedLists.deprecated(response, MEMBERS_PAGE, first.getNext())));
+    }
+
+    @GetMapping("/page")
+    public Mono<ResponseEntity<CursorPageDto<MemberDetailedDto>>> getMembersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size, ServerWebExchange exchange) {
+        return list(exchange, memberService.getMembersPage(cursor, size));
+    }
+
+    @GetMapping("/summary")
+    public Mono<ResponseEntity<CursorPageDto<MemberMainInfoDto>>> getMemberSummariesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size, ServerWebExchange exchange) {
+        return list(exchange, memberService.getMemberSummariesPage(cursor, size));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MemberDetailedDto> streamMembers() {
+        return memberService.getAllMembers();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<MemberDetailedDto>> getMemberById(@PathVariable Long id,
+                                                                 ServerWebExchange exchange) {
+        return ReactiveCachingResponses.conditional(exchange, memberService.getMemberETag(id),
+                () -> memberService.getMemberById(id));
+    }
+
+    @PostMapping
+    public Mono<MemberDetailedDto> createMember(@Valid @RequestBody MemberDetailedDto member) {
+        return memberService.saveMember(member);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<MemberDetailedDto>> updateMember(@PathVariable Long id,
+                                                                @Valid @RequestBody MemberDetailedDto memberDetails) {
+        return memberService.updateMember(id, memberDetails).map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteMember(@PathVariable Long id) {
+        return memberService.deleteMember(id).thenReturn(ResponseEntity.noContent().build());
+    }
+
+    private <T> Mono<ResponseEntity<T>> list(ServerWebExchange exchange, Mono<T> body) {
+        return ReactiveCachingResponses.list(exchange, objectMapper, body, listMaxAge, listSharedMaxAge);
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.nerdysoft.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AvailabilityCheckResultDto {
+    private int checked;
+    private int repaired;
+}
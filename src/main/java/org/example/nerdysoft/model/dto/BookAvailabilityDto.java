@@ -0,0 +1,15 @@
+package org.example.nerdysoft.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookAvailabilityDto {
+    private Long bookId;
+    private int amount;
+    private int borrowers;
+    private boolean available;
+}
@@ -2,6 +2,7 @@ package org.example.nerdysoft.model.dto;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
@@ -30,4 +31,12 @@ public class BookDetailedDto {
     private int amount;
 
     private List<MemberMainInfoDto> borrowers;
+
+    /** The version of the book and the summed versions of its borrowers when read; the entity tag of the book. */
+    @JsonIgnore
+    private String version;
+
+    public BookDetailedDto(Long id, String title, String author, int amount, List<MemberMainInfoDto> borrowers) {
+        this(id, title, author, amount, borrowers, null);
+    }
 }
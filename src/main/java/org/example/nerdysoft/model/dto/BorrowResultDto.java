@@ -0,0 +1,15 @@
+package org.example.nerdysoft.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BorrowResultDto {
+    private Long memberId;
+    private Long bookId;
+    private boolean success;
+    private String error;
+}
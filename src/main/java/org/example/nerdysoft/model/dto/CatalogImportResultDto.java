@@ -0,0 +1,18 @@
+package org.example.nerdysoft.model.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CatalogImportResultDto {
+    private long rows;
+    private long rejected;
+    private int created;
+    private int updated;
+    private List<CatalogImportErrorDto> errors;
+}
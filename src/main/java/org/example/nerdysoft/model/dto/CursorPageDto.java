@@ -0,0 +1,17 @@
+package org.example.nerdysoft.model.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageDto<T> {
+
+    private List<T> content;
+
+    private String next;
+}
@@ -0,0 +1,29 @@
+package org.example.nerdysoft.model.dto;
+
+import java.time.Instant;
+
+import org.example.nerdysoft.model.entity.HoldStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HoldDto {
+
+    private Long id;
+
+    private Long memberId;
+
+    private Long bookId;
+
+    private HoldStatus status;
+
+    private Instant createdAt;
+
+    private Instant resolvedAt;
+
+    private Long position;
+}
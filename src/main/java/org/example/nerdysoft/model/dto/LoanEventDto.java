@@ -0,0 +1,19 @@
+package org.example.nerdysoft.model.dto;
+
+import java.time.Instant;
+
+import org.example.nerdysoft.model.entity.LoanAction;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoanEventDto {
+    private Long memberId;
+    private Long bookId;
+    private LoanAction action;
+    private Instant occurredAt;
+}
@@ -0,0 +1,18 @@
+package org.example.nerdysoft.model.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoanReplayDto {
+    private Instant at;
+    private long eventsReplayed;
+    private long activeLoans;
+    private Map<Long, Long> loansPerBook;
+}
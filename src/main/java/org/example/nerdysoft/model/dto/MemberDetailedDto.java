@@ -3,6 +3,7 @@ package org.example.nerdysoft.model.dto;
 import java.time.LocalDate;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -21,4 +22,12 @@ public class MemberDetailedDto {
     private LocalDate membershipDate;
 
     private List<BookMainInfoDto> borrowedBooks;
+
+    /** The version of the member and the summed versions of their borrowed books when read; the entity tag. */
+    @JsonIgnore
+    private String version;
+
+    public MemberDetailedDto(Long id, String name, LocalDate membershipDate, List<BookMainInfoDto> borrowedBooks) {
+        this(id, name, membershipDate, borrowedBooks, null);
+    }
 }
@@ -0,0 +1,21 @@
+package org.example.nerdysoft.model.dto;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OverdueLoanDto {
+
+    private Long memberId;
+
+    private Long bookId;
+
+    private Instant borrowedAt;
+
+    private Instant dueAt;
+}
@@ -2,18 +2,26 @@ package org.example.nerdysoft.model.entity;
 
 import java.util.Set;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Data
 @Entity
-@Table(name = "books")
+@Table(name = "books", uniqueConstraints = @UniqueConstraint(name = "uq_books_title_author",
+        columnNames = {"title", "author"}))
 public class Book extends AbstractEntity {
 
     @NotBlank(message = "Title is required")
@@ -29,7 +37,15 @@ public class Book extends AbstractEntity {
     @Min(value = 0, message = "Amount should be at least 0")
     private int amount;
 
+    /** Bumped in SQL by every write that changes the book or its borrowers; backs the ETag of the book. */
+    @ColumnDefault("0")
+    @Column(insertable = false, updatable = false)
+    private Long version;
+
     @JsonManagedReference
+    @BatchSize(size = 500)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToMany(mappedBy = "borrowedBooks")
     private Set<Member> borrowers;
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package org.example.nerdysoft.model.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A member's place in the queue for a book that had no copy left.
+ * Holds of a book are served in id order; a fulfilled hold has been turned into a loan.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "holds")
+public class Hold extends AbstractEntity {
+
+    private Long memberId;
+
+    private Long bookId;
+
+    @Enumerated(EnumType.STRING)
+    private HoldStatus status;
+
+    private Instant createdAt;
+
+    private Instant resolvedAt;
+}
@@ -0,0 +1,7 @@
+package org.example.nerdysoft.model.entity;
+
+public enum HoldStatus {
+    WAITING,
+    FULFILLED,
+    CANCELLED
+}
@@ -0,0 +1,46 @@
+package org.example.nerdysoft.model.entity;
+
+import java.time.Instant;
+
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Read-only view of one row of the {@code member_books} join table with its borrow and due timestamps.
+ * Loans are still created and removed through {@link Member#getBorrowedBooks()} and the native loan queries;
+ * this mapping only exists to query loans by due date.
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Immutable
+@Entity
+@IdClass(LoanId.class)
+@Table(name = "member_books")
+public class Loan {
+
+    @Id
+    @Column(name = "member_id")
+    private Long memberId;
+
+    @Id
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(nullable = false)
+    private Instant borrowedAt;
+
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(nullable = false)
+    private Instant dueAt;
+}
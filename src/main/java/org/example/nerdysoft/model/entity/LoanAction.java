@@ -0,0 +1,9 @@
+package org.example.nerdysoft.model.entity;
+
+/**
+ * The kind of change recorded by a {@link LoanEvent}.
+ */
+public enum LoanAction {
+    BORROW,
+    RETURN
+}
@@ -0,0 +1,53 @@
+package org.example.nerdysoft.model.entity;
+
+import java.time.Instant;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One committed borrow or return, appended to the {@code loan_events} log and never updated.
+ * Member and book are kept as plain ids so that the history outlives deleted rows.
+ *
+ * <p>The id is taken from the database when the event is inserted, in the transaction of the loan and after its
+ * row was changed, so a return of a loan always has a higher id than its borrow and ids give the order of the
+ * events of every loan.</p>
+ */
+@Getter
+@NoArgsConstructor
+@Immutable
+@Entity
+@Table(name = "loan_events")
+public class LoanEvent {
+
+    @Id
+    @Setter
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long memberId;
+
+    private Long bookId;
+
+    @Enumerated(EnumType.STRING)
+    private LoanAction action;
+
+    private Instant occurredAt;
+
+    public LoanEvent(Long memberId, Long bookId, LoanAction action, Instant occurredAt) {
+        this.memberId = memberId;
+        this.bookId = bookId;
+        this.action = action;
+        this.occurredAt = occurredAt;
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.nerdysoft.model.entity;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoanId implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private Long memberId;
+
+    private Long bookId;
+}
@@ -3,20 +3,22 @@ package org.example.nerdysoft.model.entity;
 import java.time.LocalDate;
 import java.util.Set;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Getter
 @Setter
-@AllArgsConstructor
 @NoArgsConstructor
 @Entity
 @Table(name = "members")
@@ -27,10 +29,27 @@ public class Member extends AbstractEntity {
 
     private LocalDate membershipDate;
 
+    /** Bumped in SQL by every write that changes the member or their loans; backs the ETag of the member. */
+    @ColumnDefault("0")
+    @Column(insertable = false, updatable = false)
+    private Long version;
+
+    /** The number of loans of the member, maintained in SQL together with every insert and delete of a loan. */
+    @ColumnDefault("0")
+    @Column(insertable = false, updatable = false)
+    private int activeLoans;
+
+    @BatchSize(size = 500)
     @ManyToMany
     @JoinTable(
             name = "member_books",
             joinColumns = @JoinColumn(name = "member_id"),
             inverseJoinColumns = @JoinColumn(name = "book_id"))
     private Set<Book> borrowedBooks;
+
+    public Member(String name, LocalDate membershipDate, Set<Book> borrowedBooks) {
+        this.name = name;
+        this.membershipDate = membershipDate;
+        this.borrowedBooks = borrowedBooks;
+    }
 }
\ No newline at end of file
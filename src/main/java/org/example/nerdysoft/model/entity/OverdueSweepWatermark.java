@@ -0,0 +1,35 @@
+package org.example.nerdysoft.model.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * The (due date, member id, book id) key of the last loan the overdue sweep has published.
+ * The table holds a single row, so every instance of the application sweeps from the same watermark.
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "overdue_sweep_watermark")
+public class OverdueSweepWatermark {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Instant dueAt;
+
+    @Column(nullable = false)
+    private Long memberId;
+
+    @Column(nullable = false)
+    private Long bookId;
+}
@@ -0,0 +1,44 @@
+package org.example.nerdysoft.model.entity;
+
+import java.time.Instant;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * A borrow or return written to the {@code loan_event_outbox} in the transaction of its loan and not yet relayed
+ * to the {@code loan_events} log. The outbox is written and drained through JDBC only; the entity describes its
+ * table.
+ *
+ * <p>The id is drawn from the sequence of the log when the row is inserted and kept when the event is relayed,
+ * so the log is ordered by id however the relay batches are interleaved.</p>
+ */
+@Getter
+@NoArgsConstructor
+@Immutable
+@Entity
+@Table(name = "loan_event_outbox")
+public class PendingLoanEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long memberId;
+
+    private Long bookId;
+
+    @Enumerated(EnumType.STRING)
+    private LoanAction action;
+
+    private Instant occurredAt;
+}
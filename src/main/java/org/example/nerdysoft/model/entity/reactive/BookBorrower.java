@@ -0,0 +1,15 @@
+package org.example.nerdysoft.model.entity.reactive;
+
+import java.time.LocalDate;
+
+import org.example.nerdysoft.model.dto.MemberMainInfoDto;
+
+/**
+ * A member holding a copy of the book with id {@code bookId}, read for a whole page of books at once.
+ */
+public record BookBorrower(Long bookId, Long id, String name, LocalDate membershipDate) {
+
+    public MemberMainInfoDto toMainInfoDto() {
+        return new MemberMainInfoDto(id, name, membershipDate);
+    }
+}
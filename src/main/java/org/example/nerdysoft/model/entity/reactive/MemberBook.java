@@ -0,0 +1,13 @@
+package org.example.nerdysoft.model.entity.reactive;
+
+import org.example.nerdysoft.model.dto.BookMainInfoDto;
+
+/**
+ * A book borrowed by the member with id {@code memberId}, read for a whole page of members at once.
+ */
+public record MemberBook(Long memberId, Long id, String title, String author, int amount) {
+
+    public BookMainInfoDto toMainInfoDto() {
+        return new BookMainInfoDto(id, title, author, amount);
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.nerdysoft.model.entity.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * R2DBC mapping of a row of the {@code books} table, used by the reactive stack only.
+ * Borrowers are not mapped; they are read per page with {@link BookBorrower} rows.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table("books")
+public class ReactiveBook {
+
+    @Id
+    private Long id;
+
+    private String title;
+
+    private String author;
+
+    private int amount;
+
+    private Long version;
+}
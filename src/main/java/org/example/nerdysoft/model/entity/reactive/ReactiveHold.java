@@ -0,0 +1,36 @@
+package org.example.nerdysoft.model.entity.reactive;
+
+import java.time.Instant;
+
+import org.example.nerdysoft.model.entity.HoldStatus;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * R2DBC mapping of a row of the {@code holds} table, used by the reactive stack to hand returned copies over.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table("holds")
+public class ReactiveHold {
+
+    @Id
+    private Long id;
+
+    private Long memberId;
+
+    private Long bookId;
+
+    private HoldStatus status;
+
+    private Instant createdAt;
+
+    private Instant resolvedAt;
+}
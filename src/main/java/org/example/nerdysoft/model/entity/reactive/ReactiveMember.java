@@ -0,0 +1,34 @@
+package org.example.nerdysoft.model.entity.reactive;
+
+import java.time.LocalDate;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * R2DBC mapping of a row of the {@code members} table, used by the reactive stack only.
+ * Borrowed books are not mapped; they are read per page with {@link MemberBook} rows.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table("members")
+public class ReactiveMember {
+
+    @Id
+    private Long id;
+
+    private String name;
+
+    private LocalDate membershipDate;
+
+    private Long version;
+
+    private int activeLoans;
+}
@@ -0,0 +1,13 @@
+package org.example.nerdysoft.model.exception;
+
+import java.io.Serial;
+
+public class BatchSizeExceededException extends BaseException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public BatchSizeExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.nerdysoft.model.exception;
+
+import java.io.Serial;
+
+public class HoldNotFoundException extends ResourceNotFoundException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public HoldNotFoundException(String message) {
+        super(message);
+    }
+}
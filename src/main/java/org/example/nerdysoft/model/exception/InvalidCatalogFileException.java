@@ -0,0 +1,13 @@
+package org.example.nerdysoft.model.exception;
+
+import java.io.Serial;
+
+public class InvalidCatalogFileException extends BaseException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCatalogFileException(String message) {
+        super(message);
+    }
+}
@@ -4,14 +4,25 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.example.nerdysoft.model.exception.BaseException;
+import org.example.nerdysoft.model.exception.BatchSizeExceededException;
+import org.example.nerdysoft.model.exception.BookAlreadyExistsException;
+import org.example.nerdysoft.model.exception.BookAvailableException;
+import org.example.nerdysoft.model.exception.DatabaseBusyException;
+import org.example.nerdysoft.model.exception.HoldAlreadyPlacedException;
+import org.example.nerdysoft.model.exception.InvalidCatalogFileException;
+import org.example.nerdysoft.model.exception.InvalidCursorException;
 import org.example.nerdysoft.model.exception.ResourceNotFoundException;
+import org.example.nerdysoft.model.exception.SubscriberLimitExceededException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -22,6 +33,28 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler({InvalidCursorException.class, BatchSizeExceededException.class,
+            InvalidCatalogFileException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<String> handleBadRequestException(BaseException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
+    @ExceptionHandler({BookAvailableException.class, HoldAlreadyPlacedException.class,
+            BookAlreadyExistsException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<String> handleConflictException(BaseException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    @ExceptionHandler({DatabaseBusyException.class, SubscriberLimitExceededException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<String> handleServiceUnavailableException(BaseException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ex.getMessage());
+    }
+
     @ExceptionHandler(BaseException.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ResponseEntity<String> handleBaseException(BaseException ex) {
@@ -31,12 +64,22 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(MethodArgumentNotValidException ex) {
+        return ResponseEntity.badRequest().body(fieldErrors(ex.getBindingResult()));
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<Map<String, String>> handleReactiveValidationExceptions(WebExchangeBindException ex) {
+        return ResponseEntity.badRequest().body(fieldErrors(ex.getBindingResult()));
+    }
+
+    private static Map<String, String> fieldErrors(BindingResult bindingResult) {
         Map<String, String> errors = new HashMap<>();
-        ex.getBindingResult().getAllErrors().forEach((error) -> {
+        bindingResult.getAllErrors().forEach((error) -> {
             String fieldName = ((FieldError) error).getField();
             String errorMessage = error.getDefaultMessage();
             errors.put(fieldName, errorMessage);
         });
-        return ResponseEntity.badRequest().body(errors);
+        return errors;
     }
 }
\ No newline at end of file
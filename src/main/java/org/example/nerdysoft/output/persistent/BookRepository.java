@@ -1,30 +1,93 @@
 package org.example.nerdysoft.output.persistent;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
+import org.example.nerdysoft.model.dto.BookMainInfoDto;
 import org.example.nerdysoft.model.entity.Book;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
+    String ID = "id";
 
-    @Query("SELECT b FROM Book b WHERE b.title = :title AND b.author = :author")
-    Book findByNameAndAuthor(@Param("title") String name, @Param("author") String author);
+    @Query(value = "INSERT INTO books (title, author, amount) VALUES (:title, :author, :amount)"
+            + " ON CONFLICT (title, author) DO UPDATE"
+            + " SET amount = books.amount + EXCLUDED.amount, version = books.version + 1"
+            + " RETURNING *", nativeQuery = true)
+    Book upsertAmount(@Param("title") String title, @Param("author") String author, @Param("amount") int amount);
 
-    @Query("SELECT DISTINCT b.title FROM Book b JOIN b.borrowers")
-    Set<String> findDistinctBorrowedBookNames();
+    boolean existsByTitleAndAuthorAndIdNot(String title, String author, Long id);
 
     @Query("SELECT b.title, COUNT(b) FROM Book b JOIN b.borrowers GROUP BY b.title")
     List<Object[]> findDistinctBorrowedBookNamesWithAmountRaw();
 
-    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.borrowers")
-    List<Book> findAllWithBorrowers();
+    @Query("SELECT b.id FROM Book b JOIN b.borrowers m GROUP BY b.id ORDER BY COUNT(m) DESC, b.id")
+    List<Long> findMostBorrowedIds(Pageable pageable);
+
+    @Query(value = "SELECT * FROM books WHERE to_tsvector('simple', title || ' ' || author)"
+            + " @@ to_tsquery('simple', :query) ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Book> search(@Param("query") String query, @Param("limit") int limit);
+
+    @Query("SELECT b FROM Book b WHERE b.id > :afterId ORDER BY b.id")
+    List<Book> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new org.example.nerdysoft.model.dto.BookMainInfoDto(b.id, b.title, b.author, b.amount)"
+            + " FROM Book b WHERE b.id > :afterId ORDER BY b.id")
+    List<BookMainInfoDto> findSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
 
     @Query("SELECT b FROM Book b LEFT JOIN FETCH b.borrowers WHERE b.id = :id")
-    Optional<Book> findByIdWithBorrowers(@Param("id") Long id);
-}
\ No newline at end of file
+    Optional<Book> findByIdWithBorrowers(@Param(ID) Long id);
+
+    @Query("SELECT SIZE(b.borrowers) FROM Book b WHERE b.id = :id")
+    Optional<Integer> countBorrowersById(@Param(ID) Long id);
+
+    @Modifying
+    @Query("DELETE FROM Book b WHERE b.id = :id")
+    int deleteDirectlyById(@Param(ID) Long id);
+
+    @Modifying
+    @Query("UPDATE Book b SET b.amount = b.amount - 1, b.version = b.version + 1 WHERE b.id = :id AND b.amount > 0")
+    int decrementAmountIfAvailable(@Param(ID) Long id);
+
+    @Modifying
+    @Query("UPDATE Book b SET b.amount = b.amount + 1, b.version = b.version + 1 WHERE b.id = :id")
+    int incrementAmount(@Param(ID) Long id);
+
+    @Modifying
+    @Query("UPDATE Book b SET b.version = b.version + 1 WHERE b.id = :id")
+    int incrementVersion(@Param(ID) Long id);
+
+    @Query("SELECT b.version, COALESCE(SUM(m.version), 0) FROM Book b LEFT JOIN b.borrowers m"
+            + " WHERE b.id = :id GROUP BY b.id, b.version")
+    List<Object[]> findVersionsRaw(@Param(ID) Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Book b WHERE b.id = :id")
+    Optional<Book> findByIdForUpdate(@Param(ID) Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Book b WHERE b.id IN :ids ORDER BY b.id")
+    List<Book> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b.id, b.title FROM Book b WHERE b.id IN :ids")
+    List<Object[]> findTitlesByIdInRaw(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b.title FROM Book b WHERE b.id = :id")
+    String findTitleById(@Param(ID) Long id);
+
+    @Query("SELECT b.id, b.amount, SIZE(b.borrowers) FROM Book b WHERE b.id > :afterId ORDER BY b.id")
+    List<Object[]> findAvailabilityAfterRaw(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT b.id, b.amount, SIZE(b.borrowers) FROM Book b WHERE b.id IN :ids")
+    List<Object[]> findAvailabilityByIdInRaw(@Param("ids") Collection<Long> ids);
+}
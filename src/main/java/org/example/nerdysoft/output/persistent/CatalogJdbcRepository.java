@@ -0,0 +1,268 @@
+package org.example.nerdysoft.output.persistent;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.example.nerdysoft.model.dto.BookMainInfoDto;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Loads and unloads the whole catalog with set-based SQL for the bulk import and export.
+ *
+ * <p>Imported rows are first written to a temporary staging table, through {@code COPY} on PostgreSQL and
+ * through JDBC batches elsewhere, and then merged into {@code books} whatever the number of rows: on PostgreSQL
+ * with a single {@code INSERT ... ON CONFLICT DO UPDATE} like {@link BookRepository#upsertAmount}, elsewhere
+ * with an {@code UPDATE} of the existing books and an {@code INSERT} of the new ones. The staging tables are
+ * dropped when the transaction ends.</p>
+ */
+@Timed("library.jdbc.repository.invocations")
+@Repository
+@RequiredArgsConstructor
+public class CatalogJdbcRepository {
+
+    private static final String CREATE_STAGING_SQL = "CREATE LOCAL TEMPORARY TABLE book_import "
+            + "(title VARCHAR(255) NOT NULL, author VARCHAR(255) NOT NULL, amount INTEGER NOT NULL) ON COMMIT DROP";
+    private static final String CREATE_MERGED_SQL = "CREATE LOCAL TEMPORARY TABLE book_import_merged "
+            + "(title VARCHAR(255) NOT NULL, author VARCHAR(255) NOT NULL, amount BIGINT NOT NULL, "
+            + "PRIMARY KEY (title, author)) ON COMMIT DROP";
+    private static final String COPY_STAGING_SQL =
+            "COPY book_import (title, author, amount) FROM STDIN WITH (FORMAT csv)";
+    private static final String INSERT_STAGING_SQL =
+            "INSERT INTO book_import (title, author, amount) VALUES (?, ?, ?)";
+    private static final String MERGE_STAGING_SQL = "INSERT INTO book_import_merged (title, author, amount) "
+            + "SELECT title, author, SUM(amount) FROM book_import GROUP BY title, author";
+    private static final String UPSERT_MERGED_SQL = "WITH upserted AS (INSERT INTO books (title, author, amount) "
+            + "SELECT title, author, amount FROM book_import_merged ORDER BY title, author "
+            + "ON CONFLICT (title, author) DO UPDATE "
+            + "SET amount = books.amount + EXCLUDED.amount, version = books.version + 1 "
+            + "RETURNING (xmax = 0) AS created) "
+            + "SELECT COUNT(*) FILTER (WHERE created), COUNT(*) FILTER (WHERE NOT created) FROM upserted";
+    private static final String UPDATE_EXISTING_SQL = "UPDATE books SET version = version + 1, amount = amount + "
+            + "(SELECT m.amount FROM book_import_merged m WHERE m.title = books.title AND m.author = books.author) "
+            + "WHERE (title, author) IN (SELECT title, author FROM book_import_merged)";
+    private static final String INSERT_NEW_SQL = "INSERT INTO books (title, author, amount) "
+            + "SELECT m.title, m.author, m.amount FROM book_import_merged m "
+            + "WHERE NOT EXISTS (SELECT 1 FROM books b WHERE b.title = m.title AND b.author = m.author)";
+    private static final String SELECT_AWAITED_SQL = "SELECT b.id, LEAST(m.amount, w.waiting) "
+            + "FROM book_import_merged m JOIN books b ON b.title = m.title AND b.author = m.author "
+            + "JOIN (SELECT book_id, COUNT(*) AS waiting FROM holds WHERE status = 'WAITING' GROUP BY book_id) w "
+            + "ON w.book_id = b.id ORDER BY b.id";
+    private static final String SELECT_BOOKS_SQL = "SELECT id, title, author, amount FROM books ORDER BY id";
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates the staging tables of an import in the current transaction and opens a writer into them.
+     *
+     * @param batchSize the number of rows per JDBC batch when {@code COPY} is not available.
+     * @return the {@link BookStaging} writer.
+     */
+    public BookStaging openStaging(int batchSize) {
+        jdbcTemplate.execute(CREATE_STAGING_SQL);
+        jdbcTemplate.execute(CREATE_MERGED_SQL);
+        PGConnection pgConnection = jdbcTemplate.execute((ConnectionCallback<PGConnection>) connection ->
+                connection.isWrapperFor(PGConnection.class) ? connection.unwrap(PGConnection.class) : null);
+        if (pgConnection == null) {
+            return new BatchStaging(batchSize);
+        }
+        try {
+            return new CopyStaging(new PGCopyOutputStream(pgConnection, COPY_STAGING_SQL, COPY_BUFFER_SIZE));
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("Opening COPY", COPY_STAGING_SQL, e);
+        }
+    }
+
+    /**
+     * Merges the staged rows into {@code books}. Rows with the same title and author are summed up first;
+     * their sum is added to the amount of an existing book with that title and author, or inserted as a new book
+     * whose id comes from the {@code books_seq} default of the column. On PostgreSQL the books are upserted in
+     * title and author order, so concurrent imports lock them in the same order and a concurrent save of a new
+     * book is added to instead of failing the import on the unique constraint.
+     *
+     * @return the number of updated and created books.
+     */
+    public MergeCounts mergeStaging() {
+        jdbcTemplate.update(MERGE_STAGING_SQL);
+        if (isPostgreSql()) {
+            return jdbcTemplate.queryForObject(UPSERT_MERGED_SQL, (resultSet, rowNum) ->
+                    new MergeCounts(resultSet.getInt(1), resultSet.getInt(2)));
+        }
+        int updated = jdbcTemplate.update(UPDATE_EXISTING_SQL);
+        int created = jdbcTemplate.update(INSERT_NEW_SQL);
+        return new MergeCounts(created, updated);
+    }
+
+    /**
+     * Lists the merged copies that members are waiting for, at most one per waiting hold of their book.
+     * Must run after {@link #mergeStaging()} in the same transaction.
+     *
+     * @return the id of the book of every such copy, repeated once per copy.
+     */
+    public List<Long> findAwaitedCopies() {
+        List<Long> bookIds = new ArrayList<>();
+        jdbcTemplate.query(SELECT_AWAITED_SQL, resultSet -> {
+            bookIds.addAll(Collections.nCopies(resultSet.getInt(2), resultSet.getLong(1)));
+        });
+        return bookIds;
+    }
+
+    /**
+     * Streams every book in id order through a server-side cursor, so memory use does not grow with the catalog.
+     *
+     * @param fetchSize the number of rows fetched per round trip.
+     * @param consumer the consumer of the books.
+     */
+    public void streamBooks(int fetchSize, Consumer<BookMainInfoDto> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_BOOKS_SQL);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, resultSet -> {
+            consumer.accept(new BookMainInfoDto(resultSet.getLong(1), resultSet.getString(2),
+                    resultSet.getString(3), resultSet.getInt(4)));
+        });
+    }
+
+    private boolean isPostgreSql() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                connection.isWrapperFor(PGConnection.class)));
+    }
+
+    /**
+     * The number of books a merge updated and created.
+     *
+     * @param created the number of inserted books.
+     * @param updated the number of books whose amount was increased.
+     */
+    public record MergeCounts(int created, int updated) {
+    }
+
+    /**
+     * Writes imported rows into the staging table. Closing a writer that was not finished abandons its rows.
+     */
+    public interface BookStaging extends AutoCloseable {
+
+        /**
+         * Stages one row.
+         *
+         * @param title the title of the book.
+         * @param author the author of the book.
+         * @param amount the number of copies to add.
+         */
+        void add(String title, String author, int amount);
+
+        /**
+         * Writes the rows that are still buffered, so that the staging table holds every added row.
+         */
+        void finish();
+
+        @Override
+        void close();
+    }
+
+    private final class BatchStaging implements BookStaging {
+
+        private final int batchSize;
+        private final List<Object[]> rows;
+
+        private BatchStaging(int batchSize) {
+            this.batchSize = batchSize;
+            this.rows = new ArrayList<>(batchSize);
+        }
+
+        @Override
+        public void add(String title, String author, int amount) {
+            rows.add(new Object[]{title, author, amount});
+            if (rows.size() >= batchSize) {
+                finish();
+            }
+        }
+
+        @Override
+        public void finish() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_STAGING_SQL, rows);
+                rows.clear();
+            }
+        }
+
+        @Override
+        public void close() {
+            rows.clear();
+        }
+    }
+
+    private static final class CopyStaging implements BookStaging {
+
+        private final PGCopyOutputStream copy;
+        private final Writer writer;
+
+        private CopyStaging(PGCopyOutputStream copy) {
+            this.copy = copy;
+            this.writer = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8),
+                    COPY_BUFFER_SIZE);
+        }
+
+        @Override
+        public void add(String title, String author, int amount) {
+            try {
+                writeQuoted(title);
+                writer.write(',');
+                writeQuoted(author);
+                writer.write(',');
+                writer.write(Integer.toString(amount));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void finish() {
+            try {
+                writer.flush();
+                copy.endCopy();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (SQLException e) {
+                throw new UncategorizedSQLException("Ending COPY", COPY_STAGING_SQL, e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (copy.isActive()) {
+                try {
+                    copy.cancelCopy();
+                } catch (SQLException e) {
+                    throw new UncategorizedSQLException("Cancelling COPY", COPY_STAGING_SQL, e);
+                }
+            }
+        }
+
+        private void writeQuoted(String value) throws IOException {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.nerdysoft.output.persistent;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.example.nerdysoft.model.entity.Hold;
+import org.example.nerdysoft.model.entity.HoldStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface HoldRepository extends JpaRepository<Hold, Long> {
+
+    /**
+     * Locks the longest waiting hold of a book, skipping holds that another transaction is cancelling.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT h FROM Hold h WHERE h.bookId = :bookId"
+            + " AND h.status = org.example.nerdysoft.model.entity.HoldStatus.WAITING ORDER BY h.id")
+    List<Hold> findWaitingForUpdate(@Param("bookId") Long bookId, Pageable pageable);
+
+    /**
+     * Finds the members of the longest waiting holds of the given books, up to {@code perBook} holds per book,
+     * without locking them.
+     */
+    @Query(value = "SELECT member_id FROM (SELECT member_id,"
+            + " ROW_NUMBER() OVER (PARTITION BY book_id ORDER BY id) AS position FROM holds"
+            + " WHERE book_id IN (:bookIds) AND status = 'WAITING') waiting WHERE position <= :perBook",
+            nativeQuery = true)
+    List<Long> findNextWaitingMemberIds(@Param("bookIds") Collection<Long> bookIds, @Param("perBook") int perBook);
+
+    @Query("SELECT DISTINCT h.bookId FROM Hold h WHERE h.bookId IN :bookIds"
+            + " AND h.status = org.example.nerdysoft.model.entity.HoldStatus.WAITING")
+    List<Long> findBookIdsWithWaitingHolds(@Param("bookIds") Collection<Long> bookIds);
+
+    @Query("SELECT h.memberId, COUNT(h) FROM Hold h WHERE h.memberId IN :memberIds"
+            + " AND h.status = org.example.nerdysoft.model.entity.HoldStatus.WAITING GROUP BY h.memberId")
+    List<Object[]> countWaitingByMemberIdsRaw(@Param("memberIds") Collection<Long> memberIds);
+
+    /**
+     * Resolves a hold only while it is still waiting, so a hold that a concurrent return has fulfilled is
+     * left as it is.
+     *
+     * @return the number of updated rows, 0 if the hold does not exist or is no longer waiting.
+     */
+    @Modifying
+    @Query("UPDATE Hold h SET h.status = :status, h.resolvedAt = :resolvedAt WHERE h.id = :id"
+            + " AND h.status = org.example.nerdysoft.model.entity.HoldStatus.WAITING")
+    int resolveIfWaiting(@Param("id") Long id, @Param("status") HoldStatus status,
+                         @Param("resolvedAt") Instant resolvedAt);
+
+    long countByMemberIdAndStatus(Long memberId, HoldStatus status);
+
+    long countByBookIdAndStatusAndIdLessThan(Long bookId, HoldStatus status, Long id);
+
+    boolean existsByMemberIdAndBookIdAndStatus(Long memberId, Long bookId, HoldStatus status);
+}
@@ -0,0 +1,29 @@
+package org.example.nerdysoft.output.persistent;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.example.nerdysoft.model.dto.LoanEventDto;
+import org.example.nerdysoft.model.entity.LoanEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LoanEventRepository extends JpaRepository<LoanEvent, Long> {
+
+    @Query("SELECT e FROM LoanEvent e WHERE e.id > :afterId AND e.occurredAt <= :until ORDER BY e.id")
+    List<LoanEvent> findChunkAfter(@Param("afterId") Long afterId, @Param("until") Instant until, Pageable pageable);
+
+    @Query("SELECT new org.example.nerdysoft.model.dto.LoanEventDto(e.memberId, e.bookId, e.action, e.occurredAt)"
+            + " FROM LoanEvent e WHERE e.bookId = :bookId AND e.occurredAt BETWEEN :from AND :to ORDER BY e.id")
+    List<LoanEventDto> findBookHistory(@Param("bookId") Long bookId, @Param("from") Instant from,
+                                       @Param("to") Instant to);
+
+    @Query("SELECT new org.example.nerdysoft.model.dto.LoanEventDto(e.memberId, e.bookId, e.action, e.occurredAt)"
+            + " FROM LoanEvent e WHERE e.memberId = :memberId AND e.occurredAt BETWEEN :from AND :to ORDER BY e.id")
+    List<LoanEventDto> findMemberHistory(@Param("memberId") Long memberId, @Param("from") Instant from,
+                                         @Param("to") Instant to);
+}
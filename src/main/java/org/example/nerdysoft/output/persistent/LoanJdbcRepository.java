@@ -0,0 +1,124 @@
+package org.example.nerdysoft.output.persistent;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.entity.LoanEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Writes loans, loan events and inventory changes as JDBC batches, and relays loan events from the outbox.
+ * Every call is timed as {@code library.jdbc.repository.invocations}, tagged with the method name.
+ */
+@Timed("library.jdbc.repository.invocations")
+@Repository
+@RequiredArgsConstructor
+public class LoanJdbcRepository {
+
+    private static final String INSERT_LOAN_SQL =
+            "INSERT INTO member_books (member_id, book_id, borrowed_at, due_at) VALUES (?, ?, ?, ?)";
+    private static final String DELETE_LOAN_SQL = "DELETE FROM member_books WHERE member_id = ? AND book_id = ?";
+    private static final String INSERT_PENDING_LOAN_EVENT_SQL =
+            "INSERT INTO loan_event_outbox (member_id, book_id, action, occurred_at) VALUES (?, ?, ?, ?)";
+    private static final String LOCK_PENDING_LOAN_EVENTS_SQL = "SELECT id, member_id, book_id, action, occurred_at"
+            + " FROM loan_event_outbox ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String INSERT_LOAN_EVENT_SQL =
+            "INSERT INTO loan_events (id, member_id, book_id, action, occurred_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String DELETE_PENDING_LOAN_EVENT_SQL = "DELETE FROM loan_event_outbox WHERE id = ?";
+    private static final String ADJUST_AMOUNT_SQL =
+            "UPDATE books SET amount = amount + ?, version = version + 1 WHERE id = ?";
+    private static final String ADJUST_ACTIVE_LOANS_SQL =
+            "UPDATE members SET active_loans = active_loans + ?, version = version + 1 WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the given (member, book) loans in one batch.
+     *
+     * @param loans the loans to insert.
+     * @param borrowedAt the borrow time of every loan.
+     * @param dueAt the due date of every loan.
+     */
+    public void insertLoans(List<BorrowRequestDto> loans, Instant borrowedAt, Instant dueAt) {
+        Timestamp borrowed = Timestamp.from(borrowedAt);
+        Timestamp due = Timestamp.from(dueAt);
+        List<Object[]> args = new ArrayList<>(loans.size());
+        loans.forEach(loan -> args.add(new Object[]{loan.getMemberId(), loan.getBookId(), borrowed, due}));
+        jdbcTemplate.batchUpdate(INSERT_LOAN_SQL, args);
+    }
+
+    /**
+     * Deletes the given (member, book) loans in one batch.
+     *
+     * @param loans the loans to delete.
+     * @return the number of deleted rows for each loan, in input order.
+     */
+    public int[] deleteLoans(List<BorrowRequestDto> loans) {
+        List<Object[]> args = new ArrayList<>(loans.size());
+        loans.forEach(loan -> args.add(new Object[]{loan.getMemberId(), loan.getBookId()}));
+        return jdbcTemplate.batchUpdate(DELETE_LOAN_SQL, args);
+    }
+
+    /**
+     * Writes the given events to the loan event outbox in one batch. The database assigns their ids in input order.
+     *
+     * @param events the borrows and returns to append.
+     */
+    public void appendLoanEvents(List<LoanEvent> events) {
+        List<Object[]> args = new ArrayList<>(events.size());
+        events.forEach(event -> args.add(new Object[]{event.getMemberId(), event.getBookId(),
+                event.getAction().name(), Timestamp.from(event.getOccurredAt())}));
+        jdbcTemplate.batchUpdate(INSERT_PENDING_LOAN_EVENT_SQL, args);
+    }
+
+    /**
+     * Moves the oldest events of the outbox to the loan event log, keeping their ids: one locking read and one
+     * batch each to insert and delete. Events locked by a concurrent relay are skipped.
+     *
+     * @param limit the maximum number of events to move.
+     * @return the number of events moved.
+     */
+    public int relayLoanEvents(int limit) {
+        List<Object[]> events = jdbcTemplate.query(LOCK_PENDING_LOAN_EVENTS_SQL, (rs, rowNum) -> new Object[]{
+                rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getString(4), rs.getTimestamp(5)}, limit);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> ids = new ArrayList<>(events.size());
+        events.forEach(event -> ids.add(new Object[]{event[0]}));
+        jdbcTemplate.batchUpdate(INSERT_LOAN_EVENT_SQL, events);
+        jdbcTemplate.batchUpdate(DELETE_PENDING_LOAN_EVENT_SQL, ids);
+        return events.size();
+    }
+
+    /**
+     * Adds the given deltas to the amount of each book in one batch, in book id order.
+     *
+     * @param deltas the amount change per book id.
+     */
+    public void adjustAmounts(Map<Long, Integer> deltas) {
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        new TreeMap<>(deltas).forEach((bookId, delta) -> args.add(new Object[]{delta, bookId}));
+        jdbcTemplate.batchUpdate(ADJUST_AMOUNT_SQL, args);
+    }
+
+    /**
+     * Adds the given deltas to the active loan count of each member in one batch, in member id order.
+     *
+     * @param deltas the loan count change per member id.
+     */
+    public void adjustActiveLoans(Map<Long, Integer> deltas) {
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        new TreeMap<>(deltas).forEach((memberId, delta) -> args.add(new Object[]{delta, memberId}));
+        jdbcTemplate.batchUpdate(ADJUST_ACTIVE_LOANS_SQL, args);
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.nerdysoft.output.persistent;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.example.nerdysoft.model.dto.OverdueLoanDto;
+import org.example.nerdysoft.model.entity.Loan;
+import org.example.nerdysoft.model.entity.LoanId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LoanRepository extends JpaRepository<Loan, LoanId> {
+
+    /**
+     * Reads the loans due by {@code until} that come after the given (due date, member id, book id) key.
+     * The redundant {@code l.dueAt >= :afterDueAt} gives the {@code due_at} index a range start at the key,
+     * which the database cannot derive from the {@code OR}s of the keyset predicate.
+     */
+    @Query("SELECT new org.example.nerdysoft.model.dto.OverdueLoanDto(l.memberId, l.bookId, l.borrowedAt, l.dueAt)"
+            + " FROM Loan l WHERE l.dueAt <= :until AND l.dueAt >= :afterDueAt"
+            + " AND (l.dueAt > :afterDueAt OR (l.dueAt = :afterDueAt AND (l.memberId > :afterMemberId"
+            + " OR (l.memberId = :afterMemberId AND l.bookId > :afterBookId))))"
+            + " ORDER BY l.dueAt, l.memberId, l.bookId")
+    List<OverdueLoanDto> findDueAfter(@Param("afterDueAt") Instant afterDueAt,
+                                      @Param("afterMemberId") Long afterMemberId,
+                                      @Param("afterBookId") Long afterBookId,
+                                      @Param("until") Instant until, Pageable pageable);
+}
@@ -1,28 +1,112 @@
 package org.example.nerdysoft.output.persistent;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.example.nerdysoft.model.dto.MemberMainInfoDto;
 import org.example.nerdysoft.model.entity.Book;
 import org.example.nerdysoft.model.entity.Member;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface MemberRepository extends JpaRepository<Member, Long> {
-    @Query("SELECT m FROM Member m LEFT JOIN FETCH m.borrowedBooks WHERE m.name = :name")
-    Optional<Member> findByNameWithBorrowedBooks(@Param("name") String name);
+    String ID = "id";
+    String MEMBER_ID = "memberId";
+
+    @Query("SELECT m.id FROM Member m WHERE m.name = :name")
+    Optional<Long> findIdByName(@Param("name") String name);
 
-    @Query("SELECT m FROM Member m LEFT JOIN FETCH m.borrowedBooks")
-    List<Member> findAllWithBorrowedBooks();
+    @Query("SELECT m FROM Member m WHERE m.id > :afterId ORDER BY m.id")
+    List<Member> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new org.example.nerdysoft.model.dto.MemberMainInfoDto(m.id, m.name, m.membershipDate)"
+            + " FROM Member m WHERE m.id > :afterId ORDER BY m.id")
+    List<MemberMainInfoDto> findSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
 
     @Query("SELECT m FROM Member m LEFT JOIN FETCH m.borrowedBooks WHERE m.id = :id")
-    Optional<Member> findByIdWithBorrowedBooks(@Param("id") Long id);
+    Optional<Member> findByIdWithBorrowedBooks(@Param(ID) Long id);
 
     @Modifying
     @Query("UPDATE Member m SET m.borrowedBooks = :book WHERE m.id = :memberId")
-    void updateBorrowedBooks(@Param("memberId") Long memberId, @Param("book") Book book);
+    void updateBorrowedBooks(@Param(MEMBER_ID) Long memberId, @Param("book") Book book);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Member m WHERE m.id = :id")
+    Optional<Member> findByIdForUpdate(@Param(ID) Long id);
+
+    /**
+     * Locks a member row without waiting for it.
+     *
+     * @return the id of the member, or empty if the member does not exist or another transaction holds its lock.
+     */
+    @Query(value = "SELECT id FROM members WHERE id = :id FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<Long> lockIfFree(@Param(ID) Long id);
+
+    @Modifying
+    @Query("UPDATE Member m SET m.version = m.version + 1 WHERE m.id IN :ids")
+    int incrementVersions(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT m.version, COALESCE(SUM(b.version), 0) FROM Member m LEFT JOIN m.borrowedBooks b"
+            + " WHERE m.id = :id GROUP BY m.id, m.version")
+    List<Object[]> findVersionsRaw(@Param(ID) Long id);
+
+    @Query(value = "SELECT m.active_loans"
+            + " + (SELECT COUNT(*) FROM holds WHERE member_id = m.id AND status = 'WAITING')"
+            + " FROM members m WHERE m.id = :memberId", nativeQuery = true)
+    long countLoansAndWaitingHolds(@Param(MEMBER_ID) Long memberId);
+
+    @Modifying
+    @Query(value = "UPDATE members SET active_loans = active_loans + 1, version = version + 1"
+            + " WHERE id = :memberId AND active_loans"
+            + " + (SELECT COUNT(*) FROM holds WHERE member_id = :memberId AND status = 'WAITING') < :limit",
+            nativeQuery = true)
+    int takeLoanIfBelowLimit(@Param(MEMBER_ID) Long memberId, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE Member m SET m.activeLoans = m.activeLoans - 1, m.version = m.version + 1"
+            + " WHERE m.id = :id AND m.activeLoans > 0")
+    int releaseLoanIfTaken(@Param(ID) Long id);
+
+    @Modifying
+    @Query("UPDATE Member m SET m.activeLoans = m.activeLoans + :delta, m.version = m.version + 1 WHERE m.id = :id")
+    int adjustActiveLoans(@Param(ID) Long id, @Param("delta") int delta);
+
+    @Modifying
+    @Query(value = "INSERT INTO member_books (member_id, book_id, borrowed_at, due_at) "
+            + "VALUES (:memberId, :bookId, :borrowedAt, :dueAt) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertBorrowedBook(@Param(MEMBER_ID) Long memberId, @Param("bookId") Long bookId,
+                           @Param("borrowedAt") Instant borrowedAt, @Param("dueAt") Instant dueAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM member_books WHERE member_id = :memberId AND book_id = :bookId", nativeQuery = true)
+    int deleteBorrowedBook(@Param(MEMBER_ID) Long memberId, @Param("bookId") Long bookId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Member m WHERE m.id IN :ids ORDER BY m.id")
+    List<Member> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT member_id, book_id FROM member_books "
+            + "WHERE member_id IN (:memberIds) AND book_id IN (:bookIds)", nativeQuery = true)
+    List<Object[]> findLoansRaw(@Param("memberIds") Collection<Long> memberIds,
+                                @Param("bookIds") Collection<Long> bookIds);
+
+    @Query("SELECT m.activeLoans FROM Member m WHERE m.id = :id")
+    Optional<Integer> findActiveLoansById(@Param(ID) Long id);
+
+    @Modifying
+    @Query("DELETE FROM Member m WHERE m.id = :id")
+    int deleteDirectlyById(@Param(ID) Long id);
+
+    @Query("SELECT b.id FROM Member m JOIN m.borrowedBooks b WHERE m.id = :id")
+    List<Long> findBorrowedBookIds(@Param(ID) Long id);
 }
@@ -0,0 +1,54 @@
+package org.example.nerdysoft.output.persistent;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.example.nerdysoft.model.entity.OverdueSweepWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface OverdueSweepWatermarkRepository extends JpaRepository<OverdueSweepWatermark, Long> {
+
+    String ID = "id";
+
+    /**
+     * Creates the watermark row at the given due date, after every loan due at that instant,
+     * unless it already exists.
+     *
+     * @return the number of inserted rows, 0 if the watermark already existed.
+     */
+    default int insertIfAbsent(Long id, Instant dueAt) {
+        return insertIfAbsent(id, dueAt, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates the watermark row at the given key unless it already exists.
+     *
+     * @return the number of inserted rows, 0 if the watermark already existed.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO overdue_sweep_watermark (id, due_at, member_id, book_id)"
+            + " VALUES (:id, :dueAt, :lastId, :lastId) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param(ID) Long id, @Param("dueAt") Instant dueAt, @Param("lastId") long lastId);
+
+    /**
+     * Locks the watermark row, so that concurrent sweeps, on this or another instance, read and advance it
+     * one chunk at a time.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM OverdueSweepWatermark w WHERE w.id = :id")
+    Optional<OverdueSweepWatermark> findByIdForUpdate(@Param(ID) Long id);
+
+    @Modifying
+    @Query("UPDATE OverdueSweepWatermark w SET w.dueAt = :dueAt, w.memberId = :memberId, w.bookId = :bookId"
+            + " WHERE w.id = :id")
+    int advance(@Param(ID) Long id, @Param("dueAt") Instant dueAt, @Param("memberId") Long memberId,
+                @Param("bookId") Long bookId);
+}
@@ -0,0 +1,76 @@
+package org.example.nerdysoft.output.persistent.reactive;
+
+import java.util.Collection;
+
+import org.example.nerdysoft.model.dto.BookMainInfoDto;
+import org.example.nerdysoft.model.entity.reactive.BookBorrower;
+import org.example.nerdysoft.model.entity.reactive.ReactiveBook;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveBookRepository extends R2dbcRepository<ReactiveBook, Long> {
+    String ID = "id";
+
+    @Query("INSERT INTO books (title, author, amount) VALUES (:title, :author, :amount)"
+            + " ON CONFLICT (title, author) DO UPDATE"
+            + " SET amount = books.amount + EXCLUDED.amount, version = books.version + 1"
+            + " RETURNING id, title, author, amount")
+    Mono<BookMainInfoDto> upsertAmount(@Param("title") String title, @Param("author") String author,
+                                       @Param("amount") int amount);
+
+    Mono<Boolean> existsByTitleAndAuthorAndIdNot(String title, String author, Long id);
+
+    @Query("SELECT id, title, author, amount FROM books WHERE to_tsvector('simple', title || ' ' || author)"
+            + " @@ to_tsquery('simple', :query) ORDER BY id LIMIT :limit")
+    Flux<BookMainInfoDto> search(@Param("query") String query, @Param("limit") int limit);
+
+    @Query("SELECT id, title, author, amount FROM books WHERE id > :afterId ORDER BY id LIMIT :limit")
+    Flux<BookMainInfoDto> findSummariesAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    @Query("SELECT id, title, author, amount FROM books WHERE id = :id")
+    Mono<BookMainInfoDto> findSummaryById(@Param(ID) Long id);
+
+    @Query("SELECT mb.book_id, m.id, m.name, m.membership_date::date AS membership_date"
+            + " FROM member_books mb JOIN members m ON m.id = mb.member_id WHERE mb.book_id IN (:bookIds)")
+    Flux<BookBorrower> findBorrowers(@Param("bookIds") Collection<Long> bookIds);
+
+    @Query("SELECT COUNT(mb.member_id) FROM books b LEFT JOIN member_books mb ON mb.book_id = b.id"
+            + " WHERE b.id = :id GROUP BY b.id")
+    Mono<Long> countBorrowersById(@Param(ID) Long id);
+
+    @Query("SELECT b.version || '-' || COALESCE(SUM(m.version), 0) FROM books b"
+            + " LEFT JOIN member_books mb ON mb.book_id = b.id LEFT JOIN members m ON m.id = mb.member_id"
+            + " WHERE b.id = :id GROUP BY b.id, b.version")
+    Mono<String> findETag(@Param(ID) Long id);
+
+    @Query("SELECT id, title, author, amount, version FROM books WHERE id = :id FOR UPDATE")
+    Mono<ReactiveBook> findByIdForUpdate(@Param(ID) Long id);
+
+    @Query("SELECT title FROM books WHERE id = :id")
+    Mono<String> findTitleById(@Param(ID) Long id);
+
+    @Modifying
+    @Query("UPDATE books SET title = :title, author = :author, amount = :amount, version = version + 1"
+            + " WHERE id = :id")
+    Mono<Integer> updateDetails(@Param(ID) Long id, @Param("title") String title, @Param("author") String author,
+                                @Param("amount") int amount);
+
+    @Modifying
+    @Query("UPDATE books SET amount = amount - 1, version = version + 1 WHERE id = :id AND amount > 0")
+    Mono<Integer> decrementAmountIfAvailable(@Param(ID) Long id);
+
+    @Modifying
+    @Query("UPDATE books SET amount = amount + 1, version = version + 1 WHERE id = :id")
+    Mono<Integer> incrementAmount(@Param(ID) Long id);
+
+    @Modifying
+    @Query("DELETE FROM books WHERE id = :id")
+    Mono<Integer> deleteDirectlyById(@Param(ID) Long id);
+}
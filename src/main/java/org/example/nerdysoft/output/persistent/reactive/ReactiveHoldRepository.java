@@ -0,0 +1,31 @@
+package org.example.nerdysoft.output.persistent.reactive;
+
+import java.time.Instant;
+
+import org.example.nerdysoft.model.entity.reactive.ReactiveHold;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveHoldRepository extends R2dbcRepository<ReactiveHold, Long> {
+
+    /**
+     * Locks the longest waiting hold of a book, skipping holds that another transaction is cancelling.
+     */
+    @Query("SELECT * FROM holds WHERE book_id = :bookId AND status = 'WAITING'"
+            + " ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED")
+    Mono<ReactiveHold> findFirstWaitingForUpdate(@Param("bookId") Long bookId);
+
+    @Query("SELECT member_id FROM holds WHERE book_id = :bookId AND status = 'WAITING' ORDER BY id LIMIT 1")
+    Mono<Long> findNextWaitingMemberId(@Param("bookId") Long bookId);
+
+    @Modifying
+    @Query("UPDATE holds SET status = :status, resolved_at = :resolvedAt WHERE id = :id")
+    Mono<Integer> resolve(@Param("id") Long id, @Param("status") String status,
+                          @Param("resolvedAt") Instant resolvedAt);
+}
@@ -0,0 +1,116 @@
+package org.example.nerdysoft.output.persistent.reactive;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.example.nerdysoft.model.dto.BookMainInfoDto;
+import org.example.nerdysoft.model.dto.MemberMainInfoDto;
+import org.example.nerdysoft.model.entity.LoanEvent;
+import org.example.nerdysoft.model.entity.reactive.MemberBook;
+import org.example.nerdysoft.model.entity.reactive.ReactiveMember;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveMemberRepository extends R2dbcRepository<ReactiveMember, Long> {
+    String ID = "id";
+    String MEMBER_ID = "memberId";
+
+    @Query("INSERT INTO members (name, membership_date) VALUES (:name, :membershipDate)"
+            + " RETURNING id, name, membership_date::date AS membership_date")
+    Mono<MemberMainInfoDto> insertMember(@Param("name") String name,
+                                         @Param("membershipDate") LocalDate membershipDate);
+
+    Mono<Boolean> existsByName(String name);
+
+    @Query("SELECT id, name, membership_date::date AS membership_date FROM members"
+            + " WHERE id > :afterId ORDER BY id LIMIT :limit")
+    Flux<MemberMainInfoDto> findSummariesAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    @Query("SELECT id, name, membership_date::date AS membership_date FROM members WHERE id = :id")
+    Mono<MemberMainInfoDto> findSummaryById(@Param(ID) Long id);
+
+    @Query("SELECT mb.member_id, b.id, b.title, b.author, b.amount"
+            + " FROM member_books mb JOIN books b ON b.id = mb.book_id WHERE mb.member_id IN (:memberIds)")
+    Flux<MemberBook> findBorrowedBooks(@Param("memberIds") Collection<Long> memberIds);
+
+    @Query("SELECT b.id, b.title, b.author, b.amount FROM members m"
+            + " JOIN member_books mb ON mb.member_id = m.id JOIN books b ON b.id = mb.book_id WHERE m.name = :name")
+    Flux<BookMainInfoDto> findBorrowedBooksByName(@Param("name") String name);
+
+    @Query("SELECT m.version || '-' || COALESCE(SUM(b.version), 0) FROM members m"
+            + " LEFT JOIN member_books mb ON mb.member_id = m.id LEFT JOIN books b ON b.id = mb.book_id"
+            + " WHERE m.id = :id GROUP BY m.id, m.version")
+    Mono<String> findETag(@Param(ID) Long id);
+
+    @Modifying
+    @Query("UPDATE members SET name = :name, version = version + 1 WHERE id = :id")
+    Mono<Integer> updateName(@Param(ID) Long id, @Param("name") String name);
+
+    @Modifying
+    @Query("UPDATE members SET active_loans = active_loans + 1, version = version + 1"
+            + " WHERE id = :memberId AND active_loans"
+            + " + (SELECT COUNT(*) FROM holds WHERE member_id = :memberId AND status = 'WAITING') < :limit")
+    Mono<Integer> takeLoanIfBelowLimit(@Param(MEMBER_ID) Long memberId, @Param("limit") int limit);
+
+    @Query("SELECT id FROM members WHERE id IN (:ids) ORDER BY id FOR NO KEY UPDATE")
+    Flux<Long> lockAllById(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Locks a member row without waiting for it.
+     *
+     * @return the id of the member, or empty if the member does not exist or another transaction holds its lock.
+     */
+    @Query("SELECT id FROM members WHERE id = :id FOR NO KEY UPDATE SKIP LOCKED")
+    Mono<Long> lockIfFree(@Param(ID) Long id);
+
+    @Modifying
+    @Query("UPDATE members SET active_loans = active_loans - 1, version = version + 1"
+            + " WHERE id = :id AND active_loans > 0")
+    Mono<Integer> releaseLoanIfTaken(@Param(ID) Long id);
+
+    @Modifying
+    @Query("UPDATE members SET active_loans = active_loans + :delta, version = version + 1 WHERE id = :id")
+    Mono<Integer> adjustActiveLoans(@Param(ID) Long id, @Param("delta") int delta);
+
+    @Modifying
+    @Query("INSERT INTO member_books (member_id, book_id, borrowed_at, due_at)"
+            + " VALUES (:memberId, :bookId, :borrowedAt, :dueAt) ON CONFLICT DO NOTHING")
+    Mono<Integer> insertBorrowedBook(@Param(MEMBER_ID) Long memberId, @Param("bookId") Long bookId,
+                                     @Param("borrowedAt") Instant borrowedAt, @Param("dueAt") Instant dueAt);
+
+    @Modifying
+    @Query("INSERT INTO loan_event_outbox (member_id, book_id, action, occurred_at)"
+            + " VALUES (:memberId, :bookId, :action, :occurredAt)")
+    Mono<Integer> insertLoanEvent(@Param(MEMBER_ID) Long memberId, @Param("bookId") Long bookId,
+                                  @Param("action") String action, @Param("occurredAt") Instant occurredAt);
+
+    /**
+     * Writes the given events to the loan event outbox one after another, in the current transaction.
+     *
+     * @param events the borrows and returns to append.
+     * @return completion once every event is inserted.
+     */
+    default Mono<Void> appendLoanEvents(List<LoanEvent> events) {
+        return Flux.fromIterable(events)
+                .concatMap(event -> insertLoanEvent(event.getMemberId(), event.getBookId(), event.getAction().name(),
+                        event.getOccurredAt()))
+                .then();
+    }
+
+    @Modifying
+    @Query("DELETE FROM member_books WHERE member_id = :memberId AND book_id = :bookId")
+    Mono<Integer> deleteBorrowedBook(@Param(MEMBER_ID) Long memberId, @Param("bookId") Long bookId);
+
+    @Modifying
+    @Query("DELETE FROM members WHERE id = :id")
+    Mono<Integer> deleteDirectlyById(@Param(ID) Long id);
+}
@@ -0,0 +1,32 @@
+package org.example.nerdysoft.output.persistent.routing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the reads that fill the shared catalog caches on the primary. Cache entries outlive the replication lag,
+ * so an entry loaded from a replica that has not replayed a write yet would stay stale after the eviction that
+ * write caused.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "library.datasource.replicas.enabled", havingValue = "true")
+public class CacheFillRouting {
+
+    /**
+     * Runs a cacheable service call pinned to the primary.
+     *
+     * @param joinPoint the intercepted service call.
+     * @return the result of the service call.
+     * @throws Throwable any exception thrown by the service call.
+     */
+    @Around("@annotation(org.springframework.cache.annotation.Cacheable)")
+    public Object onPrimary(ProceedingJoinPoint joinPoint) throws Throwable {
+        try (PrimaryPin pin = ReplicaRoutingDataSource.pinToPrimary()) {
+            return joinPoint.proceed();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.nerdysoft.output.persistent.routing;
+
+/**
+ * Keeps the reads of the current thread on the primary until closed.
+ */
+public interface PrimaryPin extends AutoCloseable {
+
+    @Override
+    void close();
+}
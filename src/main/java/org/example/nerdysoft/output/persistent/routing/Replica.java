@@ -0,0 +1,54 @@
+package org.example.nerdysoft.output.persistent.routing;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import lombok.Getter;
+
+/**
+ * A replica connection pool with the replication lag last measured on it.
+ */
+@Getter
+public final class Replica {
+
+    private static final long UNKNOWN = Long.MAX_VALUE;
+
+    private final String name;
+    private final DataSource dataSource;
+    private volatile long lagMillis = UNKNOWN;
+
+    public Replica(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Records a measured replication lag.
+     *
+     * @param lag how far the replica is behind the primary.
+     */
+    public void recordLag(Duration lag) {
+        this.lagMillis = lag.toMillis();
+    }
+
+    /**
+     * Records that the lag could not be measured, which takes the replica out of rotation until it can.
+     */
+    public void recordUnavailable() {
+        this.lagMillis = UNKNOWN;
+    }
+
+    /**
+     * Tells whether the lag is known.
+     *
+     * @return {@code true} if the last measurement succeeded.
+     */
+    public boolean isAvailable() {
+        return lagMillis != UNKNOWN;
+    }
+
+    boolean isWithin(long maxLagMillis) {
+        return lagMillis <= maxLagMillis;
+    }
+}
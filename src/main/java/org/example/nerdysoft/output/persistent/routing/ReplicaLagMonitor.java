@@ -0,0 +1,97 @@
+package org.example.nerdysoft.output.persistent.routing;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Measures the replication lag of every replica every {@code library.datasource.replicas.lag-check-interval}.
+ *
+ * <p>The WAL position of the primary is read first. A replica that has replayed up to that position counts as
+ * caught up even when the primary has been idle for a while; otherwise the lag is the age of the last transaction
+ * it replayed. What the replica has merely received is not trusted, because a replica whose WAL receiver is
+ * disconnected has replayed everything it received and would look caught up while it falls behind. When the
+ * primary cannot be read, every replica is measured by the age of its last replayed transaction. A server that is
+ * not in recovery at all, such as a second standalone instance used locally, has no lag. A replica that cannot be
+ * queried is taken out of rotation until it answers again. Exposed through Actuator as
+ * {@code library.datasource.replica.lag}.</p>
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String PRIMARY_LSN_SQL = "SELECT CAST(pg_current_wal_lsn() AS text)";
+    private static final String LAG_SQL = "SELECT CASE WHEN NOT pg_is_in_recovery()"
+            + " OR pg_last_wal_replay_lsn() >= CAST(? AS pg_lsn) THEN 0"
+            + " ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END";
+    private static final int QUERY_TIMEOUT_SECONDS = 1;
+
+    private final JdbcTemplate primaryJdbcTemplate;
+    private final List<Replica> replicas;
+    private final List<JdbcTemplate> jdbcTemplates;
+
+    public ReplicaLagMonitor(DataSource primary, List<Replica> replicas, MeterRegistry meterRegistry) {
+        this.primaryJdbcTemplate = jdbcTemplate(primary);
+        this.replicas = List.copyOf(replicas);
+        this.jdbcTemplates = this.replicas.stream().map(replica -> jdbcTemplate(replica.getDataSource())).toList();
+        for (Replica replica : this.replicas) {
+            Gauge.builder("library.datasource.replica.lag", replica,
+                            r -> r.isAvailable() ? r.getLagMillis() / 1000.0 : Double.NaN)
+                    .description("Replication lag of the replica, NaN while it cannot be measured")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Measures the lag of every replica.
+     */
+    @Scheduled(fixedDelayString = "${library.datasource.replicas.lag-check-interval:PT1S}")
+    public void check() {
+        String primaryLsn = readPrimaryLsn();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(i);
+            boolean wasAvailable = replica.isAvailable();
+            try {
+                Double lagMillis = jdbcTemplates.get(i).queryForObject(LAG_SQL, Double.class, primaryLsn);
+                if (lagMillis == null) {
+                    replica.recordUnavailable();
+                } else {
+                    replica.recordLag(Duration.ofMillis(lagMillis.longValue()));
+                }
+            } catch (DataAccessException e) {
+                replica.recordUnavailable();
+                if (wasAvailable) {
+                    log.warn("Taking replica {} out of rotation: {}", replica.getName(), e.getMessage());
+                }
+            }
+            if (!wasAvailable && replica.isAvailable()) {
+                log.info("Replica {} is available with a lag of {} ms", replica.getName(), replica.getLagMillis());
+            }
+        }
+    }
+
+    private String readPrimaryLsn() {
+        try {
+            return primaryJdbcTemplate.queryForObject(PRIMARY_LSN_SQL, String.class);
+        } catch (DataAccessException e) {
+            log.warn("Cannot read the WAL position of the primary: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+        return jdbcTemplate;
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.nerdysoft.output.persistent.routing;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Sends the connections of read-only transactions to a replica and everything else to the primary.
+ *
+ * <p>The target is chosen when a connection is requested, so the data source has to sit behind a
+ * {@link LazyConnectionDataSourceProxy}: transaction managers ask for their connection before they mark the
+ * transaction read-only, and the proxy defers that request to the first statement. Replicas are taken round robin
+ * among those whose last measured lag is within {@code maxLag}; when none is, reads go to the primary.
+ * Reads that must see writes the replicas may not have yet can be pinned to the primary with
+ * {@link #pinToPrimary()}.</p>
+ */
+public final class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final ThreadLocal<Integer> PRIMARY_PINS = ThreadLocal.withInitial(() -> 0);
+
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter fallbacks;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, Duration maxLag,
+                                    MeterRegistry meterRegistry) {
+        this.replicas = List.copyOf(replicas);
+        this.maxLagMillis = maxLag.toMillis();
+        this.fallbacks = Counter.builder("library.datasource.replica.fallbacks")
+                .description("Read-only transactions sent to the primary because no replica was fresh enough")
+                .register(meterRegistry);
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        this.replicas.forEach(replica -> targets.put(replica.getName(), replica.getDataSource()));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * Sends every transaction the current thread starts to the primary until the returned pin is closed.
+     * Pins nest.
+     *
+     * @return the {@link PrimaryPin} to close.
+     */
+    public static PrimaryPin pinToPrimary() {
+        PRIMARY_PINS.set(PRIMARY_PINS.get() + 1);
+        return () -> {
+            int pins = PRIMARY_PINS.get() - 1;
+            if (pins == 0) {
+                PRIMARY_PINS.remove();
+            } else {
+                PRIMARY_PINS.set(pins);
+            }
+        };
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Closes the replica pools. The primary pool is owned by whoever created it.
+     */
+    public void close() {
+        replicas.stream()
+                .map(Replica::getDataSource)
+                .filter(HikariDataSource.class::isInstance)
+                .map(HikariDataSource.class::cast)
+                .forEach(HikariDataSource::close);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || PRIMARY_PINS.get() > 0
+                || replicas.isEmpty()) {
+            return PRIMARY;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.isWithin(maxLagMillis)) {
+                return replica.getName();
+            }
+        }
+        fallbacks.increment();
+        return PRIMARY;
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.nerdysoft.service;
+
+import java.util.List;
+
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.dto.BorrowResultDto;
+
+public interface BatchLoanService {
+    List<BorrowResultDto> borrowBooks(List<BorrowRequestDto> borrowRequests);
+
+    List<BorrowResultDto> returnBooks(List<BorrowRequestDto> borrowRequests);
+}
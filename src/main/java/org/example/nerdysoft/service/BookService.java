@@ -3,18 +3,32 @@ package org.example.nerdysoft.service;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
+import org.example.nerdysoft.model.dto.AvailabilityCheckResultDto;
+import org.example.nerdysoft.model.dto.BookAvailabilityDto;
 import org.example.nerdysoft.model.dto.BookDetailedDto;
 import org.example.nerdysoft.model.dto.BookMainInfoDto;
 import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.dto.CursorPageDto;
 
 public interface BookService {
     List<BookDetailedDto> getAllBooks();
 
+    CursorPageDto<BookDetailedDto> getBooksPage(String cursor, int size);
+
+    void streamAllBooks(Consumer<BookDetailedDto> consumer);
+
+    CursorPageDto<BookMainInfoDto> getBookSummariesPage(String cursor, int size);
+
     BookDetailedDto updateBook(Long id, BookDetailedDto bookDetails);
 
     BookDetailedDto getBookById(Long id);
 
+    String getBookVersion(Long id);
+
+    List<BookMainInfoDto> searchBooks(String query, int size);
+
     BookDetailedDto saveBook(BookDetailedDto bookDetailedDto);
 
     void deleteBook(Long id);
@@ -28,4 +42,12 @@ public interface BookService {
     Set<String> getDistinctBorrowedBookNames();
 
     Map<String, Long> getDistinctBorrowedBookNamesWithAmount();
+
+    Map<String, Long> rebuildBorrowStatistics();
+
+    BookAvailabilityDto getBookAvailability(Long id);
+
+    List<BookAvailabilityDto> getBooksAvailability(List<Long> ids);
+
+    AvailabilityCheckResultDto checkAvailabilityIndex();
 }
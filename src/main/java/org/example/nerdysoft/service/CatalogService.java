@@ -0,0 +1,13 @@
+package org.example.nerdysoft.service;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.example.nerdysoft.model.dto.CatalogImportResultDto;
+import org.example.nerdysoft.service.catalog.CatalogFormat;
+
+public interface CatalogService {
+    CatalogImportResultDto importBooks(InputStream input, CatalogFormat format);
+
+    void exportBooks(OutputStream output, CatalogFormat format);
+}
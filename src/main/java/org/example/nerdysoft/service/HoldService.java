@@ -0,0 +1,17 @@
+package org.example.nerdysoft.service;
+
+import java.time.Duration;
+
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.dto.HoldDto;
+import org.springframework.web.context.request.async.DeferredResult;
+
+public interface HoldService {
+    HoldDto placeHold(BorrowRequestDto holdRequest);
+
+    HoldDto getHold(Long id);
+
+    DeferredResult<HoldDto> awaitHold(Long id, Duration timeout);
+
+    void cancelHold(Long id);
+}
@@ -0,0 +1,15 @@
+package org.example.nerdysoft.service;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.example.nerdysoft.model.dto.LoanEventDto;
+import org.example.nerdysoft.model.dto.LoanReplayDto;
+
+public interface LoanHistoryService {
+    List<LoanEventDto> getBookHistory(Long bookId, Instant from, Instant to);
+
+    List<LoanEventDto> getMemberHistory(Long memberId, Instant from, Instant to);
+
+    LoanReplayDto replay(Instant at);
+}
@@ -0,0 +1,8 @@
+package org.example.nerdysoft.service;
+
+import org.example.nerdysoft.model.dto.CursorPageDto;
+import org.example.nerdysoft.model.dto.OverdueLoanDto;
+
+public interface LoanService {
+    CursorPageDto<OverdueLoanDto> getOverdueLoansPage(String cursor, int size);
+}
@@ -1,14 +1,25 @@
 package org.example.nerdysoft.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import org.example.nerdysoft.model.dto.CursorPageDto;
 import org.example.nerdysoft.model.dto.MemberDetailedDto;
+import org.example.nerdysoft.model.dto.MemberMainInfoDto;
 
 public interface MemberService {
     List<MemberDetailedDto> getAllMembers();
 
+    CursorPageDto<MemberDetailedDto> getMembersPage(String cursor, int size);
+
+    void streamAllMembers(Consumer<MemberDetailedDto> consumer);
+
+    CursorPageDto<MemberMainInfoDto> getMemberSummariesPage(String cursor, int size);
+
     MemberDetailedDto getMemberById(Long id);
 
+    String getMemberVersion(Long id);
+
     MemberDetailedDto saveMember(MemberDetailedDto memberDetailedDto);
 
     void deleteMember(Long id);
@@ -0,0 +1,37 @@
+package org.example.nerdysoft.service;
+
+import java.util.Set;
+
+import org.example.nerdysoft.model.dto.BookDetailedDto;
+import org.example.nerdysoft.model.dto.BookMainInfoDto;
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.dto.CursorPageDto;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveBookService {
+    Flux<BookDetailedDto> getAllBooks();
+
+    Mono<CursorPageDto<BookDetailedDto>> getBooksPage(String cursor, int size);
+
+    Mono<CursorPageDto<BookMainInfoDto>> getBookSummariesPage(String cursor, int size);
+
+    Mono<BookDetailedDto> updateBook(Long id, BookDetailedDto bookDetails);
+
+    Mono<BookDetailedDto> getBookById(Long id);
+
+    Mono<String> getBookETag(Long id);
+
+    Flux<BookMainInfoDto> searchBooks(String query, int size);
+
+    Mono<BookDetailedDto> saveBook(BookDetailedDto bookDetailedDto);
+
+    Mono<Void> deleteBook(Long id);
+
+    Mono<Void> borrowBook(BorrowRequestDto borrowRequest);
+
+    Mono<Void> returnBook(BorrowRequestDto borrowRequest);
+
+    Mono<Set<BookMainInfoDto>> getBooksBorrowedByMember(String memberName);
+}
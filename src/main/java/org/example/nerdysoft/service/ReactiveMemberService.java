@@ -0,0 +1,26 @@
+package org.example.nerdysoft.service;
+
+import org.example.nerdysoft.model.dto.CursorPageDto;
+import org.example.nerdysoft.model.dto.MemberDetailedDto;
+import org.example.nerdysoft.model.dto.MemberMainInfoDto;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveMemberService {
+    Flux<MemberDetailedDto> getAllMembers();
+
+    Mono<CursorPageDto<MemberDetailedDto>> getMembersPage(String cursor, int size);
+
+    Mono<CursorPageDto<MemberMainInfoDto>> getMemberSummariesPage(String cursor, int size);
+
+    Mono<MemberDetailedDto> getMemberById(Long id);
+
+    Mono<String> getMemberETag(Long id);
+
+    Mono<MemberDetailedDto> saveMember(MemberDetailedDto memberDetailedDto);
+
+    Mono<MemberDetailedDto> updateMember(Long id, MemberDetailedDto memberDetails);
+
+    Mono<Void> deleteMember(Long id);
+}
@@ -0,0 +1,79 @@
+package org.example.nerdysoft.service.cache;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+/**
+ * A Caffeine cache whose entries remember when they started loading and stop being served once a book or
+ * member they show has changed since, as recorded by {@link CatalogChanges}.
+ *
+ * <p>Entries are loaded inside a per-key compute of the underlying map, so an eviction of the key that
+ * arrives while the entry loads waits for the load and then removes it. The catalog reads are therefore
+ * cached with {@code sync = true}. A value put without its loader cannot tell when it was read and is
+ * treated as read before every recorded change.</p>
+ */
+public class CatalogCache extends CaffeineCache {
+
+    private static final long BEFORE_ANY_CHANGE = 0L;
+
+    private final CatalogChanges changes;
+
+    public CatalogCache(String name, Cache<Object, Object> cache, CatalogChanges changes) {
+        super(name, cache);
+        this.changes = changes;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Stamped stamped = current(getNativeCache().getIfPresent(key));
+        return stamped == null ? null : stamped.storeValue();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object storeValue = lookup(key);
+        if (storeValue == null) {
+            storeValue = ((Stamped) getNativeCache().asMap().compute(key, (k, existing) -> {
+                Stamped stamped = current(existing);
+                return stamped != null ? stamped : load(key, valueLoader);
+            })).storeValue();
+        }
+        return (T) fromStoreValue(storeValue);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        getNativeCache().put(key, new Stamped(toStoreValue(value), BEFORE_ANY_CHANGE));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        Object existing = getNativeCache().asMap().putIfAbsent(key,
+                new Stamped(toStoreValue(value), BEFORE_ANY_CHANGE));
+        return existing == null ? null : toValueWrapper(((Stamped) existing).storeValue());
+    }
+
+    private Stamped load(Object key, Callable<?> valueLoader) {
+        long stamp = changes.current();
+        try {
+            return new Stamped(toStoreValue(valueLoader.call()), stamp);
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private Stamped current(Object entry) {
+        if (entry instanceof Stamped stamped && changes.unchangedSince(fromStoreValue(stamped.storeValue()),
+                stamped.stamp())) {
+            return stamped;
+        }
+        return null;
+    }
+
+    private record Stamped(Object storeValue, long stamp) {
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.nerdysoft.service.cache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.example.nerdysoft.constant.CacheConstants;
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Evicts the cached catalog entries that a write changes and records the change in {@link CatalogChanges}.
+ *
+ * <p>Book details list their borrowers and member details list their books with the current
+ * amount. Those entries are not looked up and evicted here: once the change is recorded they stop being
+ * served by {@link CatalogCache}, and so does an entry a reader loaded before the commit and put afterwards.</p>
+ *
+ * <p>Borrowed-books lookups are keyed by member id, so a borrow or return evicts them without reading the
+ * member's name.</p>
+ *
+ * <p>The cache manager defers the evictions until the transaction commits, and the changes are recorded
+ * after the commit as well, so a reader that starts before the commit cannot stamp old rows as current.</p>
+ */
+@Component
+public class CatalogCacheInvalidator {
+
+    private final CatalogChanges changes;
+    private final Cache booksCache;
+    private final Cache membersCache;
+    private final Cache memberBorrowedBooksCache;
+
+    public CatalogCacheInvalidator(CacheManager cacheManager, CatalogChanges changes) {
+        this.changes = changes;
+        this.booksCache = Objects.requireNonNull(cacheManager.getCache(CacheConstants.BOOKS_CACHE));
+        this.membersCache = Objects.requireNonNull(cacheManager.getCache(CacheConstants.MEMBERS_CACHE));
+        this.memberBorrowedBooksCache = Objects.requireNonNull(
+                cacheManager.getCache(CacheConstants.MEMBER_BORROWED_BOOKS_CACHE));
+    }
+
+    /**
+     * Evicts the given books and records their change.
+     *
+     * @param bookIds the ids of the changed books.
+     */
+    public void evictBooks(Collection<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return;
+        }
+        bookIds.forEach(booksCache::evict);
+        afterCommit(() -> changes.booksChanged(bookIds));
+    }
+
+    /**
+     * Evicts a changed book and records its change.
+     *
+     * @param bookId the id of the changed book.
+     */
+    public void evictBook(Long bookId) {
+        evictBooks(List.of(bookId));
+    }
+
+    /**
+     * Evicts a changed member, including their borrowed-books lookup.
+     *
+     * @param memberId the id of the changed member.
+     */
+    public void evictMember(Long memberId) {
+        evictMembers(List.of(memberId));
+    }
+
+    /**
+     * Evicts the given members, including their borrowed-books lookups.
+     *
+     * @param memberIds the ids of the changed members.
+     */
+    public void evictMembers(Collection<Long> memberIds) {
+        if (memberIds.isEmpty()) {
+            return;
+        }
+        memberIds.forEach(membersCache::evict);
+        memberIds.forEach(memberBorrowedBooksCache::evict);
+        afterCommit(() -> changes.membersChanged(memberIds));
+    }
+
+    /**
+     * Evicts everything a borrow or return of the given loans makes stale.
+     *
+     * @param loans the borrowed or returned (member, book) pairs.
+     */
+    public void evictLoans(Collection<BorrowRequestDto> loans) {
+        evictBooks(collectIds(loans, BorrowRequestDto::getBookId));
+        evictMembers(collectIds(loans, BorrowRequestDto::getMemberId));
+    }
+
+    /**
+     * Evicts every cached book and member, after a bulk change too large to track entry by entry.
+     */
+    public void evictAll() {
+        booksCache.clear();
+        membersCache.clear();
+        memberBorrowedBooksCache.clear();
+        afterCommit(changes::allChanged);
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private static Set<Long> collectIds(Collection<BorrowRequestDto> loans,
+                                        Function<BorrowRequestDto, Long> idExtractor) {
+        return loans.stream().map(idExtractor).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.nerdysoft.service.cache;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.example.nerdysoft.output.persistent.BookRepository;
+import org.example.nerdysoft.service.BookService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads the most borrowed books into the book cache before the application accepts traffic.
+ *
+ * <p>Spring Boot reports the readiness state {@code ACCEPTING_TRAFFIC} only after the
+ * {@link ApplicationReadyEvent} listeners have returned, so a new instance is not sent requests while its
+ * caches are cold. The books are read through {@link BookService#getBookById(Long)}, which caches exactly
+ * what a request would. A failed warm-up is logged and the instance starts with cold caches.
+ * The time taken is published as {@code library.warmup.duration}.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "library.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class CatalogCacheWarmer {
+
+    private final BookRepository bookRepository;
+    private final BookService bookService;
+    private final Timer warmUpDuration;
+
+    @Value("${library.warmup.books:200}")
+    private int books;
+
+    public CatalogCacheWarmer(BookRepository bookRepository, BookService bookService, MeterRegistry meterRegistry) {
+        this.bookRepository = bookRepository;
+        this.bookService = bookService;
+        this.warmUpDuration = Timer.builder("library.warmup.duration")
+                .description("Time spent preloading the catalog caches before the application reports ready")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Caches the {@code library.warmup.books} books with the most open loans.
+     *
+     * @return the number of books cached.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int warmUp() {
+        long start = System.nanoTime();
+        int cached = 0;
+        try {
+            List<Long> ids = bookRepository.findMostBorrowedIds(PageRequest.of(0, books));
+            for (Long id : ids) {
+                bookService.getBookById(id);
+                cached++;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Catalog warm-up stopped after {} books", cached, e);
+        }
+        long elapsed = System.nanoTime() - start;
+        warmUpDuration.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Catalog warm-up cached {} books in {} ms", cached, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return cached;
+    }
+}
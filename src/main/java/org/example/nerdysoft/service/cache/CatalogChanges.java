@@ -0,0 +1,150 @@
+package org.example.nerdysoft.service.cache;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.example.nerdysoft.model.dto.BookDetailedDto;
+import org.example.nerdysoft.model.dto.BookMainInfoDto;
+import org.example.nerdysoft.model.dto.MemberDetailedDto;
+import org.example.nerdysoft.model.dto.MemberMainInfoDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records when each book and member last changed, so that a cached entry can tell whether anything it
+ * embeds changed after it was loaded.
+ *
+ * <p>Every committed change takes the next number of a sequence. A cache entry is stamped with the number
+ * current when its load started and is only served while every book and member it shows changed at or before
+ * that stamp. A change committed while the entry was loading therefore makes it stale however late it is put,
+ * and a book change does not have to find and evict the entries of its borrowers.</p>
+ *
+ * <p>One number is kept per changed book and member. {@link #allChanged()} drops every kept number, and
+ * {@link #prune()} drops the numbers recorded more than {@code library.cache.ttl} ago, so the numbers kept are
+ * bounded by the changes of one cache lifetime. Dropping a number stales every entry stamped before it; for a
+ * pruned number those entries started loading a whole cache lifetime ago and have normally expired already.</p>
+ */
+@Component
+public class CatalogChanges {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, Long> bookChanges = new ConcurrentHashMap<>();
+    private final Map<Long, Long> memberChanges = new ConcurrentHashMap<>();
+    private final AtomicLong forgottenThrough = new AtomicLong();
+    private final Deque<Checkpoint> checkpoints = new ArrayDeque<>();
+    private final long retentionNanos;
+
+    public CatalogChanges(@Value("${library.cache.ttl}") Duration retention) {
+        this.retentionNanos = retention.toNanos();
+    }
+
+    /**
+     * Returns the stamp to give an entry whose load starts now.
+     *
+     * @return the number of the latest recorded change.
+     */
+    public long current() {
+        return sequence.get();
+    }
+
+    /**
+     * Records a committed change to the given books.
+     *
+     * @param bookIds the ids of the changed books.
+     */
+    public void booksChanged(Collection<Long> bookIds) {
+        long changedAt = sequence.incrementAndGet();
+        bookIds.forEach(bookId -> bookChanges.put(bookId, changedAt));
+    }
+
+    /**
+     * Records a committed change to the given members.
+     *
+     * @param memberIds the ids of the changed members.
+     */
+    public void membersChanged(Collection<Long> memberIds) {
+        long changedAt = sequence.incrementAndGet();
+        memberIds.forEach(memberId -> memberChanges.put(memberId, changedAt));
+    }
+
+    /**
+     * Records a committed change to every book and member.
+     */
+    public void allChanged() {
+        forget(sequence.incrementAndGet());
+    }
+
+    /**
+     * Drops the numbers of the changes recorded at least {@code library.cache.ttl} ago. The current number is
+     * noted on every run, and the numbers up to the latest note that old are dropped.
+     */
+    @Scheduled(fixedDelayString = "${library.cache.prune-interval:PT1M}")
+    public void prune() {
+        prune(System.nanoTime());
+    }
+
+    synchronized void prune(long now) {
+        checkpoints.addLast(new Checkpoint(sequence.get(), now));
+        Checkpoint horizon = null;
+        while (!checkpoints.isEmpty() && now - checkpoints.peekFirst().at() >= retentionNanos) {
+            horizon = checkpoints.pollFirst();
+        }
+        if (horizon != null) {
+            forget(horizon.stamp());
+        }
+    }
+
+    /**
+     * Tells whether nothing a cached value shows changed after the given stamp.
+     * Values of other types are only checked against {@link #allChanged()}.
+     *
+     * @param value a cached book, member or collection of books.
+     * @param stamp the stamp taken when the value started loading.
+     * @return {@code true} if the value is still current.
+     */
+    public boolean unchangedSince(Object value, long stamp) {
+        if (forgottenThrough.get() > stamp) {
+            return false;
+        }
+        return switch (value) {
+            case BookDetailedDto book -> changedAtOrBefore(bookChanges, book.getId(), stamp)
+                    && (book.getBorrowers() == null || book.getBorrowers().stream()
+                    .map(MemberMainInfoDto::getId)
+                    .allMatch(memberId -> changedAtOrBefore(memberChanges, memberId, stamp)));
+            case MemberDetailedDto member -> changedAtOrBefore(memberChanges, member.getId(), stamp)
+                    && (member.getBorrowedBooks() == null || booksUnchangedSince(member.getBorrowedBooks(), stamp));
+            case Collection<?> books -> booksUnchangedSince(books, stamp);
+            case null, default -> true;
+        };
+    }
+
+    private boolean booksUnchangedSince(Collection<?> books, long stamp) {
+        return books.stream()
+                .filter(BookMainInfoDto.class::isInstance)
+                .map(book -> ((BookMainInfoDto) book).getId())
+                .allMatch(bookId -> changedAtOrBefore(bookChanges, bookId, stamp));
+    }
+
+    /**
+     * Drops the numbers up to the given one. The bound is raised first, so an entry stamped before it is never
+     * served between the removal of a number and the raise.
+     */
+    private void forget(long stamp) {
+        forgottenThrough.accumulateAndGet(stamp, Math::max);
+        bookChanges.values().removeIf(bookChangedAt -> bookChangedAt <= stamp);
+        memberChanges.values().removeIf(memberChangedAt -> memberChangedAt <= stamp);
+    }
+
+    private static boolean changedAtOrBefore(Map<Long, Long> changes, Long id, long stamp) {
+        return id == null || changes.getOrDefault(id, 0L) <= stamp;
+    }
+
+    private record Checkpoint(long stamp, long at) {
+    }
+}
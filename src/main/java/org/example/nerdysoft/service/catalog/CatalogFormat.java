@@ -0,0 +1,65 @@
+package org.example.nerdysoft.service.catalog;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.example.nerdysoft.constant.MessageConstants;
+import org.example.nerdysoft.model.exception.InvalidCatalogFileException;
+import org.springframework.http.MediaType;
+
+import lombok.Getter;
+
+/**
+ * File formats of bulk catalog imports and exports. Both carry one book per row with the
+ * {@code title}, {@code author} and {@code amount} columns; exports add the {@code id} column.
+ */
+public enum CatalogFormat {
+
+    CSV(MediaType.parseMediaType("text/csv"), List.of(".csv")),
+    NDJSON(MediaType.APPLICATION_NDJSON, List.of(".ndjson", ".jsonl"));
+
+    @Getter
+    private final MediaType mediaType;
+    private final List<String> extensions;
+
+    CatalogFormat(MediaType mediaType, List<String> extensions) {
+        this.mediaType = mediaType;
+        this.extensions = extensions;
+    }
+
+    public String getExtension() {
+        return extensions.get(0);
+    }
+
+    /**
+     * Resolves the format of a request body.
+     *
+     * @param mediaType the content type of the request.
+     * @return the matching {@link CatalogFormat}.
+     * @throws InvalidCatalogFileException if no format matches the content type.
+     */
+    public static CatalogFormat fromMediaType(MediaType mediaType) {
+        return Arrays.stream(values())
+                .filter(format -> format.mediaType.isCompatibleWith(mediaType))
+                .findFirst()
+                .orElseThrow(() -> new InvalidCatalogFileException(
+                        MessageConstants.UNSUPPORTED_CATALOG_FORMAT_MESSAGE + mediaType));
+    }
+
+    /**
+     * Resolves the format of a file from its extension.
+     *
+     * @param fileName the name of the file.
+     * @return the matching {@link CatalogFormat}.
+     * @throws InvalidCatalogFileException if no format matches the extension.
+     */
+    public static CatalogFormat fromFileName(String fileName) {
+        String lowerCase = fileName.toLowerCase(Locale.ROOT);
+        return Arrays.stream(values())
+                .filter(format -> format.extensions.stream().anyMatch(lowerCase::endsWith))
+                .findFirst()
+                .orElseThrow(() -> new InvalidCatalogFileException(
+                        MessageConstants.UNSUPPORTED_CATALOG_FORMAT_MESSAGE + fileName));
+    }
+}
@@ -0,0 +1,174 @@
+package org.example.nerdysoft.service.concurrency;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionContext;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Orders the commits of transactions that change in-memory projections against the database reads that rebuild
+ * those projections.
+ *
+ * <p>A transaction that publishes a {@link ProjectedChange} holds the fence shared from just before it commits
+ * until its after-commit listeners have applied the change, whether it is a JPA or an R2DBC transaction. A
+ * rebuild takes the snapshot it reads from while it holds the fence exclusively, so no such transaction is
+ * committing at that moment: each change either committed and was applied before the snapshot, which includes
+ * it, or commits after it and has to be applied on top of the rebuilt projection. Which of the two holds does not
+ * depend on when the listener happens to run.</p>
+ *
+ * <p>Commits only wait while a rebuild takes its snapshot. A commit may be flushing a statement that waits for a
+ * row lock of a transaction queued behind the rebuild, so a rebuild that cannot close the fence within
+ * {@code library.commit-fence.close-timeout} lets the queued commits through and tries again.</p>
+ */
+@Slf4j
+@Component
+public class CommitFence {
+
+    private static final long NOT_ENTERED = 0L;
+
+    private final StampedLock lock = new StampedLock();
+    private final long closeTimeoutNanos;
+
+    public CommitFence(@Value("${library.commit-fence.close-timeout:50ms}") Duration closeTimeout) {
+        this.closeTimeoutNanos = closeTimeout.toNanos();
+    }
+
+    /**
+     * Makes the transaction that published a projected change hold the fence while it commits.
+     *
+     * @param event the published change.
+     */
+    @EventListener
+    public void onProjectedChange(PayloadApplicationEvent<? extends ProjectedChange> event) {
+        if (event.getSource() instanceof TransactionContext context) {
+            Set<org.springframework.transaction.reactive.TransactionSynchronization> synchronizations =
+                    context.getSynchronizations();
+            if (synchronizations != null && synchronizations.stream().noneMatch(ReactiveCommit.class::isInstance)) {
+                synchronizations.add(new ReactiveCommit());
+            }
+        } else if (TransactionSynchronizationManager.isSynchronizationActive() && TransactionSynchronizationManager
+                .getSynchronizations().stream().noneMatch(Commit.class::isInstance)) {
+            TransactionSynchronizationManager.registerSynchronization(new Commit());
+        }
+    }
+
+    /**
+     * Enters the fence for a committing transaction, waiting while a rebuild takes its snapshot.
+     *
+     * @return the stamp to pass to {@link #exit(long)} once the change has been applied.
+     */
+    public long enter() {
+        return lock.readLock();
+    }
+
+    /**
+     * Leaves the fence entered with {@link #enter()}. May be called from another thread.
+     *
+     * @param stamp the stamp returned by {@link #enter()}.
+     */
+    public void exit(long stamp) {
+        lock.unlockRead(stamp);
+    }
+
+    /**
+     * Runs a read while no transaction that published a projected change is committing. The read must take the
+     * snapshot of its transaction, and should leave everything else to after the fence reopens.
+     *
+     * @param read the read establishing the snapshot.
+     * @param <T> the type of the result.
+     * @return the result of the read.
+     */
+    public <T> T exclusively(Supplier<T> read) {
+        long stamp = close();
+        try {
+            return read.get();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private long close() {
+        try {
+            long stamp = lock.tryWriteLock(closeTimeoutNanos, TimeUnit.NANOSECONDS);
+            while (stamp == NOT_ENTERED) {
+                log.debug("Commits kept the commit fence open, trying again");
+                stamp = lock.tryWriteLock(closeTimeoutNanos, TimeUnit.NANOSECONDS);
+            }
+            return stamp;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while closing the commit fence", e);
+        }
+    }
+
+    /**
+     * Holds the fence from before a JPA commit until the listeners of the projected changes have run. They
+     * run on completion and are ordered at {@link ProjectedChange#LISTENER_ORDER}, ahead of this, whichever
+     * was registered first.
+     */
+    private final class Commit implements TransactionSynchronization {
+
+        private long stamp;
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            stamp = enter();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (stamp != NOT_ENTERED) {
+                exit(stamp);
+                stamp = NOT_ENTERED;
+            }
+        }
+    }
+
+    /**
+     * Reactive counterpart of {@link Commit}; waits for the fence on a worker thread rather than the event loop.
+     */
+    private final class ReactiveCommit implements org.springframework.transaction.reactive.TransactionSynchronization,
+            Ordered {
+
+        private volatile long stamp;
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+
+        @Override
+        public Mono<Void> beforeCommit(boolean readOnly) {
+            return Mono.fromRunnable(() -> stamp = enter()).subscribeOn(Schedulers.boundedElastic()).then();
+        }
+
+        @Override
+        public Mono<Void> afterCompletion(int status) {
+            return Mono.fromRunnable(() -> {
+                if (stamp != NOT_ENTERED) {
+                    exit(stamp);
+                    stamp = NOT_ENTERED;
+                }
+            });
+        }
+    }
+}
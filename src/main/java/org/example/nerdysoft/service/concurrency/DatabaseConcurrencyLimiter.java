@@ -0,0 +1,96 @@
+package org.example.nerdysoft.service.concurrency;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.example.nerdysoft.constant.MessageConstants;
+import org.example.nerdysoft.model.exception.DatabaseBusyException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounds the number of service calls running at the same time to the size of the connection pool.
+ *
+ * <p>With virtual threads every request gets its own thread, so without a bound thousands of requests
+ * would queue inside Hikari for up to its connection timeout. Calls instead wait at most
+ * {@code library.db.concurrency-limit.acquire-timeout} for a fair permit and are rejected with
+ * {@link DatabaseBusyException} otherwise. The permit is taken outside the transaction, so a waiting
+ * call holds no connection. Streaming methods are excluded: they load in short chunks and would
+ * otherwise hold a permit for as long as the client reads. So are the reactive services, which return
+ * before they touch the database and are bounded by the R2DBC pool instead.</p>
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "library.db.concurrency-limit.enabled", havingValue = "true")
+public class DatabaseConcurrencyLimiter {
+
+    private static final ThreadLocal<Boolean> HOLDS_PERMIT = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final Timer permitWait;
+    private final Counter rejections;
+
+    public DatabaseConcurrencyLimiter(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int maxPoolSize,
+                                      @Value("${library.db.concurrency-limit.acquire-timeout:500ms}")
+                                      Duration acquireTimeout,
+                                      MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxPoolSize, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.permitWait = Timer.builder("library.db.permit.wait")
+                .description("Time spent waiting for a database concurrency permit")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("library.db.permit.rejected")
+                .description("Service calls rejected because no database concurrency permit became free in time")
+                .register(meterRegistry);
+        log.info("Limiting concurrent database work to {} service calls", maxPoolSize);
+    }
+
+    /**
+     * Runs a service call while holding a permit. Nested service calls reuse the permit of the outer call.
+     *
+     * @param joinPoint the intercepted service call.
+     * @return the result of the service call.
+     * @throws Throwable any exception thrown by the service call.
+     * @throws DatabaseBusyException if no permit became free within the acquire timeout.
+     */
+    @Around("execution(public * org.example.nerdysoft.service.impl..*(..)) && !execution(* stream*(..))"
+            + " && !execution(org.reactivestreams.Publisher+ *(..))")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (HOLDS_PERMIT.get()) {
+            return joinPoint.proceed();
+        }
+        acquire();
+        HOLDS_PERMIT.set(Boolean.TRUE);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            HOLDS_PERMIT.remove();
+            permits.release();
+        }
+    }
+
+    private void acquire() throws InterruptedException {
+        long start = System.nanoTime();
+        boolean acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        permitWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejections.increment();
+            throw new DatabaseBusyException(MessageConstants.DATABASE_BUSY_MESSAGE);
+        }
+    }
+}
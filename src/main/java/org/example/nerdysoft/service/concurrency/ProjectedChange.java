@@ -0,0 +1,17 @@
+package org.example.nerdysoft.service.concurrency;
+
+import org.springframework.core.Ordered;
+
+/**
+ * Marks an event whose changes are applied to an in-memory projection once the transaction that published it
+ * commits. {@link CommitFence} orders the commits of such transactions against the rebuilds of the projections.
+ */
+public interface ProjectedChange {
+
+    /**
+     * Order of the transactional listeners that apply projected changes. Listeners without an order run at
+     * {@link Ordered#LOWEST_PRECEDENCE} in the order they were registered, like the fence, so these run ahead
+     * of it and have applied their change before the fence lets a rebuild take its snapshot.
+     */
+    int LISTENER_ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+}
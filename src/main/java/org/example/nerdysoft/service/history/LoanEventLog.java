@@ -0,0 +1,51 @@
+package org.example.nerdysoft.service.history;
+
+import org.example.nerdysoft.output.persistent.LoanJdbcRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes the loans of a transaction to the {@code loan_event_outbox} inside that transaction.
+ *
+ * <p>The events are inserted as one JDBC batch while the borrow or return is still open, so they commit or roll
+ * back with the loans they describe and are never lost or written for a loan that did not happen. The outbox has
+ * no index besides its key; {@link LoanEventRelay} moves its rows to the indexed {@code loan_events} log in
+ * batches, off the request thread. Events of reactive transactions are written by the reactive services through
+ * R2DBC instead, so this listener only writes when a JDBC transaction is active on the publishing thread.</p>
+ *
+ * <p>Exposed through Actuator as {@code library.loan.events.written}.</p>
+ */
+@Slf4j
+@Component
+public class LoanEventLog {
+
+    private final LoanJdbcRepository loanJdbcRepository;
+    private final Counter written;
+
+    public LoanEventLog(LoanJdbcRepository loanJdbcRepository, MeterRegistry meterRegistry) {
+        this.loanJdbcRepository = loanJdbcRepository;
+        this.written = Counter.builder("library.loan.events.written")
+                .description("Loan events written to the event outbox")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Writes the loans of the current transaction to the outbox.
+     *
+     * @param event the event carrying the borrowed or returned loans.
+     */
+    @EventListener
+    public void onLoansChanged(LoansChangedEvent event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            log.debug("Skipping {} loan events published outside a JDBC transaction", event.getEvents().size());
+            return;
+        }
+        loanJdbcRepository.appendLoanEvents(event.getEvents());
+        written.increment(event.getEvents().size());
+    }
+}
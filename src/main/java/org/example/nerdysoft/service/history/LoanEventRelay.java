@@ -0,0 +1,65 @@
+package org.example.nerdysoft.service.history;
+
+import org.example.nerdysoft.output.persistent.LoanJdbcRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves loan events from the {@code loan_event_outbox} to the {@code loan_events} log.
+ *
+ * <p>Every run moves the outbox in chunks of {@code library.loan-events.relay-batch-size}, each locked, copied and
+ * deleted in one transaction, until a chunk comes back short. Rows another instance is relaying are skipped, and
+ * the events keep the ids they were given in the loan transaction, so concurrent relays neither move an event
+ * twice nor change the order of the log. The log trails the loans by at most one
+ * {@code library.loan-events.relay-interval}; an event is never lost, since it is written with its loan.</p>
+ *
+ * <p>Exposed through Actuator as {@code library.loan.events.relayed}.</p>
+ */
+@Slf4j
+@Component
+public class LoanEventRelay {
+
+    private final LoanJdbcRepository loanJdbcRepository;
+    private final TransactionTemplate transaction;
+    private final Counter relayed;
+    private final int batchSize;
+
+    public LoanEventRelay(LoanJdbcRepository loanJdbcRepository, PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${library.loan-events.relay-batch-size:500}") int batchSize) {
+        this.loanJdbcRepository = loanJdbcRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.relayed = Counter.builder("library.loan.events.relayed")
+                .description("Loan events moved from the outbox to the event log")
+                .register(meterRegistry);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Moves every event in the outbox to the log. Runs every {@code library.loan-events.relay-interval}.
+     *
+     * @return the number of events moved.
+     */
+    @Scheduled(fixedDelayString = "${library.loan-events.relay-interval:PT1S}")
+    public synchronized int relay() {
+        int total = 0;
+        int moved;
+        do {
+            Integer chunkSize = transaction.execute(status -> loanJdbcRepository.relayLoanEvents(batchSize));
+            moved = chunkSize == null ? 0 : chunkSize;
+            total += moved;
+        } while (moved == batchSize);
+        if (total > 0) {
+            relayed.increment(total);
+            log.debug("Relayed {} loan events to the event log", total);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.nerdysoft.service.history;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.entity.LoanAction;
+import org.example.nerdysoft.model.entity.LoanEvent;
+import org.example.nerdysoft.service.concurrency.ProjectedChange;
+
+import lombok.Getter;
+
+/**
+ * Published inside a transaction that borrowed or returned books.
+ * The loans are appended to the {@link LoanEventLog} inside that transaction.
+ */
+@Getter
+public class LoansChangedEvent implements ProjectedChange {
+
+    private final List<LoanEvent> events;
+
+    public LoansChangedEvent(List<LoanEvent> events) {
+        this.events = List.copyOf(events);
+    }
+
+    /**
+     * Creates an event for loans that all changed the same way at the same time.
+     *
+     * @param loans the borrowed or returned (member, book) pairs.
+     * @param action whether the loans were borrowed or returned.
+     * @return a new {@link LoansChangedEvent}.
+     */
+    public static LoansChangedEvent of(List<BorrowRequestDto> loans, LoanAction action) {
+        Instant now = Instant.now();
+        return new LoansChangedEvent(loans.stream()
+                .map(loan -> new LoanEvent(loan.getMemberId(), loan.getBookId(), action, now))
+                .toList());
+    }
+}
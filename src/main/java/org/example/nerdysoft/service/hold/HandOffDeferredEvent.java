@@ -0,0 +1,15 @@
+package org.example.nerdysoft.service.hold;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published inside a transaction that left a copy of a book on the shelf because the row of the member
+ * waiting for it was locked by another transaction. The hand-off is retried once that transaction commits.
+ */
+@Getter
+@RequiredArgsConstructor
+public class HandOffDeferredEvent {
+
+    private final Long bookId;
+}
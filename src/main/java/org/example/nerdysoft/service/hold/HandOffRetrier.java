@@ -0,0 +1,46 @@
+package org.example.nerdysoft.service.hold;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Retries the hand-offs that {@link HoldQueue} and {@link ReactiveHoldQueue} had to defer, once the
+ * transaction that deferred them commits. Each retry runs in its own transaction on a virtual thread, so
+ * neither the committing request thread nor an event loop waits for the member row lock.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HandOffRetrier {
+
+    private final ExecutorService retries = Executors.newVirtualThreadPerTaskExecutor();
+    private final HoldQueue holdQueue;
+
+    /**
+     * Schedules the hand-off of a copy that a committed transaction left on the shelf.
+     *
+     * @param event the event carrying the id of the book.
+     */
+    @TransactionalEventListener
+    public void onHandOffDeferred(HandOffDeferredEvent event) {
+        retries.execute(() -> {
+            try {
+                holdQueue.retryHandOff(event.getBookId());
+            } catch (RuntimeException e) {
+                log.warn("Retrying the hand-off of book with id: {} failed", event.getBookId(), e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        retries.close();
+    }
+}
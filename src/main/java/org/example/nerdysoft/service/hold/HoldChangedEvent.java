@@ -0,0 +1,17 @@
+package org.example.nerdysoft.service.hold;
+
+import org.example.nerdysoft.model.dto.HoldDto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published inside the transaction that fulfilled or cancelled a hold.
+ * Members waiting on the hold are notified once that transaction commits.
+ */
+@Getter
+@RequiredArgsConstructor
+public class HoldChangedEvent {
+
+    private final HoldDto hold;
+}
@@ -0,0 +1,58 @@
+package org.example.nerdysoft.service.hold;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.example.nerdysoft.model.dto.HoldDto;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Completes the long-poll requests of members waiting for a hold once the hold is fulfilled or cancelled.
+ * A pending request holds no thread, only its {@link DeferredResult}, and is dropped when it completes or
+ * times out. Pending requests are exposed as {@code library.holds.pollers}.
+ */
+@Component
+public class HoldNotifier {
+
+    private final Map<Long, Set<DeferredResult<HoldDto>>> pollers = new ConcurrentHashMap<>();
+
+    public HoldNotifier(MeterRegistry meterRegistry) {
+        Gauge.builder("library.holds.pollers", pollers,
+                        map -> map.values().stream().mapToInt(Set::size).sum())
+                .description("Requests waiting for a hold to be fulfilled")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers a request to be completed with the hold once it changes.
+     *
+     * @param holdId the id of the hold.
+     * @param result the pending result of the request.
+     */
+    public void register(Long holdId, DeferredResult<HoldDto> result) {
+        pollers.computeIfAbsent(holdId, id -> ConcurrentHashMap.newKeySet()).add(result);
+        result.onCompletion(() -> pollers.computeIfPresent(holdId, (id, results) -> {
+            results.remove(result);
+            return results.isEmpty() ? null : results;
+        }));
+    }
+
+    /**
+     * Completes every request waiting on the hold after the transaction that changed it commits.
+     *
+     * @param event the event carrying the changed hold.
+     */
+    @TransactionalEventListener
+    public void onHoldChanged(HoldChangedEvent event) {
+        Set<DeferredResult<HoldDto>> results = pollers.remove(event.getHold().getId());
+        if (results != null) {
+            results.forEach(result -> result.setResult(event.getHold()));
+        }
+    }
+}
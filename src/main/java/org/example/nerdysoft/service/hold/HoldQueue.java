@@ -0,0 +1,229 @@
+package org.example.nerdysoft.service.hold;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.entity.Hold;
+import org.example.nerdysoft.model.entity.HoldStatus;
+import org.example.nerdysoft.model.entity.LoanAction;
+import org.example.nerdysoft.output.persistent.BookRepository;
+import org.example.nerdysoft.output.persistent.HoldRepository;
+import org.example.nerdysoft.output.persistent.MemberRepository;
+import org.example.nerdysoft.service.cache.CatalogCacheInvalidator;
+import org.example.nerdysoft.service.history.LoansChangedEvent;
+import org.example.nerdysoft.service.inventory.InventoryChangedEvent;
+import org.example.nerdysoft.service.mapper.HoldMapper;
+import org.example.nerdysoft.service.stats.BorrowCountChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hands returned copies to the members waiting for them, in the order the holds were placed.
+ *
+ * <p>Every return puts its copy back on the shelf before calling {@link #handOff(Long)}, so the return
+ * holds the row lock of the book while it looks for a waiter. A hold placed concurrently locks the same
+ * row before it checks for a free copy, so either the hold sees the returned copy and is refused, or the
+ * return sees the committed hold and hands the copy over. Copies added to the catalog are handed over the
+ * same way, by the transaction whose update added them and locked the row. Concurrent returns of the same
+ * book lock different holds with {@code SKIP LOCKED}.</p>
+ *
+ * <p>A borrow locks the member row before the book row, and a waiting member may be retrying a borrow of
+ * the book it waits for. A return therefore looks up the waiters with {@link #findNextWaiters(Collection)}
+ * and locks their rows together with its own members, in id order, before it touches the book. The hand-off
+ * itself never waits for a member row while it holds the book: if the longest waiting member's row is
+ * locked by another transaction, because the queue moved after the lookup or the caller could not lock the
+ * waiters first, the copy stays on the shelf and a {@link HandOffDeferredEvent} is published. Once the
+ * transaction commits, {@link HandOffRetrier} calls {@link #retryHandOff(Long)}, which locks the waiter
+ * before the book and lends the copy, still in queue order. A book therefore has a copy on the shelf and a
+ * member waiting for it only between such a commit and its retry, unless the application stops in between.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HoldQueue {
+
+    private final HoldRepository holdRepository;
+    private final MemberRepository memberRepository;
+    private final BookRepository bookRepository;
+    private final HoldMapper holdMapper;
+    private final CatalogCacheInvalidator cacheInvalidator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${library.loan.period:P14D}")
+    private Duration loanPeriod;
+
+    /**
+     * Finds the members the given returned or added copies would be lent to, without locking anything.
+     * A book repeated in the collection yields up to as many waiters as it has copies.
+     *
+     * @param returnedBookIds the id of the book of every returned or added copy, repeated once per copy.
+     * @return the ids of the waiting members to lock before the books.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Long> findNextWaiters(Collection<Long> returnedBookIds) {
+        if (returnedBookIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> copies = new HashMap<>();
+        returnedBookIds.forEach(bookId -> copies.merge(bookId, 1, Integer::sum));
+        return holdRepository.findNextWaitingMemberIds(copies.keySet(), Collections.max(copies.values()));
+    }
+
+    /**
+     * Lends a copy that was just put back on the shelf to the longest waiting member of the book, if any.
+     * Must run in the transaction that returned the copy.
+     *
+     * @param bookId the id of the returned book.
+     * @return {@code true} if the copy was lent to a waiting member, {@code false} if nobody waits for it or the
+     *         hand-off was deferred until the transaction commits.
+     * @throws IllegalStateException if the book has no copy on the shelf.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean handOff(Long bookId) {
+        return handOff(bookId, 1) > 0;
+    }
+
+    /**
+     * Lends copies of a book that were just put on the shelf to its longest waiting members, one copy each.
+     * The holds of up to {@code copies} waiters are locked with one query; another query only runs for the
+     * copies left over by holds cancelled because their member already borrowed the book. Stops as soon as
+     * the queue is empty or a hand-off is deferred. Must run in the transaction that put the copies back.
+     *
+     * @param bookId the id of the returned or added book.
+     * @param copies the number of copies put on the shelf.
+     * @return the number of copies lent to waiting members.
+     * @throws IllegalStateException if the book has fewer copies on the shelf than it lends.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int handOff(Long bookId, int copies) {
+        int handedOff = 0;
+        int wanted = copies;
+        while (wanted > 0) {
+            List<Hold> waiting = holdRepository.findWaitingForUpdate(bookId, PageRequest.of(0, wanted));
+            for (Hold hold : waiting) {
+                HandOff result = lend(hold, bookId);
+                if (result == HandOff.DEFERRED) {
+                    return handedOff;
+                }
+                if (result == HandOff.LENT) {
+                    handedOff++;
+                }
+            }
+            wanted = waiting.size() < wanted ? 0 : copies - handedOff;
+        }
+        return handedOff;
+    }
+
+    /**
+     * Lends a copy left on the shelf by a deferred hand-off to the longest waiting member of the book.
+     * Locks that member's row, waiting for it if needed, before the book row, in the same order as a borrow.
+     * Does nothing if nobody waits for the book any more or its copies have been taken meanwhile.
+     *
+     * @param bookId the id of the book whose hand-off was deferred.
+     * @return {@code true} if a copy was lent to a waiting member.
+     */
+    @Transactional
+    public boolean retryHandOff(Long bookId) {
+        List<Long> waiters = holdRepository.findNextWaitingMemberIds(List.of(bookId), 1);
+        if (waiters.isEmpty()) {
+            return false;
+        }
+        memberRepository.findAllByIdInForUpdate(waiters);
+        boolean onShelf = bookRepository.findByIdForUpdate(bookId).map(book -> book.getAmount() > 0).orElse(false);
+        return onShelf && handOff(bookId);
+    }
+
+    /**
+     * Lends the given returned or added copies to waiting members, one copy per element.
+     * Books without waiting holds are filtered out with a single query, and the copies of every other book
+     * are handed over together by {@link #handOff(Long, int)}.
+     *
+     * @param returnedBookIds the id of the book of every returned or added copy, repeated once per copy.
+     * @return the number of copies lent to waiting members.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int handOffAll(Collection<Long> returnedBookIds) {
+        if (returnedBookIds.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Integer> copies = new LinkedHashMap<>();
+        returnedBookIds.forEach(bookId -> copies.merge(bookId, 1, Integer::sum));
+        List<Long> awaited = holdRepository.findBookIdsWithWaitingHolds(copies.keySet());
+        int handedOff = 0;
+        for (Map.Entry<Long, Integer> book : copies.entrySet()) {
+            if (awaited.contains(book.getKey())) {
+                handedOff += handOff(book.getKey(), book.getValue());
+            }
+        }
+        return handedOff;
+    }
+
+    /**
+     * Marks a hold as fulfilled or cancelled and notifies the members waiting on it after commit.
+     *
+     * @param hold the hold to resolve.
+     * @param status the final status.
+     * @param now the time the hold was resolved.
+     */
+    public void resolve(Hold hold, HoldStatus status, Instant now) {
+        hold.setStatus(status);
+        hold.setResolvedAt(now);
+        publishResolved(hold);
+    }
+
+    /**
+     * Notifies the members waiting on a hold that was already resolved in the database, after commit.
+     *
+     * @param hold the resolved hold.
+     */
+    public void publishResolved(Hold hold) {
+        eventPublisher.publishEvent(new HoldChangedEvent(holdMapper.toDto(hold, null)));
+    }
+
+    private HandOff lend(Hold hold, Long bookId) {
+        if (memberRepository.lockIfFree(hold.getMemberId()).isEmpty()) {
+            log.debug("Member with id: {} is locked by another transaction, deferring hand-off of book with id: {}",
+                    hold.getMemberId(), bookId);
+            eventPublisher.publishEvent(new HandOffDeferredEvent(bookId));
+            return HandOff.DEFERRED;
+        }
+        Instant now = Instant.now();
+        if (memberRepository.insertBorrowedBook(hold.getMemberId(), bookId, now, now.plus(loanPeriod)) == 0) {
+            resolve(hold, HoldStatus.CANCELLED, now);
+            return HandOff.CANCELLED;
+        }
+        if (bookRepository.decrementAmountIfAvailable(bookId) == 0) {
+            throw new IllegalStateException("No copy of book with id: " + bookId + " to hand off");
+        }
+        memberRepository.adjustActiveLoans(hold.getMemberId(), 1);
+        resolve(hold, HoldStatus.FULFILLED, now);
+        BorrowRequestDto loan = new BorrowRequestDto(hold.getMemberId(), bookId);
+        cacheInvalidator.evictLoans(List.of(loan));
+        eventPublisher.publishEvent(BorrowCountChangedEvent.of(bookRepository.findTitleById(bookId), 1));
+        eventPublisher.publishEvent(LoansChangedEvent.of(List.of(loan), LoanAction.BORROW));
+        eventPublisher.publishEvent(InventoryChangedEvent.of(bookId, -1));
+        log.info("Handed returned book with id: {} to member with id: {}", bookId, hold.getMemberId());
+        return HandOff.LENT;
+    }
+
+    /**
+     * What became of one waiting hold offered a copy.
+     */
+    private enum HandOff {
+        LENT, CANCELLED, DEFERRED
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.nerdysoft.service.hold;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.dto.HoldDto;
+import org.example.nerdysoft.model.entity.HoldStatus;
+import org.example.nerdysoft.model.entity.LoanAction;
+import org.example.nerdysoft.model.entity.reactive.ReactiveHold;
+import org.example.nerdysoft.output.persistent.reactive.ReactiveBookRepository;
+import org.example.nerdysoft.output.persistent.reactive.ReactiveHoldRepository;
+import org.example.nerdysoft.output.persistent.reactive.ReactiveMemberRepository;
+import org.example.nerdysoft.service.history.LoansChangedEvent;
+import org.example.nerdysoft.service.inventory.InventoryChangedEvent;
+import org.example.nerdysoft.service.stats.BorrowCountChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalEventPublisher;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link HoldQueue}: hands a returned copy to the longest waiting member of the book
+ * with the same statements and the same locking, inside the R2DBC transaction of the return. Like there, the
+ * return locks the waiter's member row before the book, and a hand-off that would have to wait for a member row
+ * is deferred with a {@link HandOffDeferredEvent} and retried by {@link HandOffRetrier} after commit.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveHoldQueue {
+
+    private final ReactiveHoldRepository holdRepository;
+    private final ReactiveMemberRepository memberRepository;
+    private final ReactiveBookRepository bookRepository;
+    private final TransactionalEventPublisher eventPublisher;
+
+    @Value("${library.loan.period:P14D}")
+    private Duration loanPeriod;
+
+    /**
+     * Finds the member the next returned copy of a book would be lent to, without locking anything.
+     *
+     * @param bookId the id of the returned book.
+     * @return the id of the waiting member to lock before the book, or empty if nobody waits for it.
+     */
+    public Mono<Long> findNextWaiter(Long bookId) {
+        return holdRepository.findNextWaitingMemberId(bookId);
+    }
+
+    /**
+     * Lends a copy that was just put back on the shelf to the longest waiting member of the book, if any.
+     * Must be subscribed to inside the transaction that returned the copy.
+     *
+     * @param bookId the id of the returned book.
+     * @return {@code true} if the copy was lent to a waiting member, {@code false} if nobody waits for it or the
+     *         hand-off was deferred until the transaction commits, or an {@link IllegalStateException} error
+     *         if the book has no copy on the shelf.
+     */
+    public Mono<Boolean> handOff(Long bookId) {
+        return holdRepository.findFirstWaitingForUpdate(bookId)
+                .flatMap(hold -> memberRepository.lockIfFree(hold.getMemberId())
+                        .flatMap(locked -> lend(hold, bookId))
+                        .flatMap(lent -> lent ? Mono.just(true) : handOff(bookId))
+                        .switchIfEmpty(Mono.defer(() -> {
+                            log.debug("Member with id: {} is locked by another transaction, deferring hand-off of"
+                                    + " book with id: {}", hold.getMemberId(), bookId);
+                            return eventPublisher.publishEvent(new HandOffDeferredEvent(bookId)).thenReturn(false);
+                        })))
+                .defaultIfEmpty(false);
+    }
+
+    private Mono<Boolean> lend(ReactiveHold hold, Long bookId) {
+        Instant now = Instant.now();
+        return memberRepository.insertBorrowedBook(hold.getMemberId(), bookId, now, now.plus(loanPeriod))
+                .flatMap(inserted -> {
+                    if (inserted == 0) {
+                        return resolve(hold, HoldStatus.CANCELLED, now).thenReturn(false);
+                    }
+                    LoansChangedEvent loans = LoansChangedEvent.of(
+                            List.of(new BorrowRequestDto(hold.getMemberId(), bookId)), LoanAction.BORROW);
+                    return bookRepository.decrementAmountIfAvailable(bookId)
+                            .flatMap(taken -> taken == 0
+                                    ? Mono.error(new IllegalStateException(
+                                            "No copy of book with id: " + bookId + " to hand off"))
+                                    : memberRepository.adjustActiveLoans(hold.getMemberId(), 1))
+                            .then(resolve(hold, HoldStatus.FULFILLED, now))
+                            .then(bookRepository.findTitleById(bookId))
+                            .flatMap(title -> eventPublisher.publishEvent(BorrowCountChangedEvent.of(title, 1)))
+                            .then(memberRepository.appendLoanEvents(loans.getEvents()))
+                            .then(eventPublisher.publishEvent(loans))
+                            .then(eventPublisher.publishEvent(InventoryChangedEvent.of(bookId, -1)))
+                            .doOnSuccess(ignored -> log.info("Handed returned book with id: {} to member with id: {}",
+                                    bookId, hold.getMemberId()))
+                            .thenReturn(true);
+                });
+    }
+
+    private Mono<Void> resolve(ReactiveHold hold, HoldStatus status, Instant now) {
+        HoldDto resolved = new HoldDto(hold.getId(), hold.getMemberId(), hold.getBookId(), status,
+                hold.getCreatedAt(), now, null);
+        return holdRepository.resolve(hold.getId(), status.name(), now)
+                .then(eventPublisher.publishEvent(new HoldChangedEvent(resolved)));
+    }
+}
@@ -0,0 +1,285 @@
+package org.example.nerdysoft.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.example.nerdysoft.constant.MessageConstants;
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.dto.BorrowResultDto;
+import org.example.nerdysoft.model.entity.Book;
+import org.example.nerdysoft.model.entity.LoanAction;
+import org.example.nerdysoft.model.entity.Member;
+import org.example.nerdysoft.model.exception.BatchSizeExceededException;
+import org.example.nerdysoft.output.persistent.BookRepository;
+import org.example.nerdysoft.output.persistent.HoldRepository;
+import org.example.nerdysoft.output.persistent.LoanJdbcRepository;
+import org.example.nerdysoft.output.persistent.MemberRepository;
+import org.example.nerdysoft.service.BatchLoanService;
+import org.example.nerdysoft.service.cache.CatalogCacheInvalidator;
+import org.example.nerdysoft.service.history.LoansChangedEvent;
+import org.example.nerdysoft.service.hold.HoldQueue;
+import org.example.nerdysoft.service.inventory.InventoryChangedEvent;
+import org.example.nerdysoft.service.stats.BorrowCountChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Implementation of the {@link BatchLoanService} interface.
+ * Validates a whole batch of borrow or return requests in memory and writes the result as JDBC batches.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchLoanServiceImpl implements BatchLoanService {
+
+    private final MemberRepository memberRepository;
+    private final BookRepository bookRepository;
+    private final LoanJdbcRepository loanJdbcRepository;
+    private final CatalogCacheInvalidator cacheInvalidator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HoldRepository holdRepository;
+    private final HoldQueue holdQueue;
+
+    @Value("${library.borrow.limit:10}")
+    private int borrowLimit;
+
+    @Value("${library.loan.period:P14D}")
+    private Duration loanPeriod;
+
+    @Value("${library.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    /**
+     * Processes a batch of borrow requests in request order.
+     * The referenced member and book rows are locked in id order, so the batch sees a stable
+     * inventory and cannot deadlock with single borrows or with other batches.
+     *
+     * @param borrowRequests the borrow requests to process.
+     * @return one {@link BorrowResultDto} per request, in request order.
+     * @throws BatchSizeExceededException if the batch is larger than {@code library.batch.max-size}.
+     */
+    @Override
+    @Transactional
+    public List<BorrowResultDto> borrowBooks(List<BorrowRequestDto> borrowRequests) {
+        checkBatchSize(borrowRequests);
+        log.debug("Processing batch of {} borrow requests", borrowRequests.size());
+        Set<Long> memberIds = collectIds(borrowRequests, BorrowRequestDto::getMemberId);
+        Set<Long> bookIds = collectIds(borrowRequests, BorrowRequestDto::getBookId);
+
+        List<Member> lockedMembers = memberIds.isEmpty() ? Collections.emptyList()
+                : memberRepository.findAllByIdInForUpdate(memberIds);
+        Set<Long> members = lockedMembers.stream().map(Member::getId).collect(Collectors.toSet());
+        List<Book> books = bookIds.isEmpty() ? Collections.emptyList()
+                : bookRepository.findAllByIdInForUpdate(bookIds);
+        Map<Long, Integer> available = books.stream().collect(Collectors.toMap(Book::getId, Book::getAmount));
+        Map<Long, String> titles = books.stream().collect(Collectors.toMap(Book::getId, Book::getTitle));
+        Map<Long, Long> loanCounts = countLoans(lockedMembers);
+        Set<BorrowRequestDto> loans = findLoans(memberIds, bookIds);
+
+        List<BorrowResultDto> results = new ArrayList<>(borrowRequests.size());
+        List<BorrowRequestDto> accepted = new ArrayList<>();
+        Map<Long, Integer> amountDeltas = new HashMap<>();
+        for (BorrowRequestDto request : borrowRequests) {
+            String error = validateBorrow(request, members, available, loanCounts, loans);
+            if (error == null) {
+                available.merge(request.getBookId(), -1, Integer::sum);
+                loanCounts.merge(request.getMemberId(), 1L, Long::sum);
+                loans.add(request);
+                amountDeltas.merge(request.getBookId(), -1, Integer::sum);
+                accepted.add(request);
+            }
+            results.add(new BorrowResultDto(request.getMemberId(), request.getBookId(), error == null, error));
+        }
+
+        if (!accepted.isEmpty()) {
+            cacheInvalidator.evictLoans(accepted);
+            Instant borrowedAt = Instant.now();
+            loanJdbcRepository.insertLoans(accepted, borrowedAt, borrowedAt.plus(loanPeriod));
+            loanJdbcRepository.adjustAmounts(amountDeltas);
+            loanJdbcRepository.adjustActiveLoans(loanDeltas(accepted, 1));
+            publishBorrowCountChanges(amountDeltas, titles);
+            eventPublisher.publishEvent(LoansChangedEvent.of(accepted, LoanAction.BORROW));
+            eventPublisher.publishEvent(new InventoryChangedEvent(amountDeltas));
+        }
+        return results;
+    }
+
+    /**
+     * Processes a batch of return requests in request order.
+     * The referenced member rows, and the rows of the members the returned copies will be lent to, are locked
+     * in id order before any loan or book row is touched, and the book rows are then updated in id order.
+     * A single borrow or return also locks its member rows before its loan and book rows, so none of them
+     * holds a book row while waiting for a member row of the batch.
+     * A loan that was removed concurrently after validation is reported as not borrowed.
+     * Returned copies of books that members are waiting for are lent to the longest waiting members.
+     *
+     * @param borrowRequests the return requests to process.
+     * @return one {@link BorrowResultDto} per request, in request order.
+     * @throws BatchSizeExceededException if the batch is larger than {@code library.batch.max-size}.
+     */
+    @Override
+    @Transactional
+    public List<BorrowResultDto> returnBooks(List<BorrowRequestDto> borrowRequests) {
+        checkBatchSize(borrowRequests);
+        log.debug("Processing batch of {} return requests", borrowRequests.size());
+        Set<Long> memberIds = collectIds(borrowRequests, BorrowRequestDto::getMemberId);
+        Set<Long> bookIds = collectIds(borrowRequests, BorrowRequestDto::getBookId);
+
+        Set<Long> lockedIds = new HashSet<>(memberIds);
+        lockedIds.addAll(holdQueue.findNextWaiters(borrowRequests.stream().map(BorrowRequestDto::getBookId).toList()));
+        Set<Long> members = lockedIds.isEmpty() ? Collections.emptySet()
+                : memberRepository.findAllByIdInForUpdate(lockedIds).stream().map(Member::getId)
+                        .collect(Collectors.toSet());
+        Map<Long, String> titles = findTitles(bookIds);
+        Set<BorrowRequestDto> loans = findLoans(memberIds, bookIds);
+
+        List<BorrowResultDto> results = new ArrayList<>(borrowRequests.size());
+        List<BorrowResultDto> acceptedResults = new ArrayList<>();
+        List<BorrowRequestDto> accepted = new ArrayList<>();
+        for (BorrowRequestDto request : borrowRequests) {
+            String error = validateReturn(request, members, titles.keySet(), loans);
+            BorrowResultDto result = new BorrowResultDto(request.getMemberId(), request.getBookId(),
+                    error == null, error);
+            if (error == null) {
+                accepted.add(request);
+                acceptedResults.add(result);
+            }
+            results.add(result);
+        }
+
+        if (!accepted.isEmpty()) {
+            cacheInvalidator.evictLoans(accepted);
+            int[] deleted = loanJdbcRepository.deleteLoans(accepted);
+            Map<Long, Integer> amountDeltas = new HashMap<>();
+            List<BorrowRequestDto> returned = new ArrayList<>(accepted.size());
+            for (int i = 0; i < deleted.length; i++) {
+                if (deleted[i] == 0) {
+                    acceptedResults.get(i).setSuccess(false);
+                    acceptedResults.get(i).setError(MessageConstants.BOOK_NOT_BORROWED_BY_MEMBER_MESSAGE);
+                } else {
+                    amountDeltas.merge(accepted.get(i).getBookId(), 1, Integer::sum);
+                    returned.add(accepted.get(i));
+                }
+            }
+            loanJdbcRepository.adjustAmounts(amountDeltas);
+            publishBorrowCountChanges(amountDeltas, titles);
+            if (!returned.isEmpty()) {
+                loanJdbcRepository.adjustActiveLoans(loanDeltas(returned, -1));
+                eventPublisher.publishEvent(LoansChangedEvent.of(returned, LoanAction.RETURN));
+                eventPublisher.publishEvent(new InventoryChangedEvent(amountDeltas));
+                holdQueue.handOffAll(returned.stream().map(BorrowRequestDto::getBookId).toList());
+            }
+        }
+        return results;
+    }
+
+    private String validateBorrow(BorrowRequestDto request, Set<Long> members, Map<Long, Integer> available,
+                                  Map<Long, Long> loanCounts, Set<BorrowRequestDto> loans) {
+        if (!members.contains(request.getMemberId())) {
+            return MessageConstants.MEMBER_NOT_FOUND_MESSAGE + request.getMemberId();
+        }
+        if (loanCounts.getOrDefault(request.getMemberId(), 0L) >= borrowLimit) {
+            return MessageConstants.BORROW_LIMIT_REACHED_MESSAGE;
+        }
+        Integer amount = available.get(request.getBookId());
+        if (amount == null) {
+            return MessageConstants.BOOK_NOT_FOUND_MESSAGE + request.getBookId();
+        }
+        if (amount <= 0) {
+            return MessageConstants.BOOK_NOT_AVAILABLE_MESSAGE;
+        }
+        if (loans.contains(request)) {
+            return MessageConstants.BOOK_ALREADY_BORROWED_MESSAGE;
+        }
+        return null;
+    }
+
+    private String validateReturn(BorrowRequestDto request, Set<Long> members, Set<Long> books,
+                                  Set<BorrowRequestDto> loans) {
+        if (!members.contains(request.getMemberId())) {
+            return MessageConstants.MEMBER_NOT_FOUND_MESSAGE + request.getMemberId();
+        }
+        if (!books.contains(request.getBookId())) {
+            return MessageConstants.BOOK_NOT_FOUND_MESSAGE + request.getBookId();
+        }
+        if (!loans.remove(request)) {
+            return MessageConstants.BOOK_NOT_BORROWED_BY_MEMBER_MESSAGE;
+        }
+        return null;
+    }
+
+    private Map<Long, Long> countLoans(List<Member> members) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (!members.isEmpty()) {
+            members.forEach(member -> counts.put(member.getId(), (long) member.getActiveLoans()));
+            for (Object[] row : holdRepository.countWaitingByMemberIdsRaw(counts.keySet())) {
+                counts.merge(((Number) row[0]).longValue(), ((Number) row[1]).longValue(), Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    private static Map<Long, Integer> loanDeltas(List<BorrowRequestDto> loans, int delta) {
+        Map<Long, Integer> deltas = new HashMap<>();
+        loans.forEach(loan -> deltas.merge(loan.getMemberId(), delta, Integer::sum));
+        return deltas;
+    }
+
+    private Set<BorrowRequestDto> findLoans(Set<Long> memberIds, Set<Long> bookIds) {
+        Set<BorrowRequestDto> loans = new HashSet<>();
+        if (!memberIds.isEmpty() && !bookIds.isEmpty()) {
+            for (Object[] row : memberRepository.findLoansRaw(memberIds, bookIds)) {
+                loans.add(new BorrowRequestDto(((Number) row[0]).longValue(), ((Number) row[1]).longValue()));
+            }
+        }
+        return loans;
+    }
+
+    private Map<Long, String> findTitles(Set<Long> bookIds) {
+        Map<Long, String> titles = new HashMap<>();
+        if (!bookIds.isEmpty()) {
+            for (Object[] row : bookRepository.findTitlesByIdInRaw(bookIds)) {
+                titles.put(((Number) row[0]).longValue(), (String) row[1]);
+            }
+        }
+        return titles;
+    }
+
+    private void publishBorrowCountChanges(Map<Long, Integer> amountDeltas, Map<Long, String> titles) {
+        Map<String, Integer> titleDeltas = new HashMap<>();
+        amountDeltas.forEach((bookId, delta) -> titleDeltas.merge(titles.get(bookId), -delta, Integer::sum));
+        if (!titleDeltas.isEmpty()) {
+            eventPublisher.publishEvent(new BorrowCountChangedEvent(titleDeltas));
+        }
+    }
+
+    private void checkBatchSize(Collection<BorrowRequestDto> borrowRequests) {
+        if (borrowRequests.size() > maxBatchSize) {
+            throw new BatchSizeExceededException(MessageConstants.BATCH_SIZE_EXCEEDED_MESSAGE + maxBatchSize);
+        }
+    }
+
+    private static Set<Long> collectIds(List<BorrowRequestDto> borrowRequests,
+                                        Function<BorrowRequestDto, Long> idExtractor) {
+        return borrowRequests.stream()
+                .map(idExtractor)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+}
@@ -1,18 +1,30 @@
 package org.example.nerdysoft.service.impl;
 
-import java.util.HashMap;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import org.example.nerdysoft.constant.CacheConstants;
 import org.example.nerdysoft.constant.MessageConstants;
+import org.example.nerdysoft.model.dto.AvailabilityCheckResultDto;
+import org.example.nerdysoft.model.dto.BookAvailabilityDto;
 import org.example.nerdysoft.model.dto.BookDetailedDto;
 import org.example.nerdysoft.model.dto.BookMainInfoDto;
 import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.dto.CursorPageDto;
 import org.example.nerdysoft.model.entity.Book;
+import org.example.nerdysoft.model.entity.LoanAction;
 import org.example.nerdysoft.model.entity.Member;
+import org.example.nerdysoft.model.exception.BatchSizeExceededException;
+import org.example.nerdysoft.model.exception.BookAlreadyBorrowedException;
+import org.example.nerdysoft.model.exception.BookAlreadyExistsException;
 import org.example.nerdysoft.model.exception.BookNotAvailableException;
 import org.example.nerdysoft.model.exception.BookNotFoundException;
 import org.example.nerdysoft.model.exception.BookNotReturnedException;
@@ -21,10 +33,28 @@ import org.example.nerdysoft.model.exception.MemberNotFoundException;
 import org.example.nerdysoft.output.persistent.BookRepository;
 import org.example.nerdysoft.output.persistent.MemberRepository;
 import org.example.nerdysoft.service.BookService;
+import org.example.nerdysoft.service.cache.CatalogCacheInvalidator;
+import org.example.nerdysoft.service.history.LoansChangedEvent;
+import org.example.nerdysoft.service.hold.HoldQueue;
+import org.example.nerdysoft.service.inventory.BookAvailabilityIndex;
+import org.example.nerdysoft.service.inventory.BookDeletedEvent;
+import org.example.nerdysoft.service.inventory.InventoryChangedEvent;
 import org.example.nerdysoft.service.mapper.BookMapper;
+import org.example.nerdysoft.service.metrics.BorrowMetrics;
+import org.example.nerdysoft.service.stats.BorrowCountChangedEvent;
+import org.example.nerdysoft.service.stats.BorrowStatistics;
+import org.example.nerdysoft.service.util.CursorCodec;
+import org.example.nerdysoft.service.util.SearchQueries;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -41,19 +71,93 @@ public class BookServiceImpl implements BookService {
     private final BookRepository bookRepository;
     private final MemberRepository memberRepository;
     private final BookMapper bookMapper;
+    private final BorrowMetrics borrowMetrics;
+    private final CatalogCacheInvalidator cacheInvalidator;
+    private final BorrowStatistics borrowStatistics;
+    private final BookAvailabilityIndex availabilityIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HoldQueue holdQueue;
+    private final PlatformTransactionManager transactionManager;
+    private final CacheManager cacheManager;
 
     @Value("${library.borrow.limit:10}")
     private int borrowLimit;
 
+    @Value("${library.loan.period:P14D}")
+    private Duration loanPeriod;
+
+    @Value("${library.pagination.max-page-size:500}")
+    private int maxPageSize;
+
+    @Value("${library.pagination.stream-chunk-size:500}")
+    private int streamChunkSize;
+
+    @Value("${library.batch.max-size:1000}")
+    private int maxBatchSize;
+
     /**
      * Fetches all books with their borrowers.
+     * Books are read in keyset chunks and the borrowers of each chunk are batch-fetched by book id,
+     * so the result set never repeats a book once per borrower.
      *
      * @return a list of {@link BookDetailedDto} containing detailed information about all books.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<BookDetailedDto> getAllBooks() {
-        log.info("Fetching all books");
-        return bookRepository.findAllWithBorrowers().stream().map(bookMapper::toDto).collect(Collectors.toList());
+        log.debug("Fetching all books");
+        List<BookDetailedDto> books = new ArrayList<>();
+        forEachBookWithBorrowers(books::add);
+        return books;
+    }
+
+    /**
+     * Fetches one page of books with their borrowers, ordered by id.
+     *
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page.
+     * @param size the requested page size, capped at {@code library.pagination.max-page-size}.
+     * @return a {@link CursorPageDto} with the books and the cursor of the next page, if any.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<BookDetailedDto> getBooksPage(String cursor, int size) {
+        log.debug("Fetching books page after cursor: {}", cursor);
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        List<BookDetailedDto> books = findPageWithBorrowers(CursorCodec.decode(cursor), pageSize);
+        String next = books.size() < pageSize ? null : CursorCodec.encode(books.get(books.size() - 1).getId());
+        return new CursorPageDto<>(books, next);
+    }
+
+    /**
+     * Passes every book with its borrowers to the consumer, loading them in keyset chunks
+     * so that at most one chunk is held in memory at a time. Each chunk is read in its own
+     * short read-only transaction.
+     *
+     * @param consumer the consumer receiving each {@link BookDetailedDto} in id order.
+     */
+    @Override
+    public void streamAllBooks(Consumer<BookDetailedDto> consumer) {
+        log.debug("Streaming all books");
+        forEachBookWithBorrowers(consumer);
+    }
+
+    /**
+     * Fetches one page of book summaries, ordered by id.
+     * The rows are read straight into {@link BookMainInfoDto} without loading entities or borrowers.
+     *
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page.
+     * @param size the requested page size, capped at {@code library.pagination.max-page-size}.
+     * @return a {@link CursorPageDto} with the book summaries and the cursor of the next page, if any.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<BookMainInfoDto> getBookSummariesPage(String cursor, int size) {
+        log.debug("Fetching book summaries page after cursor: {}", cursor);
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        List<BookMainInfoDto> books = bookRepository.findSummariesAfter(CursorCodec.decode(cursor),
+                PageRequest.of(0, pageSize));
+        String next = books.size() < pageSize ? null : CursorCodec.encode(books.get(books.size() - 1).getId());
+        return new CursorPageDto<>(books, next);
     }
 
     /**
@@ -64,15 +168,58 @@ public class BookServiceImpl implements BookService {
      * @throws BookNotFoundException if the book with the specified ID is not found.
      */
     @Override
+    @Cacheable(cacheNames = CacheConstants.BOOKS_CACHE, key = "#id", sync = true)
+    @Transactional(readOnly = true)
     public BookDetailedDto getBookById(Long id) {
-        log.info("Fetching book with id: {}", id);
+        log.debug("Fetching book with id: {}", id);
         return bookRepository.findByIdWithBorrowers(id)
                 .map(bookMapper::toDto)
                 .orElseThrow(() -> new BookNotFoundException(MessageConstants.BOOK_NOT_FOUND_MESSAGE + id));
     }
 
     /**
-     * Saves a new book or updates the amount of an existing book.
+     * Reads the current version of a book, in the format of {@link BookDetailedDto#getVersion()}, with a single
+     * aggregate query that neither loads the book nor goes through the cache. Lets a matching
+     * {@code If-None-Match} be answered without loading the book and its borrowers.
+     *
+     * @param id the ID of the book.
+     * @return the current version of the book.
+     * @throws BookNotFoundException if the book with the specified ID is not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String getBookVersion(Long id) {
+        return readVersion(id);
+    }
+
+    /**
+     * Searches books whose title or author contain every word of the query as a word prefix, ignoring case.
+     * The match is served by the {@code idx_books_search} GIN index.
+     *
+     * @param query the free-text search query.
+     * @param size the maximum number of results, capped at {@code library.pagination.max-page-size}.
+     * @return a list of {@link BookMainInfoDto} ordered by id, empty if the query contains no words.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookMainInfoDto> searchBooks(String query, int size) {
+        log.debug("Searching books by query: {}", query);
+        String tsQuery = SearchQueries.toPrefixTsQuery(query);
+        if (tsQuery.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int limit = Math.max(1, Math.min(size, maxPageSize));
+        return bookRepository.search(tsQuery, limit).stream()
+                .map(bookMapper::toMainInfoDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Saves a new book or adds the copies to the existing book with the same title and author.
+     *
+     * <p>Both cases are a single {@code INSERT ... ON CONFLICT DO UPDATE} against the unique
+     * {@code (title, author)} constraint, so concurrent saves of the same book add up instead of
+     * creating duplicates. The added copies go to the members waiting for the book first.</p>
      *
      * @param bookDetailedDto the book details to save.
      * @return a {@link BookDetailedDto} containing detailed information about the saved book.
@@ -80,36 +227,74 @@ public class BookServiceImpl implements BookService {
     @Override
     @Transactional
     public BookDetailedDto saveBook(BookDetailedDto bookDetailedDto) {
-        log.info("Saving book: {}", bookDetailedDto);
-        Book book = bookMapper.toEntity(bookDetailedDto);
-        Book existingBook = bookRepository.findByNameAndAuthor(book.getTitle(), book.getAuthor());
-        if (existingBook != null) {
-            existingBook.setAmount(existingBook.getAmount() + book.getAmount());
-            return bookMapper.toDto(bookRepository.save(existingBook));
+        Book book = bookRepository.upsertAmount(bookDetailedDto.getTitle(), bookDetailedDto.getAuthor(),
+                bookDetailedDto.getAmount());
+        log.debug("Saved book with id: {}", book.getId());
+        cacheInvalidator.evictBook(book.getId());
+        eventPublisher.publishEvent(InventoryChangedEvent.of(book.getId(), bookDetailedDto.getAmount()));
+        int handedOff = holdQueue.handOff(book.getId(), bookDetailedDto.getAmount());
+        BookDetailedDto saved = bookMapper.toDto(book);
+        if (handedOff > 0) {
+            saved.setAmount(saved.getAmount() - handedOff);
+            saved.setVersion(readVersion(book.getId()));
         }
-        return bookMapper.toDto(bookRepository.save(book));
+        return saved;
     }
 
     /**
-     * Updates the details of an existing book.
+     * Updates the details of an existing book. Copies added by a higher amount go to the members waiting
+     * for the book first.
+     * The book is locked before its amount and borrowers are read, so a borrow or return cannot change them
+     * between the read and the write of the new amount.
      *
      * @param id the ID of the book to update.
      * @param bookDetails the new details of the book.
      * @return a {@link BookDetailedDto} containing detailed information about the updated book.
      * @throws BookNotFoundException if the book with the specified ID is not found.
+     * @throws BookAlreadyExistsException if another book has the new title and author.
      */
     @Override
     @Transactional
     public BookDetailedDto updateBook(Long id, BookDetailedDto bookDetails) {
-        log.info("Updating book with id: {}", id);
-        Book book = bookRepository.findById(id)
+        log.debug("Updating book with id: {}", id);
+        Book book = bookRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new BookNotFoundException(MessageConstants.BOOK_NOT_FOUND_MESSAGE + id));
+        boolean renamed = !book.getTitle().equals(bookDetails.getTitle())
+                || !book.getAuthor().equals(bookDetails.getAuthor());
+        if (renamed && bookRepository.existsByTitleAndAuthorAndIdNot(bookDetails.getTitle(),
+                bookDetails.getAuthor(), id)) {
+            throw new BookAlreadyExistsException(MessageConstants.BOOK_ALREADY_EXISTS_MESSAGE);
+        }
+        cacheInvalidator.evictBook(id);
+        if (!book.getTitle().equals(bookDetails.getTitle()) && !book.getBorrowers().isEmpty()) {
+            int loans = book.getBorrowers().size();
+            eventPublisher.publishEvent(new BorrowCountChangedEvent(
+                    Map.of(book.getTitle(), -loans, bookDetails.getTitle(), loans)));
+        }
+        int added = bookDetails.getAmount() - book.getAmount();
+        if (added != 0) {
+            eventPublisher.publishEvent(InventoryChangedEvent.of(id, added));
+        }
 
+        if (renamed || added != 0) {
+            bookRepository.incrementVersion(id);
+            // the bulk update bypasses the locked book, which would otherwise return its old version
+            book.setVersion(book.getVersion() + 1);
+        }
         book.setTitle(bookDetails.getTitle());
         book.setAuthor(bookDetails.getAuthor());
         book.setAmount(bookDetails.getAmount());
 
-        return bookMapper.toDto(bookRepository.save(book));
+        BookDetailedDto updated = bookMapper.toDto(bookRepository.save(book));
+        if (added > 0) {
+            bookRepository.flush();
+            int handedOff = holdQueue.handOff(id, added);
+            if (handedOff > 0) {
+                updated.setAmount(updated.getAmount() - handedOff);
+                updated.setVersion(readVersion(id));
+            }
+        }
+        return updated;
     }
 
     /**
@@ -122,53 +307,76 @@ public class BookServiceImpl implements BookService {
     @Override
     @Transactional
     public void deleteBook(Long id) {
-        log.info("Deleting book with id: {}", id);
-        Book book = bookRepository.findById(id)
+        log.debug("Deleting book with id: {}", id);
+        int borrowers = bookRepository.countBorrowersById(id)
                 .orElseThrow(() -> new BookNotFoundException(MessageConstants.BOOK_NOT_FOUND_MESSAGE + id));
-        if (!book.getBorrowers().isEmpty()) {
+        if (borrowers > 0) {
             throw new BookNotReturnedException(MessageConstants.BOOK_NOT_RETURNED_MESSAGE);
         }
-        bookRepository.deleteById(id);
+        cacheInvalidator.evictBook(id);
+        bookRepository.deleteDirectlyById(id);
+        eventPublisher.publishEvent(new BookDeletedEvent(id));
     }
 
     /**
      * Allows a member to borrow a book.
      *
+     * <p>The member's active loan counter is checked against the limit and incremented by a single
+     * conditional update, which also locks the member row, so concurrent borrows by the same member
+     * cannot overrun the borrow limit and no loan is counted twice. A copy is taken the same way,
+     * so concurrent borrowers of the same book can never take more copies than exist. Any later failure
+     * rolls both counters back with the transaction.</p>
+     *
+     * <p>The loan is due {@code library.loan.period} after it was taken.</p>
+     *
      * @param borrowRequest the borrow request containing member ID and book ID.
      * @throws MemberNotFoundException if the member with the specified ID is not found.
      * @throws BookNotFoundException if the book with the specified ID is not found.
      * @throws BookNotAvailableException if the book is not available for borrowing.
      * @throws BorrowLimitExceededException if the member has reached the borrow limit.
+     * @throws BookAlreadyBorrowedException if the member already holds a copy of the book.
      */
     @Override
     @Transactional
     public void borrowBook(BorrowRequestDto borrowRequest) {
         Long memberId = borrowRequest.getMemberId();
         Long bookId = borrowRequest.getBookId();
-        log.info("Member with id: {} borrowing book with id: {}", memberId, bookId);
-        Member member = memberRepository.findById(memberId)
-                .orElseThrow(() -> new MemberNotFoundException(MessageConstants.MEMBER_NOT_FOUND_MESSAGE + memberId));
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new BookNotFoundException(MessageConstants.BOOK_NOT_FOUND_MESSAGE + bookId));
+        log.debug("Member with id: {} borrowing book with id: {}", memberId, bookId);
+        long lockStart = System.nanoTime();
+        int taken = memberRepository.takeLoanIfBelowLimit(memberId, borrowLimit);
+        borrowMetrics.recordMemberLockWait(lockStart);
+        if (taken == 0) {
+            if (!memberRepository.existsById(memberId)) {
+                throw new MemberNotFoundException(MessageConstants.MEMBER_NOT_FOUND_MESSAGE + memberId);
+            }
+            throw new BorrowLimitExceededException(MessageConstants.BORROW_LIMIT_REACHED_MESSAGE);
+        }
 
-        if (book.getAmount() <= 0) {
+        if (bookRepository.decrementAmountIfAvailable(bookId) == 0) {
+            if (!bookRepository.existsById(bookId)) {
+                throw new BookNotFoundException(MessageConstants.BOOK_NOT_FOUND_MESSAGE + bookId);
+            }
+            borrowMetrics.recordAvailabilityConflict();
             throw new BookNotAvailableException(MessageConstants.BOOK_NOT_AVAILABLE_MESSAGE);
         }
 
-        if (member.getBorrowedBooks().size() >= borrowLimit) {
-            throw new BorrowLimitExceededException(MessageConstants.BORROW_LIMIT_REACHED_MESSAGE);
+        Instant borrowedAt = Instant.now();
+        if (memberRepository.insertBorrowedBook(memberId, bookId, borrowedAt, borrowedAt.plus(loanPeriod)) == 0) {
+            throw new BookAlreadyBorrowedException(MessageConstants.BOOK_ALREADY_BORROWED_MESSAGE);
         }
-
-        member.getBorrowedBooks().add(book);
-
-        book.setAmount(book.getAmount() - 1);
-
-        bookRepository.save(book);
-        memberRepository.save(member);
+        cacheInvalidator.evictLoans(List.of(borrowRequest));
+        eventPublisher.publishEvent(BorrowCountChangedEvent.of(bookRepository.findTitleById(bookId), 1));
+        eventPublisher.publishEvent(LoansChangedEvent.of(List.of(borrowRequest), LoanAction.BORROW));
+        eventPublisher.publishEvent(InventoryChangedEvent.of(bookId, -1));
     }
 
     /**
      * Allows a member to return a borrowed book.
+     * If other members are waiting for the book, the copy is lent to the longest waiting one.
+     *
+     * <p>The member's active loan counter is released before the loan is deleted and the copy is put back,
+     * so the member row is locked before the loan and book rows, in the same order as a borrow. The row of
+     * the member the copy will be lent to is locked with it, in id order.</p>
      *
      * @param borrowRequest the borrow request containing member ID and book ID.
      * @throws MemberNotFoundException if the member with the specified ID is not found.
@@ -180,65 +388,181 @@ public class BookServiceImpl implements BookService {
     public void returnBook(BorrowRequestDto borrowRequest) {
         Long memberId = borrowRequest.getMemberId();
         Long bookId = borrowRequest.getBookId();
-        log.info("Member with id: {} returning book with id: {}", memberId, bookId);
-        Member member = memberRepository.findById(memberId)
-                .orElseThrow(() -> new MemberNotFoundException(MessageConstants.MEMBER_NOT_FOUND_MESSAGE + memberId));
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new BookNotFoundException(MessageConstants.BOOK_NOT_FOUND_MESSAGE + bookId));
-
-        if (!member.getBorrowedBooks().contains(book)) {
-            throw new BookNotReturnedException(MessageConstants.BOOK_NOT_BORROWED_BY_MEMBER_MESSAGE
-                    + " " + member.getName());
+        log.debug("Member with id: {} returning book with id: {}", memberId, bookId);
+        cacheInvalidator.evictLoans(List.of(borrowRequest));
+        List<Long> waiters = holdQueue.findNextWaiters(List.of(bookId));
+        if (!waiters.isEmpty()) {
+            List<Long> members = new ArrayList<>(waiters);
+            members.add(memberId);
+            memberRepository.findAllByIdInForUpdate(members);
         }
-
-        member.getBorrowedBooks().remove(book);
-        book.setAmount(book.getAmount() + 1);
-
-        bookRepository.save(book);
-        memberRepository.save(member);
+        if (memberRepository.releaseLoanIfTaken(memberId) == 0
+                || memberRepository.deleteBorrowedBook(memberId, bookId) == 0) {
+            throw loanNotFound(memberId, bookId);
+        }
+        bookRepository.incrementAmount(bookId);
+        eventPublisher.publishEvent(BorrowCountChangedEvent.of(bookRepository.findTitleById(bookId), -1));
+        eventPublisher.publishEvent(LoansChangedEvent.of(List.of(borrowRequest), LoanAction.RETURN));
+        eventPublisher.publishEvent(InventoryChangedEvent.of(bookId, 1));
+        holdQueue.handOff(bookId);
     }
 
     /**
      * Fetches the books borrowed by a member.
+     * The name is resolved to the member id, which the cached books are keyed by, so a borrow or return
+     * can evict them without looking the name up.
      *
      * @param memberName the name of the member.
      * @return a set of {@link BookMainInfoDto} containing main information about the borrowed books.
      * @throws MemberNotFoundException if the member with the specified name is not found.
      */
     @Override
+    @Transactional(readOnly = true)
     public Set<BookMainInfoDto> getBooksBorrowedByMember(String memberName) {
-        log.info("Fetching books borrowed by member: {}", memberName);
-        Optional<Member> member = memberRepository.findByNameWithBorrowedBooks(memberName);
-        if (member.isEmpty()) {
-            throw new MemberNotFoundException(MessageConstants.MEMBER_NOT_FOUND_BY_NAME_MESSAGE + memberName);
-        }
-        return member.get().getBorrowedBooks().stream().map(bookMapper::toMainInfoDto).collect(Collectors.toSet());
+        log.debug("Fetching books borrowed by member: {}", memberName);
+        Long memberId = memberRepository.findIdByName(memberName)
+                .orElseThrow(() -> new MemberNotFoundException(
+                        MessageConstants.MEMBER_NOT_FOUND_BY_NAME_MESSAGE + memberName));
+        Cache borrowedBooksCache = Objects.requireNonNull(
+                cacheManager.getCache(CacheConstants.MEMBER_BORROWED_BOOKS_CACHE));
+        return borrowedBooksCache.get(memberId, () -> findBooksBorrowedByMember(memberId));
+    }
+
+    private Set<BookMainInfoDto> findBooksBorrowedByMember(Long memberId) {
+        Member member = memberRepository.findByIdWithBorrowedBooks(memberId)
+                .orElseThrow(() -> new MemberNotFoundException(MessageConstants.MEMBER_NOT_FOUND_MESSAGE + memberId));
+        return member.getBorrowedBooks().stream().map(bookMapper::toMainInfoDto).collect(Collectors.toSet());
     }
 
     /**
-     * Fetches the distinct names of borrowed books.
+     * Fetches the distinct names of borrowed books from the in-memory borrow statistics.
      *
      * @return a set of distinct borrowed book names.
      */
     @Override
     public Set<String> getDistinctBorrowedBookNames() {
-        return bookRepository.findDistinctBorrowedBookNames();
+        return borrowStatistics.getBorrowedTitles();
     }
 
     /**
-     * Fetches the distinct names of borrowed books along with their amounts.
+     * Fetches the distinct names of borrowed books along with their amounts from the in-memory borrow statistics.
      *
      * @return a map of book names to their borrowed amounts.
      */
     @Override
     public Map<String, Long> getDistinctBorrowedBookNamesWithAmount() {
-        List<Object[]> results = bookRepository.findDistinctBorrowedBookNamesWithAmountRaw();
-        Map<String, Long> map = new HashMap<>();
-        for (Object[] result : results) {
-            String title = (String) result[0];
-            Long count = ((Number) result[1]).longValue();
-            map.put(title, count);
-        }
-        return map;
+        return borrowStatistics.getBorrowCounts();
+    }
+
+    /**
+     * Rebuilds the in-memory borrow statistics from the loans stored in the database.
+     *
+     * @return a map of book names to their borrowed amounts after the rebuild.
+     */
+    @Override
+    public Map<String, Long> rebuildBorrowStatistics() {
+        log.debug("Rebuilding borrow statistics on request");
+        return borrowStatistics.rebuild();
+    }
+
+    /**
+     * Fetches the copies on the shelf and the borrowers of a book from the in-memory availability index.
+     *
+     * @param id the ID of the book.
+     * @return a {@link BookAvailabilityDto} describing the availability of the book.
+     * @throws BookNotFoundException if the book is not in the index.
+     */
+    @Override
+    public BookAvailabilityDto getBookAvailability(Long id) {
+        int[] available = new int[1];
+        int[] borrowers = new int[1];
+        if (availabilityIndex.lookup(new long[] {id}, available, borrowers) == 0) {
+            throw new BookNotFoundException(MessageConstants.BOOK_NOT_FOUND_MESSAGE + id);
+        }
+        return new BookAvailabilityDto(id, available[0], borrowers[0], available[0] > 0);
+    }
+
+    /**
+     * Fetches the availability of several books from the in-memory availability index, as of a single point
+     * in time. Books that are not in the index are left out.
+     *
+     * @param ids the IDs of the books.
+     * @return one {@link BookAvailabilityDto} per known book, in request order.
+     * @throws BatchSizeExceededException if more than {@code library.batch.max-size} IDs are given.
+     */
+    @Override
+    public List<BookAvailabilityDto> getBooksAvailability(List<Long> ids) {
+        if (ids.size() > maxBatchSize) {
+            throw new BatchSizeExceededException(MessageConstants.BATCH_SIZE_EXCEEDED_MESSAGE + maxBatchSize);
+        }
+        long[] bookIds = ids.stream().filter(Objects::nonNull).mapToLong(Long::longValue).toArray();
+        int[] available = new int[bookIds.length];
+        int[] borrowers = new int[bookIds.length];
+        availabilityIndex.lookup(bookIds, available, borrowers);
+        List<BookAvailabilityDto> result = new ArrayList<>(bookIds.length);
+        for (int i = 0; i < bookIds.length; i++) {
+            if (available[i] != BookAvailabilityIndex.UNKNOWN) {
+                result.add(new BookAvailabilityDto(bookIds[i], available[i], borrowers[i], available[i] > 0));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compares the in-memory availability index with the books stored in the database and repairs it.
+     *
+     * @return the numbers of compared and repaired books.
+     */
+    @Override
+    public AvailabilityCheckResultDto checkAvailabilityIndex() {
+        log.debug("Checking book availability index on request");
+        return availabilityIndex.check();
+    }
+
+    private void forEachBookWithBorrowers(Consumer<BookDetailedDto> consumer) {
+        long afterId = 0L;
+        List<BookDetailedDto> books;
+        do {
+            books = findPageWithBorrowers(afterId, streamChunkSize);
+            books.forEach(consumer);
+            if (!books.isEmpty()) {
+                afterId = books.get(books.size() - 1).getId();
+            }
+        } while (books.size() == streamChunkSize);
+    }
+
+    /**
+     * Loads one keyset page of books and maps it in a read-only transaction. The page query reads only
+     * the book rows; mapping touches the lazy borrower sets, which Hibernate initializes with one batched
+     * {@code IN} query per page (see {@code @BatchSize} on {@link Book#getBorrowers()}).
+     */
+    private List<BookDetailedDto> findPageWithBorrowers(long afterId, int size) {
+        return readOnlyTransaction().execute(status -> bookRepository.findPageAfter(afterId, PageRequest.of(0, size))
+                .stream()
+                .map(bookMapper::toDto)
+                .collect(Collectors.toList()));
+    }
+
+    private String readVersion(Long id) {
+        return bookRepository.findVersionsRaw(id).stream()
+                .findFirst()
+                .map(versions -> versions[0] + "-" + versions[1])
+                .orElseThrow(() -> new BookNotFoundException(MessageConstants.BOOK_NOT_FOUND_MESSAGE + id));
+    }
+
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private RuntimeException loanNotFound(Long memberId, Long bookId) {
+        Member member = memberRepository.findById(memberId)
+                .orElseThrow(() -> new MemberNotFoundException(MessageConstants.MEMBER_NOT_FOUND_MESSAGE + memberId));
+        if (!bookRepository.existsById(bookId)) {
+            return new BookNotFoundException(MessageConstants.BOOK_NOT_FOUND_MESSAGE + bookId);
+        }
+        return new BookNotReturnedException(MessageConstants.BOOK_NOT_BORROWED_BY_MEMBER_MESSAGE
+                + " " + member.getName());
     }
 }
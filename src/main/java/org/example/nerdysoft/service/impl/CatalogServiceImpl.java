@@ -0,0 +1,219 @@
+package org.example.nerdysoft.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.example.nerdysoft.constant.MessageConstants;
+import org.example.nerdysoft.model.dto.BookDetailedDto;
+import org.example.nerdysoft.model.dto.BookMainInfoDto;
+import org.example.nerdysoft.model.dto.CatalogImportErrorDto;
+import org.example.nerdysoft.model.dto.CatalogImportResultDto;
+import org.example.nerdysoft.model.exception.InvalidCatalogFileException;
+import org.example.nerdysoft.output.persistent.CatalogJdbcRepository;
+import org.example.nerdysoft.output.persistent.CatalogJdbcRepository.BookStaging;
+import org.example.nerdysoft.output.persistent.CatalogJdbcRepository.MergeCounts;
+import org.example.nerdysoft.service.CatalogService;
+import org.example.nerdysoft.service.cache.CatalogCacheInvalidator;
+import org.example.nerdysoft.service.catalog.CatalogFormat;
+import org.example.nerdysoft.service.hold.HoldQueue;
+import org.example.nerdysoft.service.inventory.CatalogImportedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Implementation of the {@link CatalogService} interface.
+ *
+ * <p>Files are read and written row by row, so memory use does not grow with their size. Imported rows are
+ * validated with the rules of {@link BookDetailedDto}, staged and merged into the catalog with set-based SQL
+ * by {@link CatalogJdbcRepository}. An import runs in one transaction: invalid rows are reported and skipped,
+ * while a file that cannot be parsed at all rolls the whole import back.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogServiceImpl implements CatalogService {
+
+    private static final String TITLE = "title";
+    private static final String AUTHOR = "author";
+    private static final String AMOUNT = "amount";
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+    private static final CsvSchema EXPORT_SCHEMA = CSV_MAPPER.schemaFor(BookMainInfoDto.class)
+            .sortedBy("id", TITLE, AUTHOR, AMOUNT)
+            .withHeader();
+
+    private final CatalogJdbcRepository catalogJdbcRepository;
+    private final CatalogCacheInvalidator cacheInvalidator;
+    private final HoldQueue holdQueue;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${library.catalog.import.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${library.catalog.import.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    @Value("${library.catalog.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Imports books from a CSV file with a {@code title,author,amount} header or from newline-delimited JSON.
+     * The amounts of rows with the same title and author are added up; the sum is added to an existing book
+     * with that title and author, or creates a new one. Copies added to books that members are waiting for
+     * are lent to them first.
+     *
+     * @param input the file content.
+     * @param format the format of the file.
+     * @return the numbers of read, rejected, created and updated rows, and the first rejected rows.
+     * @throws InvalidCatalogFileException if the file cannot be parsed.
+     */
+    @Override
+    @Transactional
+    public CatalogImportResultDto importBooks(InputStream input, CatalogFormat format) {
+        log.info("Importing {} catalog file", format);
+        long start = System.nanoTime();
+        ImportRun run;
+        try (BookStaging staging = catalogJdbcRepository.openStaging(batchSize)) {
+            run = new ImportRun(staging);
+            if (format == CatalogFormat.CSV) {
+                readCsv(input, run);
+            } else {
+                readNdjson(input, run);
+            }
+            staging.finish();
+        } catch (IOException e) {
+            throw new InvalidCatalogFileException(MessageConstants.INVALID_CATALOG_FILE_MESSAGE + e.getMessage());
+        }
+        MergeCounts counts = catalogJdbcRepository.mergeStaging();
+        int handedOff = holdQueue.handOffAll(catalogJdbcRepository.findAwaitedCopies());
+        cacheInvalidator.evictAll();
+        log.info("Imported {} rows ({} rejected, {} books created, {} updated, {} copies handed to waiting members) "
+                + "in {} ms", run.rows, run.rejected, counts.created(), counts.updated(), handedOff,
+                (System.nanoTime() - start) / 1_000_000);
+        eventPublisher.publishEvent(new CatalogImportedEvent(counts.created(), counts.updated()));
+        return new CatalogImportResultDto(run.rows, run.rejected, counts.created(), counts.updated(), run.errors);
+    }
+
+    /**
+     * Writes every book in id order as CSV with an {@code id,title,author,amount} header or as
+     * newline-delimited JSON.
+     *
+     * @param output the stream to write to; it is flushed but not closed.
+     * @param format the format to write.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBooks(OutputStream output, CatalogFormat format) {
+        log.info("Exporting catalog as {}", format);
+        ObjectWriter writer = format == CatalogFormat.CSV
+                ? CSV_MAPPER.writer(EXPORT_SCHEMA)
+                : objectMapper.writerFor(BookMainInfoDto.class).withRootValueSeparator("\n");
+        try (SequenceWriter rows = writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValues(output)) {
+            catalogJdbcRepository.streamBooks(fetchSize, book -> {
+                try {
+                    rows.write(book);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void readCsv(InputStream input, ImportRun run) throws IOException {
+        CsvSchema schema = CsvSchema.emptySchema().withHeader();
+        try (MappingIterator<Map<String, String>> rows = CSV_MAPPER.readerForMapOf(String.class)
+                .with(schema)
+                .readValues(input)) {
+            while (rows.hasNextValue()) {
+                Map<String, String> row = rows.nextValue();
+                long number = run.rows + 1;
+                try {
+                    run.accept(number, new BookDetailedDto(null, row.get(TITLE), row.get(AUTHOR),
+                            Integer.parseInt(String.valueOf(row.get(AMOUNT)).trim()), null));
+                } catch (NumberFormatException e) {
+                    run.reject(number, MessageConstants.INVALID_AMOUNT_MESSAGE);
+                }
+            }
+        }
+    }
+
+    private void readNdjson(InputStream input, ImportRun run) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            while (line != null) {
+                if (!line.isBlank()) {
+                    long number = run.rows + 1;
+                    try {
+                        run.accept(number, objectMapper.readValue(line, BookDetailedDto.class));
+                    } catch (JsonProcessingException e) {
+                        run.reject(number, MessageConstants.MALFORMED_ROW_MESSAGE + e.getOriginalMessage());
+                    }
+                }
+                line = reader.readLine();
+            }
+        }
+    }
+
+    /**
+     * Counts the rows of one import, stages the valid ones and keeps the first rejected ones.
+     */
+    private final class ImportRun {
+
+        private final BookStaging staging;
+        private final List<CatalogImportErrorDto> errors = new ArrayList<>();
+        private long rows;
+        private long rejected;
+
+        private ImportRun(BookStaging staging) {
+            this.staging = staging;
+        }
+
+        private void accept(long number, BookDetailedDto book) {
+            String error = validator.validate(book).stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            if (!error.isEmpty()) {
+                reject(number, error);
+                return;
+            }
+            rows++;
+            staging.add(book.getTitle(), book.getAuthor(), book.getAmount());
+        }
+
+        private void reject(long number, String error) {
+            rows++;
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new CatalogImportErrorDto(number, error));
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.nerdysoft.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.example.nerdysoft.constant.MessageConstants;
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.dto.HoldDto;
+import org.example.nerdysoft.model.entity.Book;
+import org.example.nerdysoft.model.entity.Hold;
+import org.example.nerdysoft.model.entity.HoldStatus;
+import org.example.nerdysoft.model.exception.BookAlreadyBorrowedException;
+import org.example.nerdysoft.model.exception.BookAvailableException;
+import org.example.nerdysoft.model.exception.BookNotFoundException;
+import org.example.nerdysoft.model.exception.BorrowLimitExceededException;
+import org.example.nerdysoft.model.exception.HoldAlreadyPlacedException;
+import org.example.nerdysoft.model.exception.HoldNotFoundException;
+import org.example.nerdysoft.model.exception.MemberNotFoundException;
+import org.example.nerdysoft.output.persistent.BookRepository;
+import org.example.nerdysoft.output.persistent.HoldRepository;
+import org.example.nerdysoft.output.persistent.MemberRepository;
+import org.example.nerdysoft.service.HoldService;
+import org.example.nerdysoft.service.hold.HoldNotifier;
+import org.example.nerdysoft.service.hold.HoldQueue;
+import org.example.nerdysoft.service.mapper.HoldMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Implementation of the {@link HoldService} interface.
+ * Queues members for books without a free copy; returned copies are handed over by {@link HoldQueue}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HoldServiceImpl implements HoldService {
+
+    private final HoldRepository holdRepository;
+    private final MemberRepository memberRepository;
+    private final BookRepository bookRepository;
+    private final HoldMapper holdMapper;
+    private final HoldQueue holdQueue;
+    private final HoldNotifier holdNotifier;
+
+    @Value("${library.borrow.limit:10}")
+    private int borrowLimit;
+
+    /**
+     * Places a member at the end of the queue of a book that has no copy left.
+     * The member and book rows are locked in the same order as a borrow, so the free copy check cannot
+     * race with a concurrent return. A waiting hold counts towards the member's borrow limit because
+     * it turns into a loan without asking the member again.
+     *
+     * @param holdRequest the request containing member ID and book ID.
+     * @return the new {@link HoldDto} with its position in the queue.
+     * @throws MemberNotFoundException if the member with the specified ID is not found.
+     * @throws BookNotFoundException if the book with the specified ID is not found.
+     * @throws BookAvailableException if the book has a free copy.
+     * @throws BookAlreadyBorrowedException if the member already holds a copy of the book.
+     * @throws HoldAlreadyPlacedException if the member is already waiting for the book.
+     * @throws BorrowLimitExceededException if the member has reached the borrow limit.
+     */
+    @Override
+    @Transactional
+    public HoldDto placeHold(BorrowRequestDto holdRequest) {
+        Long memberId = holdRequest.getMemberId();
+        Long bookId = holdRequest.getBookId();
+        log.debug("Member with id: {} placing hold on book with id: {}", memberId, bookId);
+        memberRepository.findByIdForUpdate(memberId)
+                .orElseThrow(() -> new MemberNotFoundException(MessageConstants.MEMBER_NOT_FOUND_MESSAGE + memberId));
+        Book book = bookRepository.findByIdForUpdate(bookId)
+                .orElseThrow(() -> new BookNotFoundException(MessageConstants.BOOK_NOT_FOUND_MESSAGE + bookId));
+        if (book.getAmount() > 0) {
+            throw new BookAvailableException(MessageConstants.BOOK_AVAILABLE_MESSAGE);
+        }
+        if (!memberRepository.findLoansRaw(List.of(memberId), List.of(bookId)).isEmpty()) {
+            throw new BookAlreadyBorrowedException(MessageConstants.BOOK_ALREADY_BORROWED_MESSAGE);
+        }
+        if (holdRepository.existsByMemberIdAndBookIdAndStatus(memberId, bookId, HoldStatus.WAITING)) {
+            throw new HoldAlreadyPlacedException(MessageConstants.HOLD_ALREADY_PLACED_MESSAGE);
+        }
+        if (memberRepository.countLoansAndWaitingHolds(memberId) >= borrowLimit) {
+            throw new BorrowLimitExceededException(MessageConstants.BORROW_LIMIT_REACHED_MESSAGE);
+        }
+        Hold hold = holdRepository.save(new Hold(memberId, bookId, HoldStatus.WAITING, Instant.now(), null));
+        return toDto(hold);
+    }
+
+    /**
+     * Fetches a hold with its current position in the queue.
+     *
+     * @param id the ID of the hold.
+     * @return the {@link HoldDto}; the position is only set while the hold is waiting.
+     * @throws HoldNotFoundException if the hold with the specified ID is not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public HoldDto getHold(Long id) {
+        log.debug("Fetching hold with id: {}", id);
+        return toDto(findHold(id));
+    }
+
+    /**
+     * Waits until a hold is fulfilled or cancelled without holding a request thread.
+     * A hold that is no longer waiting completes the result immediately, without being registered for
+     * notifications. A waiting hold is read again once registered, so a change committed in between is not
+     * missed.
+     *
+     * @param id the ID of the hold.
+     * @param timeout how long to wait before answering with the still waiting hold.
+     * @return a {@link DeferredResult} completed with the hold once it changes or the timeout expires.
+     * @throws HoldNotFoundException if the hold with the specified ID is not found.
+     */
+    @Override
+    public DeferredResult<HoldDto> awaitHold(Long id, Duration timeout) {
+        log.debug("Waiting for hold with id: {}", id);
+        DeferredResult<HoldDto> result = new DeferredResult<>(timeout.toMillis(), () -> toDto(findHold(id)));
+        HoldDto hold = toDto(findHold(id));
+        if (hold.getStatus() == HoldStatus.WAITING) {
+            holdNotifier.register(id, result);
+            hold = toDto(findHold(id));
+        }
+        if (hold.getStatus() != HoldStatus.WAITING) {
+            result.setResult(hold);
+        }
+        return result;
+    }
+
+    /**
+     * Removes a member from the queue of a book.
+     * The hold is cancelled with a single conditional update, so a hold that a concurrent return has just
+     * fulfilled stays fulfilled and is reported as no longer waiting.
+     *
+     * @param id the ID of the hold.
+     * @throws HoldNotFoundException if the hold with the specified ID is not found or is no longer waiting.
+     */
+    @Override
+    @Transactional
+    public void cancelHold(Long id) {
+        log.debug("Cancelling hold with id: {}", id);
+        if (holdRepository.resolveIfWaiting(id, HoldStatus.CANCELLED, Instant.now()) == 0) {
+            throw new HoldNotFoundException(MessageConstants.HOLD_NOT_FOUND_MESSAGE + id);
+        }
+        holdQueue.publishResolved(findHold(id));
+    }
+
+    private Hold findHold(Long id) {
+        return holdRepository.findById(id)
+                .orElseThrow(() -> new HoldNotFoundException(MessageConstants.HOLD_NOT_FOUND_MESSAGE + id));
+    }
+
+    private HoldDto toDto(Hold hold) {
+        Long position = hold.getStatus() == HoldStatus.WAITING
+                ? holdRepository.countByBookIdAndStatusAndIdLessThan(hold.getBookId(), HoldStatus.WAITING,
+                        hold.getId()) + 1
+                : null;
+        return holdMapper.toDto(hold, position);
+    }
+}
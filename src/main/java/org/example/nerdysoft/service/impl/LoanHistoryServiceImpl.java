@@ -0,0 +1,124 @@
+package org.example.nerdysoft.service.impl;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.dto.LoanEventDto;
+import org.example.nerdysoft.model.dto.LoanReplayDto;
+import org.example.nerdysoft.model.entity.LoanAction;
+import org.example.nerdysoft.model.entity.LoanEvent;
+import org.example.nerdysoft.output.persistent.LoanEventRepository;
+import org.example.nerdysoft.service.LoanHistoryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Implementation of the {@link LoanHistoryService} interface.
+ * Reads the append-only {@code loan_events} log instead of the live {@code member_books} table.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoanHistoryServiceImpl implements LoanHistoryService {
+
+    private final LoanEventRepository loanEventRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${library.pagination.stream-chunk-size:500}")
+    private int replayChunkSize;
+
+    /**
+     * Fetches the borrows and returns of a book in a time range.
+     *
+     * @param bookId the ID of the book.
+     * @param from the start of the range, inclusive, or {@code null} for the beginning of the log.
+     * @param to the end of the range, inclusive, or {@code null} for now.
+     * @return the events of the book in the order they were written.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<LoanEventDto> getBookHistory(Long bookId, Instant from, Instant to) {
+        log.debug("Fetching loan history of book with id: {}", bookId);
+        return loanEventRepository.findBookHistory(bookId, orEpoch(from), orNow(to));
+    }
+
+    /**
+     * Fetches the borrows and returns of a member in a time range.
+     *
+     * @param memberId the ID of the member.
+     * @param from the start of the range, inclusive, or {@code null} for the beginning of the log.
+     * @param to the end of the range, inclusive, or {@code null} for now.
+     * @return the events of the member in the order they were written.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<LoanEventDto> getMemberHistory(Long memberId, Instant from, Instant to) {
+        log.debug("Fetching loan history of member with id: {}", memberId);
+        return loanEventRepository.findMemberHistory(memberId, orEpoch(from), orNow(to));
+    }
+
+    /**
+     * Rebuilds the loans that were open at the given time by replaying the event log from the start.
+     * The log is read in id order, which is the order the events of every loan were written in, in keyset
+     * chunks, each in its own read-only transaction.
+     *
+     * @param at the point in time to replay up to, inclusive, or {@code null} for now.
+     * @return a {@link LoanReplayDto} with the number of open loans in total and per book id.
+     */
+    @Override
+    public LoanReplayDto replay(Instant at) {
+        Instant until = orNow(at);
+        log.debug("Replaying loan events up to {}", until);
+        Set<BorrowRequestDto> loans = new HashSet<>();
+        long replayed = 0;
+        long afterId = 0L;
+        List<LoanEvent> events;
+        do {
+            events = findChunk(afterId, until);
+            for (LoanEvent event : events) {
+                BorrowRequestDto loan = new BorrowRequestDto(event.getMemberId(), event.getBookId());
+                if (event.getAction() == LoanAction.BORROW) {
+                    loans.add(loan);
+                } else {
+                    loans.remove(loan);
+                }
+            }
+            replayed += events.size();
+            if (!events.isEmpty()) {
+                afterId = events.get(events.size() - 1).getId();
+            }
+        } while (events.size() == replayChunkSize);
+
+        Map<Long, Long> loansPerBook = new TreeMap<>();
+        loans.forEach(loan -> loansPerBook.merge(loan.getBookId(), 1L, Long::sum));
+        log.info("Replayed {} loan events into {} open loans", replayed, loans.size());
+        return new LoanReplayDto(until, replayed, loans.size(), loansPerBook);
+    }
+
+    private List<LoanEvent> findChunk(long afterId, Instant until) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template.execute(status -> loanEventRepository.findChunkAfter(afterId, until,
+                PageRequest.of(0, replayChunkSize)));
+    }
+
+    private static Instant orEpoch(Instant instant) {
+        return instant == null ? Instant.EPOCH : instant;
+    }
+
+    private static Instant orNow(Instant instant) {
+        return instant == null ? Instant.now() : instant;
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.nerdysoft.service.impl;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.example.nerdysoft.model.dto.CursorPageDto;
+import org.example.nerdysoft.model.dto.OverdueLoanDto;
+import org.example.nerdysoft.output.persistent.LoanRepository;
+import org.example.nerdysoft.service.LoanService;
+import org.example.nerdysoft.service.util.CursorCodec;
+import org.example.nerdysoft.service.util.CursorCodec.LoanKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Implementation of the {@link LoanService} interface.
+ * Reads loans by due date from the {@code member_books} due date index.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoanServiceImpl implements LoanService {
+
+    private final LoanRepository loanRepository;
+
+    @Value("${library.pagination.max-page-size:500}")
+    private int maxPageSize;
+
+    /**
+     * Fetches one page of overdue loans, ordered by due date with the longest overdue first.
+     *
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page.
+     * @param size the requested page size, capped at {@code library.pagination.max-page-size}.
+     * @return a {@link CursorPageDto} with the overdue loans and the cursor of the next page, if any.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<OverdueLoanDto> getOverdueLoansPage(String cursor, int size) {
+        log.debug("Fetching overdue loans page after cursor: {}", cursor);
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        LoanKey after = CursorCodec.decodeLoanKey(cursor);
+        List<OverdueLoanDto> loans = loanRepository.findDueAfter(after.dueAt(), after.memberId(), after.bookId(),
+                Instant.now(), PageRequest.of(0, pageSize));
+        if (loans.size() < pageSize) {
+            return new CursorPageDto<>(loans, null);
+        }
+        OverdueLoanDto last = loans.get(loans.size() - 1);
+        return new CursorPageDto<>(loans,
+                CursorCodec.encodeLoanKey(new LoanKey(last.getDueAt(), last.getMemberId(), last.getBookId())));
+    }
+}
@@ -1,19 +1,32 @@
 package org.example.nerdysoft.service.impl;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import org.example.nerdysoft.constant.CacheConstants;
 import org.example.nerdysoft.constant.MessageConstants;
+import org.example.nerdysoft.model.dto.CursorPageDto;
 import org.example.nerdysoft.model.dto.MemberDetailedDto;
+import org.example.nerdysoft.model.dto.MemberMainInfoDto;
 import org.example.nerdysoft.model.entity.Member;
 import org.example.nerdysoft.model.exception.MemberHasBorrowedBooksException;
 import org.example.nerdysoft.model.exception.MemberNotFoundException;
 import org.example.nerdysoft.output.persistent.MemberRepository;
 import org.example.nerdysoft.service.MemberService;
+import org.example.nerdysoft.service.cache.CatalogCacheInvalidator;
 import org.example.nerdysoft.service.mapper.MemberMapper;
+import org.example.nerdysoft.service.util.CursorCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,19 +42,82 @@ public class MemberServiceImpl implements MemberService {
 
     private final MemberRepository memberRepository;
     private final MemberMapper memberMapper;
+    private final CatalogCacheInvalidator cacheInvalidator;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${library.pagination.max-page-size:500}")
+    private int maxPageSize;
+
+    @Value("${library.pagination.stream-chunk-size:500}")
+    private int streamChunkSize;
 
     /**
      * Fetches all members with their borrowed books.
+     * Members are read in keyset chunks and the borrowed books of each chunk are batch-fetched by member id,
+     * so the result set never repeats a member once per borrowed book.
      *
      * @return a list of {@link MemberDetailedDto} containing detailed information about all members.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<MemberDetailedDto> getAllMembers() {
-        log.info("Fetching all members with borrowed books");
-        List<Member> members = memberRepository.findAllWithBorrowedBooks();
-        return members.stream()
-                .map(memberMapper::toDto)
-                .collect(Collectors.toList());
+        log.debug("Fetching all members with borrowed books");
+        List<MemberDetailedDto> members = new ArrayList<>();
+        forEachMemberWithBorrowedBooks(members::add);
+        return members;
+    }
+
+    /**
+     * Fetches one page of members with their borrowed books, ordered by id.
+     *
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page.
+     * @param size the requested page size, capped at {@code library.pagination.max-page-size}.
+     * @return a {@link CursorPageDto} with the members and the cursor of the next page, if any.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<MemberDetailedDto> getMembersPage(String cursor, int size) {
+        log.debug("Fetching members page after cursor: {}", cursor);
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        List<MemberDetailedDto> members = findPageWithBorrowedBooks(CursorCodec.decode(cursor), pageSize);
+        String next = members.size() < pageSize
+                ? null
+                : CursorCodec.encode(members.get(members.size() - 1).getId());
+        return new CursorPageDto<>(members, next);
+    }
+
+    /**
+     * Passes every member with their borrowed books to the consumer, loading them in keyset chunks
+     * so that at most one chunk is held in memory at a time. Each chunk is read in its own
+     * short read-only transaction.
+     *
+     * @param consumer the consumer receiving each {@link MemberDetailedDto} in id order.
+     */
+    @Override
+    public void streamAllMembers(Consumer<MemberDetailedDto> consumer) {
+        log.debug("Streaming all members");
+        forEachMemberWithBorrowedBooks(consumer);
+    }
+
+    /**
+     * Fetches one page of member summaries, ordered by id.
+     * The rows are read straight into {@link MemberMainInfoDto} without loading entities or borrowed books.
+     *
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page.
+     * @param size the requested page size, capped at {@code library.pagination.max-page-size}.
+     * @return a {@link CursorPageDto} with the member summaries and the cursor of the next page, if any.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<MemberMainInfoDto> getMemberSummariesPage(String cursor, int size) {
+        log.debug("Fetching member summaries page after cursor: {}", cursor);
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        List<MemberMainInfoDto> members = memberRepository.findSummariesAfter(CursorCodec.decode(cursor),
+                PageRequest.of(0, pageSize));
+        String next = members.size() < pageSize
+                ? null
+                : CursorCodec.encode(members.get(members.size() - 1).getId());
+        return new CursorPageDto<>(members, next);
     }
 
     /**
@@ -52,26 +128,67 @@ public class MemberServiceImpl implements MemberService {
      * @throws MemberNotFoundException if the member with the specified ID is not found.
      */
     @Override
+    @Cacheable(cacheNames = CacheConstants.MEMBERS_CACHE, key = "#id", sync = true)
+    @Transactional(readOnly = true)
     public MemberDetailedDto getMemberById(Long id) {
-        log.info("Fetching member with id: {}", id);
+        log.debug("Fetching member with id: {}", id);
         return memberRepository.findByIdWithBorrowedBooks(id)
                 .map(memberMapper::toDto)
                 .orElseThrow(() -> new MemberNotFoundException(MessageConstants.MEMBER_NOT_FOUND_MESSAGE + id));
     }
 
     /**
-     * Saves a new member.
+     * Reads the current version of a member, in the format of {@link MemberDetailedDto#getVersion()}, with a
+     * single aggregate query that neither loads the member nor goes through the cache. Lets a matching
+     * {@code If-None-Match} be answered without loading the member and their borrowed books.
+     *
+     * @param id the ID of the member.
+     * @return the current version of the member.
+     * @throws MemberNotFoundException if the member with the specified ID is not found.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String getMemberVersion(Long id) {
+        return readVersion(id);
+    }
+
+    /**
+     * Saves a new member, or renames the existing member with the given ID.
+     *
+     * <p>The borrowed books of the request are ignored: loans are only taken and returned through
+     * {@link org.example.nerdysoft.service.BookService}, which keeps the {@code active_loans} counter of the
+     * member and the amounts of the books in step with them. A new member starts without loans and an
+     * existing member keeps theirs.</p>
      *
      * @param memberDetailedDto the member details to save.
      * @return a {@link MemberDetailedDto} containing detailed information about the saved member.
+     * @throws MemberNotFoundException if an ID is given and no member with that ID exists.
      */
     @Override
     @Transactional
     public MemberDetailedDto saveMember(MemberDetailedDto memberDetailedDto) {
-        log.info("Saving member: {}", memberDetailedDto);
-        Member member = memberMapper.toEntity(memberDetailedDto);
-        member.setMembershipDate(LocalDate.now());
-        return memberMapper.toDto(memberRepository.save(member));
+        boolean created = memberDetailedDto.getId() == null;
+        Member member;
+        if (created) {
+            member = memberMapper.toEntity(memberDetailedDto);
+            member.setMembershipDate(LocalDate.now());
+            member.setBorrowedBooks(new HashSet<>());
+        } else {
+            Long id = memberDetailedDto.getId();
+            log.debug("Saving member with id: {}", id);
+            cacheInvalidator.evictMember(id);
+            memberRepository.incrementVersions(List.of(id));
+            member = memberRepository.findByIdWithBorrowedBooks(id)
+                    .orElseThrow(() -> new MemberNotFoundException(MessageConstants.MEMBER_NOT_FOUND_MESSAGE + id));
+            member.setName(memberDetailedDto.getName());
+        }
+        MemberDetailedDto saved = memberMapper.toDto(memberRepository.save(member));
+        if (created) {
+            // the insert leaves the version to the column default and does not read it back
+            saved.setVersion(readVersion(saved.getId()));
+            log.debug("Created member with id: {}", saved.getId());
+        }
+        return saved;
     }
 
     /**
@@ -84,13 +201,52 @@ public class MemberServiceImpl implements MemberService {
     @Override
     @Transactional
     public void deleteMember(Long id) {
-        log.info("Deleting member with id: {}", id);
-        Member member = memberRepository.findById(id)
+        log.debug("Deleting member with id: {}", id);
+        int activeLoans = memberRepository.findActiveLoansById(id)
                 .orElseThrow(() -> new MemberNotFoundException(MessageConstants.MEMBER_NOT_FOUND_MESSAGE + id));
-        if (!member.getBorrowedBooks().isEmpty()) {
+        if (activeLoans > 0) {
             throw new MemberHasBorrowedBooksException(MessageConstants.MEMBER_HAS_BORROWED_BOOKS_MESSAGE);
         }
-        memberRepository.deleteById(id);
+        cacheInvalidator.evictMember(id);
+        memberRepository.deleteDirectlyById(id);
         log.debug("Member with id {} has been deleted.", id);
     }
-}
\ No newline at end of file
+
+    private void forEachMemberWithBorrowedBooks(Consumer<MemberDetailedDto> consumer) {
+        long afterId = 0L;
+        List<MemberDetailedDto> members;
+        do {
+            members = findPageWithBorrowedBooks(afterId, streamChunkSize);
+            members.forEach(consumer);
+            if (!members.isEmpty()) {
+                afterId = members.get(members.size() - 1).getId();
+            }
+        } while (members.size() == streamChunkSize);
+    }
+
+    /**
+     * Loads one keyset page of members and maps it in a read-only transaction. The borrowed book sets
+     * are initialized by a batched {@code IN} query when the mapper first touches them
+     * (see {@code @BatchSize} on {@link Member#getBorrowedBooks()}).
+     */
+    private List<MemberDetailedDto> findPageWithBorrowedBooks(long afterId, int size) {
+        return readOnlyTransaction().execute(status -> memberRepository.findPageAfter(afterId,
+                        PageRequest.of(0, size))
+                .stream()
+                .map(memberMapper::toDto)
+                .collect(Collectors.toList()));
+    }
+
+    private String readVersion(Long id) {
+        return memberRepository.findVersionsRaw(id).stream()
+                .findFirst()
+                .map(versions -> versions[0] + "-" + versions[1])
+                .orElseThrow(() -> new MemberNotFoundException(MessageConstants.MEMBER_NOT_FOUND_MESSAGE + id));
+    }
+
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+}
@@ -0,0 +1,408 @@
+package org.example.nerdysoft.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.example.nerdysoft.constant.MessageConstants;
+import org.example.nerdysoft.model.dto.BookDetailedDto;
+import org.example.nerdysoft.model.dto.BookMainInfoDto;
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.dto.CursorPageDto;
+import org.example.nerdysoft.model.dto.MemberMainInfoDto;
+import org.example.nerdysoft.model.entity.LoanAction;
+import org.example.nerdysoft.model.entity.reactive.BookBorrower;
+import org.example.nerdysoft.model.entity.reactive.ReactiveBook;
+import org.example.nerdysoft.model.exception.BookAlreadyBorrowedException;
+import org.example.nerdysoft.model.exception.BookAlreadyExistsException;
+import org.example.nerdysoft.model.exception.BookNotAvailableException;
+import org.example.nerdysoft.model.exception.BookNotFoundException;
+import org.example.nerdysoft.model.exception.BookNotReturnedException;
+import org.example.nerdysoft.model.exception.BorrowLimitExceededException;
+import org.example.nerdysoft.model.exception.MemberNotFoundException;
+import org.example.nerdysoft.output.persistent.reactive.ReactiveBookRepository;
+import org.example.nerdysoft.output.persistent.reactive.ReactiveMemberRepository;
+import org.example.nerdysoft.service.ReactiveBookService;
+import org.example.nerdysoft.service.history.LoansChangedEvent;
+import org.example.nerdysoft.service.hold.ReactiveHoldQueue;
+import org.example.nerdysoft.service.inventory.BookDeletedEvent;
+import org.example.nerdysoft.service.inventory.InventoryChangedEvent;
+import org.example.nerdysoft.service.metrics.BorrowMetrics;
+import org.example.nerdysoft.service.stats.BorrowCountChangedEvent;
+import org.example.nerdysoft.service.util.CursorCodec;
+import org.example.nerdysoft.service.util.SearchQueries;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalEventPublisher;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementation of the {@link ReactiveBookService} interface over R2DBC.
+ * Runs the same statements as {@link BookServiceImpl} without blocking a thread on the database.
+ *
+ * <p>Reads are not cached: the Caffeine caches of the servlet stack are filled by blocking loaders.
+ * Writes run in one R2DBC transaction each and publish the same events, which the listeners apply
+ * once that transaction commits.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBookServiceImpl implements ReactiveBookService {
+
+    private final ReactiveBookRepository bookRepository;
+    private final ReactiveMemberRepository memberRepository;
+    private final ReactiveHoldQueue holdQueue;
+    private final BorrowMetrics borrowMetrics;
+    private final TransactionalOperator transactionalOperator;
+    private final TransactionalEventPublisher eventPublisher;
+
+    @Value("${library.borrow.limit:10}")
+    private int borrowLimit;
+
+    @Value("${library.loan.period:P14D}")
+    private Duration loanPeriod;
+
+    @Value("${library.pagination.max-page-size:500}")
+    private int maxPageSize;
+
+    @Value("${library.pagination.stream-chunk-size:500}")
+    private int streamChunkSize;
+
+    /**
+     * Emits all books with their borrowers in id order. Books are read in keyset chunks of
+     * {@code library.pagination.stream-chunk-size}, and a chunk is only queried once the subscriber has
+     * requested the books of the chunk before the previous one, so a slow client holds at most two chunks in memory.
+     *
+     * @return a {@link Flux} of {@link BookDetailedDto}.
+     */
+    @Override
+    public Flux<BookDetailedDto> getAllBooks() {
+        return findPageWithBorrowers(0L, streamChunkSize)
+                .expand(books -> books.size() < streamChunkSize
+                        ? Mono.empty()
+                        : findPageWithBorrowers(books.get(books.size() - 1).getId(), streamChunkSize))
+                .concatMapIterable(Function.identity(), 1);
+    }
+
+    /**
+     * Fetches one page of books with their borrowers, ordered by id.
+     *
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page.
+     * @param size the requested page size, capped at {@code library.pagination.max-page-size}.
+     * @return a {@link CursorPageDto} with the books and the cursor of the next page, if any.
+     */
+    @Override
+    public Mono<CursorPageDto<BookDetailedDto>> getBooksPage(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        return Mono.fromSupplier(() -> CursorCodec.decode(cursor))
+                .flatMap(afterId -> findPageWithBorrowers(afterId, pageSize))
+                .map(books -> new CursorPageDto<>(books, nextCursor(books, pageSize, BookDetailedDto::getId)));
+    }
+
+    /**
+     * Fetches one page of book summaries, ordered by id, without their borrowers.
+     *
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page.
+     * @param size the requested page size, capped at {@code library.pagination.max-page-size}.
+     * @return a {@link CursorPageDto} with the book summaries and the cursor of the next page, if any.
+     */
+    @Override
+    public Mono<CursorPageDto<BookMainInfoDto>> getBookSummariesPage(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        return Mono.fromSupplier(() -> CursorCodec.decode(cursor))
+                .flatMap(afterId -> bookRepository.findSummariesAfter(afterId, pageSize).collectList())
+                .map(books -> new CursorPageDto<>(books, nextCursor(books, pageSize, BookMainInfoDto::getId)));
+    }
+
+    /**
+     * Fetches a book by its ID with its borrowers.
+     *
+     * @param id the ID of the book to fetch.
+     * @return a {@link BookDetailedDto}, or a {@link BookNotFoundException} error.
+     */
+    @Override
+    public Mono<BookDetailedDto> getBookById(Long id) {
+        return bookRepository.findSummaryById(id)
+                .switchIfEmpty(Mono.error(() -> bookNotFound(id)))
+                .flatMap(book -> withBorrowers(Collections.singletonList(book)))
+                .map(books -> books.get(0));
+    }
+
+    /**
+     * Derives the entity tag of a book from its version and the versions of its borrowers,
+     * like {@link org.example.nerdysoft.service.mapper.BookMapper#versionOf}.
+     *
+     * @param id the ID of the book.
+     * @return the entity tag without quotes, or a {@link BookNotFoundException} error.
+     */
+    @Override
+    public Mono<String> getBookETag(Long id) {
+        return bookRepository.findETag(id).switchIfEmpty(Mono.error(() -> bookNotFound(id)));
+    }
+
+    /**
+     * Searches books whose title or author contain every word of the query as a word prefix, ignoring case.
+     *
+     * @param query the free-text search query.
+     * @param size the maximum number of results, capped at {@code library.pagination.max-page-size}.
+     * @return the matching books ordered by id, none if the query contains no words.
+     */
+    @Override
+    public Flux<BookMainInfoDto> searchBooks(String query, int size) {
+        String tsQuery = SearchQueries.toPrefixTsQuery(query);
+        if (tsQuery.isEmpty()) {
+            return Flux.empty();
+        }
+        return bookRepository.search(tsQuery, Math.max(1, Math.min(size, maxPageSize)));
+    }
+
+    /**
+     * Saves a new book or adds the copies to the existing book with the same title and author,
+     * with a single upsert against the unique {@code (title, author)} constraint.
+     *
+     * @param bookDetailedDto the book details to save.
+     * @return a {@link BookDetailedDto} of the saved book.
+     */
+    @Override
+    public Mono<BookDetailedDto> saveBook(BookDetailedDto bookDetailedDto) {
+        log.debug("Saving book with id: {}", bookDetailedDto.getId());
+        return bookRepository.upsertAmount(bookDetailedDto.getTitle(), bookDetailedDto.getAuthor(),
+                        bookDetailedDto.getAmount())
+                .flatMap(book -> eventPublisher.publishEvent(
+                                InventoryChangedEvent.of(book.getId(), bookDetailedDto.getAmount()))
+                        .then(withBorrowers(Collections.singletonList(book))))
+                .map(books -> books.get(0))
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Updates the details of an existing book. The book is locked before its amount and borrowers are read,
+     * like in {@link BookServiceImpl#updateBook}.
+     *
+     * @param id the ID of the book to update.
+     * @param bookDetails the new details of the book.
+     * @return the updated book, or a {@link BookNotFoundException} or {@link BookAlreadyExistsException} error.
+     */
+    @Override
+    public Mono<BookDetailedDto> updateBook(Long id, BookDetailedDto bookDetails) {
+        log.debug("Updating book with id: {}", id);
+        return bookRepository.findByIdForUpdate(id)
+                .switchIfEmpty(Mono.error(() -> bookNotFound(id)))
+                .flatMap(book -> {
+                    boolean renamed = !book.getTitle().equals(bookDetails.getTitle())
+                            || !book.getAuthor().equals(bookDetails.getAuthor());
+                    Mono<Boolean> taken = renamed
+                            ? bookRepository.existsByTitleAndAuthorAndIdNot(bookDetails.getTitle(),
+                            bookDetails.getAuthor(), id)
+                            : Mono.just(false);
+                    return taken.flatMap(exists -> exists
+                            ? Mono.error(new BookAlreadyExistsException(MessageConstants.BOOK_ALREADY_EXISTS_MESSAGE))
+                            : applyUpdate(book, bookDetails, renamed));
+                })
+                .then(getBookById(id))
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Deletes a book by its ID.
+     *
+     * @param id the ID of the book to delete.
+     * @return completion, or a {@link BookNotFoundException} or {@link BookNotReturnedException} error.
+     */
+    @Override
+    public Mono<Void> deleteBook(Long id) {
+        log.debug("Deleting book with id: {}", id);
+        return bookRepository.countBorrowersById(id)
+                .switchIfEmpty(Mono.error(() -> bookNotFound(id)))
+                .flatMap(borrowers -> borrowers > 0
+                        ? Mono.error(new BookNotReturnedException(MessageConstants.BOOK_NOT_RETURNED_MESSAGE))
+                        : bookRepository.deleteDirectlyById(id))
+                .then(eventPublisher.publishEvent(new BookDeletedEvent(id)))
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Allows a member to borrow a book, with the conditional updates of {@link BookServiceImpl#borrowBook}:
+     * the member's active loan counter and the book's amount are each checked and changed by one statement,
+     * and any later failure rolls both back with the transaction.
+     *
+     * @param borrowRequest the borrow request containing member ID and book ID.
+     * @return completion, or a {@link MemberNotFoundException}, {@link BorrowLimitExceededException},
+     *         {@link BookNotFoundException}, {@link BookNotAvailableException} or
+     *         {@link BookAlreadyBorrowedException} error.
+     */
+    @Override
+    public Mono<Void> borrowBook(BorrowRequestDto borrowRequest) {
+        Long memberId = borrowRequest.getMemberId();
+        Long bookId = borrowRequest.getBookId();
+        log.debug("Member with id: {} borrowing book with id: {}", memberId, bookId);
+        LoansChangedEvent loans = LoansChangedEvent.of(List.of(borrowRequest), LoanAction.BORROW);
+        return takeLoan(memberId)
+                .then(takeCopy(bookId))
+                .then(Mono.defer(() -> {
+                    Instant borrowedAt = Instant.now();
+                    return memberRepository.insertBorrowedBook(memberId, bookId, borrowedAt,
+                            borrowedAt.plus(loanPeriod));
+                }))
+                .flatMap(inserted -> inserted == 0
+                        ? Mono.error(new BookAlreadyBorrowedException(MessageConstants.BOOK_ALREADY_BORROWED_MESSAGE))
+                        : bookRepository.findTitleById(bookId))
+                .flatMap(title -> eventPublisher.publishEvent(BorrowCountChangedEvent.of(title, 1)))
+                .then(publishLoans(loans))
+                .then(eventPublisher.publishEvent(InventoryChangedEvent.of(bookId, -1)))
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Allows a member to return a borrowed book, locking the member row and the row of the member the copy
+     * will be lent to before the loan and book rows, like {@link BookServiceImpl#returnBook}.
+     * If other members are waiting for the book, the copy is lent to the longest waiting one.
+     *
+     * @param borrowRequest the borrow request containing member ID and book ID.
+     * @return completion, or a {@link MemberNotFoundException}, {@link BookNotFoundException} or
+     *         {@link BookNotReturnedException} error.
+     */
+    @Override
+    public Mono<Void> returnBook(BorrowRequestDto borrowRequest) {
+        Long memberId = borrowRequest.getMemberId();
+        Long bookId = borrowRequest.getBookId();
+        log.debug("Member with id: {} returning book with id: {}", memberId, bookId);
+        LoansChangedEvent loans = LoansChangedEvent.of(List.of(borrowRequest), LoanAction.RETURN);
+        return holdQueue.findNextWaiter(bookId)
+                .flatMapMany(waiterId -> memberRepository.lockAllById(List.of(memberId, waiterId)))
+                .then(memberRepository.releaseLoanIfTaken(memberId))
+                .flatMap(released -> released == 0
+                        ? Mono.just(0) : memberRepository.deleteBorrowedBook(memberId, bookId))
+                .flatMap(deleted -> deleted == 0
+                        ? loanNotFound(memberId, bookId)
+                        : bookRepository.incrementAmount(bookId))
+                .then(bookRepository.findTitleById(bookId))
+                .flatMap(title -> eventPublisher.publishEvent(BorrowCountChangedEvent.of(title, -1)))
+                .then(publishLoans(loans))
+                .then(eventPublisher.publishEvent(InventoryChangedEvent.of(bookId, 1)))
+                .then(holdQueue.handOff(bookId))
+                .then()
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Fetches the books borrowed by a member.
+     *
+     * @param memberName the name of the member.
+     * @return the borrowed books, or a {@link MemberNotFoundException} error.
+     */
+    @Override
+    public Mono<Set<BookMainInfoDto>> getBooksBorrowedByMember(String memberName) {
+        return memberRepository.findBorrowedBooksByName(memberName)
+                .collect(Collectors.toSet())
+                .filterWhen(books -> books.isEmpty() ? memberRepository.existsByName(memberName) : Mono.just(true))
+                .switchIfEmpty(Mono.error(() -> new MemberNotFoundException(
+                        MessageConstants.MEMBER_NOT_FOUND_BY_NAME_MESSAGE + memberName)));
+    }
+
+    private Mono<Void> applyUpdate(ReactiveBook book, BookDetailedDto bookDetails, boolean renamed) {
+        Long id = book.getId();
+        Mono<Void> events = Mono.empty();
+        if (!book.getTitle().equals(bookDetails.getTitle())) {
+            events = bookRepository.countBorrowersById(id)
+                    .filter(loans -> loans > 0)
+                    .flatMap(loans -> eventPublisher.publishEvent(new BorrowCountChangedEvent(Map.of(
+                            book.getTitle(), -loans.intValue(), bookDetails.getTitle(), loans.intValue()))));
+        }
+        if (bookDetails.getAmount() != book.getAmount()) {
+            events = events.then(eventPublisher.publishEvent(
+                    InventoryChangedEvent.of(id, bookDetails.getAmount() - book.getAmount())));
+        }
+        if (!renamed && bookDetails.getAmount() == book.getAmount()) {
+            return events;
+        }
+        return events.then(bookRepository.updateDetails(id, bookDetails.getTitle(), bookDetails.getAuthor(),
+                bookDetails.getAmount())).then();
+    }
+
+    private Mono<Void> publishLoans(LoansChangedEvent loans) {
+        return memberRepository.appendLoanEvents(loans.getEvents())
+                .then(eventPublisher.publishEvent(loans));
+    }
+
+    private Mono<Integer> takeLoan(Long memberId) {
+        return Mono.defer(() -> {
+            long lockStart = System.nanoTime();
+            return memberRepository.takeLoanIfBelowLimit(memberId, borrowLimit)
+                    .doOnNext(taken -> borrowMetrics.recordMemberLockWait(lockStart));
+        }).flatMap(taken -> taken > 0 ? Mono.just(taken) : memberRepository.existsById(memberId)
+                .flatMap(exists -> Mono.error(exists
+                        ? new BorrowLimitExceededException(MessageConstants.BORROW_LIMIT_REACHED_MESSAGE)
+                        : new MemberNotFoundException(MessageConstants.MEMBER_NOT_FOUND_MESSAGE + memberId))));
+    }
+
+    private Mono<Integer> takeCopy(Long bookId) {
+        return bookRepository.decrementAmountIfAvailable(bookId)
+                .flatMap(taken -> taken > 0 ? Mono.just(taken) : bookRepository.existsById(bookId)
+                        .flatMap(exists -> {
+                            if (!exists) {
+                                return Mono.error(bookNotFound(bookId));
+                            }
+                            borrowMetrics.recordAvailabilityConflict();
+                            return Mono.error(new BookNotAvailableException(
+                                    MessageConstants.BOOK_NOT_AVAILABLE_MESSAGE));
+                        }));
+    }
+
+    private <T> Mono<T> loanNotFound(Long memberId, Long bookId) {
+        return memberRepository.findById(memberId)
+                .switchIfEmpty(Mono.error(() -> new MemberNotFoundException(
+                        MessageConstants.MEMBER_NOT_FOUND_MESSAGE + memberId)))
+                .flatMap(member -> bookRepository.existsById(bookId).flatMap(exists -> Mono.error(exists
+                        ? new BookNotReturnedException(MessageConstants.BOOK_NOT_BORROWED_BY_MEMBER_MESSAGE
+                        + " " + member.getName())
+                        : bookNotFound(bookId))));
+    }
+
+    /**
+     * Loads one keyset page of book summaries and attaches the borrowers of the whole page,
+     * read with one {@code IN} query.
+     */
+    private Mono<List<BookDetailedDto>> findPageWithBorrowers(long afterId, int size) {
+        return bookRepository.findSummariesAfter(afterId, size).collectList().flatMap(this::withBorrowers);
+    }
+
+    private Mono<List<BookDetailedDto>> withBorrowers(List<BookMainInfoDto> books) {
+        if (books.isEmpty()) {
+            return Mono.just(Collections.emptyList());
+        }
+        List<Long> ids = books.stream().map(BookMainInfoDto::getId).toList();
+        return bookRepository.findBorrowers(ids)
+                .collectMultimap(BookBorrower::bookId, BookBorrower::toMainInfoDto)
+                .map(borrowers -> books.stream()
+                        .map(book -> toDetailedDto(book, borrowers.getOrDefault(book.getId(), List.of())))
+                        .toList());
+    }
+
+    private static BookDetailedDto toDetailedDto(BookMainInfoDto book, Collection<MemberMainInfoDto> borrowers) {
+        return new BookDetailedDto(book.getId(), book.getTitle(), book.getAuthor(), book.getAmount(),
+                new ArrayList<>(borrowers));
+    }
+
+    private static <T> String nextCursor(List<T> items, int pageSize, Function<T, Long> id) {
+        return items.size() < pageSize ? null : CursorCodec.encode(id.apply(items.get(items.size() - 1)));
+    }
+
+    private static BookNotFoundException bookNotFound(Long id) {
+        return new BookNotFoundException(MessageConstants.BOOK_NOT_FOUND_MESSAGE + id);
+    }
+}
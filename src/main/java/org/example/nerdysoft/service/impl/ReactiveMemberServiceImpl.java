@@ -0,0 +1,198 @@
+package org.example.nerdysoft.service.impl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import org.example.nerdysoft.constant.MessageConstants;
+import org.example.nerdysoft.model.dto.CursorPageDto;
+import org.example.nerdysoft.model.dto.MemberDetailedDto;
+import org.example.nerdysoft.model.dto.MemberMainInfoDto;
+import org.example.nerdysoft.model.entity.reactive.MemberBook;
+import org.example.nerdysoft.model.exception.MemberHasBorrowedBooksException;
+import org.example.nerdysoft.model.exception.MemberNotFoundException;
+import org.example.nerdysoft.output.persistent.reactive.ReactiveMemberRepository;
+import org.example.nerdysoft.service.ReactiveMemberService;
+import org.example.nerdysoft.service.util.CursorCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementation of the {@link ReactiveMemberService} interface over R2DBC.
+ * Runs the same statements as {@link MemberServiceImpl} without blocking a thread on the database.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveMemberServiceImpl implements ReactiveMemberService {
+
+    private final ReactiveMemberRepository memberRepository;
+    private final TransactionalOperator transactionalOperator;
+
+    @Value("${library.pagination.max-page-size:500}")
+    private int maxPageSize;
+
+    @Value("${library.pagination.stream-chunk-size:500}")
+    private int streamChunkSize;
+
+    /**
+     * Emits all members with their borrowed books in id order. Members are read in keyset chunks of
+     * {@code library.pagination.stream-chunk-size}, and a chunk is only queried once the subscriber has
+     * requested the members of the chunk before the previous one.
+     *
+     * @return a {@link Flux} of {@link MemberDetailedDto}.
+     */
+    @Override
+    public Flux<MemberDetailedDto> getAllMembers() {
+        return findPageWithBorrowedBooks(0L, streamChunkSize)
+                .expand(members -> members.size() < streamChunkSize
+                        ? Mono.empty()
+                        : findPageWithBorrowedBooks(members.get(members.size() - 1).getId(), streamChunkSize))
+                .concatMapIterable(Function.identity(), 1);
+    }
+
+    /**
+     * Fetches one page of members with their borrowed books, ordered by id.
+     *
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page.
+     * @param size the requested page size, capped at {@code library.pagination.max-page-size}.
+     * @return a {@link CursorPageDto} with the members and the cursor of the next page, if any.
+     */
+    @Override
+    public Mono<CursorPageDto<MemberDetailedDto>> getMembersPage(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        return Mono.fromSupplier(() -> CursorCodec.decode(cursor))
+                .flatMap(afterId -> findPageWithBorrowedBooks(afterId, pageSize))
+                .map(members -> new CursorPageDto<>(members, nextCursor(members, pageSize,
+                        MemberDetailedDto::getId)));
+    }
+
+    /**
+     * Fetches one page of member summaries, ordered by id, without their borrowed books.
+     *
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page.
+     * @param size the requested page size, capped at {@code library.pagination.max-page-size}.
+     * @return a {@link CursorPageDto} with the member summaries and the cursor of the next page, if any.
+     */
+    @Override
+    public Mono<CursorPageDto<MemberMainInfoDto>> getMemberSummariesPage(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        return Mono.fromSupplier(() -> CursorCodec.decode(cursor))
+                .flatMap(afterId -> memberRepository.findSummariesAfter(afterId, pageSize).collectList())
+                .map(members -> new CursorPageDto<>(members, nextCursor(members, pageSize,
+                        MemberMainInfoDto::getId)));
+    }
+
+    /**
+     * Fetches a member by its ID with their borrowed books.
+     *
+     * @param id the ID of the member to fetch.
+     * @return a {@link MemberDetailedDto}, or a {@link MemberNotFoundException} error.
+     */
+    @Override
+    public Mono<MemberDetailedDto> getMemberById(Long id) {
+        return memberRepository.findSummaryById(id)
+                .switchIfEmpty(Mono.error(() -> memberNotFound(id)))
+                .flatMap(member -> withBorrowedBooks(Collections.singletonList(member)))
+                .map(members -> members.get(0));
+    }
+
+    /**
+     * Derives the entity tag of a member from their version and the versions of their borrowed books,
+     * like {@link org.example.nerdysoft.service.mapper.MemberMapper#versionOf}.
+     *
+     * @param id the ID of the member.
+     * @return the entity tag without quotes, or a {@link MemberNotFoundException} error.
+     */
+    @Override
+    public Mono<String> getMemberETag(Long id) {
+        return memberRepository.findETag(id).switchIfEmpty(Mono.error(() -> memberNotFound(id)));
+    }
+
+    /**
+     * Saves a new member, who becomes a member today.
+     *
+     * @param memberDetailedDto the member details to save.
+     * @return a {@link MemberDetailedDto} of the saved member, without borrowed books.
+     */
+    @Override
+    public Mono<MemberDetailedDto> saveMember(MemberDetailedDto memberDetailedDto) {
+        return memberRepository.insertMember(memberDetailedDto.getName(), LocalDate.now())
+                .map(member -> new MemberDetailedDto(member.getId(), member.getName(), member.getMembershipDate(),
+                        new ArrayList<>()));
+    }
+
+    /**
+     * Renames an existing member.
+     *
+     * @param id the ID of the member to update.
+     * @param memberDetails the new details of the member.
+     * @return the updated member, or a {@link MemberNotFoundException} error.
+     */
+    @Override
+    public Mono<MemberDetailedDto> updateMember(Long id, MemberDetailedDto memberDetails) {
+        log.debug("Updating member with id: {}", id);
+        return memberRepository.updateName(id, memberDetails.getName())
+                .flatMap(updated -> updated == 0 ? Mono.error(memberNotFound(id)) : getMemberById(id))
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Deletes a member by its ID.
+     *
+     * @param id the ID of the member to delete.
+     * @return completion, or a {@link MemberNotFoundException} or {@link MemberHasBorrowedBooksException} error.
+     */
+    @Override
+    public Mono<Void> deleteMember(Long id) {
+        log.debug("Deleting member with id: {}", id);
+        return memberRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> memberNotFound(id)))
+                .flatMap(member -> member.getActiveLoans() > 0
+                        ? Mono.error(new MemberHasBorrowedBooksException(
+                        MessageConstants.MEMBER_HAS_BORROWED_BOOKS_MESSAGE))
+                        : memberRepository.deleteDirectlyById(id))
+                .then()
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Loads one keyset page of member summaries and attaches the borrowed books of the whole page,
+     * read with one {@code IN} query.
+     */
+    private Mono<List<MemberDetailedDto>> findPageWithBorrowedBooks(long afterId, int size) {
+        return memberRepository.findSummariesAfter(afterId, size).collectList().flatMap(this::withBorrowedBooks);
+    }
+
+    private Mono<List<MemberDetailedDto>> withBorrowedBooks(List<MemberMainInfoDto> members) {
+        if (members.isEmpty()) {
+            return Mono.just(Collections.emptyList());
+        }
+        List<Long> ids = members.stream().map(MemberMainInfoDto::getId).toList();
+        return memberRepository.findBorrowedBooks(ids)
+                .collectMultimap(MemberBook::memberId, MemberBook::toMainInfoDto)
+                .map(books -> members.stream()
+                        .map(member -> new MemberDetailedDto(member.getId(), member.getName(),
+                                member.getMembershipDate(),
+                                new ArrayList<>(books.getOrDefault(member.getId(), List.of()))))
+                        .toList());
+    }
+
+    private static <T> String nextCursor(List<T> items, int pageSize, Function<T, Long> id) {
+        return items.size() < pageSize ? null : CursorCodec.encode(id.apply(items.get(items.size() - 1)));
+    }
+
+    private static MemberNotFoundException memberNotFound(Long id) {
+        return new MemberNotFoundException(MessageConstants.MEMBER_NOT_FOUND_MESSAGE + id);
+    }
+}
@@ -0,0 +1,615 @@
+package org.example.nerdysoft.service.inventory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.UnaryOperator;
+
+import org.example.nerdysoft.model.dto.AvailabilityCheckResultDto;
+import org.example.nerdysoft.model.entity.LoanAction;
+import org.example.nerdysoft.model.entity.LoanEvent;
+import org.example.nerdysoft.output.persistent.BookRepository;
+import org.example.nerdysoft.service.concurrency.CommitFence;
+import org.example.nerdysoft.service.concurrency.ProjectedChange;
+import org.example.nerdysoft.service.history.LoansChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory index of the copies on the shelf and the open loans of every book, so that availability
+ * lookups never touch the database.
+ *
+ * <p>Book ids are mapped to the slots of an open-addressing table of primitive arrays, so a lookup neither
+ * boxes the id nor allocates. Lookups are optimistic reads of a {@link StampedLock} and only fall back to
+ * a read lock when an update lands at the same time.</p>
+ *
+ * <p>The index is loaded from {@code books} once the application is ready and is then maintained from the
+ * {@link LoansChangedEvent}s, {@link InventoryChangedEvent}s, {@link BookDeletedEvent}s and
+ * {@link CatalogImportedEvent}s of committed transactions. A book the index does not know yet, e.g. a new
+ * one, is read from the database when its amount changes; the amount change of a loan is published after
+ * the loan, so that read already includes both. Changes committed through other application instances are
+ * not seen; {@link #check()} compares the index with {@code books} every
+ * {@code library.availability-index.check-interval} and repairs the books that differ.</p>
+ */
+@Slf4j
+@Component
+public class BookAvailabilityIndex {
+
+    /**
+     * Returned by the lookups for a book that is not in the index.
+     */
+    public static final int UNKNOWN = -1;
+
+    private static final int AVAILABLE = 0;
+    private static final int BORROWERS = 1;
+
+    private final BookRepository bookRepository;
+    private final CommitFence commitFence;
+    private final TransactionTemplate snapshotTransaction;
+    private final Counter repairs;
+    private final StampedLock lock = new StampedLock();
+    private final Lock rebuildLock = new ReentrantLock();
+    private Table table = new Table(Table.MIN_CAPACITY);
+    private final List<UnaryOperator<Table>> changedSinceSnapshot = new ArrayList<>();
+    private boolean rebuildRunning;
+
+    @Value("${library.availability-index.chunk-size:5000}")
+    private int chunkSize;
+
+    public BookAvailabilityIndex(BookRepository bookRepository, CommitFence commitFence,
+                                 PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.bookRepository = bookRepository;
+        this.commitFence = commitFence;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.repairs = Counter.builder("library.availability.index.repairs")
+                .description("Books whose availability in the index differed from the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Tells whether a book has at least one copy on the shelf.
+     *
+     * @param bookId the id of the book.
+     * @return {@code true} if the book is known and has a copy on the shelf.
+     */
+    public boolean isAvailable(long bookId) {
+        return getAvailableCopies(bookId) > 0;
+    }
+
+    /**
+     * Returns the number of copies of a book on the shelf.
+     *
+     * @param bookId the id of the book.
+     * @return the number of copies, or {@link #UNKNOWN} if the book is not in the index.
+     */
+    public int getAvailableCopies(long bookId) {
+        return read(bookId, AVAILABLE);
+    }
+
+    /**
+     * Returns the number of members currently holding a copy of a book.
+     *
+     * @param bookId the id of the book.
+     * @return the number of borrowers, or {@link #UNKNOWN} if the book is not in the index.
+     */
+    public int getActiveBorrowers(long bookId) {
+        return read(bookId, BORROWERS);
+    }
+
+    /**
+     * Looks up several books at once, as of a single point in time.
+     *
+     * @param bookIds the ids of the books.
+     * @param available receives the number of copies on the shelf of each book, or {@link #UNKNOWN}.
+     * @param borrowers receives the number of borrowers of each book, or {@link #UNKNOWN}.
+     * @return the number of books found in the index.
+     */
+    public int lookup(long[] bookIds, int[] available, int[] borrowers) {
+        long stamp = lock.tryOptimisticRead();
+        int found = table.lookup(bookIds, available, borrowers);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                found = table.lookup(bookIds, available, borrowers);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the number of books in the index.
+     *
+     * @return the number of indexed books.
+     */
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return table.size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Applies the loans taken and returned by a committed transaction to the books the index knows.
+     *
+     * @param event the event describing the loans.
+     */
+    @Order(ProjectedChange.LISTENER_ORDER)
+    @TransactionalEventListener
+    public void onLoansChanged(LoansChangedEvent event) {
+        long stamp = lock.writeLock();
+        try {
+            for (LoanEvent loan : event.getEvents()) {
+                change(added(loan.getBookId(), BORROWERS, loan.getAction() == LoanAction.BORROW ? 1 : -1));
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Applies the amount changes of a committed transaction, and reads the books the index does not know yet
+     * from the database.
+     *
+     * @param event the event carrying the amount deltas.
+     */
+    @Order(ProjectedChange.LISTENER_ORDER)
+    @TransactionalEventListener
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        List<Long> unknown = new ArrayList<>();
+        long stamp = lock.writeLock();
+        try {
+            event.getAmountDeltas().forEach((bookId, delta) -> {
+                if (table.find(bookId) < 0) {
+                    unknown.add(bookId);
+                }
+                change(added(bookId, AVAILABLE, delta));
+            });
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        if (!unknown.isEmpty()) {
+            List<Object[]> rows = bookRepository.findAvailabilityByIdInRaw(unknown);
+            stamp = lock.writeLock();
+            try {
+                for (Object[] row : rows) {
+                    change(putIfAbsent(idOf(row), availableOf(row), borrowersOf(row)));
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Drops a book once the transaction that deleted it commits.
+     *
+     * @param event the event naming the deleted book.
+     */
+    @Order(ProjectedChange.LISTENER_ORDER)
+    @TransactionalEventListener
+    public void onBookDeleted(BookDeletedEvent event) {
+        long stamp = lock.writeLock();
+        try {
+            change(removed(event.getBookId()));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Rebuilds the index once an imported catalog is committed.
+     *
+     * @param event the event describing the import.
+     */
+    @TransactionalEventListener
+    public void onCatalogImported(CatalogImportedEvent event) {
+        log.debug("Catalog import created {} and updated {} books", event.getCreated(), event.getUpdated());
+        rebuild();
+    }
+
+    /**
+     * Replaces the index with the books currently stored in the database. The books are read in chunks of
+     * {@code library.availability-index.chunk-size} into a new table while lookups keep using the current
+     * one.
+     *
+     * <p>All chunks are read in one repeatable-read transaction on the primary, whose snapshot is taken by the
+     * first chunk while the {@link CommitFence} is closed. Every change committed before the snapshot has been
+     * applied and is included in the new table, and every change committed after it is not. The changes
+     * applied from then on are kept and replayed onto the new table when it replaces the current one, so each
+     * change is counted exactly once however the listeners interleave with the rebuild.</p>
+     *
+     * @return the number of indexed books.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int rebuild() {
+        log.info("Rebuilding book availability index");
+        rebuildLock.lock();
+        try {
+            Table rebuilt = snapshotTransaction.execute(status -> readSnapshot());
+            int size;
+            int replayed;
+            long stamp = lock.writeLock();
+            try {
+                for (UnaryOperator<Table> change : changedSinceSnapshot) {
+                    rebuilt = change.apply(rebuilt);
+                }
+                replayed = changedSinceSnapshot.size();
+                table = rebuilt;
+                size = table.size;
+                stopRecording();
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            log.info("Book availability index rebuilt for {} books, {} changes committed during the rebuild "
+                    + "replayed", size, replayed);
+            return size;
+        } finally {
+            if (rebuildRunning) {
+                long stamp = lock.writeLock();
+                try {
+                    stopRecording();
+                } finally {
+                    lock.unlockWrite(stamp);
+                }
+            }
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Compares the index with the books currently stored in the database and repairs the books that differ.
+     *
+     * <p>The books are compared chunk by chunk without blocking lookups or committed changes, so a change
+     * committed during the comparison can look like a difference. Every difference is therefore read again,
+     * and a book is only repaired if it did not change between the two reads and the index still differs.
+     * Repaired books are counted by {@code library.availability.index.repairs}.</p>
+     *
+     * @return the numbers of compared and repaired books.
+     */
+    @Scheduled(fixedDelayString = "${library.availability-index.check-interval:PT5M}",
+            initialDelayString = "${library.availability-index.check-interval:PT5M}")
+    public AvailabilityCheckResultDto check() {
+        long[] indexedIds = snapshotIds();
+        boolean[] seen = new boolean[indexedIds.length];
+        Map<Long, int[]> differences = new HashMap<>();
+        int checked = 0;
+        long afterId = 0L;
+        List<Object[]> rows;
+        do {
+            rows = bookRepository.findAvailabilityAfterRaw(afterId, PageRequest.of(0, chunkSize));
+            long[] ids = new long[rows.size()];
+            int[] available = new int[ids.length];
+            int[] borrowers = new int[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = idOf(rows.get(i));
+            }
+            lookup(ids, available, borrowers);
+            for (int i = 0; i < ids.length; i++) {
+                Object[] row = rows.get(i);
+                int position = Arrays.binarySearch(indexedIds, ids[i]);
+                if (position >= 0) {
+                    seen[position] = true;
+                }
+                if (available[i] != availableOf(row) || borrowers[i] != borrowersOf(row)) {
+                    differences.put(ids[i], new int[] {availableOf(row), borrowersOf(row)});
+                }
+                afterId = ids[i];
+            }
+            checked += ids.length;
+        } while (rows.size() == chunkSize);
+        for (int i = 0; i < indexedIds.length; i++) {
+            if (!seen[i]) {
+                differences.put(indexedIds[i], null);
+            }
+        }
+        int repaired = differences.isEmpty() ? 0 : repair(differences);
+        repairs.increment(repaired);
+        log.info("Book availability index checked against {} books, {} repaired", checked, repaired);
+        return new AvailabilityCheckResultDto(checked, repaired);
+    }
+
+    private Table readSnapshot() {
+        List<Object[]> rows = commitFence.exclusively(() -> {
+            List<Object[]> first = bookRepository.findAvailabilityAfterRaw(0L, PageRequest.of(0, chunkSize));
+            long stamp = lock.writeLock();
+            try {
+                changedSinceSnapshot.clear();
+                rebuildRunning = true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            return first;
+        });
+        Table loaded = new Table(Table.MIN_CAPACITY);
+        long afterId = 0L;
+        while (true) {
+            for (Object[] row : rows) {
+                loaded = loaded.put(idOf(row), availableOf(row), borrowersOf(row));
+                afterId = idOf(row);
+            }
+            if (rows.size() < chunkSize) {
+                return loaded;
+            }
+            rows = bookRepository.findAvailabilityAfterRaw(afterId, PageRequest.of(0, chunkSize));
+        }
+    }
+
+    private void stopRecording() {
+        changedSinceSnapshot.clear();
+        rebuildRunning = false;
+    }
+
+    /**
+     * Applies a change to the index, and keeps it for the rebuilt table while a rebuild is running. The caller
+     * holds the write lock.
+     */
+    private void change(UnaryOperator<Table> change) {
+        table = change.apply(table);
+        if (rebuildRunning) {
+            changedSinceSnapshot.add(change);
+        }
+    }
+
+    private static UnaryOperator<Table> added(long bookId, int field, int delta) {
+        return target -> {
+            target.add(bookId, field, delta);
+            return target;
+        };
+    }
+
+    private static UnaryOperator<Table> put(long bookId, int available, int borrowers) {
+        return target -> target.put(bookId, available, borrowers);
+    }
+
+    private static UnaryOperator<Table> putIfAbsent(long bookId, int available, int borrowers) {
+        return target -> target.find(bookId) < 0 ? target.put(bookId, available, borrowers) : target;
+    }
+
+    private static UnaryOperator<Table> removed(long bookId) {
+        return target -> {
+            target.remove(bookId);
+            return target;
+        };
+    }
+
+    private Map<Long, int[]> readStored(Collection<Long> bookIds) {
+        Map<Long, int[]> stored = new HashMap<>();
+        List<Long> ids = new ArrayList<>(bookIds);
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            for (Object[] row : bookRepository.findAvailabilityByIdInRaw(
+                    ids.subList(from, Math.min(from + chunkSize, ids.size())))) {
+                stored.put(idOf(row), new int[] {availableOf(row), borrowersOf(row)});
+            }
+        }
+        for (Long id : ids) {
+            stored.putIfAbsent(id, null);
+        }
+        return stored;
+    }
+
+    private int repair(Map<Long, int[]> differences) {
+        Map<Long, int[]> stored = readStored(differences.keySet());
+        List<Long> ids = new ArrayList<>(differences.keySet());
+        int repaired = 0;
+        long stamp = lock.writeLock();
+        try {
+            for (Long id : ids) {
+                int[] values = stored.get(id);
+                if (!Arrays.equals(values, differences.get(id))) {
+                    continue;
+                }
+                int slot = table.find(id);
+                int[] indexed = slot < 0 ? null : table.values(slot);
+                if (Arrays.equals(values, indexed)) {
+                    continue;
+                }
+                log.warn("Repairing availability of book with id: {}, indexed {}, stored {}", id,
+                        Arrays.toString(indexed), Arrays.toString(values));
+                change(values == null ? removed(id) : put(id, values[AVAILABLE], values[BORROWERS]));
+                repaired++;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return repaired;
+    }
+
+    private int read(long bookId, int field) {
+        long stamp = lock.tryOptimisticRead();
+        int value = table.get(bookId, field);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                value = table.get(bookId, field);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return value;
+    }
+
+    private long[] snapshotIds() {
+        long stamp = lock.readLock();
+        try {
+            long[] ids = Arrays.stream(table.ids).filter(id -> id != Table.EMPTY).toArray();
+            Arrays.sort(ids);
+            return ids;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private static long idOf(Object[] row) {
+        return ((Number) row[0]).longValue();
+    }
+
+    private static int availableOf(Object[] row) {
+        return ((Number) row[1]).intValue();
+    }
+
+    private static int borrowersOf(Object[] row) {
+        return ((Number) row[2]).intValue();
+    }
+
+    /**
+     * Linear-probing hash table from book id to the copies on the shelf and the borrowers of the book,
+     * stored next to each other in one {@code int} array. Book ids are positive, so {@code 0} marks an empty
+     * slot, and removals shift the following entries back instead of leaving tombstones. The table is kept
+     * at most half full; a full table is copied into one of twice the capacity, which replaces it, so the
+     * arrays of a table never change size under an optimistic reader.
+     */
+    private static final class Table {
+
+        private static final int MIN_CAPACITY = 1024;
+        private static final long EMPTY = 0L;
+
+        private final long[] ids;
+        private final int[] counts;
+        private final int mask;
+        private int size;
+
+        private Table(int capacity) {
+            this.ids = new long[capacity];
+            this.counts = new int[capacity * 2];
+            this.mask = capacity - 1;
+        }
+
+        private int find(long bookId) {
+            int slot = hash(bookId) & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                long id = ids[slot];
+                if (id == bookId) {
+                    return slot;
+                }
+                if (id == EMPTY) {
+                    return -1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private int get(long bookId, int field) {
+            int slot = find(bookId);
+            return slot < 0 ? UNKNOWN : counts[slot * 2 + field];
+        }
+
+        private int[] values(int slot) {
+            return new int[] {counts[slot * 2 + AVAILABLE], counts[slot * 2 + BORROWERS]};
+        }
+
+        private int lookup(long[] bookIds, int[] available, int[] borrowers) {
+            int found = 0;
+            for (int i = 0; i < bookIds.length; i++) {
+                int slot = find(bookIds[i]);
+                if (slot < 0) {
+                    available[i] = UNKNOWN;
+                    borrowers[i] = UNKNOWN;
+                } else {
+                    available[i] = counts[slot * 2 + AVAILABLE];
+                    borrowers[i] = counts[slot * 2 + BORROWERS];
+                    found++;
+                }
+            }
+            return found;
+        }
+
+        private boolean add(long bookId, int field, int delta) {
+            int slot = find(bookId);
+            if (slot < 0) {
+                return false;
+            }
+            counts[slot * 2 + field] += delta;
+            return true;
+        }
+
+        /**
+         * Sets the counts of a book.
+         *
+         * @return this table, or the larger table that replaces it.
+         */
+        private Table put(long bookId, int available, int borrowers) {
+            if (bookId <= EMPTY) {
+                return this;
+            }
+            Table target = (size + 1) * 2 > ids.length ? grow() : this;
+            int slot = hash(bookId) & target.mask;
+            while (target.ids[slot] != EMPTY && target.ids[slot] != bookId) {
+                slot = (slot + 1) & target.mask;
+            }
+            if (target.ids[slot] == EMPTY) {
+                target.ids[slot] = bookId;
+                target.size++;
+            }
+            target.counts[slot * 2 + AVAILABLE] = available;
+            target.counts[slot * 2 + BORROWERS] = borrowers;
+            return target;
+        }
+
+        private void remove(long bookId) {
+            int hole = find(bookId);
+            if (hole < 0) {
+                return;
+            }
+            int next = (hole + 1) & mask;
+            while (ids[next] != EMPTY) {
+                int home = hash(ids[next]) & mask;
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    move(next, hole);
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            ids[hole] = EMPTY;
+            counts[hole * 2 + AVAILABLE] = 0;
+            counts[hole * 2 + BORROWERS] = 0;
+            size--;
+        }
+
+        private void move(int from, int to) {
+            ids[to] = ids[from];
+            counts[to * 2 + AVAILABLE] = counts[from * 2 + AVAILABLE];
+            counts[to * 2 + BORROWERS] = counts[from * 2 + BORROWERS];
+        }
+
+        private Table grow() {
+            Table grown = new Table(ids.length * 2);
+            for (int slot = 0; slot < ids.length; slot++) {
+                if (ids[slot] != EMPTY) {
+                    grown.put(ids[slot], counts[slot * 2 + AVAILABLE], counts[slot * 2 + BORROWERS]);
+                }
+            }
+            return grown;
+        }
+
+        private static int hash(long bookId) {
+            long h = bookId * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
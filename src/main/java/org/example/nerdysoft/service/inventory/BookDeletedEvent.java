@@ -0,0 +1,19 @@
+package org.example.nerdysoft.service.inventory;
+
+import org.example.nerdysoft.service.concurrency.ProjectedChange;
+
+import lombok.Getter;
+
+/**
+ * Published inside a transaction that deleted a book. The {@link BookAvailabilityIndex} drops the book only
+ * once that transaction commits.
+ */
+@Getter
+public class BookDeletedEvent implements ProjectedChange {
+
+    private final Long bookId;
+
+    public BookDeletedEvent(Long bookId) {
+        this.bookId = bookId;
+    }
+}
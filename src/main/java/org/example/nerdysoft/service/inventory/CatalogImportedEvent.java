@@ -0,0 +1,20 @@
+package org.example.nerdysoft.service.inventory;
+
+import lombok.Getter;
+
+/**
+ * Published inside a transaction that merged an imported catalog file into the books. The import changes
+ * too many books to describe them one by one, so the {@link BookAvailabilityIndex} is rebuilt once that
+ * transaction commits.
+ */
+@Getter
+public class CatalogImportedEvent {
+
+    private final int created;
+    private final int updated;
+
+    public CatalogImportedEvent(int created, int updated) {
+        this.created = created;
+        this.updated = updated;
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.nerdysoft.service.inventory;
+
+import java.util.Map;
+
+import org.example.nerdysoft.service.concurrency.ProjectedChange;
+
+import lombok.Getter;
+
+/**
+ * Published inside a transaction that changed the number of copies on the shelf of some books.
+ * The deltas are streamed to {@link InventoryStream} subscribers only once that transaction commits.
+ */
+@Getter
+public class InventoryChangedEvent implements ProjectedChange {
+
+    private final Map<Long, Integer> amountDeltas;
+
+    public InventoryChangedEvent(Map<Long, Integer> amountDeltas) {
+        this.amountDeltas = Map.copyOf(amountDeltas);
+    }
+
+    /**
+     * Creates an event for a change of a single book.
+     *
+     * @param bookId the id of the book.
+     * @param delta the change of the amount of the book.
+     * @return a new {@link InventoryChangedEvent}.
+     */
+    public static InventoryChangedEvent of(Long bookId, int delta) {
+        return new InventoryChangedEvent(Map.of(bookId, delta));
+    }
+}
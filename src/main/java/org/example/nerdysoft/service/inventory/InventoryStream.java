@@ -0,0 +1,233 @@
+package org.example.nerdysoft.service.inventory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.example.nerdysoft.constant.MessageConstants;
+import org.example.nerdysoft.model.exception.SubscriberLimitExceededException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams committed changes of book amounts to Server-Sent Events subscribers as {@code inventory} events
+ * whose data is a JSON object of amount deltas keyed by book id, e.g. {@code {"42":-1}}.
+ *
+ * <p>Subscribers that filter by book id are indexed by book, so an event only visits the subscribers of the
+ * books it changed plus those that follow every book. Each distinct payload is serialized once and shared by
+ * all subscribers receiving it. Events are handed to a bounded per-subscriber queue and written by a virtual
+ * thread per busy subscriber, so the committing thread never waits for a client. A subscriber whose queue
+ * overflows is dropped and has to reconnect and reload the amounts; the stream never buffers without limit.</p>
+ *
+ * <p>Event ids are a per-node sequence, so a client can tell that it missed events, but missed events are not
+ * replayed. Exposed through Actuator as {@code library.inventory.subscribers} and
+ * {@code library.inventory.subscribers.dropped}.</p>
+ */
+@Slf4j
+@Component
+public class InventoryStream {
+
+    private static final String EVENT_NAME = "inventory";
+
+    private final Set<Subscriber> registered = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> allBooks = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Subscriber>> byBook = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ObjectMapper objectMapper;
+    private final Counter dropped;
+    private final int queueCapacity;
+    private final int maxSubscribers;
+    private final Duration timeout;
+
+    public InventoryStream(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                           @Value("${library.inventory-stream.queue-capacity:64}") int queueCapacity,
+                           @Value("${library.inventory-stream.max-subscribers:10000}") int maxSubscribers,
+                           @Value("${library.inventory-stream.timeout:PT30M}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.queueCapacity = queueCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout;
+        Gauge.builder("library.inventory.subscribers", subscribers, AtomicInteger::get)
+                .description("Open inventory stream subscriptions")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("library.inventory.subscribers.dropped")
+                .description("Inventory stream subscribers dropped because they could not keep up")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a subscription to the amount changes of the given books.
+     *
+     * @param bookIds the ids of the books to follow, or an empty set to follow every book.
+     * @return the {@link SseEmitter} of the subscription.
+     * @throws SubscriberLimitExceededException if the node already serves
+     *                                          {@code library.inventory-stream.max-subscribers} subscribers.
+     */
+    public SseEmitter subscribe(Set<Long> bookIds) {
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            throw new SubscriberLimitExceededException(MessageConstants.SUBSCRIBER_LIMIT_EXCEEDED_MESSAGE);
+        }
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeout.toMillis()), Set.copyOf(bookIds),
+                new ArrayBlockingQueue<>(queueCapacity));
+        subscriber.emitter.onCompletion(() -> unregister(subscriber));
+        subscriber.emitter.onTimeout(() -> unregister(subscriber));
+        subscriber.emitter.onError(error -> unregister(subscriber));
+        registered.add(subscriber);
+        if (subscriber.bookIds.isEmpty()) {
+            allBooks.add(subscriber);
+        } else {
+            subscriber.bookIds.forEach(bookId ->
+                    byBook.computeIfAbsent(bookId, id -> ConcurrentHashMap.newKeySet()).add(subscriber));
+        }
+        return subscriber.emitter;
+    }
+
+    /**
+     * Queues the amount changes of a committed transaction to every subscriber following the changed books.
+     *
+     * @param event the event carrying the amount deltas.
+     */
+    @TransactionalEventListener
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        Map<Long, Integer> deltas = new HashMap<>(event.getAmountDeltas());
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty() || subscribers.get() == 0) {
+            return;
+        }
+        long id = sequence.incrementAndGet();
+        if (!allBooks.isEmpty()) {
+            Set<DataWithMediaType> payload = toPayload(id, deltas);
+            allBooks.forEach(subscriber -> enqueue(subscriber, payload));
+        }
+        Map<Subscriber, Map<Long, Integer>> filtered = new HashMap<>();
+        deltas.forEach((bookId, delta) -> byBook.getOrDefault(bookId, Set.of()).forEach(subscriber ->
+                filtered.computeIfAbsent(subscriber, s -> new HashMap<>()).put(bookId, delta)));
+        Map<Map<Long, Integer>, Set<DataWithMediaType>> payloads = new HashMap<>();
+        filtered.forEach((subscriber, subscriberDeltas) -> enqueue(subscriber,
+                payloads.computeIfAbsent(subscriberDeltas, d -> toPayload(id, d))));
+    }
+
+    /**
+     * Sends a comment to every subscriber, so that connections of clients that went away are detected and
+     * idle connections are not closed by proxies. Runs every {@code library.inventory-stream.heartbeat}.
+     */
+    @Scheduled(fixedDelayString = "${library.inventory-stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        if (subscribers.get() == 0) {
+            return;
+        }
+        Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+        registered.forEach(subscriber -> enqueue(subscriber, heartbeat));
+    }
+
+    /**
+     * Closes every subscription before the web server shuts down.
+     */
+    @PreDestroy
+    public void close() {
+        registered.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private void enqueue(Subscriber subscriber, Set<DataWithMediaType> payload) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (!subscriber.queue.offer(payload)) {
+            dropped.increment();
+            log.warn("Dropping inventory stream subscriber that fell {} events behind", queueCapacity);
+            unregister(subscriber);
+            senders.execute(subscriber.emitter::complete);
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            Set<DataWithMediaType> payload = subscriber.queue.poll();
+            while (payload != null) {
+                try {
+                    subscriber.emitter.send(payload);
+                } catch (IOException | IllegalStateException e) {
+                    unregister(subscriber);
+                    return;
+                }
+                payload = subscriber.queue.poll();
+            }
+            subscriber.draining.set(false);
+        } while (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void unregister(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscriber.queue.clear();
+        registered.remove(subscriber);
+        if (subscriber.bookIds.isEmpty()) {
+            allBooks.remove(subscriber);
+        } else {
+            subscriber.bookIds.forEach(bookId -> byBook.computeIfPresent(bookId, (id, set) -> {
+                set.remove(subscriber);
+                return set.isEmpty() ? null : set;
+            }));
+        }
+        subscribers.decrementAndGet();
+    }
+
+    private Set<DataWithMediaType> toPayload(long id, Map<Long, Integer> deltas) {
+        try {
+            return SseEmitter.event()
+                    .id(Long.toString(id))
+                    .name(EVENT_NAME)
+                    .data(objectMapper.writeValueAsString(deltas), MediaType.TEXT_PLAIN)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize inventory deltas", e);
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Set<Long> bookIds;
+        private final BlockingQueue<Set<DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Set<Long> bookIds, BlockingQueue<Set<DataWithMediaType>> queue) {
+            this.emitter = emitter;
+            this.bookIds = bookIds;
+            this.queue = queue;
+        }
+    }
+}
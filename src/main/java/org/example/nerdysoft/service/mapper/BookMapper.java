@@ -1,16 +1,38 @@
 package org.example.nerdysoft.service.mapper;
 
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+
 import org.example.nerdysoft.model.dto.BookDetailedDto;
 import org.example.nerdysoft.model.dto.BookMainInfoDto;
 import org.example.nerdysoft.model.entity.Book;
+import org.example.nerdysoft.model.entity.Member;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface BookMapper {
+    @Mapping(target = "version", expression = "java(versionOf(book))")
     BookDetailedDto toDto(Book book);
 
     BookMainInfoDto toMainInfoDto(Book book);
 
+    @Mapping(target = "version", ignore = true)
     Book toEntity(BookDetailedDto bookDetailedDto);
+
+    /**
+     * Combines the version of a book with the versions of the borrowers loaded with it. A change of the borrowers
+     * bumps the version of the book and a renamed borrower bumps their own, so the result changes whenever the
+     * representation of the book does.
+     */
+    default String versionOf(Book book) {
+        Collection<Member> borrowers = Objects.requireNonNullElse(book.getBorrowers(), Set.of());
+        return book.getVersion() + "-" + borrowers.stream()
+                .map(Member::getVersion)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .sum();
+    }
 }
 
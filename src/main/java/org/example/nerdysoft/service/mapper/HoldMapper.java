@@ -0,0 +1,10 @@
+package org.example.nerdysoft.service.mapper;
+
+import org.example.nerdysoft.model.dto.HoldDto;
+import org.example.nerdysoft.model.entity.Hold;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface HoldMapper {
+    HoldDto toDto(Hold hold, Long position);
+}
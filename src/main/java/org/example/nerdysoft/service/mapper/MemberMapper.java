@@ -1,12 +1,36 @@
 package org.example.nerdysoft.service.mapper;
 
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+
 import org.example.nerdysoft.model.dto.MemberDetailedDto;
+import org.example.nerdysoft.model.entity.Book;
 import org.example.nerdysoft.model.entity.Member;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface MemberMapper {
+    @Mapping(target = "version", expression = "java(versionOf(member))")
     MemberDetailedDto toDto(Member member);
 
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "activeLoans", ignore = true)
+    @Mapping(target = "borrowedBooks", ignore = true)
     Member toEntity(MemberDetailedDto memberDetailedDto);
+
+    /**
+     * Combines the version of a member with the versions of the books loaded with them. A loan or return bumps
+     * the version of the member and an edited book bumps its own, so the result changes whenever the
+     * representation of the member does.
+     */
+    default String versionOf(Member member) {
+        Collection<Book> borrowedBooks = Objects.requireNonNullElse(member.getBorrowedBooks(), Set.of());
+        return member.getVersion() + "-" + borrowedBooks.stream()
+                .map(Book::getVersion)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .sum();
+    }
 }
@@ -0,0 +1,45 @@
+package org.example.nerdysoft.service.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Contention metrics of the borrow path.
+ * Exposed through Actuator as {@code library.borrow.lock.wait} and {@code library.borrow.conflicts}.
+ */
+@Component
+public class BorrowMetrics {
+
+    private final Timer memberLockWait;
+    private final Counter availabilityConflicts;
+
+    public BorrowMetrics(MeterRegistry meterRegistry) {
+        this.memberLockWait = Timer.builder("library.borrow.lock.wait")
+                .description("Time spent waiting for the member row lock before a borrow")
+                .register(meterRegistry);
+        this.availabilityConflicts = Counter.builder("library.borrow.conflicts")
+                .description("Borrows rejected because no copy was left when the inventory was decremented")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records how long a borrow waited for the member row lock.
+     *
+     * @param startNanos the {@link System#nanoTime()} value taken before the lock was requested.
+     */
+    public void recordMemberLockWait(long startNanos) {
+        memberLockWait.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts a conditional inventory decrement that matched no row.
+     */
+    public void recordAvailabilityConflict() {
+        availabilityConflicts.increment();
+    }
+}
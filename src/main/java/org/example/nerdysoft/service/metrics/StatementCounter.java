@@ -0,0 +1,48 @@
+package org.example.nerdysoft.service.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread.
+ *
+ * <p>Registered as Hibernate's statement inspector, so every JPQL, Criteria and native query,
+ * lazy load and flush is counted. Statements issued through {@code JdbcTemplate} bypass Hibernate
+ * and are not counted.</p>
+ */
+@Component
+public class StatementCounter implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<int[]> STATEMENTS = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Resets the count of the current thread to zero.
+     */
+    public void reset() {
+        STATEMENTS.get()[0] = 0;
+    }
+
+    /**
+     * Returns the number of statements prepared on the current thread since the last reset.
+     *
+     * @return the statement count.
+     */
+    public int count() {
+        return STATEMENTS.get()[0];
+    }
+
+    /**
+     * Releases the counter of the current thread.
+     */
+    public void clear() {
+        STATEMENTS.remove();
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.nerdysoft.service.overdue;
+
+import java.util.List;
+
+import org.example.nerdysoft.model.dto.OverdueLoanDto;
+
+import lombok.Getter;
+
+/**
+ * Published by {@link OverdueLoanSweeper} for every chunk of loans that passed their due date
+ * since the previous sweep. Each loan is published once, whatever the number of restarts or instances.
+ *
+ * <p>This is an extension point: nothing in the application listens for it yet, the sweep itself only
+ * counts and logs the loans. The event is published inside the transaction that advances the watermark,
+ * so an {@code @EventListener} that writes to the database, such as a reminder outbox, commits or rolls
+ * back together with the watermark, while a {@code @TransactionalEventListener} that talks to an external
+ * system only sees chunks whose watermark has been committed.</p>
+ */
+@Getter
+public class LoansOverdueEvent {
+
+    private final List<OverdueLoanDto> loans;
+
+    public LoansOverdueEvent(List<OverdueLoanDto> loans) {
+        this.loans = List.copyOf(loans);
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.nerdysoft.service.overdue;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.example.nerdysoft.model.dto.OverdueLoanDto;
+import org.example.nerdysoft.model.entity.OverdueSweepWatermark;
+import org.example.nerdysoft.output.persistent.LoanRepository;
+import org.example.nerdysoft.output.persistent.OverdueSweepWatermarkRepository;
+import org.example.nerdysoft.service.util.CursorCodec.LoanKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Finds loans that became overdue since the previous sweep.
+ *
+ * <p>The sweeper keeps a watermark, the (due date, member id, book id) key of the last loan it has
+ * seen, and every run reads only the loans between the watermark and now from the {@code due_at}
+ * index, in chunks of {@code library.loans.overdue-sweep.batch-size}. A sweep therefore costs
+ * one index range scan over the newly overdue loans, however many loans are open. Due dates are
+ * always in the future when a loan is created, so no loan can appear behind the watermark.</p>
+ *
+ * <p>The watermark is stored in the single row of {@code overdue_sweep_watermark}, which the first start-up
+ * creates at the current time: loans that were already overdue then are listed by the overdue endpoint but
+ * are never published. Each chunk is read, published and recorded in one transaction that holds the row
+ * lock, so a sweep after a restart carries on with the loans that became overdue while the application was
+ * down, and concurrent sweeps on several instances publish every loan once. Newly overdue loans are
+ * published as {@link LoansOverdueEvent} and counted as {@code library.loans.overdue.detected}.</p>
+ */
+@Slf4j
+@Component
+public class OverdueLoanSweeper {
+
+    private static final Long WATERMARK_ID = 1L;
+
+    private final LoanRepository loanRepository;
+    private final OverdueSweepWatermarkRepository watermarkRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Counter detected;
+    private final int batchSize;
+
+    public OverdueLoanSweeper(LoanRepository loanRepository, OverdueSweepWatermarkRepository watermarkRepository,
+                              ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${library.loans.overdue-sweep.batch-size:500}") int batchSize) {
+        this.loanRepository = loanRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.detected = Counter.builder("library.loans.overdue.detected")
+                .description("Loans found to have passed their due date")
+                .register(meterRegistry);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Creates the watermark at the current time on the first start-up; later start-ups keep the stored one.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createWatermark() {
+        Instant now = Instant.now();
+        Integer created = transaction.execute(status -> watermarkRepository.insertIfAbsent(WATERMARK_ID, now));
+        if (created != null && created > 0) {
+            log.info("Started the overdue loan watermark at {}", now);
+        }
+    }
+
+    /**
+     * Publishes the loans that became overdue since the previous sweep and advances the watermark past them.
+     * Runs every {@code library.loans.overdue-sweep.interval}; a run before the watermark exists finds nothing.
+     *
+     * @return the number of newly overdue loans.
+     */
+    @Scheduled(fixedDelayString = "${library.loans.overdue-sweep.interval:PT1M}")
+    public synchronized int sweep() {
+        Instant now = Instant.now();
+        int total = 0;
+        int found;
+        do {
+            Integer chunkSize = transaction.execute(status -> sweepChunk(now));
+            found = chunkSize == null ? 0 : chunkSize;
+            total += found;
+        } while (found == batchSize);
+        if (total > 0) {
+            detected.increment(total);
+            log.info("Found {} loans that became overdue up to {}", total, now);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the key of the last loan found overdue, or the first start-up time if none was found yet.
+     *
+     * @return the current sweep watermark, or {@code null} before it is created.
+     */
+    public LoanKey getWatermark() {
+        return readOnlyTransaction.execute(status -> watermarkRepository.findById(WATERMARK_ID)
+                .map(OverdueLoanSweeper::toKey)
+                .orElse(null));
+    }
+
+    private int sweepChunk(Instant now) {
+        OverdueSweepWatermark watermark = watermarkRepository.findByIdForUpdate(WATERMARK_ID).orElse(null);
+        if (watermark == null) {
+            return 0;
+        }
+        List<OverdueLoanDto> chunk = loanRepository.findDueAfter(watermark.getDueAt(), watermark.getMemberId(),
+                watermark.getBookId(), now, PageRequest.of(0, batchSize));
+        if (!chunk.isEmpty()) {
+            OverdueLoanDto last = chunk.get(chunk.size() - 1);
+            watermarkRepository.advance(WATERMARK_ID, last.getDueAt(), last.getMemberId(), last.getBookId());
+            eventPublisher.publishEvent(new LoansOverdueEvent(chunk));
+        }
+        return chunk.size();
+    }
+
+    private static LoanKey toKey(OverdueSweepWatermark watermark) {
+        return new LoanKey(watermark.getDueAt(), watermark.getMemberId(), watermark.getBookId());
+    }
+}
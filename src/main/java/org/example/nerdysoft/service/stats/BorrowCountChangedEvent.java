@@ -0,0 +1,32 @@
+package org.example.nerdysoft.service.stats;
+
+import java.util.Map;
+
+import org.example.nerdysoft.service.concurrency.ProjectedChange;
+
+import lombok.Getter;
+
+/**
+ * Published inside a transaction that changed how many copies of some titles are on loan.
+ * The deltas are applied to {@link BorrowStatistics} only once that transaction commits.
+ */
+@Getter
+public class BorrowCountChangedEvent implements ProjectedChange {
+
+    private final Map<String, Integer> titleDeltas;
+
+    public BorrowCountChangedEvent(Map<String, Integer> titleDeltas) {
+        this.titleDeltas = Map.copyOf(titleDeltas);
+    }
+
+    /**
+     * Creates an event for a change of a single title.
+     *
+     * @param title the title of the borrowed or returned book.
+     * @param delta the change of the number of loans of the title.
+     * @return a new {@link BorrowCountChangedEvent}.
+     */
+    public static BorrowCountChangedEvent of(String title, int delta) {
+        return new BorrowCountChangedEvent(Map.of(title, delta));
+    }
+}
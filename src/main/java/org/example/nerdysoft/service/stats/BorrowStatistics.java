@@ -0,0 +1,164 @@
+package org.example.nerdysoft.service.stats;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.example.nerdysoft.output.persistent.BookRepository;
+import org.example.nerdysoft.output.persistent.routing.PrimaryPin;
+import org.example.nerdysoft.output.persistent.routing.ReplicaRoutingDataSource;
+import org.example.nerdysoft.service.concurrency.CommitFence;
+import org.example.nerdysoft.service.concurrency.ProjectedChange;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory projection of the number of loans per book title.
+ *
+ * <p>The projection is built from {@code member_books} once the application is ready and is then
+ * maintained incrementally from {@link BorrowCountChangedEvent}s of committed transactions, so
+ * reads never touch the database. Titles with no loans are removed. The projection only sees
+ * loans committed through this application instance; {@link #rebuild()} resynchronises it.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BorrowStatistics {
+
+    private final BookRepository bookRepository;
+    private final CommitFence commitFence;
+
+    private final Map<String, Long> borrowCounts = new ConcurrentHashMap<>();
+    private final Map<String, Long> borrowCountsView = Collections.unmodifiableMap(borrowCounts);
+    private final Set<String> borrowedTitlesView = Collections.unmodifiableSet(borrowCounts.keySet());
+    private final Queue<Map<String, Integer>> committedSinceSnapshot = new ConcurrentLinkedQueue<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock rebuildLock = new ReentrantLock();
+    private volatile boolean rebuildRunning;
+
+    /**
+     * Returns a read-only live view of the titles that currently have at least one loan.
+     *
+     * @return a set of borrowed book titles.
+     */
+    public Set<String> getBorrowedTitles() {
+        return borrowedTitlesView;
+    }
+
+    /**
+     * Returns a read-only live view of the number of loans per borrowed title.
+     *
+     * @return a map of book titles to their number of loans.
+     */
+    public Map<String, Long> getBorrowCounts() {
+        return borrowCountsView;
+    }
+
+    /**
+     * Applies the deltas of a committed transaction.
+     *
+     * @param event the event describing the changed loan counts.
+     */
+    @Order(ProjectedChange.LISTENER_ORDER)
+    @TransactionalEventListener
+    public void onBorrowCountChanged(BorrowCountChangedEvent event) {
+        lock.readLock().lock();
+        try {
+            event.getTitleDeltas().forEach(this::apply);
+            if (rebuildRunning) {
+                committedSinceSnapshot.add(event.getTitleDeltas());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the projection with the loan counts currently stored in the database.
+     *
+     * <p>The counts are read on the primary while the {@link CommitFence} is closed, so every transaction that
+     * committed before the read has applied its deltas and is included in it, and every transaction that
+     * commits after it is not. The deltas committed from then on are applied to the current counts and kept,
+     * and are replayed onto the counts read from the database when they replace the current ones, so each loan
+     * is counted exactly once however the listeners interleave with the rebuild.</p>
+     *
+     * @return a read-only live view of the rebuilt projection.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public Map<String, Long> rebuild() {
+        log.info("Rebuilding borrow statistics");
+        rebuildLock.lock();
+        try {
+            List<Object[]> rows;
+            try (PrimaryPin pin = ReplicaRoutingDataSource.pinToPrimary()) {
+                rows = commitFence.exclusively(() -> {
+                    List<Object[]> snapshot = bookRepository.findDistinctBorrowedBookNamesWithAmountRaw();
+                    startRecording();
+                    return snapshot;
+                });
+            }
+            Map<String, Long> counts = new HashMap<>();
+            for (Object[] row : rows) {
+                counts.put((String) row[0], ((Number) row[1]).longValue());
+            }
+            int replayed;
+            lock.writeLock().lock();
+            try {
+                borrowCounts.clear();
+                borrowCounts.putAll(counts);
+                replayed = committedSinceSnapshot.size();
+                committedSinceSnapshot.forEach(deltas -> deltas.forEach(this::apply));
+                committedSinceSnapshot.clear();
+                rebuildRunning = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Borrow statistics rebuilt for {} titles, {} changes committed during the rebuild replayed",
+                    borrowCounts.size(), replayed);
+            return borrowCountsView;
+        } finally {
+            if (rebuildRunning) {
+                lock.writeLock().lock();
+                try {
+                    committedSinceSnapshot.clear();
+                    rebuildRunning = false;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            rebuildLock.unlock();
+        }
+    }
+
+    private void startRecording() {
+        lock.writeLock().lock();
+        try {
+            committedSinceSnapshot.clear();
+            rebuildRunning = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(String title, int delta) {
+        borrowCounts.compute(title, (key, count) -> {
+            long updated = (count == null ? 0L : count) + delta;
+            return updated > 0 ? updated : null;
+        });
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.nerdysoft.service.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import org.example.nerdysoft.constant.MessageConstants;
+import org.example.nerdysoft.model.exception.InvalidCursorException;
+
+/**
+ * Encodes and decodes the opaque keyset cursors returned by paginated endpoints.
+ * A cursor carries the id of the last row of the previous page, or the full sort key for pages
+ * that are not ordered by id.
+ */
+public final class CursorCodec {
+
+    private static final int LOAN_KEY_PARTS = 3;
+
+    private CursorCodec() {
+    }
+
+    /**
+     * Encodes the id of the last returned row into a cursor token.
+     *
+     * @param lastId the id of the last row of the current page.
+     * @return the URL-safe cursor token.
+     */
+    public static String encode(Long lastId) {
+        return toToken(String.valueOf(lastId));
+    }
+
+    /**
+     * Decodes a cursor token into the id after which the next page starts.
+     *
+     * @param cursor the cursor token, or {@code null} for the first page.
+     * @return the id to continue after, {@code 0} for the first page.
+     * @throws InvalidCursorException if the token is malformed.
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(fromToken(cursor));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(MessageConstants.INVALID_CURSOR_MESSAGE + cursor);
+        }
+    }
+
+    /**
+     * Encodes the sort key of the last returned loan into a cursor token.
+     *
+     * @param key the (due date, member id, book id) key of the last loan of the current page.
+     * @return the URL-safe cursor token.
+     */
+    public static String encodeLoanKey(LoanKey key) {
+        return toToken(key.dueAt() + "," + key.memberId() + "," + key.bookId());
+    }
+
+    /**
+     * Decodes a cursor token into the loan key after which the next page starts.
+     *
+     * @param cursor the cursor token, or {@code null} for the first page.
+     * @return the key to continue after, {@link LoanKey#FIRST} for the first page.
+     * @throws InvalidCursorException if the token is malformed.
+     */
+    public static LoanKey decodeLoanKey(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return LoanKey.FIRST;
+        }
+        try {
+            String[] parts = fromToken(cursor).split(",");
+            if (parts.length != LOAN_KEY_PARTS) {
+                throw new InvalidCursorException(MessageConstants.INVALID_CURSOR_MESSAGE + cursor);
+            }
+            return new LoanKey(Instant.parse(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(MessageConstants.INVALID_CURSOR_MESSAGE + cursor);
+        }
+    }
+
+    private static String toToken(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String fromToken(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Position of a loan in (due date, member id, book id) order.
+     *
+     * @param dueAt the due date of the loan.
+     * @param memberId the id of the borrowing member.
+     * @param bookId the id of the borrowed book.
+     */
+    public record LoanKey(Instant dueAt, long memberId, long bookId) {
+
+        /**
+         * The key before every loan.
+         */
+        public static final LoanKey FIRST = new LoanKey(Instant.EPOCH, 0L, 0L);
+    }
+}
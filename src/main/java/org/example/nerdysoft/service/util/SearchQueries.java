@@ -0,0 +1,36 @@
+package org.example.nerdysoft.service.util;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Turns free-text search input into PostgreSQL {@code tsquery} expressions.
+ * Only letters and digits survive tokenization, so the result never contains tsquery operators
+ * supplied by the caller.
+ */
+public final class SearchQueries {
+
+    private static final int MAX_TOKENS = 8;
+
+    private SearchQueries() {
+    }
+
+    /**
+     * Builds a prefix query matching rows that contain every token of the input as a word prefix.
+     *
+     * @param text the free-text search input.
+     * @return the tsquery expression, or an empty string if the input contains no tokens.
+     */
+    public static String toPrefixTsQuery(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .limit(MAX_TOKENS)
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
@@ -0,0 +1,11 @@
+CREATE SEQUENCE book_seq INCREMENT BY 50;
+SELECT setval('book_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM books), false);
+ALTER TABLE books ALTER COLUMN id SET DEFAULT nextval('book_seq');
+ALTER SEQUENCE book_seq OWNED BY books.id;
+DROP SEQUENCE books_id_seq;
+
+CREATE SEQUENCE member_seq INCREMENT BY 50;
+SELECT setval('member_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM members), false);
+ALTER TABLE members ALTER COLUMN id SET DEFAULT nextval('member_seq');
+ALTER SEQUENCE member_seq OWNED BY members.id;
+DROP SEQUENCE members_id_seq;
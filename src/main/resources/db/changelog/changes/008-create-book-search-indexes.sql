@@ -0,0 +1,2 @@
+CREATE INDEX idx_books_search ON books USING GIN (to_tsvector('simple', title || ' ' || author));
+CREATE INDEX idx_books_title_author ON books (title, author);
@@ -0,0 +1 @@
+CREATE INDEX idx_member_books_book_id ON member_books (book_id, member_id);
@@ -0,0 +1,19 @@
+CREATE SEQUENCE loan_event_seq INCREMENT BY 50;
+
+CREATE TABLE loan_events
+(
+    id          BIGINT PRIMARY KEY DEFAULT nextval('loan_event_seq'),
+    member_id   BIGINT                   NOT NULL,
+    book_id     BIGINT                   NOT NULL,
+    action      VARCHAR(16)              NOT NULL CHECK (action IN ('BORROW', 'RETURN')),
+    occurred_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+ALTER SEQUENCE loan_event_seq OWNED BY loan_events.id;
+
+CREATE INDEX idx_loan_events_occurred_at ON loan_events (occurred_at, id);
+CREATE INDEX idx_loan_events_book ON loan_events (book_id, occurred_at);
+CREATE INDEX idx_loan_events_member ON loan_events (member_id, occurred_at);
+
+INSERT INTO loan_events (member_id, book_id, action, occurred_at)
+SELECT member_id, book_id, 'BORROW', now()
+FROM member_books;
@@ -0,0 +1,4 @@
+ALTER TABLE member_books ADD COLUMN borrowed_at TIMESTAMPTZ NOT NULL DEFAULT now();
+ALTER TABLE member_books ADD COLUMN due_at TIMESTAMPTZ NOT NULL DEFAULT now() + INTERVAL '14 days';
+
+CREATE INDEX idx_member_books_due_at ON member_books (due_at, member_id, book_id);
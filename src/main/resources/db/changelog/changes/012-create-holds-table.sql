@@ -0,0 +1,17 @@
+CREATE SEQUENCE hold_seq INCREMENT BY 50;
+
+CREATE TABLE holds
+(
+    id          BIGINT PRIMARY KEY DEFAULT nextval('hold_seq'),
+    member_id   BIGINT                   NOT NULL,
+    book_id     BIGINT                   NOT NULL,
+    status      VARCHAR(16)              NOT NULL CHECK (status IN ('WAITING', 'FULFILLED', 'CANCELLED')),
+    created_at  TIMESTAMP WITH TIME ZONE NOT NULL,
+    resolved_at TIMESTAMP WITH TIME ZONE,
+    CONSTRAINT fk_holds_member FOREIGN KEY (member_id) REFERENCES members (id) ON DELETE CASCADE,
+    CONSTRAINT fk_holds_book FOREIGN KEY (book_id) REFERENCES books (id) ON DELETE CASCADE
+);
+ALTER SEQUENCE hold_seq OWNED BY holds.id;
+
+CREATE INDEX idx_holds_waiting_book ON holds (book_id, id) WHERE status = 'WAITING';
+CREATE UNIQUE INDEX uq_holds_waiting_member_book ON holds (member_id, book_id) WHERE status = 'WAITING';
@@ -0,0 +1,83 @@
+-- Fold every group of books sharing a title and author into the copy with the lowest id.
+CREATE TEMPORARY TABLE book_duplicates AS
+SELECT b.id AS duplicate_id, k.keeper_id
+FROM books b
+         JOIN (SELECT title, author, MIN(id) AS keeper_id
+               FROM books
+               GROUP BY title, author
+               HAVING COUNT(*) > 1) k ON k.title = b.title AND k.author = b.author
+WHERE b.id <> k.keeper_id;
+
+-- A member keeps one loan per folded book; their other copies go back on the shelf.
+CREATE TEMPORARY TABLE folded_loans AS
+SELECT mb.member_id,
+       mb.book_id,
+       g.keeper_id,
+       ROW_NUMBER() OVER (PARTITION BY mb.member_id, g.keeper_id ORDER BY mb.book_id) AS n
+FROM member_books mb
+         JOIN (SELECT duplicate_id AS book_id, keeper_id FROM book_duplicates
+               UNION
+               SELECT keeper_id, keeper_id FROM book_duplicates) g ON g.book_id = mb.book_id;
+
+UPDATE books
+SET amount = books.amount + r.returned
+FROM (SELECT keeper_id, COUNT(*) AS returned FROM folded_loans WHERE n > 1 GROUP BY keeper_id) r
+WHERE books.id = r.keeper_id;
+
+DELETE
+FROM member_books mb
+    USING folded_loans f
+WHERE mb.member_id = f.member_id
+  AND mb.book_id = f.book_id
+  AND f.n > 1;
+
+UPDATE member_books
+SET book_id = d.keeper_id
+FROM book_duplicates d
+WHERE member_books.book_id = d.duplicate_id;
+
+-- A member waits at most once per folded book, and not at all for a book they already hold.
+UPDATE holds
+SET status = 'CANCELLED', resolved_at = now()
+FROM (SELECT h.id,
+             ROW_NUMBER() OVER (PARTITION BY h.member_id, COALESCE(d.keeper_id, h.book_id) ORDER BY h.id) AS n
+      FROM holds h
+               LEFT JOIN book_duplicates d ON d.duplicate_id = h.book_id
+      WHERE h.status = 'WAITING'
+        AND h.book_id IN (SELECT duplicate_id FROM book_duplicates UNION SELECT keeper_id FROM book_duplicates)) w
+WHERE holds.id = w.id
+  AND w.n > 1;
+
+UPDATE holds
+SET book_id = d.keeper_id
+FROM book_duplicates d
+WHERE holds.book_id = d.duplicate_id;
+
+UPDATE holds
+SET status = 'CANCELLED', resolved_at = now()
+WHERE status = 'WAITING'
+  AND EXISTS (SELECT 1 FROM member_books mb WHERE mb.member_id = holds.member_id AND mb.book_id = holds.book_id);
+
+UPDATE loan_events
+SET book_id = d.keeper_id
+FROM book_duplicates d
+WHERE loan_events.book_id = d.duplicate_id;
+
+UPDATE books
+SET amount = books.amount + s.amount
+FROM (SELECT d.keeper_id, SUM(b.amount) AS amount
+      FROM book_duplicates d
+               JOIN books b ON b.id = d.duplicate_id
+      GROUP BY d.keeper_id) s
+WHERE books.id = s.keeper_id;
+
+DELETE
+FROM books
+WHERE id IN (SELECT duplicate_id FROM book_duplicates);
+
+DROP TABLE folded_loans;
+DROP TABLE book_duplicates;
+
+-- The unique constraint's index also serves the lookups by title and author.
+DROP INDEX idx_books_title_author;
+ALTER TABLE books ADD CONSTRAINT uq_books_title_author UNIQUE (title, author);
@@ -0,0 +1,4 @@
+-- Bumped by every statement that changes what the book or member endpoints return, so that
+-- ETags can be derived from the versions alone.
+ALTER TABLE books ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE members ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
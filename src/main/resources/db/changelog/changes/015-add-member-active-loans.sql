@@ -0,0 +1,10 @@
+-- Number of rows in member_books per member, kept in step by the statements that insert and delete them,
+-- so the borrow limit can be checked without counting the loans.
+ALTER TABLE members ADD COLUMN active_loans INTEGER NOT NULL DEFAULT 0;
+
+UPDATE members
+SET active_loans = l.loans
+FROM (SELECT member_id, COUNT(*) AS loans FROM member_books GROUP BY member_id) l
+WHERE members.id = l.member_id;
+
+ALTER TABLE members ADD CONSTRAINT chk_members_active_loans CHECK (active_loans >= 0);
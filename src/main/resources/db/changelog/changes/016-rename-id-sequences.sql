@@ -0,0 +1,5 @@
+-- Hibernate names the implicit sequence of each entity after its table.
+ALTER SEQUENCE book_seq RENAME TO books_seq;
+ALTER SEQUENCE member_seq RENAME TO members_seq;
+ALTER SEQUENCE loan_event_seq RENAME TO loan_events_seq;
+ALTER SEQUENCE hold_seq RENAME TO holds_seq;
@@ -0,0 +1,5 @@
+-- Loan events are inserted inside the loan transaction and take their id from the column default, so the ids
+-- give the order they were written in and the log is replayed by id.
+ALTER SEQUENCE loan_events_seq INCREMENT BY 1;
+
+DROP INDEX idx_loan_events_occurred_at;
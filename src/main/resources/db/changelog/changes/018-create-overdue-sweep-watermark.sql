@@ -0,0 +1,9 @@
+-- Single row with the key of the last loan the overdue sweep has published, so that the sweep carries on from
+-- it after a restart and every instance shares it. The sweeper creates the row on its first start-up.
+CREATE TABLE overdue_sweep_watermark
+(
+    id        BIGINT PRIMARY KEY CHECK (id = 1),
+    due_at    TIMESTAMP WITH TIME ZONE NOT NULL,
+    member_id BIGINT                   NOT NULL,
+    book_id   BIGINT                   NOT NULL
+);
@@ -0,0 +1,11 @@
+-- Loan events are written to this outbox in the loan transaction and moved to loan_events in batches by the
+-- relay. It has no index besides its key, so the borrow and return path pays for one narrow insert. The ids come
+-- from the sequence of the log and are kept by the relay, so the log stays ordered by id.
+CREATE TABLE loan_event_outbox
+(
+    id          BIGINT PRIMARY KEY DEFAULT nextval('loan_events_seq'),
+    member_id   BIGINT                   NOT NULL,
+    book_id     BIGINT                   NOT NULL,
+    action      VARCHAR(16)              NOT NULL CHECK (action IN ('BORROW', 'RETURN')),
+    occurred_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,57 @@
+package org.example.nerdysoft.input.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+
+/**
+ * Builds list responses for anonymous clients and for clients that hold the read-your-writes cookie.
+ */
+class CachingResponsesTest {
+
+    private static final List<String> TITLES = List.of("Emma", "Persuasion");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void list_IsPublicAndRevalidatesToNotModified() {
+        ResponseEntity<List<String>> first = list(new MockHttpServletRequest());
+        MockHttpServletRequest revalidation = new MockHttpServletRequest();
+        revalidation.addHeader(HttpHeaders.IF_NONE_MATCH, first.getHeaders().getETag());
+
+        ResponseEntity<List<String>> second = list(revalidation);
+
+        assertEquals("max-age=30, public, s-maxage=60", first.getHeaders().getCacheControl());
+        assertEquals(List.of(HttpHeaders.COOKIE), first.getHeaders().getVary());
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+        assertEquals(first.getHeaders().getETag(), second.getHeaders().getETag());
+        assertNull(second.getBody());
+    }
+
+    @Test
+    void list_IsPrivateForClientsThatReadFromThePrimary() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME,
+                Long.toString(System.currentTimeMillis() + 60_000)));
+
+        ResponseEntity<List<String>> response = list(request);
+
+        assertEquals("no-cache, private", response.getHeaders().getCacheControl());
+        assertEquals(TITLES, response.getBody());
+    }
+
+    private ResponseEntity<List<String>> list(MockHttpServletRequest request) {
+        return CachingResponses.list(request, objectMapper, TITLES, Duration.ofSeconds(30), Duration.ofSeconds(60));
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.nerdysoft.input.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Adds the deprecation headers to the first page of a whole-collection endpoint.
+ */
+class DeprecatedListsTest {
+
+    private static final String PAGE = "/api/books/v1/page";
+
+    @Test
+    void deprecated_LinksTheNextPageWhenTheListWasCut() {
+        ResponseEntity<List<String>> response = DeprecatedLists.deprecated(
+                ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(List.of("Emma")), PAGE, "MTA=");
+
+        assertEquals("true", response.getHeaders().getFirst("Deprecation"));
+        assertEquals("</api/books/v1/page>; rel=\"successor-version\","
+                        + " </api/books/v1/page?cursor=MTA%3D>; rel=\"next\"",
+                response.getHeaders().getFirst(HttpHeaders.LINK));
+        assertEquals("no-cache", response.getHeaders().getCacheControl());
+        assertEquals(List.of("Emma"), response.getBody());
+    }
+
+    @Test
+    void deprecated_OnlyLinksTheSuccessorWhenTheListIsComplete() {
+        ResponseEntity<List<String>> response = DeprecatedLists.deprecated(ResponseEntity.ok(List.of("Emma")), PAGE,
+                null);
+
+        assertEquals("</api/books/v1/page>; rel=\"successor-version\"",
+                response.getHeaders().getFirst(HttpHeaders.LINK));
+    }
+}
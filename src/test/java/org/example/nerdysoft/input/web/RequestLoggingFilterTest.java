@@ -0,0 +1,72 @@
+package org.example.nerdysoft.input.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+/**
+ * Sends requests through the filter and inspects what it logged.
+ */
+class RequestLoggingFilterTest {
+
+    private final RequestLoggingFilter filter = new RequestLoggingFilter(2);
+    private final Logger logger = (Logger) LoggerFactory.getLogger(RequestLoggingFilter.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void samplesSuccessesPerEndpointAndAlwaysLogsErrors() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            send("/api/books/v1/{id}", 200);
+        }
+        send("/api/members/v1/{id}", 200);
+        send("/api/books/v1/{id}", 404);
+        send("/api/books/v1/{id}", 503);
+
+        assertEquals(List.of(Level.INFO, Level.INFO, Level.INFO, Level.INFO, Level.WARN, Level.ERROR),
+                appender.list.stream().map(ILoggingEvent::getLevel).toList());
+        assertEquals(Map.of("method", "GET", "uri", "/api/books/v1/{id}", "status", 404, "id", "42"),
+                fields(appender.list.get(4)));
+    }
+
+    private void send(String pattern, int status) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", pattern.replace("{id}", "42"));
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", "42"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(status);
+        filter.doFilter(request, response, new MockFilterChain());
+    }
+
+    private static Map<String, Object> fields(ILoggingEvent event) {
+        return event.getKeyValuePairs().stream()
+                .filter(pair -> !"durationMs".equals(pair.key))
+                .collect(Collectors.toMap(pair -> pair.key, pair -> pair.value));
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.nerdysoft.output.persistent.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Routes transactions between two in-memory databases that each know their own name.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private Replica replica;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writes;
+    private TransactionTemplate reads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        replica = new Replica("replica-0", node("replica"));
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(node("primary"), List.of(replica),
+                Duration.ofSeconds(1), meterRegistry);
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writes = new TransactionTemplate(transactionManager);
+        reads = new TransactionTemplate(transactionManager);
+        reads.setReadOnly(true);
+        replica.recordLag(Duration.ZERO);
+    }
+
+    @Test
+    void readOnlyTransactionsGoToFreshReplicaAndWritesToPrimary() {
+        assertEquals("replica", currentNode(reads));
+        assertEquals("primary", currentNode(writes));
+    }
+
+    @Test
+    void readOnlyTransactionsFallBackToPrimaryWhenReplicaLagsOrIsDown() {
+        replica.recordLag(Duration.ofSeconds(5));
+        assertEquals("primary", currentNode(reads));
+
+        replica.recordUnavailable();
+        assertEquals("primary", currentNode(reads));
+        assertEquals(2, meterRegistry.get("library.datasource.replica.fallbacks").counter().count());
+    }
+
+    @Test
+    void pinnedReadsGoToPrimaryUntilThePinIsClosed() {
+        try (PrimaryPin outer = ReplicaRoutingDataSource.pinToPrimary()) {
+            try (PrimaryPin inner = ReplicaRoutingDataSource.pinToPrimary()) {
+                assertEquals("primary", currentNode(reads));
+            }
+            assertEquals("primary", currentNode(reads));
+        }
+        assertEquals("replica", currentNode(reads));
+    }
+
+    private String currentNode(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node",
+                String.class));
+    }
+
+    private static DataSource node(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbcTemplate.update("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
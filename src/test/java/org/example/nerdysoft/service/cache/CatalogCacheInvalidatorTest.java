@@ -0,0 +1,112 @@
+package org.example.nerdysoft.service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import org.example.nerdysoft.constant.CacheConstants;
+import org.example.nerdysoft.model.dto.BookDetailedDto;
+import org.example.nerdysoft.model.dto.BookMainInfoDto;
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.dto.MemberDetailedDto;
+import org.example.nerdysoft.model.dto.MemberMainInfoDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class CatalogCacheInvalidatorTest {
+
+    private CatalogChanges changes;
+    private Cache booksCache;
+    private Cache membersCache;
+    private Cache memberBorrowedBooksCache;
+    private CatalogCacheInvalidator cacheInvalidator;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConstants.BOOKS_CACHE,
+                CacheConstants.MEMBERS_CACHE, CacheConstants.MEMBER_BORROWED_BOOKS_CACHE);
+        booksCache = cacheManager.getCache(CacheConstants.BOOKS_CACHE);
+        membersCache = cacheManager.getCache(CacheConstants.MEMBERS_CACHE);
+        memberBorrowedBooksCache = cacheManager.getCache(CacheConstants.MEMBER_BORROWED_BOOKS_CACHE);
+        changes = new CatalogChanges(Duration.ofMinutes(10));
+        cacheInvalidator = new CatalogCacheInvalidator(cacheManager, changes);
+
+        booksCache.put(1L, "book one");
+        booksCache.put(2L, "book two");
+        membersCache.put(1L, "borrower");
+        membersCache.put(2L, "returning member");
+        membersCache.put(3L, "unrelated member");
+        memberBorrowedBooksCache.put(1L, Set.of());
+        memberBorrowedBooksCache.put(2L, Set.of());
+        memberBorrowedBooksCache.put(3L, Set.of());
+    }
+
+    @Test
+    void evictLoans_EvictsBookAndMemberAndRecordsTheChangeForTheBorrowers() {
+        long stamp = changes.current();
+
+        cacheInvalidator.evictLoans(List.of(new BorrowRequestDto(2L, 1L)));
+
+        assertNull(booksCache.get(1L));
+        assertNull(membersCache.get(2L));
+        assertNull(memberBorrowedBooksCache.get(2L));
+        assertNotNull(booksCache.get(2L));
+        assertNotNull(membersCache.get(1L));
+        assertNotNull(memberBorrowedBooksCache.get(1L));
+        assertFalse(changes.unchangedSince(member(1L, 1L), stamp));
+        assertTrue(changes.unchangedSince(member(3L, 2L), stamp));
+    }
+
+    @Test
+    void evictMember_RecordsTheChangeOnlyAfterCommit() {
+        long stamp = changes.current();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cacheInvalidator.evictMember(1L);
+
+            assertTrue(changes.unchangedSince(book(2L, 1L), stamp));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(changes.unchangedSince(book(2L, 1L), stamp));
+        assertNull(membersCache.get(1L));
+        assertNull(memberBorrowedBooksCache.get(1L));
+        assertNotNull(memberBorrowedBooksCache.get(3L));
+    }
+
+    @Test
+    void evictAll_ClearsEveryCacheAndRecordsAChangeToEverything() {
+        long stamp = changes.current();
+
+        cacheInvalidator.evictAll();
+
+        assertNull(booksCache.get(2L));
+        assertNull(membersCache.get(3L));
+        assertNull(memberBorrowedBooksCache.get(3L));
+        assertFalse(changes.unchangedSince(member(3L, 2L), stamp));
+        assertTrue(changes.unchangedSince(member(3L, 2L), changes.current()));
+    }
+
+    private static BookDetailedDto book(Long id, Long borrowerId) {
+        return new BookDetailedDto(id, "Title", "Author Name", 1,
+                List.of(new MemberMainInfoDto(borrowerId, "Member", LocalDate.now())));
+    }
+
+    private static MemberDetailedDto member(Long id, Long bookId) {
+        return new MemberDetailedDto(id, "Member", LocalDate.now(),
+                List.of(new BookMainInfoDto(bookId, "Title", "Author Name", 1)));
+    }
+}
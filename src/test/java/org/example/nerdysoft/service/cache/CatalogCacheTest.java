@@ -0,0 +1,143 @@
+package org.example.nerdysoft.service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.example.nerdysoft.model.dto.BookMainInfoDto;
+import org.example.nerdysoft.model.dto.MemberDetailedDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+class CatalogCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private CatalogChanges changes;
+    private CatalogCache cache;
+
+    @BeforeEach
+    void setUp() {
+        changes = new CatalogChanges(TTL);
+        cache = new CatalogCache("members", Caffeine.newBuilder().build(), changes);
+    }
+
+    @Test
+    void get_LoadsOnceAndServesTheCachedValue() {
+        AtomicInteger loads = new AtomicInteger();
+        MemberDetailedDto member = member(7L);
+
+        cache.get(1L, () -> {
+            loads.incrementAndGet();
+            return member;
+        });
+
+        assertSame(member, cache.get(1L, () -> {
+            loads.incrementAndGet();
+            return member(7L);
+        }));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_ReloadsAnEntryWhoseBookChangedWhileItLoaded() {
+        cache.get(1L, () -> {
+            MemberDetailedDto member = member(7L);
+            changes.booksChanged(List.of(7L));
+            return member;
+        });
+        MemberDetailedDto current = member(7L);
+
+        assertNull(cache.get(1L));
+        assertSame(current, cache.get(1L, () -> current));
+        assertNotNull(cache.get(1L));
+    }
+
+    @Test
+    void get_StopsServingAnEntryOnceABookItShowsChanges() {
+        cache.get(1L, () -> member(7L));
+
+        changes.booksChanged(List.of(8L));
+        assertNotNull(cache.get(1L));
+        changes.booksChanged(List.of(7L));
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void put_IsNotServedOnceAnythingItShowsHasChanged() {
+        changes.membersChanged(List.of(1L));
+
+        cache.put(1L, member(7L));
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void prune_ForgetsChangesOlderThanTheTtlWithoutStalingNewerEntries() {
+        changes.booksChanged(List.of(7L));
+        changes.prune(0L);
+        cache.get(1L, () -> member(7L));
+
+        changes.prune(TTL.toNanos());
+
+        assertNotNull(cache.get(1L));
+        changes.booksChanged(List.of(7L));
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void prune_StalesEntriesLoadedBeforeTheForgottenChanges() {
+        cache.get(1L, () -> member(7L));
+        changes.booksChanged(List.of(8L));
+        changes.prune(0L);
+
+        changes.prune(TTL.toNanos() - 1);
+        assertNotNull(cache.get(1L));
+        changes.prune(TTL.toNanos());
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void evict_WaitsForALoadInProgressAndRemovesItsValue() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<?> load = executor.submit(() -> cache.get(1L, () -> {
+            loading.countDown();
+            release.await();
+            return member(7L);
+        }));
+        loading.await();
+
+        Future<?> eviction = executor.submit(() -> cache.evict(1L));
+        assertThrows(TimeoutException.class, () -> eviction.get(200, TimeUnit.MILLISECONDS));
+        release.countDown();
+        load.get(10, TimeUnit.SECONDS);
+        eviction.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertNull(cache.get(1L));
+        assertFalse(cache.getNativeCache().asMap().containsKey(1L));
+    }
+
+    private static MemberDetailedDto member(Long bookId) {
+        return new MemberDetailedDto(1L, "Member", LocalDate.now(),
+                List.of(new BookMainInfoDto(bookId, "Title", "Author Name", 1)));
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.nerdysoft.service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.example.nerdysoft.model.exception.BookNotFoundException;
+import org.example.nerdysoft.output.persistent.BookRepository;
+import org.example.nerdysoft.service.BookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogCacheWarmerTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BookService bookService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CatalogCacheWarmer warmer;
+
+    @BeforeEach
+    void setUp() {
+        warmer = new CatalogCacheWarmer(bookRepository, bookService, meterRegistry);
+        ReflectionTestUtils.setField(warmer, "books", 2);
+    }
+
+    @Test
+    void warmUp_LoadsMostBorrowedBooksThroughTheCachedService() {
+        when(bookRepository.findMostBorrowedIds(PageRequest.of(0, 2))).thenReturn(List.of(7L, 3L));
+
+        assertEquals(2, warmer.warmUp());
+
+        verify(bookService).getBookById(7L);
+        verify(bookService).getBookById(3L);
+        assertEquals(1, meterRegistry.timer("library.warmup.duration").count());
+    }
+
+    @Test
+    void warmUp_StopsWithoutFailingStartup() {
+        when(bookRepository.findMostBorrowedIds(any(Pageable.class))).thenReturn(List.of(7L, 3L));
+        when(bookService.getBookById(7L)).thenThrow(new BookNotFoundException("Book not found with id: 7"));
+
+        assertEquals(0, warmer.warmUp());
+    }
+}
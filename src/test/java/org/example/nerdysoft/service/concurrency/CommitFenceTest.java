@@ -0,0 +1,104 @@
+package org.example.nerdysoft.service.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.entity.LoanAction;
+import org.example.nerdysoft.output.persistent.BookRepository;
+import org.example.nerdysoft.service.history.LoansChangedEvent;
+import org.example.nerdysoft.service.inventory.BookAvailabilityIndex;
+import org.example.nerdysoft.service.inventory.InventoryChangedEvent;
+import org.example.nerdysoft.service.stats.BorrowCountChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListenerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs the after-completion callbacks of a borrow one at a time, in the order Spring sorts them, and lets a
+ * rebuild of the availability index try to close the fence between each of them.
+ */
+class CommitFenceTest {
+
+    private static final long BOOK_ID = 1L;
+    private static final long RACE_WAIT_MILLIS = 200;
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final CountDownLatch snapshotRead = new CountDownLatch(1);
+    private AnnotationConfigApplicationContext context;
+    private BookAvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(TransactionalEventListenerFactory.class);
+        context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        context.registerBean(PlatformTransactionManager.class, () -> mock(PlatformTransactionManager.class));
+        context.registerBean(BookRepository.class, () -> bookRepository);
+        context.registerBean(CommitFence.class, () -> new CommitFence(Duration.ofMillis(10)));
+        context.registerBean(BookAvailabilityIndex.class);
+        context.refresh();
+        index = context.getBean(BookAvailabilityIndex.class);
+
+        when(bookRepository.findAvailabilityAfterRaw(anyLong(), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(row(2, 0)));
+        index.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        context.close();
+    }
+
+    @Test
+    void rebuild_WaitsUntilEveryProjectionHasAppliedTheCommittedBorrow() throws Exception {
+        // the rebuild's snapshot already includes the borrow once the fence lets it through
+        when(bookRepository.findAvailabilityAfterRaw(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            snapshotRead.countDown();
+            return Collections.singletonList(row(1, 1));
+        });
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        BorrowRequestDto borrow = new BorrowRequestDto(7L, BOOK_ID);
+        context.publishEvent(BorrowCountChangedEvent.of("Emma", 1));
+        context.publishEvent(LoansChangedEvent.of(List.of(borrow), LoanAction.BORROW));
+        context.publishEvent(InventoryChangedEvent.of(BOOK_ID, -1));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+
+        CompletableFuture<Integer> rebuild = CompletableFuture.supplyAsync(index::rebuild);
+        for (TransactionSynchronization synchronization : synchronizations) {
+            snapshotRead.await(RACE_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clear();
+        rebuild.get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, index.getAvailableCopies(BOOK_ID));
+        assertEquals(1, index.getActiveBorrowers(BOOK_ID));
+    }
+
+    private static Object[] row(int amount, int borrowers) {
+        return new Object[] {BOOK_ID, amount, borrowers};
+    }
+}
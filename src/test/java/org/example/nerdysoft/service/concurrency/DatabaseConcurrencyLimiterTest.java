@@ -0,0 +1,66 @@
+package org.example.nerdysoft.service.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.example.nerdysoft.model.exception.DatabaseBusyException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DatabaseConcurrencyLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DatabaseConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new DatabaseConcurrencyLimiter(1, Duration.ofMillis(50), meterRegistry);
+    }
+
+    @Test
+    void limit_ReusesPermitForNestedCalls() throws Throwable {
+        ProceedingJoinPoint inner = mock(ProceedingJoinPoint.class);
+        when(inner.proceed()).thenReturn("inner");
+        ProceedingJoinPoint outer = mock(ProceedingJoinPoint.class);
+        when(outer.proceed()).thenAnswer(invocation -> limiter.limit(inner));
+
+        assertEquals("inner", limiter.limit(outer));
+    }
+
+    @Test
+    void limit_RejectsCallsWhenAllPermitsAreHeld() throws Throwable {
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ProceedingJoinPoint slowCall = mock(ProceedingJoinPoint.class);
+        when(slowCall.proceed()).thenAnswer(invocation -> {
+            holding.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+        CompletableFuture<Object> holder = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.limit(slowCall);
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        holding.await(5, TimeUnit.SECONDS);
+
+        assertThrows(DatabaseBusyException.class, () -> limiter.limit(mock(ProceedingJoinPoint.class)));
+        assertEquals(1, meterRegistry.get("library.db.permit.rejected").counter().count());
+
+        release.countDown();
+        assertTrue((Boolean) holder.get(5, TimeUnit.SECONDS));
+    }
+}
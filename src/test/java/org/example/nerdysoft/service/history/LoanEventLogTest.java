@@ -0,0 +1,62 @@
+package org.example.nerdysoft.service.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.entity.LoanAction;
+import org.example.nerdysoft.output.persistent.LoanJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class LoanEventLogTest {
+
+    @Mock
+    private LoanJdbcRepository loanJdbcRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void onLoansChanged_AppendsTheEventsInsideTheTransaction() {
+        LoanEventLog loanEventLog = new LoanEventLog(loanJdbcRepository, meterRegistry);
+        LoansChangedEvent event = loans(3);
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            loanEventLog.onLoansChanged(event);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        verify(loanJdbcRepository).appendLoanEvents(event.getEvents());
+        assertEquals(3, meterRegistry.get("library.loan.events.written").counter().count());
+    }
+
+    @Test
+    void onLoansChanged_SkipsEventsPublishedOutsideAJdbcTransaction() {
+        LoanEventLog loanEventLog = new LoanEventLog(loanJdbcRepository, meterRegistry);
+
+        loanEventLog.onLoansChanged(loans(2));
+
+        verifyNoInteractions(loanJdbcRepository);
+        assertEquals(0, meterRegistry.get("library.loan.events.written").counter().count());
+    }
+
+    private static LoansChangedEvent loans(int count) {
+        List<BorrowRequestDto> loans = new ArrayList<>();
+        for (long i = 1; i <= count; i++) {
+            loans.add(new BorrowRequestDto(i, i));
+        }
+        return LoansChangedEvent.of(loans, LoanAction.BORROW);
+    }
+}
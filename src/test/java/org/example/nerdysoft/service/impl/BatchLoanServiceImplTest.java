@@ -0,0 +1,167 @@
+package org.example.nerdysoft.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.example.nerdysoft.constant.MessageConstants;
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.dto.BorrowResultDto;
+import org.example.nerdysoft.model.entity.Book;
+import org.example.nerdysoft.model.entity.Member;
+import org.example.nerdysoft.model.exception.BatchSizeExceededException;
+import org.example.nerdysoft.output.persistent.BookRepository;
+import org.example.nerdysoft.output.persistent.HoldRepository;
+import org.example.nerdysoft.output.persistent.LoanJdbcRepository;
+import org.example.nerdysoft.output.persistent.MemberRepository;
+import org.example.nerdysoft.service.cache.CatalogCacheInvalidator;
+import org.example.nerdysoft.service.hold.HoldQueue;
+import org.example.nerdysoft.service.stats.BorrowCountChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class BatchLoanServiceImplTest {
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private LoanJdbcRepository loanJdbcRepository;
+
+    @Mock
+    private CatalogCacheInvalidator cacheInvalidator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private HoldRepository holdRepository;
+
+    @Mock
+    private HoldQueue holdQueue;
+
+    @InjectMocks
+    private BatchLoanServiceImpl batchLoanService;
+
+    private Member member;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(batchLoanService, "borrowLimit", 10);
+        ReflectionTestUtils.setField(batchLoanService, "loanPeriod", Duration.ofDays(14));
+        ReflectionTestUtils.setField(batchLoanService, "maxBatchSize", 3);
+
+        member = new Member();
+        member.setId(1L);
+        member.setName("Test Member");
+
+        book = new Book();
+        book.setId(1L);
+        book.setTitle("Test Book");
+        book.setAuthor("Test Author");
+        book.setAmount(1);
+    }
+
+    @Test
+    void borrowBooks_ReportsResultPerItem() {
+        when(memberRepository.findAllByIdInForUpdate(anyCollection())).thenReturn(List.of(member));
+        when(bookRepository.findAllByIdInForUpdate(anyCollection())).thenReturn(List.of(book));
+        when(memberRepository.findLoansRaw(anyCollection(), anyCollection())).thenReturn(Collections.emptyList());
+
+        List<BorrowResultDto> results = batchLoanService.borrowBooks(List.of(
+                new BorrowRequestDto(1L, 1L),
+                new BorrowRequestDto(1L, 1L),
+                new BorrowRequestDto(2L, 1L)));
+
+        assertTrue(results.get(0).isSuccess());
+        assertNull(results.get(0).getError());
+        assertEquals(MessageConstants.BOOK_NOT_AVAILABLE_MESSAGE, results.get(1).getError());
+        assertEquals(MessageConstants.MEMBER_NOT_FOUND_MESSAGE + 2L, results.get(2).getError());
+        verify(loanJdbcRepository).insertLoans(eq(List.of(new BorrowRequestDto(1L, 1L))), any(), any());
+        verify(loanJdbcRepository).adjustAmounts(Map.of(1L, -1));
+        verify(loanJdbcRepository).adjustActiveLoans(Map.of(1L, 1));
+        ArgumentCaptor<BorrowCountChangedEvent> event = ArgumentCaptor.forClass(BorrowCountChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(Map.of("Test Book", 1), event.getValue().getTitleDeltas());
+    }
+
+    @Test
+    void borrowBooks_RejectsMembersAtBorrowLimit() {
+        member.setActiveLoans(10);
+        when(memberRepository.findAllByIdInForUpdate(anyCollection())).thenReturn(List.of(member));
+        when(bookRepository.findAllByIdInForUpdate(anyCollection())).thenReturn(List.of(book));
+        when(memberRepository.findLoansRaw(anyCollection(), anyCollection())).thenReturn(Collections.emptyList());
+
+        List<BorrowResultDto> results = batchLoanService.borrowBooks(List.of(new BorrowRequestDto(1L, 1L)));
+
+        assertEquals(MessageConstants.BORROW_LIMIT_REACHED_MESSAGE, results.get(0).getError());
+        verify(loanJdbcRepository, never()).insertLoans(any(), any(), any());
+    }
+
+    @Test
+    void returnBooks_ReportsLoansRemovedConcurrently() {
+        Object[] loan = {1L, 1L};
+        Object[] otherLoan = {1L, 2L};
+        Object[] bookTitle = {1L, "Test Book"};
+        Object[] otherBookTitle = {2L, "Other Book"};
+        when(memberRepository.findAllByIdInForUpdate(anyCollection())).thenReturn(List.of(member));
+        when(bookRepository.findTitlesByIdInRaw(anyCollection())).thenReturn(List.of(bookTitle, otherBookTitle));
+        when(memberRepository.findLoansRaw(anyCollection(), anyCollection()))
+                .thenReturn(List.of(loan, otherLoan));
+        when(loanJdbcRepository.deleteLoans(any())).thenReturn(new int[]{1, 0});
+
+        List<BorrowResultDto> results = batchLoanService.returnBooks(List.of(
+                new BorrowRequestDto(1L, 1L),
+                new BorrowRequestDto(1L, 2L),
+                new BorrowRequestDto(1L, 3L)));
+
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals(MessageConstants.BOOK_NOT_BORROWED_BY_MEMBER_MESSAGE, results.get(1).getError());
+        assertEquals(MessageConstants.BOOK_NOT_FOUND_MESSAGE + 3L, results.get(2).getError());
+        InOrder locks = inOrder(memberRepository, loanJdbcRepository);
+        locks.verify(memberRepository).findAllByIdInForUpdate(Set.of(1L));
+        locks.verify(loanJdbcRepository).adjustAmounts(Map.of(1L, 1));
+        locks.verify(loanJdbcRepository).adjustActiveLoans(Map.of(1L, -1));
+        verify(holdQueue).handOffAll(List.of(1L));
+        ArgumentCaptor<BorrowCountChangedEvent> event = ArgumentCaptor.forClass(BorrowCountChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(Map.of("Test Book", -1), event.getValue().getTitleDeltas());
+    }
+
+    @Test
+    void borrowBooks_ThrowsBatchSizeExceededException() {
+        List<BorrowRequestDto> requests = Collections.nCopies(4, new BorrowRequestDto(1L, 1L));
+
+        assertThrows(BatchSizeExceededException.class, () -> batchLoanService.borrowBooks(requests));
+        verify(memberRepository, never()).findAllByIdInForUpdate(anyCollection());
+    }
+}
@@ -0,0 +1,164 @@
+package org.example.nerdysoft.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.example.nerdysoft.model.dto.BookDetailedDto;
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.entity.Book;
+import org.example.nerdysoft.model.entity.Member;
+import org.example.nerdysoft.model.exception.BookNotAvailableException;
+import org.example.nerdysoft.output.persistent.BookRepository;
+import org.example.nerdysoft.output.persistent.MemberRepository;
+import org.example.nerdysoft.service.BookService;
+import org.example.nerdysoft.service.inventory.BookAvailabilityIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs many concurrent borrowers of a single book through the real service and repositories against an
+ * in-memory H2 database in PostgreSQL mode, where the inventory is only changed through the conditional
+ * decrement.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:statements;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.liquibase.enabled=false",
+        "library.loans.overdue-sweep.interval=PT1H",
+        "library.loan-events.relay-interval=PT1H"
+})
+class BookServiceImplConcurrencyTest {
+
+    private static final int BORROWERS = 250;
+    private static final int COPIES = 40;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BookAvailabilityIndex availabilityIndex;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM holds");
+        jdbcTemplate.update("DELETE FROM member_books");
+        bookRepository.deleteAllInBatch();
+        memberRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void borrowBook_NeverOversellsUnderConcurrentBorrowers() throws Exception {
+        Book book = new Book();
+        book.setTitle("Test Book");
+        book.setAuthor("Test Author");
+        book.setAmount(COPIES);
+        Long bookId = bookRepository.save(book).getId();
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < BORROWERS; i++) {
+            Member member = new Member();
+            member.setName("Member " + i);
+            member.setMembershipDate(LocalDate.now());
+            members.add(member);
+        }
+        memberRepository.saveAll(members);
+        double conflictsBefore = meterRegistry.get("library.borrow.conflicts").counter().count();
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(BORROWERS);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (Member member : members) {
+            BorrowRequestDto request = new BorrowRequestDto(member.getId(), bookId);
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    bookService.borrowBook(request);
+                    return true;
+                } catch (BookNotAvailableException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int borrowed = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(60, TimeUnit.SECONDS)) {
+                borrowed++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(COPIES, borrowed);
+        assertEquals(0, bookRepository.findById(bookId).orElseThrow().getAmount());
+        assertEquals(COPIES, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM member_books WHERE book_id = ?",
+                Integer.class, bookId));
+        assertEquals(COPIES, jdbcTemplate.queryForObject("SELECT SUM(active_loans) FROM members",
+                Integer.class));
+        assertEquals(BORROWERS - COPIES,
+                meterRegistry.get("library.borrow.conflicts").counter().count() - conflictsBefore);
+    }
+
+    @Test
+    void updateBook_CountsAddedCopiesFromTheAmountLeftByAConcurrentBorrow() throws Exception {
+        Book book = new Book();
+        book.setTitle("Test Book");
+        book.setAuthor("Test Author");
+        book.setAmount(1);
+        Long bookId = bookRepository.save(book).getId();
+        Member member = new Member();
+        member.setName("Member");
+        member.setMembershipDate(LocalDate.now());
+        Long memberId = memberRepository.save(member).getId();
+        availabilityIndex.rebuild();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // the borrow keeps the book locked until it commits, so the update reads the amount it left
+        Future<?> update = transactionTemplate.execute(status -> {
+            bookService.borrowBook(new BorrowRequestDto(memberId, bookId));
+            Future<?> pending = executor.submit(() -> bookService.updateBook(bookId,
+                    new BookDetailedDto(null, "Test Book", "Test Author", 3, null)));
+            assertThrows(TimeoutException.class, () -> pending.get(500, TimeUnit.MILLISECONDS));
+            return pending;
+        });
+        update.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertEquals(3, bookRepository.findById(bookId).orElseThrow().getAmount());
+        assertEquals(3, availabilityIndex.getAvailableCopies(bookId));
+    }
+}
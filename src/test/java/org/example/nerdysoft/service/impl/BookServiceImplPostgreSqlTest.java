@@ -0,0 +1,79 @@
+package org.example.nerdysoft.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.example.nerdysoft.model.dto.BookDetailedDto;
+import org.example.nerdysoft.model.entity.Book;
+import org.example.nerdysoft.output.persistent.BookRepository;
+import org.example.nerdysoft.service.BookService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Runs many concurrent saves of the same book against PostgreSQL with the Liquibase schema, so that the
+ * {@code INSERT ... ON CONFLICT ... RETURNING} upsert and the unique {@code (title, author)} constraint are
+ * the real ones. H2 cannot run the upsert. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.liquibase.enabled=true",
+        "library.loans.overdue-sweep.interval=PT1H",
+        "library.loan-events.relay-interval=PT1H"
+})
+class BookServiceImplPostgreSqlTest {
+
+    private static final int SAVES = 250;
+
+    @Container
+    @ServiceConnection
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void saveBook_NeverCreatesDuplicatesUnderConcurrentSaves() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(SAVES);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < SAVES; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return bookService.saveBook(new BookDetailedDto(null, "Emma", "Jane Austen", 2, null));
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        List<Book> books = bookRepository.findAll().stream()
+                .filter(book -> "Emma".equals(book.getTitle()))
+                .toList();
+        assertEquals(1, books.size());
+        assertEquals(SAVES * 2, books.get(0).getAmount());
+    }
+}
@@ -1,37 +1,74 @@
 package org.example.nerdysoft.service.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import org.example.nerdysoft.constant.CacheConstants;
 import org.example.nerdysoft.constant.MessageConstants;
+import org.example.nerdysoft.model.dto.BookAvailabilityDto;
 import org.example.nerdysoft.model.dto.BookDetailedDto;
+import org.example.nerdysoft.model.dto.BookMainInfoDto;
 import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.dto.CursorPageDto;
 import org.example.nerdysoft.model.entity.Book;
 import org.example.nerdysoft.model.entity.Member;
+import org.example.nerdysoft.model.exception.BatchSizeExceededException;
+import org.example.nerdysoft.model.exception.BookAlreadyBorrowedException;
+import org.example.nerdysoft.model.exception.BookAlreadyExistsException;
 import org.example.nerdysoft.model.exception.BookNotAvailableException;
 import org.example.nerdysoft.model.exception.BookNotFoundException;
 import org.example.nerdysoft.model.exception.BookNotReturnedException;
 import org.example.nerdysoft.model.exception.BorrowLimitExceededException;
+import org.example.nerdysoft.model.exception.InvalidCursorException;
+import org.example.nerdysoft.model.exception.MemberNotFoundException;
 import org.example.nerdysoft.output.persistent.BookRepository;
 import org.example.nerdysoft.output.persistent.MemberRepository;
+import org.example.nerdysoft.service.cache.CatalogCacheInvalidator;
+import org.example.nerdysoft.service.hold.HoldQueue;
+import org.example.nerdysoft.service.inventory.BookAvailabilityIndex;
+import org.example.nerdysoft.service.inventory.BookDeletedEvent;
+import org.example.nerdysoft.service.inventory.InventoryChangedEvent;
 import org.example.nerdysoft.service.mapper.BookMapper;
+import org.example.nerdysoft.service.metrics.BorrowMetrics;
+import org.example.nerdysoft.service.stats.BorrowCountChangedEvent;
+import org.example.nerdysoft.service.stats.BorrowStatistics;
+import org.example.nerdysoft.service.util.CursorCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class BookServiceImplTest {
@@ -45,6 +82,24 @@ class BookServiceImplTest {
     @Mock
     private BookMapper bookMapper;
 
+    @Mock
+    private CatalogCacheInvalidator cacheInvalidator;
+
+    @Mock
+    private BorrowStatistics borrowStatistics;
+
+    @Mock
+    private BookAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private HoldQueue holdQueue;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private BookServiceImpl bookService;
 
@@ -63,6 +118,7 @@ class BookServiceImplTest {
         book.setTitle("Test Book");
         book.setAuthor("Test Author");
         book.setAmount(10);
+        book.setVersion(4L);
         book.setBorrowers(new HashSet<>());
 
         member = new Member();
@@ -71,6 +127,7 @@ class BookServiceImplTest {
         member.setBorrowedBooks(new HashSet<>());
 
         bookDetailedDto = new BookDetailedDto();
+        bookDetailedDto.setId(1L);
         bookDetailedDto.setTitle("Test Book");
         bookDetailedDto.setAuthor("Test Author");
         bookDetailedDto.setAmount(10);
@@ -79,22 +136,90 @@ class BookServiceImplTest {
         borrowRequestDto.setBookId(1L);
         borrowRequestDto.setMemberId(1L);
 
-        bookService = new BookServiceImpl(bookRepository, memberRepository, bookMapper);
+        bookService = new BookServiceImpl(bookRepository, memberRepository, bookMapper,
+                new BorrowMetrics(new SimpleMeterRegistry()), cacheInvalidator, borrowStatistics, availabilityIndex,
+                eventPublisher, holdQueue, transactionManager,
+                new ConcurrentMapCacheManager(CacheConstants.MEMBER_BORROWED_BOOKS_CACHE));
+        ReflectionTestUtils.setField(bookService, "borrowLimit", 10);
+        ReflectionTestUtils.setField(bookService, "loanPeriod", Duration.ofDays(14));
+        ReflectionTestUtils.setField(bookService, "maxPageSize", 2);
+        ReflectionTestUtils.setField(bookService, "streamChunkSize", 2);
+        ReflectionTestUtils.setField(bookService, "maxBatchSize", 3);
     }
 
     @Test
     void getAllBooks() {
-        when(bookRepository.findAllWithBorrowers()).thenReturn(Collections.singletonList(book));
+        when(bookRepository.findPageAfter(eq(0L), any(Pageable.class))).thenReturn(Collections.singletonList(book));
         when(bookMapper.toDto(book)).thenReturn(bookDetailedDto);
 
         List<BookDetailedDto> books = bookService.getAllBooks();
 
         assertNotNull(books);
         assertEquals(1, books.size());
-        verify(bookRepository, times(1)).findAllWithBorrowers();
+        verify(bookRepository, times(1)).findPageAfter(eq(0L), any(Pageable.class));
         verify(bookMapper, times(1)).toDto(book);
     }
 
+    @Test
+    void getBooksPage_ReturnsNextCursorWhenPageIsFull() {
+        when(bookRepository.findPageAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(book));
+        when(bookMapper.toDto(book)).thenReturn(bookDetailedDto);
+
+        CursorPageDto<BookDetailedDto> page = bookService.getBooksPage(null, 1);
+
+        assertEquals(List.of(bookDetailedDto), page.getContent());
+        assertEquals(CursorCodec.encode(1L), page.getNext());
+    }
+
+    @Test
+    void getBooksPage_LastPageHasNoCursor() {
+        when(bookRepository.findPageAfter(eq(1L), any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        CursorPageDto<BookDetailedDto> page = bookService.getBooksPage(CursorCodec.encode(1L), 100);
+
+        assertEquals(0, page.getContent().size());
+        assertNull(page.getNext());
+        verify(bookMapper, never()).toDto(any(Book.class));
+    }
+
+    @Test
+    void getBooksPage_ThrowsInvalidCursorException() {
+        assertThrows(InvalidCursorException.class, () -> bookService.getBooksPage("not-a-cursor", 10));
+    }
+
+    @Test
+    void getBookSummariesPage_ReadsProjectionWithoutMapping() {
+        BookMainInfoDto summary = new BookMainInfoDto(1L, "Test Book", "Test Author", 10);
+        when(bookRepository.findSummariesAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(summary));
+
+        CursorPageDto<BookMainInfoDto> page = bookService.getBookSummariesPage(null, 1);
+
+        assertEquals(List.of(summary), page.getContent());
+        assertEquals(CursorCodec.encode(1L), page.getNext());
+        verify(bookMapper, never()).toMainInfoDto(any());
+    }
+
+    @Test
+    void streamAllBooks_LoadsChunksUntilExhausted() {
+        Book second = new Book();
+        second.setId(2L);
+        Book third = new Book();
+        third.setId(3L);
+        when(bookRepository.findPageAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(book, second));
+        when(bookRepository.findPageAfter(eq(2L), any(Pageable.class))).thenReturn(List.of(third));
+        when(bookMapper.toDto(any(Book.class))).thenAnswer(invocation -> {
+            BookDetailedDto dto = new BookDetailedDto();
+            dto.setId(invocation.<Book>getArgument(0).getId());
+            return dto;
+        });
+
+        List<BookDetailedDto> streamed = new ArrayList<>();
+        bookService.streamAllBooks(streamed::add);
+
+        assertEquals(3, streamed.size());
+        verify(bookRepository, times(2)).findPageAfter(any(), any(Pageable.class));
+    }
+
     @Test
     void getBookById() {
         when(bookRepository.findByIdWithBorrowers(1L)).thenReturn(Optional.of(book));
@@ -117,46 +242,52 @@ class BookServiceImplTest {
     }
 
     @Test
-    void saveBook_NewBook() {
-        when(bookRepository.findByNameAndAuthor("Test Book", "Test Author")).thenReturn(null);
-        when(bookMapper.toEntity(bookDetailedDto)).thenReturn(book);
-        when(bookRepository.save(book)).thenReturn(book);
+    void saveBook_UpsertsAmountByTitleAndAuthor() {
+        when(bookRepository.upsertAmount("Test Book", "Test Author", 10)).thenReturn(book);
         when(bookMapper.toDto(book)).thenReturn(bookDetailedDto);
 
         BookDetailedDto result = bookService.saveBook(bookDetailedDto);
 
-        assertNotNull(result);
         assertEquals(bookDetailedDto, result);
-        verify(bookRepository, times(1)).findByNameAndAuthor("Test Book", "Test Author");
-        verify(bookRepository, times(1)).save(book);
+        verify(cacheInvalidator, times(1)).evictBook(1L);
+        verify(bookRepository, never()).save(any());
     }
 
     @Test
-    void saveBook_ExistingBook() {
-        Book existingBook = new Book();
-        existingBook.setId(1L);
-        existingBook.setTitle("Test Book");
-        existingBook.setAuthor("Test Author");
-        existingBook.setAmount(5);
-        existingBook.setBorrowers(new HashSet<>());
-
-        when(bookRepository.findByNameAndAuthor("Test Book", "Test Author")).thenReturn(existingBook);
-        when(bookMapper.toEntity(bookDetailedDto)).thenReturn(existingBook); // Convert DTO to entity
-        when(bookRepository.save(existingBook)).thenReturn(existingBook);
-        when(bookMapper.toDto(existingBook)).thenReturn(bookDetailedDto); // Convert entity back to DTO
+    void saveBook_HandsAddedCopiesToWaitingMembers() {
+        when(bookRepository.upsertAmount("Test Book", "Test Author", 10)).thenReturn(book);
+        when(holdQueue.handOff(1L, 10)).thenReturn(2);
+        when(bookMapper.toDto(book)).thenReturn(bookDetailedDto);
+        when(bookRepository.findVersionsRaw(1L)).thenReturn(List.<Object[]>of(new Object[] {6L, 2L}));
 
         BookDetailedDto result = bookService.saveBook(bookDetailedDto);
 
-        assertNotNull(result);
-        assertEquals(bookDetailedDto, result);
-        assertEquals(10, existingBook.getAmount());
-        verify(bookRepository, times(1)).findByNameAndAuthor("Test Book", "Test Author");
-        verify(bookRepository, times(1)).save(existingBook);
+        assertEquals(8, result.getAmount());
+        assertEquals("6-2", result.getVersion());
+    }
+
+    @Test
+    void searchBooks_BuildsPrefixQueryAndCapsLimit() {
+        BookMainInfoDto mainInfoDto = new BookMainInfoDto(1L, "Test Book", "Test Author", 10);
+        when(bookRepository.search("test:* & auth:*", 2)).thenReturn(List.of(book));
+        when(bookMapper.toMainInfoDto(book)).thenReturn(mainInfoDto);
+
+        List<BookMainInfoDto> result = bookService.searchBooks(" Test, AUTH'); ", 100);
+
+        assertEquals(List.of(mainInfoDto), result);
+    }
+
+    @Test
+    void searchBooks_ReturnsEmptyListForQueryWithoutWords() {
+        List<BookMainInfoDto> result = bookService.searchBooks(" &|:* ", 10);
+
+        assertEquals(Collections.emptyList(), result);
+        verify(bookRepository, never()).search(any(), eq(10));
     }
 
     @Test
     void updateBook() {
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(book));
         when(bookRepository.save(book)).thenReturn(book);
         when(bookMapper.toDto(book)).thenReturn(bookDetailedDto);
 
@@ -164,98 +295,283 @@ class BookServiceImplTest {
 
         assertNotNull(result);
         assertEquals(bookDetailedDto, result);
-        verify(bookRepository, times(1)).findById(1L);
+        verify(bookRepository, times(1)).findByIdForUpdate(1L);
         verify(bookRepository, times(1)).save(book);
+        verify(cacheInvalidator, times(1)).evictBook(1L);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void updateBook_MovesBorrowCountsToNewTitle() {
+        book.getBorrowers().add(member);
+        bookDetailedDto.setTitle("Renamed Book");
+        when(bookRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.save(book)).thenReturn(book);
+        ArgumentCaptor<BorrowCountChangedEvent> event = ArgumentCaptor.forClass(BorrowCountChangedEvent.class);
+
+        bookService.updateBook(1L, bookDetailedDto);
+
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(Map.of("Test Book", -1, "Renamed Book", 1), event.getValue().getTitleDeltas());
+    }
+
+    @Test
+    void updateBook_HandsAddedCopiesToWaitingMembers() {
+        bookDetailedDto.setAmount(12);
+        when(bookRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.save(book)).thenReturn(book);
+        when(bookMapper.toDto(book)).thenReturn(bookDetailedDto);
+        when(holdQueue.handOff(1L, 2)).thenReturn(1);
+        when(bookRepository.findVersionsRaw(1L)).thenReturn(List.<Object[]>of(new Object[] {6L, 1L}));
+
+        BookDetailedDto result = bookService.updateBook(1L, bookDetailedDto);
+
+        assertEquals(11, result.getAmount());
+        assertEquals("6-1", result.getVersion());
+        verify(bookRepository, times(1)).flush();
+        verify(eventPublisher, times(1)).publishEvent(any(InventoryChangedEvent.class));
+    }
+
+    @Test
+    void updateBook_ThrowsBookAlreadyExistsException() {
+        bookDetailedDto.setTitle("Other Book");
+        when(bookRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.existsByTitleAndAuthorAndIdNot("Other Book", "Test Author", 1L)).thenReturn(true);
+
+        assertThrows(BookAlreadyExistsException.class, () -> bookService.updateBook(1L, bookDetailedDto));
+
+        verify(bookRepository, never()).save(any());
     }
 
     @Test
     void updateBook_ThrowsBookNotFoundException() {
-        when(bookRepository.findById(1L)).thenReturn(Optional.empty());
+        when(bookRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
 
         BookNotFoundException exception = assertThrows(BookNotFoundException.class, () ->
                 bookService.updateBook(1L, bookDetailedDto));
 
         assertEquals(MessageConstants.BOOK_NOT_FOUND_MESSAGE + 1L, exception.getMessage());
-        verify(bookRepository, times(1)).findById(1L);
+        verify(bookRepository, never()).save(any());
     }
 
     @Test
     void deleteBook() {
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.countBorrowersById(1L)).thenReturn(Optional.of(0));
 
         bookService.deleteBook(1L);
 
-        verify(bookRepository, times(1)).findById(1L);
-        verify(bookRepository, times(1)).deleteById(1L);
+        verify(cacheInvalidator, times(1)).evictBook(1L);
+        verify(bookRepository, times(1)).deleteDirectlyById(1L);
+        verify(eventPublisher, times(1)).publishEvent(any(BookDeletedEvent.class));
     }
 
     @Test
     void deleteBook_ThrowsBookNotFoundException() {
-        when(bookRepository.findById(1L)).thenReturn(Optional.empty());
+        when(bookRepository.countBorrowersById(1L)).thenReturn(Optional.empty());
 
         BookNotFoundException exception = assertThrows(BookNotFoundException.class, () -> bookService.deleteBook(1L));
 
         assertEquals(MessageConstants.BOOK_NOT_FOUND_MESSAGE + 1L, exception.getMessage());
-        verify(bookRepository, times(1)).findById(1L);
+        verify(bookRepository, never()).deleteDirectlyById(any());
     }
 
     @Test
     void deleteBook_ThrowsBookNotReturnedException() {
-        book.getBorrowers().add(member);
-
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.countBorrowersById(1L)).thenReturn(Optional.of(1));
 
         BookNotReturnedException exception = assertThrows(BookNotReturnedException.class, () ->
                 bookService.deleteBook(1L));
 
         assertEquals(MessageConstants.BOOK_NOT_RETURNED_MESSAGE, exception.getMessage());
-        verify(bookRepository, times(1)).findById(1L);
+        verify(bookRepository, never()).deleteDirectlyById(any());
     }
 
     @Test
-    void borrowBook_ThrowsBookNotAvailableException() {
-        book.setAmount(0);
+    void borrowBook() {
+        when(memberRepository.takeLoanIfBelowLimit(1L, 10)).thenReturn(1);
+        when(bookRepository.decrementAmountIfAvailable(1L)).thenReturn(1);
+        when(memberRepository.insertBorrowedBook(eq(1L), eq(1L), any(), any())).thenReturn(1);
+        when(bookRepository.findTitleById(1L)).thenReturn("Test Book");
+
+        bookService.borrowBook(borrowRequestDto);
+
+        verify(bookRepository, times(1)).decrementAmountIfAvailable(1L);
+        ArgumentCaptor<Instant> borrowedAt = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> dueAt = ArgumentCaptor.forClass(Instant.class);
+        verify(memberRepository, times(1)).insertBorrowedBook(eq(1L), eq(1L), borrowedAt.capture(), dueAt.capture());
+        assertEquals(Duration.ofDays(14), Duration.between(borrowedAt.getValue(), dueAt.getValue()));
+        verify(eventPublisher, times(1)).publishEvent(any(BorrowCountChangedEvent.class));
+    }
 
-        when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+    @Test
+    void borrowBook_ThrowsBookNotAvailableException() {
+        when(memberRepository.takeLoanIfBelowLimit(1L, 10)).thenReturn(1);
+        when(bookRepository.decrementAmountIfAvailable(1L)).thenReturn(0);
+        when(bookRepository.existsById(1L)).thenReturn(true);
 
         BookNotAvailableException exception = assertThrows(BookNotAvailableException.class, () ->
                 bookService.borrowBook(borrowRequestDto));
 
         assertEquals(MessageConstants.BOOK_NOT_AVAILABLE_MESSAGE, exception.getMessage());
-        verify(bookRepository, times(0)).save(book);
-        verify(memberRepository, times(0)).save(member);
+        verify(memberRepository, never()).insertBorrowedBook(any(), any(), any(), any());
     }
 
     @Test
-    void borrowBook_ThrowsBorrowLimitExceededException() {
-        member.getBorrowedBooks().addAll(Collections.nCopies(10, book));
+    void borrowBook_ThrowsBookNotFoundException() {
+        when(memberRepository.takeLoanIfBelowLimit(1L, 10)).thenReturn(1);
+        when(bookRepository.decrementAmountIfAvailable(1L)).thenReturn(0);
+        when(bookRepository.existsById(1L)).thenReturn(false);
 
-        when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        assertThrows(BookNotFoundException.class, () -> bookService.borrowBook(borrowRequestDto));
+        verify(memberRepository, never()).insertBorrowedBook(any(), any(), any(), any());
+    }
+
+    @Test
+    void borrowBook_ThrowsBorrowLimitExceededException() {
+        when(memberRepository.takeLoanIfBelowLimit(1L, 10)).thenReturn(0);
+        when(memberRepository.existsById(1L)).thenReturn(true);
 
         BorrowLimitExceededException exception = assertThrows(BorrowLimitExceededException.class, () ->
                 bookService.borrowBook(borrowRequestDto));
 
         assertEquals(MessageConstants.BORROW_LIMIT_REACHED_MESSAGE, exception.getMessage());
-        verify(bookRepository, times(0)).save(book);
-        verify(memberRepository, times(0)).save(member);
+        verify(bookRepository, never()).decrementAmountIfAvailable(any());
+        verify(memberRepository, never()).insertBorrowedBook(any(), any(), any(), any());
     }
 
     @Test
-    void returnBook() {
+    void borrowBook_ThrowsBookAlreadyBorrowedException() {
+        when(memberRepository.takeLoanIfBelowLimit(1L, 10)).thenReturn(1);
+        when(bookRepository.decrementAmountIfAvailable(1L)).thenReturn(1);
+        when(memberRepository.insertBorrowedBook(eq(1L), eq(1L), any(), any())).thenReturn(0);
+
+        assertThrows(BookAlreadyBorrowedException.class, () -> bookService.borrowBook(borrowRequestDto));
+    }
+
+    @Test
+    void getBooksBorrowedByMember_CachesTheBooksByMemberId() {
+        BookMainInfoDto mainInfoDto = new BookMainInfoDto(1L, "Test Book", "Test Author", 10);
         member.getBorrowedBooks().add(book);
+        when(memberRepository.findIdByName("Test Member")).thenReturn(Optional.of(1L));
+        when(memberRepository.findByIdWithBorrowedBooks(1L)).thenReturn(Optional.of(member));
+        when(bookMapper.toMainInfoDto(book)).thenReturn(mainInfoDto);
 
-        when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
-        when(bookRepository.save(book)).thenReturn(book);
-        when(memberRepository.save(member)).thenReturn(member);
+        assertEquals(Set.of(mainInfoDto), bookService.getBooksBorrowedByMember("Test Member"));
+        assertEquals(Set.of(mainInfoDto), bookService.getBooksBorrowedByMember("Test Member"));
+
+        verify(memberRepository, times(2)).findIdByName("Test Member");
+        verify(memberRepository, times(1)).findByIdWithBorrowedBooks(1L);
+    }
+
+    @Test
+    void getBooksBorrowedByMember_ThrowsMemberNotFoundException() {
+        when(memberRepository.findIdByName("Nobody")).thenReturn(Optional.empty());
+
+        var exception = assertThrows(MemberNotFoundException.class,
+                () -> bookService.getBooksBorrowedByMember("Nobody"));
+
+        assertEquals(MessageConstants.MEMBER_NOT_FOUND_BY_NAME_MESSAGE + "Nobody", exception.getMessage());
+        verify(memberRepository, never()).findByIdWithBorrowedBooks(any());
+    }
+
+    @Test
+    void getDistinctBorrowedBookNamesWithAmount() {
+        when(borrowStatistics.getBorrowCounts()).thenReturn(Map.of("Test Book", 2L));
+
+        Map<String, Long> result = bookService.getDistinctBorrowedBookNamesWithAmount();
+
+        assertEquals(Map.of("Test Book", 2L), result);
+        verify(bookRepository, never()).findDistinctBorrowedBookNamesWithAmountRaw();
+    }
+
+    @Test
+    void getBookAvailability_ReadsTheIndex() {
+        stubAvailability(new int[] {0}, new int[] {2});
+
+        assertEquals(new BookAvailabilityDto(1L, 0, 2, false), bookService.getBookAvailability(1L));
+        verify(bookRepository, never()).findById(any());
+    }
+
+    @Test
+    void getBookAvailability_ThrowsBookNotFoundException() {
+        when(availabilityIndex.lookup(any(long[].class), any(int[].class), any(int[].class))).thenReturn(0);
+
+        BookNotFoundException exception = assertThrows(BookNotFoundException.class, () ->
+                bookService.getBookAvailability(1L));
+
+        assertEquals(MessageConstants.BOOK_NOT_FOUND_MESSAGE + 1L, exception.getMessage());
+    }
+
+    @Test
+    void getBooksAvailability_LeavesOutUnknownBooks() {
+        stubAvailability(new int[] {3, BookAvailabilityIndex.UNKNOWN}, new int[] {1, BookAvailabilityIndex.UNKNOWN});
+
+        List<BookAvailabilityDto> result = bookService.getBooksAvailability(List.of(2L, 9L));
+
+        assertEquals(List.of(new BookAvailabilityDto(2L, 3, 1, true)), result);
+    }
+
+    @Test
+    void getBooksAvailability_ThrowsBatchSizeExceededException() {
+        BatchSizeExceededException exception = assertThrows(BatchSizeExceededException.class, () ->
+                bookService.getBooksAvailability(List.of(1L, 2L, 3L, 4L)));
+
+        assertEquals(MessageConstants.BATCH_SIZE_EXCEEDED_MESSAGE + 3, exception.getMessage());
+    }
+
+    @Test
+    void returnBook() {
+        when(memberRepository.releaseLoanIfTaken(1L)).thenReturn(1);
+        when(memberRepository.deleteBorrowedBook(1L, 1L)).thenReturn(1);
+        when(bookRepository.findTitleById(1L)).thenReturn("Test Book");
 
         bookService.returnBook(borrowRequestDto);
 
-        assertEquals(11, book.getAmount());
-        assertFalse(member.getBorrowedBooks().contains(book));
-        verify(bookRepository, times(1)).save(book);
-        verify(memberRepository, times(1)).save(member);
+        verify(bookRepository, times(1)).incrementAmount(1L);
+        InOrder locks = inOrder(memberRepository, bookRepository);
+        locks.verify(memberRepository).releaseLoanIfTaken(1L);
+        locks.verify(memberRepository).deleteBorrowedBook(1L, 1L);
+        locks.verify(bookRepository).incrementAmount(1L);
+        verify(holdQueue, times(1)).handOff(1L);
+        verify(cacheInvalidator, times(1)).evictLoans(List.of(borrowRequestDto));
+    }
+
+    @Test
+    void returnBook_LocksWaitingMemberBeforeTheBook() {
+        when(holdQueue.findNextWaiters(List.of(1L))).thenReturn(List.of(2L));
+        when(memberRepository.releaseLoanIfTaken(1L)).thenReturn(1);
+        when(memberRepository.deleteBorrowedBook(1L, 1L)).thenReturn(1);
+        when(bookRepository.findTitleById(1L)).thenReturn("Test Book");
+
+        bookService.returnBook(borrowRequestDto);
+
+        InOrder locks = inOrder(memberRepository, bookRepository, holdQueue);
+        locks.verify(memberRepository).findAllByIdInForUpdate(List.of(2L, 1L));
+        locks.verify(memberRepository).releaseLoanIfTaken(1L);
+        locks.verify(bookRepository).incrementAmount(1L);
+        locks.verify(holdQueue).handOff(1L);
+    }
+
+    @Test
+    void returnBook_ThrowsBookNotReturnedException() {
+        when(memberRepository.releaseLoanIfTaken(1L)).thenReturn(1);
+        when(memberRepository.deleteBorrowedBook(1L, 1L)).thenReturn(0);
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
+        when(bookRepository.existsById(1L)).thenReturn(true);
+
+        BookNotReturnedException exception = assertThrows(BookNotReturnedException.class, () ->
+                bookService.returnBook(borrowRequestDto));
+
+        assertEquals(MessageConstants.BOOK_NOT_BORROWED_BY_MEMBER_MESSAGE + " Test Member", exception.getMessage());
+        verify(bookRepository, never()).incrementAmount(any());
+        verify(holdQueue, never()).handOff(any());
+    }
+
+    private void stubAvailability(int[] available, int[] borrowers) {
+        when(availabilityIndex.lookup(any(long[].class), any(int[].class), any(int[].class))).thenAnswer(invocation -> {
+            System.arraycopy(available, 0, invocation.getArgument(1), 0, available.length);
+            System.arraycopy(borrowers, 0, invocation.getArgument(2), 0, borrowers.length);
+            return (int) Arrays.stream(available).filter(copies -> copies != BookAvailabilityIndex.UNKNOWN).count();
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,72 @@
+package org.example.nerdysoft.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.example.nerdysoft.model.dto.CatalogImportResultDto;
+import org.example.nerdysoft.model.entity.Book;
+import org.example.nerdysoft.output.persistent.BookRepository;
+import org.example.nerdysoft.service.CatalogService;
+import org.example.nerdysoft.service.catalog.CatalogFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Runs a catalog import against PostgreSQL with the Liquibase schema, where rows are staged with {@code COPY}
+ * and merged with {@code INSERT ... ON CONFLICT DO UPDATE}. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.liquibase.enabled=true",
+        "library.loans.overdue-sweep.interval=PT1H",
+        "library.loan-events.relay-interval=PT1H"
+})
+class CatalogServiceImplPostgreSqlTest {
+
+    @Container
+    @ServiceConnection
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void importBooks_UpsertsMergedRowsIntoBooks() {
+        Book existing = new Book();
+        existing.setTitle("Emma");
+        existing.setAuthor("Jane Austen");
+        existing.setAmount(2);
+        Long existingId = bookRepository.save(existing).getId();
+
+        CatalogImportResultDto result = catalogService.importBooks(new ByteArrayInputStream("""
+                title,author,amount
+                Emma,Jane Austen,3
+                Dracula,Bram Stoker,1
+                "Dracula","Bram Stoker",4
+                """.getBytes(StandardCharsets.UTF_8)), CatalogFormat.CSV);
+
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getUpdated());
+        assertEquals(Map.of("Emma", 5, "Dracula", 5), bookRepository.findAll().stream()
+                .collect(Collectors.toMap(Book::getTitle, Book::getAmount)));
+        assertEquals(1L, bookRepository.findById(existingId).orElseThrow().getVersion());
+    }
+}
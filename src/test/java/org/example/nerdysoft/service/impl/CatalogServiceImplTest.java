@@ -0,0 +1,161 @@
+package org.example.nerdysoft.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.dto.CatalogImportErrorDto;
+import org.example.nerdysoft.model.dto.CatalogImportResultDto;
+import org.example.nerdysoft.model.entity.Book;
+import org.example.nerdysoft.model.entity.HoldStatus;
+import org.example.nerdysoft.model.entity.Member;
+import org.example.nerdysoft.model.exception.InvalidCatalogFileException;
+import org.example.nerdysoft.output.persistent.BookRepository;
+import org.example.nerdysoft.output.persistent.MemberRepository;
+import org.example.nerdysoft.service.CatalogService;
+import org.example.nerdysoft.service.HoldService;
+import org.example.nerdysoft.service.catalog.CatalogFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Runs catalog imports and exports against an in-memory H2 database in PostgreSQL mode,
+ * where rows are staged with JDBC batches instead of {@code COPY}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:statements;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.liquibase.enabled=false",
+        "library.loans.overdue-sweep.interval=PT1H",
+        "library.loan-events.relay-interval=PT1H"
+})
+class CatalogServiceImplTest {
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Liquibase gives books.id a sequence default that the schema generated for H2 lacks
+        jdbcTemplate.execute("ALTER TABLE books ALTER COLUMN id SET DEFAULT NEXT VALUE FOR books_seq");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM holds");
+        jdbcTemplate.update("DELETE FROM member_books");
+        bookRepository.deleteAllInBatch();
+        memberRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void importBooks_MergesDuplicatesIntoExistingBooksAndReportsInvalidRows() {
+        Book existing = new Book();
+        existing.setTitle("Emma");
+        existing.setAuthor("Jane Austen");
+        existing.setAmount(2);
+        bookRepository.save(existing);
+
+        CatalogImportResultDto result = catalogService.importBooks(content("""
+                title,author,amount
+                Emma,Jane Austen,3
+                Dracula,Bram Stoker,1
+                "Dracula","Bram Stoker",4
+                lowercase,Bram Stoker,1
+                Ulysses,James Joyce,many
+                """), CatalogFormat.CSV);
+
+        assertEquals(5, result.getRows());
+        assertEquals(2, result.getRejected());
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getUpdated());
+        assertEquals(List.of(4L, 5L), result.getErrors().stream().map(CatalogImportErrorDto::getRow).toList());
+        assertEquals(Map.of("Emma", 5, "Dracula", 5), amountsByTitle());
+    }
+
+    @Test
+    void exportBooks_WritesRowsThatImportBackAsNdjson() {
+        catalogService.importBooks(content("""
+                {"title":"Emma","author":"Jane Austen","amount":3}
+
+                {"title":"Dracula","author":"Bram Stoker","amount":1}
+                {not json}
+                """), CatalogFormat.NDJSON);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        catalogService.exportBooks(output, CatalogFormat.NDJSON);
+        bookRepository.deleteAllInBatch();
+        CatalogImportResultDto result = catalogService.importBooks(
+                new ByteArrayInputStream(output.toByteArray()), CatalogFormat.NDJSON);
+
+        assertEquals(2, result.getRows());
+        assertEquals(2, result.getCreated());
+        assertEquals(Map.of("Emma", 3, "Dracula", 1), amountsByTitle());
+    }
+
+    @Test
+    void importBooks_HandsAddedCopiesToWaitingMembers() {
+        Book awaited = new Book();
+        awaited.setTitle("Emma");
+        awaited.setAuthor("Jane Austen");
+        awaited.setAmount(0);
+        Long bookId = bookRepository.save(awaited).getId();
+        Member member = new Member();
+        member.setName("Test Member");
+        member.setMembershipDate(LocalDate.now());
+        Long memberId = memberRepository.save(member).getId();
+        Long holdId = holdService.placeHold(new BorrowRequestDto(memberId, bookId)).getId();
+
+        catalogService.importBooks(content("title,author,amount\nEmma,Jane Austen,2\n"), CatalogFormat.CSV);
+
+        assertEquals(HoldStatus.FULFILLED, holdService.getHold(holdId).getStatus());
+        assertEquals(Map.of("Emma", 1), amountsByTitle());
+        assertEquals(1, memberRepository.findById(memberId).orElseThrow().getActiveLoans());
+    }
+
+    @Test
+    void importBooks_RollsBackWhenFileCannotBeParsed() {
+        InputStream input = content("title,author,amount\nEmma,Jane Austen,1\n\"Dracula,Bram Stoker,1\n");
+
+        assertThrows(InvalidCatalogFileException.class, () -> catalogService.importBooks(input, CatalogFormat.CSV));
+        assertEquals(0, bookRepository.count());
+    }
+
+    private Map<String, Integer> amountsByTitle() {
+        return bookRepository.findAll().stream()
+                .collect(Collectors.toMap(Book::getTitle, Book::getAmount));
+    }
+
+    private static InputStream content(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
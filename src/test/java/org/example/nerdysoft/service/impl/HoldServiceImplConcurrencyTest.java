@@ -0,0 +1,180 @@
+package org.example.nerdysoft.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.entity.Book;
+import org.example.nerdysoft.model.entity.Hold;
+import org.example.nerdysoft.model.entity.HoldStatus;
+import org.example.nerdysoft.model.entity.Member;
+import org.example.nerdysoft.model.exception.HoldNotFoundException;
+import org.example.nerdysoft.output.persistent.BookRepository;
+import org.example.nerdysoft.output.persistent.HoldRepository;
+import org.example.nerdysoft.output.persistent.MemberRepository;
+import org.example.nerdysoft.service.BookService;
+import org.example.nerdysoft.service.HoldService;
+import org.example.nerdysoft.service.hold.HoldQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Cancels a hold while the return that hands the waited for copy to the same hold has not committed yet, and
+ * hands a copy to a waiter whose row another transaction holds, through the real services against an in-memory
+ * H2 database in PostgreSQL mode.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:statements;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.liquibase.enabled=false",
+        "library.loans.overdue-sweep.interval=PT1H",
+        "library.loan-events.relay-interval=PT1H"
+})
+class HoldServiceImplConcurrencyTest {
+
+    private static final long WAIT_MILLIS = 30_000;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private HoldRepository holdRepository;
+
+    @Autowired
+    private HoldQueue holdQueue;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM holds");
+        jdbcTemplate.update("DELETE FROM member_books");
+        bookRepository.deleteAllInBatch();
+        memberRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void cancelHold_LeavesHoldFulfilledByConcurrentReturn() throws Exception {
+        Book book = new Book();
+        book.setTitle("Test Book");
+        book.setAuthor("Test Author");
+        book.setAmount(1);
+        Long bookId = bookRepository.save(book).getId();
+        BorrowRequestDto loan = new BorrowRequestDto(saveMember("Borrower"), bookId);
+        Long waiterId = saveMember("Waiter");
+        bookService.borrowBook(loan);
+        Long holdId = holdService.placeHold(new BorrowRequestDto(waiterId, bookId)).getId();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // the return hands the copy to the hold and keeps the hold locked until it commits
+        Future<?> cancel = transactionTemplate.execute(status -> {
+            bookService.returnBook(loan);
+            Future<?> pending = executor.submit(() -> holdService.cancelHold(holdId));
+            assertThrows(TimeoutException.class, () -> pending.get(500, TimeUnit.MILLISECONDS));
+            return pending;
+        });
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> cancel.get(30, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertInstanceOf(HoldNotFoundException.class, failure.getCause());
+        assertEquals(HoldStatus.FULFILLED, holdRepository.findById(holdId).orElseThrow().getStatus());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM member_books WHERE member_id = ?",
+                Integer.class, waiterId));
+        assertEquals(0, bookRepository.findById(bookId).orElseThrow().getAmount());
+    }
+
+    @Test
+    void handOff_DefersWhileWaiterIsLockedAndLendsAfterCommit() throws Exception {
+        Book book = new Book();
+        book.setTitle("Test Book");
+        book.setAuthor("Test Author");
+        book.setAmount(0);
+        Long bookId = bookRepository.save(book).getId();
+        Long waiterId = saveMember("Waiter");
+        Long holdId = holdRepository.save(new Hold(waiterId, bookId, HoldStatus.WAITING, Instant.now(), null)).getId();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // another transaction holds the waiter's row, so the hand-off cannot lock it without waiting
+        Future<?> holder = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            memberRepository.findByIdForUpdate(waiterId);
+            locked.countDown();
+            awaitQuietly(release);
+        }));
+        assertTrue(locked.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+        Boolean handedOff = transactionTemplate.execute(status -> {
+            bookRepository.incrementAmount(bookId);
+            return holdQueue.handOff(bookId);
+        });
+        assertFalse(handedOff);
+        assertEquals(HoldStatus.WAITING, holdRepository.findById(holdId).orElseThrow().getStatus());
+        release.countDown();
+        holder.get(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        executor.shutdown();
+
+        assertEquals(HoldStatus.FULFILLED, awaitResolved(holdId));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM member_books WHERE member_id = ?",
+                Integer.class, waiterId));
+        assertEquals(0, bookRepository.findById(bookId).orElseThrow().getAmount());
+    }
+
+    private HoldStatus awaitResolved(Long holdId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        HoldStatus status = holdRepository.findById(holdId).orElseThrow().getStatus();
+        while (status == HoldStatus.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            status = holdRepository.findById(holdId).orElseThrow().getStatus();
+        }
+        return status;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Long saveMember(String name) {
+        Member member = new Member();
+        member.setName(name);
+        member.setMembershipDate(LocalDate.now());
+        return memberRepository.save(member).getId();
+    }
+}
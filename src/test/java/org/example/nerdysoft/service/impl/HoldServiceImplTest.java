@@ -0,0 +1,159 @@
+package org.example.nerdysoft.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Optional;
+
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.dto.HoldDto;
+import org.example.nerdysoft.model.entity.Book;
+import org.example.nerdysoft.model.entity.Hold;
+import org.example.nerdysoft.model.entity.HoldStatus;
+import org.example.nerdysoft.model.entity.Member;
+import org.example.nerdysoft.model.exception.BookAvailableException;
+import org.example.nerdysoft.model.exception.BorrowLimitExceededException;
+import org.example.nerdysoft.model.exception.HoldNotFoundException;
+import org.example.nerdysoft.output.persistent.BookRepository;
+import org.example.nerdysoft.output.persistent.HoldRepository;
+import org.example.nerdysoft.output.persistent.MemberRepository;
+import org.example.nerdysoft.service.hold.HoldNotifier;
+import org.example.nerdysoft.service.hold.HoldQueue;
+import org.example.nerdysoft.service.mapper.HoldMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.DeferredResult;
+
+@ExtendWith(MockitoExtension.class)
+class HoldServiceImplTest {
+
+    @Mock
+    private HoldRepository holdRepository;
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private HoldMapper holdMapper;
+
+    @Mock
+    private HoldQueue holdQueue;
+
+    @Mock
+    private HoldNotifier holdNotifier;
+
+    @InjectMocks
+    private HoldServiceImpl holdService;
+
+    private Book book;
+    private BorrowRequestDto holdRequest;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(holdService, "borrowLimit", 10);
+        book = new Book();
+        book.setId(1L);
+        book.setTitle("Test Book");
+        book.setAmount(0);
+        holdRequest = new BorrowRequestDto(1L, 1L);
+    }
+
+    @Test
+    void placeHold_RejectsBooksWithFreeCopies() {
+        book.setAmount(1);
+        lockMemberAndBook();
+
+        assertThrows(BookAvailableException.class, () -> holdService.placeHold(holdRequest));
+        verify(holdRepository, never()).save(any());
+    }
+
+    @Test
+    void placeHold_CountsWaitingHoldsTowardsBorrowLimit() {
+        lockMemberAndBook();
+        when(memberRepository.findLoansRaw(any(), any())).thenReturn(Collections.emptyList());
+        when(memberRepository.countLoansAndWaitingHolds(1L)).thenReturn(10L);
+
+        assertThrows(BorrowLimitExceededException.class, () -> holdService.placeHold(holdRequest));
+        verify(holdRepository, never()).save(any());
+    }
+
+    @Test
+    void awaitHold_CompletesAtOnceWhenHoldIsNoLongerWaiting() {
+        Hold hold = new Hold(1L, 1L, HoldStatus.FULFILLED, Instant.now(), Instant.now());
+        hold.setId(5L);
+        HoldDto dto = new HoldDto(5L, 1L, 1L, HoldStatus.FULFILLED, hold.getCreatedAt(), hold.getResolvedAt(), null);
+        when(holdRepository.findById(5L)).thenReturn(Optional.of(hold));
+        when(holdMapper.toDto(hold, null)).thenReturn(dto);
+
+        DeferredResult<HoldDto> result = holdService.awaitHold(5L, Duration.ofSeconds(30));
+
+        verify(holdNotifier, never()).register(any(), any());
+        assertEquals(dto, result.getResult());
+    }
+
+    @Test
+    void awaitHold_RegistersWaitingHold() {
+        Hold hold = new Hold(1L, 1L, HoldStatus.WAITING, Instant.now(), null);
+        hold.setId(5L);
+        HoldDto dto = new HoldDto(5L, 1L, 1L, HoldStatus.WAITING, hold.getCreatedAt(), null, 1L);
+        when(holdRepository.findById(5L)).thenReturn(Optional.of(hold));
+        when(holdRepository.countByBookIdAndStatusAndIdLessThan(1L, HoldStatus.WAITING, 5L)).thenReturn(0L);
+        when(holdMapper.toDto(hold, 1L)).thenReturn(dto);
+
+        DeferredResult<HoldDto> result = holdService.awaitHold(5L, Duration.ofSeconds(30));
+
+        verify(holdNotifier).register(eq(5L), any());
+        assertFalse(result.hasResult());
+    }
+
+    @Test
+    void awaitHold_ThrowsHoldNotFoundExceptionWithoutRegistering() {
+        when(holdRepository.findById(5L)).thenReturn(Optional.empty());
+
+        assertThrows(HoldNotFoundException.class, () -> holdService.awaitHold(5L, Duration.ofSeconds(30)));
+
+        verify(holdNotifier, never()).register(any(), any());
+    }
+
+    @Test
+    void cancelHold_CancelsWaitingHoldAndNotifies() {
+        Hold hold = new Hold(1L, 1L, HoldStatus.CANCELLED, Instant.now(), Instant.now());
+        when(holdRepository.resolveIfWaiting(eq(5L), eq(HoldStatus.CANCELLED), any())).thenReturn(1);
+        when(holdRepository.findById(5L)).thenReturn(Optional.of(hold));
+
+        holdService.cancelHold(5L);
+
+        verify(holdQueue).publishResolved(hold);
+    }
+
+    @Test
+    void cancelHold_ThrowsHoldNotFoundExceptionWhenNoLongerWaiting() {
+        when(holdRepository.resolveIfWaiting(eq(5L), eq(HoldStatus.CANCELLED), any())).thenReturn(0);
+
+        assertThrows(HoldNotFoundException.class, () -> holdService.cancelHold(5L));
+
+        verify(holdQueue, never()).publishResolved(any());
+    }
+
+    private void lockMemberAndBook() {
+        when(memberRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(new Member()));
+        when(bookRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(book));
+    }
+}
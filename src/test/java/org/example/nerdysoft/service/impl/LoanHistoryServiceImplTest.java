@@ -0,0 +1,68 @@
+package org.example.nerdysoft.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.example.nerdysoft.model.dto.LoanReplayDto;
+import org.example.nerdysoft.model.entity.LoanAction;
+import org.example.nerdysoft.model.entity.LoanEvent;
+import org.example.nerdysoft.output.persistent.LoanEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class LoanHistoryServiceImplTest {
+
+    private static final Instant AT = Instant.parse("2024-06-01T00:00:00Z");
+
+    @Mock
+    private LoanEventRepository loanEventRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private LoanHistoryServiceImpl loanHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(loanHistoryService, "replayChunkSize", 2);
+    }
+
+    @Test
+    void replay_FoldsEventsAcrossChunksIntoOpenLoansInIdOrder() {
+        LoanEvent first = event(1L, 1L, 10L, LoanAction.BORROW, "2024-05-01T10:00:00Z");
+        LoanEvent second = event(2L, 2L, 10L, LoanAction.BORROW, "2024-05-02T10:00:00Z");
+        // stamped before the borrow it closes, but written after it
+        LoanEvent third = event(3L, 1L, 10L, LoanAction.RETURN, "2024-05-01T09:59:59Z");
+        when(loanEventRepository.findChunkAfter(eq(0L), eq(AT), any(Pageable.class)))
+                .thenReturn(List.of(first, second));
+        when(loanEventRepository.findChunkAfter(eq(2L), eq(AT), any(Pageable.class)))
+                .thenReturn(List.of(third));
+
+        LoanReplayDto replay = loanHistoryService.replay(AT);
+
+        assertEquals(3, replay.getEventsReplayed());
+        assertEquals(1, replay.getActiveLoans());
+        assertEquals(Map.of(10L, 1L), replay.getLoansPerBook());
+    }
+
+    private static LoanEvent event(Long id, Long memberId, Long bookId, LoanAction action, String occurredAt) {
+        LoanEvent event = new LoanEvent(memberId, bookId, action, Instant.parse(occurredAt));
+        event.setId(id);
+        return event;
+    }
+}
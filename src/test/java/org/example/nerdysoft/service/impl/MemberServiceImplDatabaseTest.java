@@ -0,0 +1,109 @@
+package org.example.nerdysoft.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.example.nerdysoft.model.dto.BookMainInfoDto;
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.dto.MemberDetailedDto;
+import org.example.nerdysoft.model.entity.Book;
+import org.example.nerdysoft.output.persistent.BookRepository;
+import org.example.nerdysoft.output.persistent.MemberRepository;
+import org.example.nerdysoft.service.BookService;
+import org.example.nerdysoft.service.MemberService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Checks against an in-memory H2 database in PostgreSQL mode that saving a member never creates or removes
+ * loans, so the {@code active_loans} counters and the book amounts stay in step with {@code member_books}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:statements;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.liquibase.enabled=false",
+        "library.loans.overdue-sweep.interval=PT1H",
+        "library.loan-events.relay-interval=PT1H"
+})
+class MemberServiceImplDatabaseTest {
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        book = new Book();
+        book.setTitle("Test Book");
+        book.setAuthor("Test Author");
+        book.setAmount(5);
+        book = bookRepository.save(book);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM holds");
+        jdbcTemplate.update("DELETE FROM member_books");
+        bookRepository.deleteAllInBatch();
+        memberRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void saveMember_IgnoresBorrowedBooksOfANewMember() {
+        MemberDetailedDto saved = memberService.saveMember(new MemberDetailedDto(null, "Walk In", null,
+                List.of(new BookMainInfoDto(book.getId(), "Test Book", "Test Author", 5))));
+
+        assertTrue(saved.getBorrowedBooks().isEmpty());
+        assertEquals(0, countLoans(saved.getId()));
+        assertEquals(0, memberRepository.findById(saved.getId()).orElseThrow().getActiveLoans());
+        assertEquals(5, bookRepository.findById(book.getId()).orElseThrow().getAmount());
+    }
+
+    @Test
+    void saveMember_KeepsTheLoansOfARenamedMember() {
+        Long memberId = memberService.saveMember(new MemberDetailedDto(null, "Test Member", null, null)).getId();
+        BorrowRequestDto loan = new BorrowRequestDto(memberId, book.getId());
+        bookService.borrowBook(loan);
+
+        MemberDetailedDto renamed = memberService.saveMember(new MemberDetailedDto(memberId, "Renamed Member", null,
+                List.of()));
+
+        assertEquals("Renamed Member", renamed.getName());
+        assertEquals(1, renamed.getBorrowedBooks().size());
+        assertEquals(1, countLoans(memberId));
+        assertEquals(1, memberRepository.findById(memberId).orElseThrow().getActiveLoans());
+
+        bookService.returnBook(loan);
+
+        assertEquals(0, memberRepository.findById(memberId).orElseThrow().getActiveLoans());
+        assertEquals(5, bookRepository.findById(book.getId()).orElseThrow().getAmount());
+    }
+
+    private int countLoans(Long memberId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM member_books WHERE member_id = ?", Integer.class,
+                memberId);
+    }
+}
@@ -2,29 +2,41 @@ package org.example.nerdysoft.service.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.example.nerdysoft.constant.MessageConstants;
 import org.example.nerdysoft.model.dto.MemberDetailedDto;
+import org.example.nerdysoft.model.dto.MemberMainInfoDto;
 import org.example.nerdysoft.model.entity.Book;
 import org.example.nerdysoft.model.entity.Member;
 import org.example.nerdysoft.model.exception.MemberHasBorrowedBooksException;
 import org.example.nerdysoft.model.exception.MemberNotFoundException;
 import org.example.nerdysoft.output.persistent.MemberRepository;
+import org.example.nerdysoft.service.cache.CatalogCacheInvalidator;
 import org.example.nerdysoft.service.mapper.MemberMapper;
+import org.example.nerdysoft.service.util.CursorCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @ExtendWith(MockitoExtension.class)
 class MemberServiceImplTest {
@@ -35,6 +47,12 @@ class MemberServiceImplTest {
     @Mock
     private MemberMapper memberMapper;
 
+    @Mock
+    private CatalogCacheInvalidator cacheInvalidator;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private MemberServiceImpl memberService;
 
@@ -50,21 +68,55 @@ class MemberServiceImplTest {
         memberDetailedDto = new MemberDetailedDto();
         memberDetailedDto.setId(1L);
         memberDetailedDto.setName("Test Member");
+        ReflectionTestUtils.setField(memberService, "maxPageSize", 1);
+        ReflectionTestUtils.setField(memberService, "streamChunkSize", 2);
     }
 
     @Test
     void getAllMembers() {
-        when(memberRepository.findAllWithBorrowedBooks()).thenReturn(Collections.singletonList(member));
+        when(memberRepository.findPageAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(member));
         when(memberMapper.toDto(member)).thenReturn(memberDetailedDto);
 
         var members = memberService.getAllMembers();
 
         assertNotNull(members);
         assertEquals(1, members.size());
-        verify(memberRepository, times(1)).findAllWithBorrowedBooks();
+        verify(memberRepository, times(1)).findPageAfter(eq(0L), any(Pageable.class));
         verify(memberMapper, times(1)).toDto(member);
     }
 
+    @Test
+    void getMembersPage() {
+        when(memberRepository.findPageAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(member));
+        when(memberMapper.toDto(member)).thenReturn(memberDetailedDto);
+
+        var page = memberService.getMembersPage(null, 10);
+
+        assertEquals(List.of(memberDetailedDto), page.getContent());
+        assertEquals(CursorCodec.encode(1L), page.getNext());
+    }
+
+    @Test
+    void getMemberSummariesPage_ReturnsNextCursorWhenPageIsFull() {
+        MemberMainInfoDto summary = new MemberMainInfoDto(1L, "Test Member", null);
+        when(memberRepository.findSummariesAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(summary));
+
+        var page = memberService.getMemberSummariesPage(null, 10);
+
+        assertEquals(List.of(summary), page.getContent());
+        assertEquals(CursorCodec.encode(1L), page.getNext());
+    }
+
+    @Test
+    void getMembersPage_LastPageHasNoCursor() {
+        when(memberRepository.findPageAfter(eq(1L), any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        var page = memberService.getMembersPage(CursorCodec.encode(1L), 10);
+
+        assertEquals(0, page.getContent().size());
+        assertNull(page.getNext());
+    }
+
     @Test
     void getMemberById() {
         when(memberRepository.findByIdWithBorrowedBooks(1L)).thenReturn(Optional.of(member));
@@ -88,45 +140,74 @@ class MemberServiceImplTest {
 
     @Test
     void saveMember() {
+        MemberDetailedDto saved = new MemberDetailedDto(1L, "Test Member", null, List.of());
+        memberDetailedDto.setId(null);
         when(memberMapper.toEntity(memberDetailedDto)).thenReturn(member);
         when(memberRepository.save(member)).thenReturn(member);
-        when(memberMapper.toDto(member)).thenReturn(memberDetailedDto);
+        when(memberMapper.toDto(member)).thenReturn(saved);
+        when(memberRepository.findVersionsRaw(1L)).thenReturn(List.<Object[]>of(new Object[] {0L, 0L}));
         var result = memberService.saveMember(memberDetailedDto);
 
         assertNotNull(result);
-        assertEquals(memberDetailedDto, result);
+        assertEquals(saved, result);
+        assertEquals("0-0", result.getVersion());
         verify(memberRepository, times(1)).save(member);
     }
 
+    @Test
+    void saveMember_RenamesExistingMemberAndKeepsTheirLoans() {
+        Book book = new Book();
+        member.getBorrowedBooks().add(book);
+        memberDetailedDto.setName("Renamed Member");
+        memberDetailedDto.setBorrowedBooks(List.of());
+        when(memberRepository.findByIdWithBorrowedBooks(1L)).thenReturn(Optional.of(member));
+        when(memberRepository.save(member)).thenReturn(member);
+
+        memberService.saveMember(memberDetailedDto);
+
+        assertEquals("Renamed Member", member.getName());
+        assertEquals(Set.of(book), member.getBorrowedBooks());
+        verify(memberMapper, never()).toEntity(any());
+    }
+
+    @Test
+    void saveMember_ThrowsMemberNotFoundException() {
+        when(memberRepository.findByIdWithBorrowedBooks(1L)).thenReturn(Optional.empty());
+
+        var exception = assertThrows(MemberNotFoundException.class, () -> memberService.saveMember(memberDetailedDto));
+
+        assertEquals(MessageConstants.MEMBER_NOT_FOUND_MESSAGE + 1L, exception.getMessage());
+        verify(memberRepository, never()).save(any());
+    }
+
     @Test
     void deleteMember() {
-        when(memberRepository.findById(1L)).thenReturn(Optional.ofNullable(member));
+        when(memberRepository.findActiveLoansById(1L)).thenReturn(Optional.of(0));
 
         memberService.deleteMember(1L);
 
-        verify(memberRepository, times(1)).findById(1L);
-        verify(memberRepository, times(1)).deleteById(1L);
+        verify(memberRepository, times(1)).findActiveLoansById(1L);
+        verify(cacheInvalidator, times(1)).evictMember(1L);
+        verify(memberRepository, times(1)).deleteDirectlyById(1L);
     }
 
     @Test
     void deleteMember_ThrowsMemberNotFoundException() {
-        when(memberRepository.findById(1L)).thenReturn(Optional.empty());
+        when(memberRepository.findActiveLoansById(1L)).thenReturn(Optional.empty());
 
         var exception = assertThrows(MemberNotFoundException.class, () -> memberService.deleteMember(1L));
 
         assertEquals(MessageConstants.MEMBER_NOT_FOUND_MESSAGE + 1L, exception.getMessage());
-        verify(memberRepository, times(1)).findById(1L);
+        verify(memberRepository, never()).deleteDirectlyById(1L);
     }
 
     @Test
     void deleteMember_ThrowsMemberHasBorrowedBooksException() {
-        member.setBorrowedBooks(Collections.singleton(new Book()));
-
-        when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
+        when(memberRepository.findActiveLoansById(1L)).thenReturn(Optional.of(1));
 
         var exception = assertThrows(MemberHasBorrowedBooksException.class, () -> memberService.deleteMember(1L));
 
         assertEquals(MessageConstants.MEMBER_HAS_BORROWED_BOOKS_MESSAGE, exception.getMessage());
-        verify(memberRepository, times(1)).findById(1L);
+        verify(memberRepository, never()).deleteDirectlyById(1L);
     }
 }
\ No newline at end of file
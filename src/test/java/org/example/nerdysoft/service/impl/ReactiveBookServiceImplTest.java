@@ -0,0 +1,204 @@
+package org.example.nerdysoft.service.impl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.example.nerdysoft.model.dto.BookDetailedDto;
+import org.example.nerdysoft.model.dto.BookMainInfoDto;
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.entity.LoanAction;
+import org.example.nerdysoft.model.entity.reactive.BookBorrower;
+import org.example.nerdysoft.model.entity.reactive.ReactiveBook;
+import org.example.nerdysoft.model.entity.reactive.ReactiveMember;
+import org.example.nerdysoft.model.exception.BookAlreadyExistsException;
+import org.example.nerdysoft.model.exception.BookNotAvailableException;
+import org.example.nerdysoft.model.exception.BookNotReturnedException;
+import org.example.nerdysoft.model.exception.BorrowLimitExceededException;
+import org.example.nerdysoft.model.exception.MemberNotFoundException;
+import org.example.nerdysoft.output.persistent.reactive.ReactiveBookRepository;
+import org.example.nerdysoft.output.persistent.reactive.ReactiveMemberRepository;
+import org.example.nerdysoft.service.hold.ReactiveHoldQueue;
+import org.example.nerdysoft.service.metrics.BorrowMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.reactive.TransactionalEventPublisher;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveBookServiceImplTest {
+
+    @Mock
+    private ReactiveBookRepository bookRepository;
+
+    @Mock
+    private ReactiveMemberRepository memberRepository;
+
+    @Mock
+    private ReactiveHoldQueue holdQueue;
+
+    @Mock
+    private BorrowMetrics borrowMetrics;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private TransactionalEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ReactiveBookServiceImpl bookService;
+
+    private final BorrowRequestDto borrowRequest = new BorrowRequestDto(1L, 2L);
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionalOperator.transactional(ArgumentMatchers.<Mono<Object>>any()))
+                .thenAnswer(inv -> inv.getArgument(0));
+        lenient().when(eventPublisher.publishEvent(any(Object.class))).thenReturn(Mono.empty());
+        lenient().when(memberRepository.appendLoanEvents(anyList())).thenReturn(Mono.empty());
+        ReflectionTestUtils.setField(bookService, "borrowLimit", 3);
+        ReflectionTestUtils.setField(bookService, "loanPeriod", Duration.ofDays(14));
+        ReflectionTestUtils.setField(bookService, "maxPageSize", 10);
+        ReflectionTestUtils.setField(bookService, "streamChunkSize", 2);
+    }
+
+    @Test
+    void getAllBooks_ReadsChunksUntilOneIsShortAndAttachesBorrowers() {
+        BookMainInfoDto first = new BookMainInfoDto(1L, "Emma", "Jane Austen", 1);
+        BookMainInfoDto second = new BookMainInfoDto(2L, "Dune", "Frank Herbert", 2);
+        BookMainInfoDto third = new BookMainInfoDto(3L, "Ulysses", "James Joyce", 3);
+        when(bookRepository.findSummariesAfter(0L, 2)).thenReturn(Flux.just(first, second));
+        when(bookRepository.findSummariesAfter(2L, 2)).thenReturn(Flux.just(third));
+        when(bookRepository.findBorrowers(List.of(1L, 2L)))
+                .thenReturn(Flux.just(new BookBorrower(2L, 7L, "Test Member", LocalDate.now())));
+        when(bookRepository.findBorrowers(List.of(3L))).thenReturn(Flux.empty());
+
+        StepVerifier.create(bookService.getAllBooks().map(BookDetailedDto::getBorrowers))
+                .expectNextMatches(List::isEmpty)
+                .expectNextMatches(borrowers -> borrowers.size() == 1 && borrowers.get(0).getId() == 7L)
+                .expectNextMatches(List::isEmpty)
+                .verifyComplete();
+    }
+
+    @Test
+    void getAllBooks_ReadsAtMostOneChunkAheadOfDemand() {
+        when(bookRepository.findSummariesAfter(0L, 2)).thenReturn(Flux.just(
+                new BookMainInfoDto(1L, "Emma", "Jane Austen", 1),
+                new BookMainInfoDto(2L, "Dune", "Frank Herbert", 2)));
+        when(bookRepository.findSummariesAfter(2L, 2)).thenReturn(Flux.just(
+                new BookMainInfoDto(3L, "Ulysses", "James Joyce", 3),
+                new BookMainInfoDto(4L, "Dracula", "Bram Stoker", 4)));
+        when(bookRepository.findBorrowers(any())).thenReturn(Flux.empty());
+
+        StepVerifier.create(bookService.getAllBooks(), 1)
+                .expectNextCount(1)
+                .thenCancel()
+                .verify();
+
+        verify(bookRepository, never()).findSummariesAfter(4L, 2);
+    }
+
+    @Test
+    void borrowBook_Success() {
+        when(memberRepository.takeLoanIfBelowLimit(1L, 3)).thenReturn(Mono.just(1));
+        when(bookRepository.decrementAmountIfAvailable(2L)).thenReturn(Mono.just(1));
+        when(memberRepository.insertBorrowedBook(eq(1L), eq(2L), any(), any())).thenReturn(Mono.just(1));
+        when(bookRepository.findTitleById(2L)).thenReturn(Mono.just("Emma"));
+
+        StepVerifier.create(bookService.borrowBook(borrowRequest)).verifyComplete();
+
+        verify(borrowMetrics).recordMemberLockWait(anyLong());
+        verify(memberRepository).appendLoanEvents(argThat(events -> events.size() == 1
+                && events.get(0).getMemberId() == 1L && events.get(0).getAction() == LoanAction.BORROW));
+        verify(transactionalOperator).transactional(ArgumentMatchers.<Mono<Object>>any());
+    }
+
+    @Test
+    void borrowBook_ThrowsBorrowLimitExceededException() {
+        when(memberRepository.takeLoanIfBelowLimit(1L, 3)).thenReturn(Mono.just(0));
+        when(memberRepository.existsById(1L)).thenReturn(Mono.just(true));
+        when(bookRepository.decrementAmountIfAvailable(2L)).thenReturn(Mono.just(1));
+
+        StepVerifier.create(bookService.borrowBook(borrowRequest))
+                .verifyError(BorrowLimitExceededException.class);
+
+        verify(memberRepository, never()).insertBorrowedBook(anyLong(), anyLong(), any(), any());
+    }
+
+    @Test
+    void borrowBook_ThrowsMemberNotFoundException() {
+        when(memberRepository.takeLoanIfBelowLimit(1L, 3)).thenReturn(Mono.just(0));
+        when(memberRepository.existsById(1L)).thenReturn(Mono.just(false));
+        when(bookRepository.decrementAmountIfAvailable(2L)).thenReturn(Mono.just(1));
+
+        StepVerifier.create(bookService.borrowBook(borrowRequest)).verifyError(MemberNotFoundException.class);
+    }
+
+    @Test
+    void borrowBook_RecordsConflictWhenNoCopyIsLeft() {
+        when(memberRepository.takeLoanIfBelowLimit(1L, 3)).thenReturn(Mono.just(1));
+        when(bookRepository.decrementAmountIfAvailable(2L)).thenReturn(Mono.just(0));
+        when(bookRepository.existsById(2L)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(bookService.borrowBook(borrowRequest)).verifyError(BookNotAvailableException.class);
+
+        verify(borrowMetrics).recordAvailabilityConflict();
+    }
+
+    @Test
+    void returnBook_ThrowsBookNotReturnedExceptionWhenNotBorrowed() {
+        when(holdQueue.findNextWaiter(2L)).thenReturn(Mono.empty());
+        when(memberRepository.releaseLoanIfTaken(1L)).thenReturn(Mono.just(0));
+        when(memberRepository.findById(1L))
+                .thenReturn(Mono.just(new ReactiveMember(1L, "Test Member", LocalDate.now(), 0L, 0)));
+        when(bookRepository.existsById(2L)).thenReturn(Mono.just(true));
+        when(bookRepository.findTitleById(2L)).thenReturn(Mono.just("Dune"));
+        when(holdQueue.handOff(2L)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(bookService.returnBook(borrowRequest)).verifyError(BookNotReturnedException.class);
+
+        verify(memberRepository, never()).deleteBorrowedBook(anyLong(), anyLong());
+    }
+
+    @Test
+    void updateBook_ThrowsBookAlreadyExistsExceptionWhenRenamedOntoAnotherBook() {
+        when(bookRepository.findByIdForUpdate(2L))
+                .thenReturn(Mono.just(new ReactiveBook(2L, "Emma", "Jane Austen", 1, 0L)));
+        when(bookRepository.existsByTitleAndAuthorAndIdNot("Dune", "Frank Herbert", 2L)).thenReturn(Mono.just(true));
+        when(bookRepository.findSummaryById(2L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(bookService.updateBook(2L, new BookDetailedDto(null, "Dune", "Frank Herbert", 1, null)))
+                .verifyError(BookAlreadyExistsException.class);
+
+        verify(bookRepository, never()).updateDetails(anyLong(), any(), any(), eq(1));
+    }
+
+    @Test
+    void getBooksBorrowedByMember_ThrowsMemberNotFoundExceptionForUnknownName() {
+        when(memberRepository.findBorrowedBooksByName("Nobody")).thenReturn(Flux.empty());
+        when(memberRepository.existsByName("Nobody")).thenReturn(Mono.just(false));
+
+        StepVerifier.create(bookService.getBooksBorrowedByMember("Nobody")).verifyError(MemberNotFoundException.class);
+    }
+}
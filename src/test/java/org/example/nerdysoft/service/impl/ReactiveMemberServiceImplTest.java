@@ -0,0 +1,118 @@
+package org.example.nerdysoft.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.example.nerdysoft.model.dto.MemberDetailedDto;
+import org.example.nerdysoft.model.dto.MemberMainInfoDto;
+import org.example.nerdysoft.model.entity.reactive.MemberBook;
+import org.example.nerdysoft.model.entity.reactive.ReactiveMember;
+import org.example.nerdysoft.model.exception.MemberHasBorrowedBooksException;
+import org.example.nerdysoft.model.exception.MemberNotFoundException;
+import org.example.nerdysoft.output.persistent.reactive.ReactiveMemberRepository;
+import org.example.nerdysoft.service.util.CursorCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveMemberServiceImplTest {
+
+    @Mock
+    private ReactiveMemberRepository memberRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @InjectMocks
+    private ReactiveMemberServiceImpl memberService;
+
+    private final MemberMainInfoDto summary = new MemberMainInfoDto(1L, "Test Member", LocalDate.now());
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionalOperator.transactional(ArgumentMatchers.<Mono<Object>>any()))
+                .thenAnswer(inv -> inv.getArgument(0));
+        ReflectionTestUtils.setField(memberService, "maxPageSize", 1);
+        ReflectionTestUtils.setField(memberService, "streamChunkSize", 2);
+    }
+
+    @Test
+    void getMembersPage_AttachesBorrowedBooksAndReturnsNextCursor() {
+        when(memberRepository.findSummariesAfter(0L, 1)).thenReturn(Flux.just(summary));
+        when(memberRepository.findBorrowedBooks(List.of(1L)))
+                .thenReturn(Flux.just(new MemberBook(1L, 2L, "Emma", "Jane Austen", 1)));
+
+        StepVerifier.create(memberService.getMembersPage(null, 10))
+                .assertNext(page -> {
+                    assertEquals(1, page.getContent().get(0).getBorrowedBooks().size());
+                    assertEquals(CursorCodec.encode(1L), page.getNext());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getMemberSummariesPage_LastPageHasNoCursor() {
+        when(memberRepository.findSummariesAfter(1L, 1)).thenReturn(Flux.empty());
+
+        StepVerifier.create(memberService.getMemberSummariesPage(CursorCodec.encode(1L), 10))
+                .assertNext(page -> {
+                    assertEquals(0, page.getContent().size());
+                    assertNull(page.getNext());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getMemberById_ThrowsMemberNotFoundException() {
+        when(memberRepository.findSummaryById(1L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(memberService.getMemberById(1L)).verifyError(MemberNotFoundException.class);
+    }
+
+    @Test
+    void updateMember_ThrowsMemberNotFoundException() {
+        when(memberRepository.updateName(1L, "Renamed Member")).thenReturn(Mono.just(0));
+
+        StepVerifier.create(memberService.updateMember(1L, new MemberDetailedDto(null, "Renamed Member", null, null)))
+                .verifyError(MemberNotFoundException.class);
+
+        verify(memberRepository, never()).findSummaryById(1L);
+    }
+
+    @Test
+    void deleteMember_ThrowsMemberHasBorrowedBooksException() {
+        when(memberRepository.findById(1L))
+                .thenReturn(Mono.just(new ReactiveMember(1L, "Test Member", LocalDate.now(), 0L, 1)));
+
+        StepVerifier.create(memberService.deleteMember(1L)).verifyError(MemberHasBorrowedBooksException.class);
+
+        verify(memberRepository, never()).deleteDirectlyById(1L);
+    }
+
+    @Test
+    void deleteMember_DeletesMemberWithoutLoans() {
+        when(memberRepository.findById(1L))
+                .thenReturn(Mono.just(new ReactiveMember(1L, "Test Member", LocalDate.now(), 0L, 0)));
+        when(memberRepository.deleteDirectlyById(1L)).thenReturn(Mono.just(1));
+
+        StepVerifier.create(memberService.deleteMember(1L)).verifyComplete();
+    }
+}
@@ -0,0 +1,343 @@
+package org.example.nerdysoft.service.impl;
+
+import static org.example.nerdysoft.support.StatementCountAssertions.assertStatementCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.example.nerdysoft.model.dto.BookAvailabilityDto;
+import org.example.nerdysoft.model.dto.BookDetailedDto;
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.dto.HoldDto;
+import org.example.nerdysoft.model.dto.MemberDetailedDto;
+import org.example.nerdysoft.model.entity.Book;
+import org.example.nerdysoft.model.entity.HoldStatus;
+import org.example.nerdysoft.model.entity.Member;
+import org.example.nerdysoft.output.persistent.BookRepository;
+import org.example.nerdysoft.output.persistent.MemberRepository;
+import org.example.nerdysoft.service.BookService;
+import org.example.nerdysoft.service.HoldService;
+import org.example.nerdysoft.service.LoanService;
+import org.example.nerdysoft.service.MemberService;
+import org.example.nerdysoft.service.history.LoanEventRelay;
+import org.example.nerdysoft.service.inventory.BookAvailabilityIndex;
+import org.example.nerdysoft.service.metrics.StatementCounter;
+import org.example.nerdysoft.service.overdue.OverdueLoanSweeper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Pins the number of SQL statements each service method runs, against an in-memory H2 database
+ * in PostgreSQL mode, so that N+1 regressions fail the build.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:statements;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.liquibase.enabled=false",
+        "library.loans.overdue-sweep.interval=PT1H",
+        "library.loan-events.relay-interval=PT1H"
+})
+class ServiceStatementCountTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private OverdueLoanSweeper overdueLoanSweeper;
+
+    @Autowired
+    private LoanEventRelay loanEventRelay;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private BookAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Member member;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        member = memberRepository.save(new Member("Test Member", LocalDate.now(), new HashSet<>()));
+        book = new Book();
+        book.setTitle("Test Book");
+        book.setAuthor("Test Author");
+        book.setAmount(5);
+        book = bookRepository.save(book);
+        // the fixtures bypass the services, so the index learns about them the way it does at startup
+        availabilityIndex.rebuild();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM loan_event_outbox");
+        jdbcTemplate.update("DELETE FROM loan_events");
+        jdbcTemplate.update("DELETE FROM holds");
+        jdbcTemplate.update("DELETE FROM member_books");
+        bookRepository.deleteAllInBatch();
+        memberRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void getBookById_RunsOneStatementAndIsCached() {
+        assertStatementCount(statementCounter, 1, () -> bookService.getBookById(book.getId()));
+        assertStatementCount(statementCounter, 0, () -> bookService.getBookById(book.getId()));
+    }
+
+    @Test
+    void versionLookups_RunOneStatementAndMatchTheLoadedVersions() {
+        bookService.borrowBook(new BorrowRequestDto(member.getId(), book.getId()));
+
+        assertStatementCount(statementCounter, 1, () -> bookService.getBookVersion(book.getId()));
+        assertStatementCount(statementCounter, 1, () -> memberService.getMemberVersion(member.getId()));
+        assertEquals(bookService.getBookById(book.getId()).getVersion(), bookService.getBookVersion(book.getId()));
+        assertEquals(memberService.getMemberById(member.getId()).getVersion(),
+                memberService.getMemberVersion(member.getId()));
+    }
+
+    @Test
+    void versions_ChangeWithEveryWriteTheyDependOn() {
+        String bookVersion = bookService.getBookById(book.getId()).getVersion();
+        String memberVersion = memberService.getMemberById(member.getId()).getVersion();
+
+        bookService.borrowBook(new BorrowRequestDto(member.getId(), book.getId()));
+        assertNotEquals(bookVersion, bookService.getBookById(book.getId()).getVersion());
+        assertNotEquals(memberVersion, memberService.getMemberById(member.getId()).getVersion());
+
+        bookVersion = bookService.getBookById(book.getId()).getVersion();
+        memberVersion = memberService.getMemberById(member.getId()).getVersion();
+        MemberDetailedDto current = memberService.getMemberById(member.getId());
+        memberService.saveMember(new MemberDetailedDto(member.getId(), "Renamed Member",
+                current.getMembershipDate(), current.getBorrowedBooks()));
+        assertNotEquals(bookVersion, bookService.getBookById(book.getId()).getVersion());
+        assertNotEquals(memberVersion, memberService.getMemberById(member.getId()).getVersion());
+
+        bookVersion = bookService.getBookById(book.getId()).getVersion();
+        memberVersion = memberService.getMemberById(member.getId()).getVersion();
+        bookService.updateBook(book.getId(), new BookDetailedDto(null, "Test Book", "Test Author", 9, null));
+        assertNotEquals(bookVersion, bookService.getBookById(book.getId()).getVersion());
+        assertNotEquals(memberVersion, memberService.getMemberById(member.getId()).getVersion());
+    }
+
+    @Test
+    void writes_ReturnTheVersionALaterReadReturns() {
+        MemberDetailedDto created = memberService.saveMember(new MemberDetailedDto(null, "New Member", null, null));
+        assertEquals(memberService.getMemberVersion(created.getId()), created.getVersion());
+
+        String bookVersion = bookService.getBookVersion(book.getId());
+        BookDetailedDto updated = bookService.updateBook(book.getId(),
+                new BookDetailedDto(null, "Renamed Book", "Test Author", 9, null));
+        assertNotEquals(bookVersion, updated.getVersion());
+        assertEquals(bookService.getBookVersion(book.getId()), updated.getVersion());
+    }
+
+    @Test
+    void summaryPages_RunOneStatementEach() {
+        assertStatementCount(statementCounter, 1, () -> bookService.getBookSummariesPage(null, 10));
+        assertStatementCount(statementCounter, 1, () -> memberService.getMemberSummariesPage(null, 10));
+    }
+
+    @Test
+    void detailedPages_BatchFetchChildrenInOneStatement() {
+        for (String title : List.of("Other Book", "Another Book", "Third Book")) {
+            Book other = new Book();
+            other.setTitle(title);
+            other.setAuthor("Test Author");
+            other.setAmount(1);
+            other = bookRepository.save(other);
+            bookService.borrowBook(new BorrowRequestDto(member.getId(), other.getId()));
+        }
+        memberRepository.save(new Member("Other Member", LocalDate.now(), new HashSet<>()));
+
+        assertStatementCount(statementCounter, 2, () -> bookService.getBooksPage(null, 10));
+        assertStatementCount(statementCounter, 2, () -> memberService.getMembersPage(null, 10));
+        assertStatementCount(statementCounter, 2, () -> bookService.streamAllBooks(book -> { }));
+    }
+
+    @Test
+    void borrowAndReturnBook_RunFixedStatementCounts() {
+        BorrowRequestDto request = new BorrowRequestDto(member.getId(), book.getId());
+
+        assertStatementCount(statementCounter, 4, () -> bookService.borrowBook(request));
+        assertEquals(1, memberRepository.findById(member.getId()).orElseThrow().getActiveLoans());
+        assertStatementCount(statementCounter, 6, () -> bookService.returnBook(request));
+        assertEquals(0, memberRepository.findById(member.getId()).orElseThrow().getActiveLoans());
+        assertEquals(List.of("BORROW", "RETURN"), jdbcTemplate.queryForList(
+                "SELECT action FROM loan_event_outbox WHERE member_id = ? ORDER BY id", String.class, member.getId()));
+    }
+
+    @Test
+    void relay_MovesTheOutboxToTheLogInOrder() {
+        BorrowRequestDto request = new BorrowRequestDto(member.getId(), book.getId());
+        bookService.borrowBook(request);
+        bookService.returnBook(request);
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM loan_event_outbox ORDER BY id", Long.class);
+
+        assertEquals(2, loanEventRelay.relay());
+
+        assertEquals(ids, jdbcTemplate.queryForList("SELECT id FROM loan_events ORDER BY id", Long.class));
+        assertEquals(List.of("BORROW", "RETURN"), jdbcTemplate.queryForList(
+                "SELECT action FROM loan_events WHERE member_id = ? ORDER BY id", String.class, member.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loan_event_outbox", Integer.class));
+        assertEquals(0, loanEventRelay.relay());
+    }
+
+    @Test
+    void getBooksBorrowedByMember_CachesTheBooksByMemberIdUntilALoanChanges() {
+        BorrowRequestDto request = new BorrowRequestDto(member.getId(), book.getId());
+        bookService.borrowBook(request);
+
+        // resolve the name to the id, then load the books the first time only
+        assertStatementCount(statementCounter, 2, () -> bookService.getBooksBorrowedByMember("Test Member"));
+        assertStatementCount(statementCounter, 1, () -> bookService.getBooksBorrowedByMember("Test Member"));
+        bookService.returnBook(request);
+        assertStatementCount(statementCounter, 2,
+                () -> assertEquals(0, bookService.getBooksBorrowedByMember("Test Member").size()));
+    }
+
+    @Test
+    void availability_IsServedFromTheIndexWithoutStatements() {
+        bookService.borrowBook(new BorrowRequestDto(member.getId(), book.getId()));
+
+        List<Long> ids = List.of(book.getId(), book.getId() + 1000);
+
+        assertStatementCount(statementCounter, 0, () -> bookService.getBookAvailability(book.getId()));
+        assertStatementCount(statementCounter, 0, () -> bookService.getBooksAvailability(ids));
+        assertEquals(new BookAvailabilityDto(book.getId(), 4, 1, true), bookService.getBookAvailability(book.getId()));
+        assertEquals(1, bookService.getBooksAvailability(ids).size());
+    }
+
+    @Test
+    void returnBook_HandsCopyToLongestWaitingMember() {
+        Book scarce = new Book();
+        scarce.setTitle("Scarce Book");
+        scarce.setAuthor("Test Author");
+        scarce.setAmount(1);
+        Long scarceId = bookRepository.save(scarce).getId();
+        Member first = memberRepository.save(new Member("First Waiter", LocalDate.now(), new HashSet<>()));
+        Member second = memberRepository.save(new Member("Second Waiter", LocalDate.now(), new HashSet<>()));
+        bookService.borrowBook(new BorrowRequestDto(member.getId(), scarceId));
+        HoldDto firstHold = holdService.placeHold(new BorrowRequestDto(first.getId(), scarceId));
+        HoldDto secondHold = holdService.placeHold(new BorrowRequestDto(second.getId(), scarceId));
+        assertEquals(2L, secondHold.getPosition());
+
+        assertStatementCount(statementCounter, 13,
+                () -> bookService.returnBook(new BorrowRequestDto(member.getId(), scarceId)));
+
+        HoldDto fulfilled = holdService.getHold(firstHold.getId());
+        assertEquals(HoldStatus.FULFILLED, fulfilled.getStatus());
+        assertNull(fulfilled.getPosition());
+        assertEquals(1L, holdService.getHold(secondHold.getId()).getPosition());
+        assertEquals(0, bookRepository.findById(scarceId).orElseThrow().getAmount());
+        assertEquals(List.of(scarceId), memberRepository.findBorrowedBookIds(first.getId()));
+        assertEquals(1, memberRepository.findById(first.getId()).orElseThrow().getActiveLoans());
+    }
+
+    @Test
+    void updateBook_LocksTheWaitersOfAllAddedCopiesWithOneQuery() {
+        Book scarce = new Book();
+        scarce.setTitle("Scarce Book");
+        scarce.setAuthor("Test Author");
+        scarce.setAmount(1);
+        Long scarceId = bookRepository.save(scarce).getId();
+        bookService.borrowBook(new BorrowRequestDto(member.getId(), scarceId));
+        List<HoldDto> holds = new ArrayList<>();
+        for (String name : List.of("First Waiter", "Second Waiter")) {
+            Member waiter = memberRepository.save(new Member(name, LocalDate.now(), new HashSet<>()));
+            holds.add(holdService.placeHold(new BorrowRequestDto(waiter.getId(), scarceId)));
+        }
+        BookDetailedDto restocked = new BookDetailedDto(null, "Scarce Book", "Test Author", 3, null);
+
+        // four statements for the update, one locking read of the waiters for all three copies, six statements
+        // per hand-off and the new version; the queue is seen to be empty without asking again
+        assertStatementCount(statementCounter, 18,
+                () -> assertEquals(1, bookService.updateBook(scarceId, restocked).getAmount()));
+
+        holds.forEach(hold -> assertEquals(HoldStatus.FULFILLED, holdService.getHold(hold.getId()).getStatus()));
+        assertEquals(1, bookRepository.findById(scarceId).orElseThrow().getAmount());
+    }
+
+    @Test
+    void overdueSweep_ReadsOnlyLoansPastTheWatermark() {
+        Book other = new Book();
+        other.setTitle("Other Book");
+        other.setAuthor("Test Author");
+        other.setAmount(1);
+        other = bookRepository.save(other);
+        Instant longOverdue = Instant.parse("2020-01-01T00:00:00Z");
+        Instant newlyOverdue = overdueLoanSweeper.getWatermark().dueAt().plusMillis(1);
+        insertLoan(member.getId(), other.getId(), longOverdue);
+        insertLoan(member.getId(), book.getId(), newlyOverdue);
+
+        // lock the watermark, read the loans past it and advance it when any were found
+        assertStatementCount(statementCounter, 3, () -> assertEquals(1, overdueLoanSweeper.sweep()));
+        assertStatementCount(statementCounter, 2, () -> assertEquals(0, overdueLoanSweeper.sweep()));
+        assertEquals(book.getId(), overdueLoanSweeper.getWatermark().bookId());
+        assertStatementCount(statementCounter, 1,
+                () -> assertEquals(2, loanService.getOverdueLoansPage(null, 10).getContent().size()));
+    }
+
+    @Test
+    void updateBook_RunsFourStatementsPlusTitleCheckWhenRenamed() {
+        BookDetailedDto details = new BookDetailedDto(null, "Test Book", "Test Author", 3, null);
+        BookDetailedDto renamed = new BookDetailedDto(null, "Renamed Book", "Test Author", 3, null);
+
+        // lock the book, load its borrowers, bump the version and write the new details
+        assertStatementCount(statementCounter, 4, () -> bookService.updateBook(book.getId(), details));
+        assertStatementCount(statementCounter, 5, () -> bookService.updateBook(book.getId(), renamed));
+    }
+
+    @Test
+    void deleteBook_RunsThreeStatements() {
+        assertStatementCount(statementCounter, 3, () -> bookService.deleteBook(book.getId()));
+    }
+
+    @Test
+    void deleteMember_RunsThreeStatements() {
+        assertStatementCount(statementCounter, 3, () -> memberService.deleteMember(member.getId()));
+    }
+
+    private void insertLoan(Long memberId, Long bookId, Instant dueAt) {
+        jdbcTemplate.update("INSERT INTO member_books (member_id, book_id, borrowed_at, due_at) VALUES (?, ?, ?, ?)",
+                memberId, bookId, Timestamp.from(dueAt.minusSeconds(60)), Timestamp.from(dueAt));
+    }
+}
@@ -0,0 +1,207 @@
+package org.example.nerdysoft.service.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.example.nerdysoft.model.dto.AvailabilityCheckResultDto;
+import org.example.nerdysoft.model.dto.BorrowRequestDto;
+import org.example.nerdysoft.model.entity.LoanAction;
+import org.example.nerdysoft.output.persistent.BookRepository;
+import org.example.nerdysoft.service.concurrency.CommitFence;
+import org.example.nerdysoft.service.history.LoansChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class BookAvailabilityIndexTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CommitFence commitFence = new CommitFence(Duration.ofMillis(50));
+
+    private BookAvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookAvailabilityIndex(bookRepository, commitFence, transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(index, "chunkSize", 2);
+    }
+
+    @Test
+    void rebuild_LoadsEveryBookInChunks() {
+        when(bookRepository.findAvailabilityAfterRaw(0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(row(1L, 3, 0), row(2L, 0, 2)));
+        when(bookRepository.findAvailabilityAfterRaw(2L, PageRequest.of(0, 2)))
+                .thenReturn(Collections.singletonList(row(5L, 1, 1)));
+
+        assertEquals(3, index.rebuild());
+
+        assertTrue(index.isAvailable(1L));
+        assertFalse(index.isAvailable(2L));
+        assertEquals(2, index.getActiveBorrowers(2L));
+        assertEquals(1, index.getAvailableCopies(5L));
+        assertEquals(BookAvailabilityIndex.UNKNOWN, index.getAvailableCopies(4L));
+        assertFalse(index.isAvailable(4L));
+    }
+
+    @Test
+    void rebuild_ReplaysChangesCommittedAfterTheSnapshotOnce() {
+        // book 1 was borrowed before the snapshot
+        when(bookRepository.findAvailabilityAfterRaw(0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(row(1L, 2, 1), row(2L, 3, 0)));
+        when(bookRepository.findAvailabilityAfterRaw(2L, PageRequest.of(0, 2))).thenAnswer(invocation -> {
+            // committed after the snapshot, so the later chunks of the same snapshot do not include them
+            long commit = commitFence.enter();
+            try {
+                borrow(2L);
+                giveBack(1L);
+                index.onBookDeleted(new BookDeletedEvent(3L));
+            } finally {
+                commitFence.exit(commit);
+            }
+            return Collections.singletonList(row(3L, 1, 0));
+        });
+
+        assertEquals(2, index.rebuild());
+
+        assertEquals(3, index.getAvailableCopies(1L));
+        assertEquals(0, index.getActiveBorrowers(1L));
+        assertEquals(2, index.getAvailableCopies(2L));
+        assertEquals(1, index.getActiveBorrowers(2L));
+        assertEquals(BookAvailabilityIndex.UNKNOWN, index.getAvailableCopies(3L));
+    }
+
+    @Test
+    void committedChanges_KeepTheIndexInSync() {
+        load(row(1L, 2, 0));
+        BorrowRequestDto loan = new BorrowRequestDto(7L, 1L);
+
+        index.onLoansChanged(LoansChangedEvent.of(List.of(loan), LoanAction.BORROW));
+        index.onInventoryChanged(InventoryChangedEvent.of(1L, -1));
+        assertEquals(1, index.getAvailableCopies(1L));
+        assertEquals(1, index.getActiveBorrowers(1L));
+
+        index.onLoansChanged(LoansChangedEvent.of(List.of(loan), LoanAction.RETURN));
+        index.onInventoryChanged(InventoryChangedEvent.of(1L, 1));
+        assertEquals(2, index.getAvailableCopies(1L));
+        assertEquals(0, index.getActiveBorrowers(1L));
+
+        index.onBookDeleted(new BookDeletedEvent(1L));
+        assertEquals(BookAvailabilityIndex.UNKNOWN, index.getAvailableCopies(1L));
+        verify(bookRepository, never()).findAvailabilityByIdInRaw(anyCollection());
+    }
+
+    @Test
+    void onInventoryChanged_ReadsUnknownBooksOnce() {
+        load();
+        when(bookRepository.findAvailabilityByIdInRaw(List.of(9L)))
+                .thenReturn(Collections.singletonList(row(9L, 4, 1)));
+
+        index.onLoansChanged(LoansChangedEvent.of(List.of(new BorrowRequestDto(7L, 9L)), LoanAction.BORROW));
+        index.onInventoryChanged(InventoryChangedEvent.of(9L, -1));
+
+        assertEquals(4, index.getAvailableCopies(9L));
+        assertEquals(1, index.getActiveBorrowers(9L));
+    }
+
+    @Test
+    void lookup_FillsKnownAndUnknownBooks() {
+        load(row(1L, 3, 0), row(2L, 0, 1));
+        int[] available = new int[3];
+        int[] borrowers = new int[3];
+
+        assertEquals(2, index.lookup(new long[] {2L, 8L, 1L}, available, borrowers));
+
+        assertArrayEquals(new int[] {0, BookAvailabilityIndex.UNKNOWN, 3}, available);
+        assertArrayEquals(new int[] {1, BookAvailabilityIndex.UNKNOWN, 0}, borrowers);
+    }
+
+    @Test
+    void table_FindsEveryBookAfterGrowingAndRemovals() {
+        ReflectionTestUtils.setField(index, "chunkSize", 10_000);
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= 5_000; id++) {
+            rows.add(row(id * 31, (int) id, 0));
+        }
+        when(bookRepository.findAvailabilityAfterRaw(0L, PageRequest.of(0, 10_000))).thenReturn(rows);
+        index.rebuild();
+
+        for (long id = 1; id <= 5_000; id += 2) {
+            index.onBookDeleted(new BookDeletedEvent(id * 31));
+        }
+
+        assertEquals(2_500, index.size());
+        for (long id = 1; id <= 5_000; id++) {
+            assertEquals(id % 2 == 0 ? (int) id : BookAvailabilityIndex.UNKNOWN, index.getAvailableCopies(id * 31));
+        }
+    }
+
+    @Test
+    void check_RepairsOnlyDifferencesThatAreStableBetweenReads() {
+        ReflectionTestUtils.setField(index, "chunkSize", 10);
+        when(bookRepository.findAvailabilityAfterRaw(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(row(1L, 2, 0), row(2L, 1, 0), row(3L, 1, 0)))
+                .thenReturn(List.of(row(1L, 2, 0), row(2L, 0, 1), row(4L, 5, 0)));
+        index.rebuild();
+        when(bookRepository.findAvailabilityByIdInRaw(anyCollection()))
+                .thenReturn(List.of(row(2L, 0, 1), row(4L, 6, 0)));
+
+        AvailabilityCheckResultDto result = index.check();
+
+        assertEquals(new AvailabilityCheckResultDto(3, 2), result);
+        assertEquals(0, index.getAvailableCopies(2L));
+        assertEquals(1, index.getActiveBorrowers(2L));
+        assertEquals(BookAvailabilityIndex.UNKNOWN, index.getAvailableCopies(3L));
+        assertEquals(BookAvailabilityIndex.UNKNOWN, index.getAvailableCopies(4L));
+        assertEquals(2.0, meterRegistry.counter("library.availability.index.repairs").count());
+    }
+
+    private void borrow(long bookId) {
+        index.onLoansChanged(LoansChangedEvent.of(List.of(new BorrowRequestDto(7L, bookId)), LoanAction.BORROW));
+        index.onInventoryChanged(InventoryChangedEvent.of(bookId, -1));
+    }
+
+    private void giveBack(long bookId) {
+        index.onLoansChanged(LoansChangedEvent.of(List.of(new BorrowRequestDto(7L, bookId)), LoanAction.RETURN));
+        index.onInventoryChanged(InventoryChangedEvent.of(bookId, 1));
+    }
+
+    private void load(Object[]... rows) {
+        ReflectionTestUtils.setField(index, "chunkSize", 10);
+        when(bookRepository.findAvailabilityAfterRaw(anyLong(), any(Pageable.class))).thenReturn(Arrays.asList(rows));
+        index.rebuild();
+    }
+
+    private static Object[] row(long id, int amount, int borrowers) {
+        return new Object[] {id, amount, borrowers};
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.nerdysoft.service.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.example.nerdysoft.input.web.InventoryController;
+import org.example.nerdysoft.output.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class InventoryStreamTest {
+
+    private static final long WAIT_MILLIS = 5_000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private InventoryStream inventoryStream;
+
+    @AfterEach
+    void tearDown() {
+        inventoryStream.close();
+    }
+
+    @Test
+    void onInventoryChanged_SendsOnlyDeltasOfFollowedBooks() throws Exception {
+        MockMvc mockMvc = mockMvc(10);
+        MvcResult result = mockMvc.perform(get("/api/books/v1/inventory/stream").param("bookIds", "1,3"))
+                .andReturn();
+
+        inventoryStream.onInventoryChanged(new InventoryChangedEvent(Map.of(1L, -1, 2L, 4)));
+        inventoryStream.onInventoryChanged(InventoryChangedEvent.of(2L, -1));
+        inventoryStream.onInventoryChanged(InventoryChangedEvent.of(3L, 2));
+
+        String body = awaitContent(result, "data:{\"3\":2}");
+        assertTrue(body.contains("event:inventory\ndata:{\"1\":-1}"));
+        assertFalse(body.contains("\"2\""));
+        assertEquals(1, meterRegistry.get("library.inventory.subscribers").gauge().value());
+    }
+
+    @Test
+    void subscribe_RejectsSubscribersAboveTheLimit() throws Exception {
+        MockMvc mockMvc = mockMvc(1);
+        mockMvc.perform(get("/api/books/v1/inventory/stream"));
+
+        mockMvc.perform(get("/api/books/v1/inventory/stream"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        assertEquals(1, meterRegistry.get("library.inventory.subscribers").gauge().value());
+    }
+
+    private MockMvc mockMvc(int maxSubscribers) {
+        inventoryStream = new InventoryStream(new ObjectMapper(), meterRegistry, 16, maxSubscribers,
+                Duration.ofMinutes(1));
+        return MockMvcBuilders.standaloneSetup(new InventoryController(inventoryStream))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        String body = result.getResponse().getContentAsString();
+        while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            body = result.getResponse().getContentAsString();
+        }
+        return body;
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.nerdysoft.service.overdue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Sweeps overdue loans against PostgreSQL with the Liquibase schema and reads the plans of the sweep's queries
+ * from the server log, where {@code auto_explain} writes them, to check that the {@code due_at} index scan starts
+ * at the watermark. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.liquibase.enabled=true",
+        "library.loans.overdue-sweep.interval=PT1H",
+        "library.loan-events.relay-interval=PT1H"
+})
+class OverdueLoanSweeperPostgreSqlTest {
+
+    private static final int LONG_OVERDUE = 2000;
+    private static final String DUE_AT_INDEX_SCAN = "Index Scan using idx_member_books_due_at";
+    private static final String OVERDUE_TITLES = "Overdue Book %";
+
+    @Container
+    @ServiceConnection
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withCommand("postgres", "-c", "fsync=off",
+                    "-c", "shared_preload_libraries=auto_explain",
+                    "-c", "auto_explain.log_min_duration=0",
+                    "-c", "auto_explain.log_analyze=on",
+                    "-c", "enable_seqscan=off");
+
+    @Autowired
+    private OverdueLoanSweeper overdueLoanSweeper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM member_books WHERE book_id IN (SELECT id FROM books WHERE title LIKE ?)",
+                OVERDUE_TITLES);
+        jdbcTemplate.update("DELETE FROM books WHERE title LIKE ?", OVERDUE_TITLES);
+        jdbcTemplate.update("DELETE FROM members WHERE name = 'Overdue Member'");
+    }
+
+    @Test
+    void sweep_DoesNotReadLoansBelowTheWatermark() throws InterruptedException {
+        Instant watermark = overdueLoanSweeper.getWatermark().dueAt();
+        Long memberId = jdbcTemplate.queryForObject(
+                "INSERT INTO members (name) VALUES ('Overdue Member') RETURNING id", Long.class);
+        jdbcTemplate.update("INSERT INTO books (title, author, amount)"
+                + " SELECT 'Overdue Book ' || n, 'Jane Austen', 1 FROM generate_series(1, ?) n", LONG_OVERDUE + 2);
+        jdbcTemplate.update("INSERT INTO member_books (member_id, book_id, borrowed_at, due_at)"
+                + " SELECT ?, id, TIMESTAMPTZ '2020-01-01Z', TIMESTAMPTZ '2020-01-01Z' + id * INTERVAL '1 minute'"
+                + " FROM books WHERE title LIKE ?", memberId, OVERDUE_TITLES);
+        jdbcTemplate.update("UPDATE member_books SET due_at = ? WHERE book_id IN"
+                        + " (SELECT id FROM books WHERE title IN ('Overdue Book 1', 'Overdue Book 2'))",
+                Timestamp.from(watermark.plusMillis(1)));
+        int logged = POSTGRES.getLogs().length();
+
+        assertEquals(2, overdueLoanSweeper.sweep());
+
+        awaitDueAtIndexScans(logged).forEach(plan -> assertFalse(plan.contains("Rows Removed by Filter"),
+                () -> "The sweep read loans below the watermark:\n" + plan));
+    }
+
+    private static List<String> awaitDueAtIndexScans(int logged) throws InterruptedException {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            String log = POSTGRES.getLogs().substring(logged);
+            if (log.contains(DUE_AT_INDEX_SCAN)) {
+                return Arrays.stream(log.split("\n(?=\\S)"))
+                        .filter(entry -> entry.contains(DUE_AT_INDEX_SCAN))
+                        .toList();
+            }
+            Thread.sleep(100);
+        }
+        return fail("No plan of the sweep was logged");
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.nerdysoft.service.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.example.nerdysoft.output.persistent.BookRepository;
+import org.example.nerdysoft.service.concurrency.CommitFence;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BorrowStatisticsTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    private CommitFence commitFence;
+    private BorrowStatistics borrowStatistics;
+
+    @BeforeEach
+    void setUp() {
+        commitFence = new CommitFence(Duration.ofMillis(50));
+        borrowStatistics = new BorrowStatistics(bookRepository, commitFence);
+    }
+
+    @Test
+    void onBorrowCountChanged_UpdatesCountsAndDropsReturnedTitles() {
+        borrowStatistics.onBorrowCountChanged(new BorrowCountChangedEvent(Map.of("Dune", 2, "Emma", 1)));
+        borrowStatistics.onBorrowCountChanged(BorrowCountChangedEvent.of("Emma", -1));
+
+        assertEquals(Map.of("Dune", 2L), borrowStatistics.getBorrowCounts());
+        assertEquals(Set.of("Dune"), borrowStatistics.getBorrowedTitles());
+    }
+
+    @Test
+    void rebuild_ReplacesCountsWithStoredLoans() {
+        Object[] row = {"Emma", 3L};
+        when(bookRepository.findDistinctBorrowedBookNamesWithAmountRaw()).thenReturn(List.<Object[]>of(row));
+        borrowStatistics.onBorrowCountChanged(BorrowCountChangedEvent.of("Dune", 1));
+
+        Map<String, Long> counts = borrowStatistics.rebuild();
+
+        assertEquals(Map.of("Emma", 3L), counts);
+        assertThrows(UnsupportedOperationException.class, () -> counts.put("Dune", 1L));
+    }
+
+    @Test
+    void rebuild_WaitsForACommitInProgressAndCountsItOnce() throws Exception {
+        Object[] emma = {"Emma", 3L};
+        when(bookRepository.findDistinctBorrowedBookNamesWithAmountRaw()).thenReturn(List.<Object[]>of(emma));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        long commit = commitFence.enter();
+
+        Future<Map<String, Long>> rebuild = executor.submit(borrowStatistics::rebuild);
+        assertThrows(TimeoutException.class, () -> rebuild.get(200, TimeUnit.MILLISECONDS));
+        verify(bookRepository, never()).findDistinctBorrowedBookNamesWithAmountRaw();
+        borrowStatistics.onBorrowCountChanged(BorrowCountChangedEvent.of("Emma", 1));
+        commitFence.exit(commit);
+        Map<String, Long> counts = rebuild.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertEquals(Map.of("Emma", 3L), counts);
+    }
+
+    @Test
+    void rebuild_ReplaysLoansCommittedBetweenTheReadAndTheSwap() throws Exception {
+        CountDownLatch applied = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?>[] listener = new Future<?>[1];
+        when(bookRepository.findDistinctBorrowedBookNamesWithAmountRaw()).thenAnswer(invocation -> {
+            listener[0] = executor.submit(() -> {
+                long commit = commitFence.enter();
+                try {
+                    borrowStatistics.onBorrowCountChanged(
+                            new BorrowCountChangedEvent(Map.of("Emma", 1, "Dune", 1)));
+                } finally {
+                    commitFence.exit(commit);
+                }
+                applied.countDown();
+            });
+            return List.<Object[]>of(new Object[] {"Emma", countOnceApplied(3L, applied)});
+        });
+
+        borrowStatistics.rebuild();
+        listener[0].get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertEquals(Map.of("Emma", 4L, "Dune", 1L), borrowStatistics.getBorrowCounts());
+    }
+
+    /**
+     * The rows are only converted once the fence has reopened, so a count that waits for the listener holds
+     * the rebuild between its read and the swap while the listener applies a later commit.
+     */
+    private static Number countOnceApplied(long count, CountDownLatch applied) {
+        return new Number() {
+
+            @Override
+            public long longValue() {
+                try {
+                    applied.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return count;
+            }
+
+            @Override
+            public int intValue() {
+                return (int) longValue();
+            }
+
+            @Override
+            public float floatValue() {
+                return longValue();
+            }
+
+            @Override
+            public double doubleValue() {
+                return longValue();
+            }
+        };
+    }
+}
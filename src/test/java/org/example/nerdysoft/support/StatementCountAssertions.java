@@ -0,0 +1,31 @@
+package org.example.nerdysoft.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.example.nerdysoft.service.metrics.StatementCounter;
+
+/**
+ * Assertions on the number of SQL statements Hibernate runs for an action on the current thread.
+ */
+public final class StatementCountAssertions {
+
+    private StatementCountAssertions() {
+    }
+
+    /**
+     * Runs the action and asserts that it prepared exactly the expected number of statements.
+     *
+     * @param statementCounter the statement counter registered with Hibernate.
+     * @param expected the expected number of statements.
+     * @param action the action to run.
+     */
+    public static void assertStatementCount(StatementCounter statementCounter, int expected, Runnable action) {
+        statementCounter.reset();
+        try {
+            action.run();
+            assertEquals(expected, statementCounter.count(), "Unexpected number of SQL statements");
+        } finally {
+            statementCounter.clear();
+        }
+    }
+}